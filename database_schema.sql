@@ -63,7 +63,8 @@ CREATE TABLE quiz_attempts (
     INDEX idx_user_id (user_id),
     INDEX idx_quiz_id (quiz_id),
     INDEX idx_date_taken (date_taken),
-    INDEX idx_score (score)
+    INDEX idx_score (score),
+    INDEX idx_user_quiz (user_id, quiz_id)
 );
 
 -- Friendships table
@@ -79,7 +80,54 @@ CREATE TABLE friendships (
     UNIQUE KEY unique_friendship (requester_id, receiver_id),
     INDEX idx_requester_id (requester_id),
     INDEX idx_receiver_id (receiver_id),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_receiver_status (receiver_id, status, date_requested)
+);
+
+-- Friendship edges (one row per direction of each friendship, kept in step by FriendshipDAO)
+-- Lets "all friendships of a user" be one range scan instead of an OR over requester_id and receiver_id.
+-- Existing databases: create this table, then FriendshipDAO.migrateEdges backfills it at startup.
+CREATE TABLE friend_edges (
+    user_id INT NOT NULL,
+    friend_id INT NOT NULL,
+    friendship_id INT NOT NULL,
+    status ENUM('pending', 'accepted', 'declined', 'blocked') NOT NULL,
+    date_accepted TIMESTAMP NULL,
+    PRIMARY KEY (user_id, friend_id),
+    FOREIGN KEY (friendship_id) REFERENCES friendships(id) ON DELETE CASCADE,
+    INDEX idx_user_status_accepted (user_id, status, date_accepted, friendship_id),
+    INDEX idx_friendship_id (friendship_id)
+);
+
+-- Conversations (one per pair of users, stored with the lower user ID first)
+-- last_message_id and last_activity are copied from messages and kept in step by ConversationDAO.
+-- Existing databases: create this table and conversation_participants, add messages.conversation_id and its
+-- index, then ConversationDAO.migrate backfills them at startup.
+CREATE TABLE conversations (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    user_low_id INT NOT NULL,
+    user_high_id INT NOT NULL,
+    last_message_id INT NULL,
+    last_activity TIMESTAMP NULL,
+    FOREIGN KEY (user_low_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (user_high_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_user_pair (user_low_id, user_high_id),
+    INDEX idx_user_high (user_high_id)
+);
+
+-- Conversation participants (one row per user of each conversation, with that user's unread count)
+-- Lets a user's conversations be listed by last activity with one range scan.
+CREATE TABLE conversation_participants (
+    user_id INT NOT NULL,
+    conversation_id INT NOT NULL,
+    other_user_id INT NOT NULL,
+    unread_count INT NOT NULL DEFAULT 0,
+    last_activity TIMESTAMP NULL,
+    PRIMARY KEY (user_id, conversation_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE,
+    INDEX idx_user_activity (user_id, last_activity, conversation_id),
+    INDEX idx_conversation_id (conversation_id)
 );
 
 -- Messages table
@@ -90,15 +138,20 @@ CREATE TABLE messages (
     message_type ENUM('friend_request', 'challenge', 'note') NOT NULL,
     content TEXT NOT NULL,
     quiz_id INT NULL, -- Only for challenge messages
+    conversation_id INT NULL, -- Assigned on insert; NULL only until the startup backfill has run
     date_sent TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     is_read BOOLEAN DEFAULT FALSE,
     FOREIGN KEY (sender_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (receiver_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE SET NULL,
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE SET NULL,
     INDEX idx_receiver_id (receiver_id),
     INDEX idx_sender_id (sender_id),
     INDEX idx_date_sent (date_sent),
-    INDEX idx_is_read (is_read)
+    INDEX idx_is_read (is_read),
+    INDEX idx_receiver_unread (receiver_id, is_read, message_type, date_sent),
+    INDEX idx_receiver_date (receiver_id, date_sent, id), -- Inbox pages, newest first
+    INDEX idx_conversation_date (conversation_id, date_sent, id) -- Conversation history, keyset paged
 );
 
 -- Achievements table
@@ -130,6 +183,50 @@ CREATE TABLE announcements (
     INDEX idx_created_by (created_by)
 );
 
+-- Quiz popularity table (periodic snapshot of exponentially decayed attempt scores)
+CREATE TABLE quiz_popularity (
+    quiz_id INT PRIMARY KEY,
+    popular_score DOUBLE NOT NULL DEFAULT 0,
+    trending_score DOUBLE NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
+);
+
+-- Item-to-item quiz recommendations (top-k co-attempted quizzes, rebuilt by a periodic batch job)
+CREATE TABLE quiz_recommendations (
+    quiz_id INT NOT NULL,
+    rank_pos SMALLINT NOT NULL,
+    similar_quiz_id INT NOT NULL,
+    score FLOAT NOT NULL,
+    PRIMARY KEY (quiz_id, rank_pos),
+    FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE,
+    FOREIGN KEY (similar_quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE
+);
+
+-- User statistics rollup (maintained incrementally by the attempt and quiz-creation paths)
+CREATE TABLE user_stats (
+    user_id INT PRIMARY KEY,
+    attempts INT NOT NULL DEFAULT 0,
+    graded_attempts INT NOT NULL DEFAULT 0,
+    score_sum DOUBLE NOT NULL DEFAULT 0,
+    current_streak INT NOT NULL DEFAULT 0,
+    best_streak INT NOT NULL DEFAULT 0,
+    quizzes_created INT NOT NULL DEFAULT 0,
+    last_active TIMESTAMP NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Inbox counters (unread badge data, maintained by the message write paths)
+CREATE TABLE inbox_counters (
+    user_id INT PRIMARY KEY,
+    unread_notes INT NOT NULL DEFAULT 0,
+    unread_challenges INT NOT NULL DEFAULT 0,
+    unread_friend_requests INT NOT NULL DEFAULT 0,
+    latest_unread_type ENUM('friend_request', 'challenge', 'note') NULL,
+    latest_unread_at TIMESTAMP NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
 -- Insert sample admin user
 -- Password: shasum gives d033e22ae348aeb5660fc2140aec35850c4da997
 INSERT INTO users (username, password_hash, email, is_admin) VALUES
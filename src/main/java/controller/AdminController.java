@@ -1,12 +1,16 @@
 package controller;
 
 import dao.UserDAO;
+import dao.UserLookup;
 import dao.QuizDAO;
 import dao.QuizAttemptDAO;
 import dao.AnnouncementDAO;
 import dao.QuestionDAO;
 import model.User;
 import model.Announcement;
+import model.Question;
+import model.QuestionSimilarity;
+import service.DuplicateQuestionIndex;
 import util.PasswordHasher;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
@@ -20,12 +24,16 @@ import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @WebServlet(urlPatterns = {
     "/admin", "/admin/login", "/admin/dashboard", "/admin/logout",
     "/admin/announcements", "/admin/announcements/create", "/admin/announcements/delete",
     "/admin/users", "/admin/users/delete", "/admin/users/promote",
     "/admin/quizzes", "/admin/quizzes/delete",
+    "/admin/questions/duplicates",
     "/admin/cleanup"
 })
 public class AdminController extends HttpServlet {
@@ -34,6 +42,11 @@ public class AdminController extends HttpServlet {
     private QuizAttemptDAO quizAttemptDAO;
     private AnnouncementDAO announcementDAO;
     private QuestionDAO questionDAO;
+    private DuplicateQuestionIndex duplicateQuestionIndex;
+
+    // Default similarity threshold and page size for the duplicate question report
+    private static final double DEFAULT_MIN_SIMILARITY = 0.6;
+    private static final int MAX_DUPLICATE_PAIRS = 100;
 
     @Override
     public void init() throws ServletException {
@@ -43,6 +56,7 @@ public class AdminController extends HttpServlet {
             quizDAO = (QuizDAO) getServletContext().getAttribute("quizDAO");
             quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
             questionDAO = (QuestionDAO) getServletContext().getAttribute("questionDAO");
+            duplicateQuestionIndex = (DuplicateQuestionIndex) getServletContext().getAttribute("duplicateQuestionIndex");
             
             // Create AnnouncementDAO if not already in context
             announcementDAO = (AnnouncementDAO) getServletContext().getAttribute("announcementDAO");
@@ -114,6 +128,13 @@ public class AdminController extends HttpServlet {
                     resp.sendRedirect(req.getContextPath() + "/admin/login");
                 }
                 break;
+            case "/admin/questions/duplicates":
+                if (isAdminLoggedIn(req)) {
+                    handleDuplicateQuestions(req, resp);
+                } else {
+                    resp.sendRedirect(req.getContextPath() + "/admin/login");
+                }
+                break;
             case "/admin/cleanup":
                 if (isAdminLoggedIn(req)) {
                     handleCleanupPage(req, resp);
@@ -296,11 +317,19 @@ public class AdminController extends HttpServlet {
             Map<Integer, Integer> questionCounts = new HashMap<>();
             Map<Integer, Integer> attemptCounts = new HashMap<>();
             
+            // Resolve every creator in one batched lookup
+            List<Integer> creatorIds = new ArrayList<>();
+            for (model.Quiz quiz : quizzes) {
+                creatorIds.add(quiz.getCreatorId());
+            }
+            UserLookup creators = new UserLookup(userDAO);
+            creators.loadUsernames(creatorIds);
+            
             // Fetch additional data for each quiz
             for (model.Quiz quiz : quizzes) {
                 // Get creator username
-                User creator = userDAO.findById(quiz.getCreatorId());
-                creatorNames.put(quiz.getQuizId(), creator != null ? creator.getUsername() : "Unknown");
+                String creatorName = creators.getUsername(quiz.getCreatorId());
+                creatorNames.put(quiz.getQuizId(), creatorName != null ? creatorName : "Unknown");
                 
                 // Get question count
                 int questionCount = questionDAO.getQuestionCountByQuiz(quiz.getQuizId());
@@ -321,6 +350,63 @@ public class AdminController extends HttpServlet {
         }
     }
 
+    /**
+     * Handle near-duplicate question report
+     * Without a questionId all similar pairs are listed; with one, only the questions similar to it.
+     */
+    private void handleDuplicateQuestions(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        if (duplicateQuestionIndex == null) {
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Duplicate question index is not available");
+            return;
+        }
+        double minSimilarity = DEFAULT_MIN_SIMILARITY;
+        Integer questionId = null;
+        try {
+            if (req.getParameter("min") != null) {
+                minSimilarity = Math.max(0.1, Math.min(1.0, Integer.parseInt(req.getParameter("min")) / 100.0));
+            }
+            if (req.getParameter("questionId") != null) {
+                questionId = Integer.parseInt(req.getParameter("questionId"));
+            }
+        } catch (NumberFormatException e) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid parameter");
+            return;
+        }
+
+        try {
+            List<QuestionSimilarity> pairs = questionId != null
+                    ? duplicateQuestionIndex.findSimilar(questionId, minSimilarity, MAX_DUPLICATE_PAIRS)
+                    : duplicateQuestionIndex.findDuplicatePairs(minSimilarity, MAX_DUPLICATE_PAIRS);
+
+            // Load every question and quiz on the page with one query each
+            Set<Integer> questionIds = new LinkedHashSet<>();
+            for (QuestionSimilarity pair : pairs) {
+                questionIds.add(pair.getQuestionId());
+                questionIds.add(pair.getSimilarQuestionId());
+            }
+            Map<Integer, Question> questions = new HashMap<>();
+            Set<Integer> quizIds = new LinkedHashSet<>();
+            for (Question question : questionDAO.getQuestionsByIds(new ArrayList<>(questionIds))) {
+                questions.put(question.getQuestionId(), question);
+                quizIds.add(question.getQuizId());
+            }
+            Map<Integer, String> quizTitles = new HashMap<>();
+            for (model.Quiz quiz : quizDAO.getQuizzesByIds(new ArrayList<>(quizIds))) {
+                quizTitles.put(quiz.getQuizId(), quiz.getTitle());
+            }
+
+            req.setAttribute("pairs", pairs);
+            req.setAttribute("questions", questions);
+            req.setAttribute("quizTitles", quizTitles);
+            req.setAttribute("minSimilarity", (int) Math.round(minSimilarity * 100));
+            req.setAttribute("questionId", questionId);
+            req.setAttribute("indexedCount", duplicateQuestionIndex.size());
+            req.getRequestDispatcher("/jsp/admin/duplicateQuestions.jsp").forward(req, resp);
+        } catch (SQLException e) {
+            throw new ServletException("Database error while loading duplicate questions", e);
+        }
+    }
+
     /**
      * Check if admin is logged in
      */
@@ -0,0 +1,631 @@
+package controller;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import dao.ConversationDAO;
+import dao.MessageDAO;
+import dao.QuestionDAO;
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import dto.ConversationDTO;
+import dto.DtoJsonWriter;
+import dto.MessageDTO;
+import dto.QuestionDTO;
+import dto.QuizAttemptDTO;
+import dto.QuizDTO;
+import dto.UserDTO;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import model.Conversation;
+import model.LeaderboardEntry;
+import model.Message;
+import model.Question;
+import model.Quiz;
+import model.QuizAttempt;
+import model.User;
+import service.LeaderboardService;
+import service.PercentileService;
+import service.QuizCatalog;
+import service.QuizGrader;
+import service.QuizSearchIndex;
+import service.UsernameIndex;
+import util.RequestParams;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JSON API for lightweight clients
+ * GET  /api/v1/quizzes                       catalog page, same filters as /quizzes, or ?q= for search
+ * GET  /api/v1/quizzes/{id}                  one quiz
+ * GET  /api/v1/quizzes/{id}/questions        questions without answers; starts the clock for an attempt
+ * POST /api/v1/quizzes/{id}/attempts         grade {"answers": {"<questionId>": "..."}, "practice": false};
+ *                                            409 unless the questions were fetched first in the same session
+ * GET  /api/v1/quizzes/{id}/leaderboard      ranked window, same parameters as /api/leaderboard
+ * GET  /api/v1/leaderboard                   best score per user and quiz
+ * GET  /api/v1/inbox                         the signed-in user's received messages, ?page=
+ * GET  /api/v1/conversations                 the signed-in user's conversations, most recent first, ?before=
+ * GET  /api/v1/conversations/{id}/messages   one conversation's history, newest first, ?before=
+ * POST /api/v1/conversations/{id}/read       mark the conversation read for the signed-in user
+ * Conversation lists and histories are keyset-paginated: "next" is an opaque cursor to pass back as ?before=.
+ * Responses are the DTO records written by DtoJsonWriter straight to the response writer, so nothing is
+ * buffered as a tree. Other users are exposed by ID and username only.
+ */
+@WebServlet(urlPatterns = {"/api/v1/*"})
+public class ApiController extends HttpServlet {
+    static final int CATALOG_PAGE_SIZE = 20;
+    static final int SEARCH_LIMIT = 50;
+    static final int INBOX_PAGE_SIZE = 50;
+    static final int CONVERSATION_PAGE_SIZE = 20;
+    static final int HISTORY_PAGE_SIZE = 50;
+    // Session attribute prefix recording when a client fetched a quiz's questions
+    private static final String START_ATTRIBUTE = "apiQuizStart:";
+
+    private QuizDAO quizDAO;
+    private QuestionDAO questionDAO;
+    private QuizAttemptDAO quizAttemptDAO;
+    private MessageDAO messageDAO;
+    private ConversationDAO conversationDAO;
+    private QuizCatalog quizCatalog;
+    private QuizSearchIndex searchIndex;
+    private LeaderboardService leaderboardService;
+    private PercentileService percentileService;
+    private QuizGrader quizGrader;
+    private UsernameIndex usernameIndex;
+
+    @Override
+    public void init() throws ServletException {
+        quizDAO = (QuizDAO) getServletContext().getAttribute("quizDAO");
+        questionDAO = (QuestionDAO) getServletContext().getAttribute("questionDAO");
+        quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
+        messageDAO = (MessageDAO) getServletContext().getAttribute("messageDAO");
+        conversationDAO = (ConversationDAO) getServletContext().getAttribute("conversationDAO");
+        quizCatalog = (QuizCatalog) getServletContext().getAttribute("quizCatalog");
+        searchIndex = (QuizSearchIndex) getServletContext().getAttribute("quizSearchIndex");
+        leaderboardService = (LeaderboardService) getServletContext().getAttribute("leaderboardService");
+        percentileService = (PercentileService) getServletContext().getAttribute("percentileService");
+        quizGrader = (QuizGrader) getServletContext().getAttribute("quizGrader");
+        usernameIndex = (UsernameIndex) getServletContext().getAttribute("usernameIndex");
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        String[] path = splitPath(req.getPathInfo());
+        try {
+            if (path.length == 1 && "quizzes".equals(path[0])) {
+                handleQuizzes(req, resp);
+            } else if (path.length == 1 && "leaderboard".equals(path[0])) {
+                handleOverallLeaderboard(resp);
+            } else if (path.length == 1 && "inbox".equals(path[0])) {
+                handleInbox(req, resp);
+            } else if (path.length == 1 && "conversations".equals(path[0])) {
+                handleConversations(req, resp);
+            } else if (path.length == 3 && "conversations".equals(path[0]) && "messages".equals(path[2])
+                    && RequestParams.parseInt(path[1]) != null) {
+                handleConversationMessages(req, resp, RequestParams.parseInt(path[1]));
+            } else if (path.length >= 2 && path.length <= 3 && "quizzes".equals(path[0])) {
+                Integer quizId = RequestParams.parseInt(path[1]);
+                String sub = path.length == 3 ? path[2] : "";
+                if (quizId == null) {
+                    sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Quiz not found");
+                } else if (sub.isEmpty()) {
+                    handleQuiz(resp, quizId);
+                } else if ("questions".equals(sub)) {
+                    handleQuestions(req, resp, quizId);
+                } else if ("leaderboard".equals(sub)) {
+                    handleQuizLeaderboard(req, resp, quizId);
+                } else {
+                    sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown endpoint");
+                }
+            } else {
+                sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown endpoint");
+            }
+        } catch (SQLException e) {
+            throw new ServletException(e);
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        String[] path = splitPath(req.getPathInfo());
+        try {
+            if (path.length == 3 && "quizzes".equals(path[0]) && "attempts".equals(path[2]) && RequestParams.parseInt(path[1]) != null) {
+                handleSubmitAttempt(req, resp, RequestParams.parseInt(path[1]));
+            } else if (path.length == 3 && "conversations".equals(path[0]) && "read".equals(path[2])
+                    && RequestParams.parseInt(path[1]) != null) {
+                handleConversationRead(req, resp, RequestParams.parseInt(path[1]));
+            } else {
+                sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Unknown endpoint");
+            }
+        } catch (SQLException e) {
+            throw new ServletException(e);
+        }
+    }
+
+    // ========================= CATALOG =========================
+
+    private void handleQuizzes(HttpServletRequest req, HttpServletResponse resp) throws SQLException, IOException {
+        String q = req.getParameter("q");
+        List<Quiz> quizzes;
+        int total;
+        int offset = 0;
+        if (q != null && !q.trim().isEmpty()) {
+            quizzes = searchIndex != null
+                    ? quizDAO.getQuizzesByIds(searchIndex.search(q, SEARCH_LIMIT))
+                    : quizDAO.searchQuizzes(q);
+            total = quizzes.size();
+        } else if (quizCatalog != null) {
+            QuizCatalog.Page page = quizCatalog.query(catalogQuery(req));
+            quizzes = page.getQuizzes();
+            total = page.getTotal();
+            offset = page.getOffset();
+        } else {
+            quizzes = quizDAO.getAllQuizzes();
+            total = quizzes.size();
+        }
+
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("total").value(total);
+        out.name("offset").value(offset);
+        out.name("quizzes").beginArray();
+        for (Quiz quiz : quizzes) {
+            DtoJsonWriter.write(out, toDTO(quiz));
+        }
+        out.endArray();
+        out.endObject();
+        out.flush();
+    }
+
+    // Same parameters as the /quizzes catalog, see QuizController
+    private QuizCatalog.Query catalogQuery(HttpServletRequest req) {
+        QuizCatalog.Query query = new QuizCatalog.Query()
+                .practice(parseFlag(req.getParameter("practice")))
+                .onePage(parseFlag(req.getParameter("onePage")))
+                .immediateCorrection(parseFlag(req.getParameter("immediate")))
+                .allTypes("all".equals(req.getParameter("typeMatch")))
+                .questions(RequestParams.parseInt(req.getParameter("minQuestions")), RequestParams.parseInt(req.getParameter("maxQuestions")));
+        String[] creatorParams = req.getParameterValues("creator");
+        if (creatorParams != null) {
+            for (String creator : creatorParams) {
+                Integer creatorId = RequestParams.parseInt(creator);
+                if (creatorId != null) {
+                    query.creator(creatorId);
+                }
+            }
+        }
+        String[] typeParams = req.getParameterValues("type");
+        if (typeParams != null) {
+            for (String type : typeParams) {
+                query.type(type);
+            }
+        }
+        String sort = req.getParameter("sort");
+        if (sort != null) {
+            query.sort(sort);
+        }
+        Integer pageParam = RequestParams.parseInt(req.getParameter("page"));
+        int page = pageParam == null ? 1 : Math.max(1, pageParam);
+        return query.page((page - 1) * CATALOG_PAGE_SIZE, CATALOG_PAGE_SIZE);
+    }
+
+    private void handleQuiz(HttpServletResponse resp, int quizId) throws SQLException, IOException {
+        Quiz quiz = quizDAO.findById(quizId);
+        if (quiz == null) {
+            sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Quiz not found");
+            return;
+        }
+        JsonWriter out = open(resp);
+        DtoJsonWriter.write(out, toDTO(quiz));
+        out.flush();
+    }
+
+    // ========================= QUIZ TAKING =========================
+
+    private void handleQuestions(HttpServletRequest req, HttpServletResponse resp, int quizId) throws SQLException, IOException {
+        Quiz quiz = quizDAO.findById(quizId);
+        if (quiz == null) {
+            sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Quiz not found");
+            return;
+        }
+        List<Question> questions = quiz.isRandomOrder()
+                ? questionDAO.getQuestionsRandomOrder(quizId)
+                : questionDAO.getQuestionsByQuizId(quizId);
+        // Time taken is measured from here, like the session flow measures it from the first question
+        req.getSession().setAttribute(START_ATTRIBUTE + quizId, System.currentTimeMillis());
+
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("quiz");
+        DtoJsonWriter.write(out, toDTO(quiz));
+        out.name("questions").beginArray();
+        for (Question question : questions) {
+            DtoJsonWriter.write(out, QuestionDTO.fromQuestion(question));
+        }
+        out.endArray();
+        out.endObject();
+        out.flush();
+    }
+
+    /**
+     * Grade a submitted attempt with the shared QuizGrader and save it for the signed-in user
+     * Answers are keyed by question ID, so the order the client showed the questions in does not matter.
+     */
+    private void handleSubmitAttempt(HttpServletRequest req, HttpServletResponse resp, int quizId)
+            throws SQLException, IOException {
+        Quiz quiz = quizDAO.findById(quizId);
+        if (quiz == null) {
+            sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Quiz not found");
+            return;
+        }
+        Map<Integer, String> answers = new HashMap<>();
+        boolean practice = false;
+        try (JsonReader in = new JsonReader(req.getReader())) {
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if ("answers".equals(name)) {
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        Integer questionId = RequestParams.parseInt(in.nextName());
+                        String answer = in.peek() == JsonToken.NULL ? null : in.nextString();
+                        if (answer == null) {
+                            in.skipValue();
+                        } else if (questionId != null) {
+                            answers.put(questionId, answer);
+                        }
+                    }
+                    in.endObject();
+                } else if ("practice".equals(name)) {
+                    practice = in.nextBoolean();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        } catch (IllegalStateException | IOException e) {
+            sendError(resp, HttpServletResponse.SC_BAD_REQUEST, "Malformed attempt");
+            return;
+        }
+
+        // Time taken is only known if the client fetched the questions first; without it the attempt would be
+        // saved as a 0-second run and win every speed tie-break
+        HttpSession session = req.getSession(false);
+        Long startTime = session != null ? (Long) session.getAttribute(START_ATTRIBUTE + quizId) : null;
+        if (startTime == null) {
+            sendError(resp, HttpServletResponse.SC_CONFLICT, "Fetch the quiz's questions before submitting an attempt");
+            return;
+        }
+
+        List<Question> questions = questionDAO.getQuestionsByQuizId(quizId);
+        if (questions.isEmpty()) {
+            sendError(resp, HttpServletResponse.SC_BAD_REQUEST, "Quiz has no questions");
+            return;
+        }
+        List<String> ordered = new ArrayList<>(questions.size());
+        for (Question question : questions) {
+            ordered.add(answers.get(question.getQuestionId()));
+        }
+        int correct = QuizGrader.countCorrect(questions, ordered);
+        double score = QuizGrader.score(correct, questions.size());
+
+        long timeTaken = (System.currentTimeMillis() - startTime) / 1000;
+        session.removeAttribute(START_ATTRIBUTE + quizId);
+        // Rank against earlier graded attempts before this one is counted
+        Integer scorePercentile = percentileService != null ? percentileService.getScorePercentile(quizId, score) : null;
+        Integer timePercentile = percentileService != null ? percentileService.getTimePercentile(quizId, timeTaken) : null;
+
+        User user = (User) session.getAttribute("user");
+        QuizAttempt attempt = null;
+        if (user != null) {
+            attempt = quizGrader.recordAttempt(user.getUserId(), quizId, score, questions.size(), timeTaken, practice);
+        }
+
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("correct").value(correct);
+        out.name("totalQuestions").value(questions.size());
+        out.name("score").value(score);
+        out.name("timeTaken").value(timeTaken);
+        out.name("scorePercentile").value(scorePercentile);
+        out.name("timePercentile").value(timePercentile);
+        out.name("attempt");
+        DtoJsonWriter.write(out, attempt != null ? QuizAttemptDTO.fromQuizAttempt(attempt, toDTO(user), toDTO(quiz)) : null);
+        out.endObject();
+        out.flush();
+    }
+
+    // ========================= LEADERBOARDS =========================
+
+    private void handleOverallLeaderboard(HttpServletResponse resp) throws SQLException, IOException {
+        List<LeaderboardEntry> entries = quizAttemptDAO.getLeaderboardData();
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("entries").beginArray();
+        for (LeaderboardEntry entry : entries) {
+            DtoJsonWriter.write(out, entry);
+        }
+        out.endArray();
+        out.endObject();
+        out.flush();
+    }
+
+    // Same windows as /api/leaderboard, parsed by LeaderboardQuery
+    private void handleQuizLeaderboard(HttpServletRequest req, HttpServletResponse resp, int quizId)
+            throws SQLException, IOException {
+        if (leaderboardService == null) {
+            sendError(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Leaderboards are unavailable");
+            return;
+        }
+        LeaderboardQuery query = LeaderboardQuery.parse(req, quizId, getCurrentUser(req));
+        if (query == null) {
+            sendError(resp, HttpServletResponse.SC_UNAUTHORIZED, "Login required");
+            return;
+        }
+        List<LeaderboardEntry> entries = query.load(leaderboardService);
+
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("quizId").value(quizId);
+        out.name("rankedCount").value(leaderboardService.getRankedCount(quizId));
+        if (query.friendsScope) {
+            out.name("scope").value("friends");
+        }
+        if (query.userId != null) {
+            out.name("userId").value(query.userId);
+            out.name("userRank").value(leaderboardService.getRank(quizId, query.userId));
+        }
+        out.name("entries").beginArray();
+        for (LeaderboardEntry entry : entries) {
+            DtoJsonWriter.write(out, entry);
+        }
+        out.endArray();
+        out.endObject();
+        out.flush();
+    }
+
+    // ========================= INBOX =========================
+
+    private void handleInbox(HttpServletRequest req, HttpServletResponse resp) throws SQLException, IOException {
+        User user = getCurrentUser(req);
+        if (user == null) {
+            sendError(resp, HttpServletResponse.SC_UNAUTHORIZED, "Login required");
+            return;
+        }
+        Integer pageParam = RequestParams.parseInt(req.getParameter("page"));
+        int page = pageParam == null ? 1 : Math.max(1, pageParam);
+        List<Message> messages = messageDAO.getReceivedMessages(user.getUserId(), (page - 1) * INBOX_PAGE_SIZE, INBOX_PAGE_SIZE);
+        Map<Integer, QuizDTO> quizzes = loadQuizzes(messages);
+
+        UserDTO receiver = toDTO(user);
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("page").value(page);
+        out.name("messages").beginArray();
+        for (Message message : messages) {
+            QuizDTO quiz = message.getQuizId() != null ? quizzes.get(message.getQuizId()) : null;
+            DtoJsonWriter.write(out, MessageDTO.fromMessage(message, publicUser(message.getSenderId()), receiver, quiz));
+        }
+        out.endArray();
+        out.endObject();
+        out.flush();
+    }
+
+    // ========================= CONVERSATIONS =========================
+
+    private void handleConversations(HttpServletRequest req, HttpServletResponse resp) throws SQLException, IOException {
+        User user = getCurrentUser(req);
+        if (user == null) {
+            sendError(resp, HttpServletResponse.SC_UNAUTHORIZED, "Login required");
+            return;
+        }
+        long[] cursor = parseCursor(req.getParameter("before"));
+        Date before = cursor != null ? new Date(cursor[0]) : null;
+        int beforeId = cursor != null ? (int) cursor[1] : 0;
+        // One extra row tells whether another page exists
+        List<Conversation> conversations = conversationDAO.getConversations(user.getUserId(), before, beforeId,
+                CONVERSATION_PAGE_SIZE + 1);
+        String next = null;
+        if (conversations.size() > CONVERSATION_PAGE_SIZE) {
+            conversations = conversations.subList(0, CONVERSATION_PAGE_SIZE);
+            Conversation last = conversations.get(CONVERSATION_PAGE_SIZE - 1);
+            next = formatCursor(last.getLastActivity(), last.getConversationId());
+        }
+
+        List<Message> lastMessages = new ArrayList<>();
+        for (Conversation conversation : conversations) {
+            if (conversation.getLastMessage() != null) {
+                lastMessages.add(conversation.getLastMessage());
+            }
+        }
+        Map<Integer, QuizDTO> quizzes = loadQuizzes(lastMessages);
+
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("conversations").beginArray();
+        for (Conversation conversation : conversations) {
+            Message message = conversation.getLastMessage();
+            MessageDTO lastMessage = message != null ? toDTO(message, quizzes) : null;
+            DtoJsonWriter.write(out, new ConversationDTO(conversation.getConversationId(),
+                    publicUser(conversation.getOtherUserId()), lastMessage,
+                    conversation.getUnreadCount(), conversation.getLastActivity()));
+        }
+        out.endArray();
+        out.name("next").value(next);
+        out.endObject();
+        out.flush();
+    }
+
+    private void handleConversationMessages(HttpServletRequest req, HttpServletResponse resp, int conversationId)
+            throws SQLException, IOException {
+        User user = getCurrentUser(req);
+        if (user == null) {
+            sendError(resp, HttpServletResponse.SC_UNAUTHORIZED, "Login required");
+            return;
+        }
+        // Only participants may read a conversation; others see it as missing
+        if (conversationDAO.findConversation(conversationId, user.getUserId()) == null) {
+            sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Conversation not found");
+            return;
+        }
+        long[] cursor = parseCursor(req.getParameter("before"));
+        Date before = cursor != null ? new Date(cursor[0]) : null;
+        int beforeId = cursor != null ? (int) cursor[1] : 0;
+        List<Message> messages = messageDAO.getConversationPage(conversationId, before, beforeId, HISTORY_PAGE_SIZE + 1);
+        String next = null;
+        if (messages.size() > HISTORY_PAGE_SIZE) {
+            messages = messages.subList(0, HISTORY_PAGE_SIZE);
+            Message last = messages.get(HISTORY_PAGE_SIZE - 1);
+            next = formatCursor(last.getDateSent(), last.getMessageId());
+        }
+        Map<Integer, QuizDTO> quizzes = loadQuizzes(messages);
+
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("conversationId").value(conversationId);
+        out.name("messages").beginArray();
+        for (Message message : messages) {
+            DtoJsonWriter.write(out, toDTO(message, quizzes));
+        }
+        out.endArray();
+        out.name("next").value(next);
+        out.endObject();
+        out.flush();
+    }
+
+    private void handleConversationRead(HttpServletRequest req, HttpServletResponse resp, int conversationId)
+            throws SQLException, IOException {
+        User user = getCurrentUser(req);
+        if (user == null) {
+            sendError(resp, HttpServletResponse.SC_UNAUTHORIZED, "Login required");
+            return;
+        }
+        if (conversationDAO.findConversation(conversationId, user.getUserId()) == null) {
+            sendError(resp, HttpServletResponse.SC_NOT_FOUND, "Conversation not found");
+            return;
+        }
+        int updated = messageDAO.markConversationRead(conversationId, user.getUserId());
+
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("conversationId").value(conversationId);
+        out.name("markedRead").value(updated);
+        out.endObject();
+        out.flush();
+    }
+
+    // "<epoch millis>_<id>" of the last row of a page
+    static String formatCursor(Date date, int id) {
+        return date == null ? null : date.getTime() + "_" + id;
+    }
+
+    // Parsed {millis, id}, or null for the first page or a malformed cursor
+    static long[] parseCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        int separator = cursor.indexOf('_');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            return new long[] {Long.parseLong(cursor.substring(0, separator)),
+                    Integer.parseInt(cursor.substring(separator + 1))};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // ========================= HELPERS =========================
+
+    // Challenge quizzes of a page of messages, loaded in one query rather than one per message
+    private Map<Integer, QuizDTO> loadQuizzes(List<Message> messages) throws SQLException {
+        Set<Integer> quizIds = new HashSet<>();
+        for (Message message : messages) {
+            if (message.getQuizId() != null) {
+                quizIds.add(message.getQuizId());
+            }
+        }
+        Map<Integer, QuizDTO> quizzes = new HashMap<>();
+        if (!quizIds.isEmpty()) {
+            for (Quiz quiz : quizDAO.getQuizzesByIds(new ArrayList<>(quizIds))) {
+                quizzes.put(quiz.getQuizId(), toDTO(quiz));
+            }
+        }
+        return quizzes;
+    }
+
+    private MessageDTO toDTO(Message message, Map<Integer, QuizDTO> quizzes) {
+        QuizDTO quiz = message.getQuizId() != null ? quizzes.get(message.getQuizId()) : null;
+        return MessageDTO.fromMessage(message, publicUser(message.getSenderId()), publicUser(message.getReceiverId()), quiz);
+    }
+
+
+    private QuizDTO toDTO(Quiz quiz) {
+        return QuizDTO.fromQuiz(quiz, publicUser(quiz.getCreatorId()));
+    }
+
+    // The signed-in user's own DTO, without the password hash and with their email
+    private static UserDTO toDTO(User user) {
+        return UserDTO.fromUser(user);
+    }
+
+    // Another user as the API exposes them: ID and username, named from the in-memory index
+    private UserDTO publicUser(int userId) {
+        String username = usernameIndex != null ? usernameIndex.getUsername(userId) : null;
+        return new UserDTO(userId, username, null, null, false);
+    }
+
+    private static JsonWriter open(HttpServletResponse resp) throws IOException {
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        JsonWriter out = new JsonWriter(resp.getWriter());
+        out.setSerializeNulls(false);
+        return out;
+    }
+
+    private static void sendError(HttpServletResponse resp, int status, String message) throws IOException {
+        resp.setStatus(status);
+        JsonWriter out = open(resp);
+        out.beginObject();
+        out.name("error").value(message);
+        out.endObject();
+        out.flush();
+    }
+
+    private static User getCurrentUser(HttpServletRequest req) {
+        HttpSession session = req.getSession(false);
+        return session != null ? (User) session.getAttribute("user") : null;
+    }
+
+    // "/quizzes/7/questions" -> ["quizzes", "7", "questions"]
+    static String[] splitPath(String pathInfo) {
+        if (pathInfo == null) {
+            return new String[0];
+        }
+        String trimmed = pathInfo.replaceAll("^/+|/+$", "");
+        return trimmed.isEmpty() ? new String[0] : trimmed.split("/+");
+    }
+
+    private static Boolean parseFlag(String value) {
+        if ("yes".equals(value)) {
+            return Boolean.TRUE;
+        }
+        if ("no".equals(value)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+}
@@ -2,11 +2,13 @@ package controller;
 
 import dao.FriendshipDAO;
 import dao.UserDAO;
+import dao.UserLookup;
 import dao.MessageDAO;
 import dao.AchievementDAO;
 import model.Friendship;
 import model.User;
 import model.Achievement;
+import service.FriendSuggestionService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -19,11 +21,14 @@ import java.util.List;
 
 @WebServlet(urlPatterns = {"/friends", "/friends/request", "/friends/accept", "/friends/decline", "/friends/remove"})
 public class FriendshipController extends HttpServlet {
+    // "People you may know" entries on the friends page
+    private static final int SUGGESTIONS_SHOWN = 5;
     
     private FriendshipDAO friendshipDAO;
     private UserDAO userDAO;
     private MessageDAO messageDAO;
     private AchievementDAO achievementDAO;
+    private FriendSuggestionService friendSuggestionService;
     
     @Override
     public void init() throws ServletException {
@@ -32,6 +37,7 @@ public class FriendshipController extends HttpServlet {
             userDAO = (UserDAO) getServletContext().getAttribute("userDAO");
             messageDAO = (MessageDAO) getServletContext().getAttribute("messageDAO");
             achievementDAO = (AchievementDAO) getServletContext().getAttribute("achievementDAO");
+            friendSuggestionService = (FriendSuggestionService) getServletContext().getAttribute("friendSuggestionService");
         } catch (Exception e) {
             throw new ServletException("Database connection error", e);
         }
@@ -96,9 +102,6 @@ public class FriendshipController extends HttpServlet {
         List<Friendship> friends = friendshipDAO.getFriends(user.getUserId());
         List<Friendship> pendingRequests = friendshipDAO.getPendingFriendRequests(user.getUserId());
         
-        // Create maps for usernames to display in JSP
-        java.util.Map<Integer, String> usernames = new java.util.HashMap<>();
-        
         // Collect all user IDs we need usernames for
         java.util.Set<Integer> userIds = new java.util.HashSet<>();
         for (Friendship friendship : friends) {
@@ -109,17 +112,14 @@ public class FriendshipController extends HttpServlet {
             userIds.add(friendship.getRequesterId());
             userIds.add(friendship.getReceiverId());
         }
+        userIds.remove(user.getUserId()); // Don't need current user's username
         
-        // Fetch usernames for all collected user IDs
-        for (Integer userId : userIds) {
-            if (userId != user.getUserId()) { // Don't need current user's username
-                User friendUser = userDAO.findById(userId);
-                if (friendUser != null) {
-                    usernames.put(userId, friendUser.getUsername());
-                }
-            }
-        }
+        // Resolve every username in one batched lookup for the JSP
+        java.util.Map<Integer, String> usernames = new UserLookup(userDAO).getUsernames(userIds);
         
+        if (friendSuggestionService != null) {
+            req.setAttribute("suggestions", friendSuggestionService.getSuggestions(user.getUserId(), SUGGESTIONS_SHOWN));
+        }
         req.setAttribute("friends", friends);
         req.setAttribute("pendingRequests", pendingRequests);
         req.setAttribute("usernames", usernames);
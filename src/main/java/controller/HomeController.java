@@ -8,23 +8,39 @@ import model.Quiz;
 import model.QuizAttempt;
 import model.Announcement;
 import model.User;
-import model.Message;
+import model.InboxCounters;
+import service.FragmentCache;
+import service.InboxCounterService;
+import service.PopularityService;
+import service.RecommendationService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 @WebServlet(urlPatterns = {"", "/"})
 public class HomeController extends HttpServlet {
+    // Shared fragments are served for at most this long even without an invalidating write
+    private static final long CATALOG_TTL_MILLIS = 5 * 60 * 1000L;
+    private static final long RANKING_TTL_MILLIS = 60 * 1000L;
+    private static final long ANNOUNCEMENT_TTL_MILLIS = 5 * 60 * 1000L;
+    private static final String USER_FRAGMENTS_ATTRIBUTE = "homeFragments";
+
     private QuizDAO quizDAO;
     private QuizAttemptDAO quizAttemptDAO;
     private AnnouncementDAO announcementDAO;
     private MessageDAO messageDAO;
+    private PopularityService popularityService;
+    private FragmentCache fragmentCache;
+    private RecommendationService recommendationService;
+    private InboxCounterService inboxCounterService;
 
     @Override
     public void init() throws ServletException {
@@ -33,56 +49,56 @@ public class HomeController extends HttpServlet {
         quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
         announcementDAO = (AnnouncementDAO) getServletContext().getAttribute("announcementDAO");
         messageDAO = (MessageDAO) getServletContext().getAttribute("messageDAO");
+        popularityService = (PopularityService) getServletContext().getAttribute("popularityService");
+        fragmentCache = (FragmentCache) getServletContext().getAttribute("fragmentCache");
+        recommendationService = (RecommendationService) getServletContext().getAttribute("recommendationService");
+        inboxCounterService = (InboxCounterService) getServletContext().getAttribute("inboxCounterService");
+        if (fragmentCache == null) {
+            // Private cache without write events; global fragments then expire by TTL only
+            fragmentCache = new FragmentCache(0);
+        }
     }
 
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
         try {
-            List<Quiz> quizzes = quizDAO.getAllQuizzes();
+            List<Quiz> quizzes = fragmentCache.get(FragmentCache.CATALOG, CATALOG_TTL_MILLIS, quizDAO::getAllQuizzes);
             req.setAttribute("quizzes", quizzes);
 
-            // Popular quizzes
-            List<Quiz> popularQuizzes = quizDAO.getPopularQuizzes(5);
+            // Popular and trending quizzes, served from the in-memory decayed rankings
+            List<Quiz> popularQuizzes = fragmentCache.get(FragmentCache.POPULAR, RANKING_TTL_MILLIS, () ->
+                    popularityService != null
+                            ? quizDAO.getQuizzesByIds(popularityService.getPopularQuizIds(5))
+                            : quizDAO.getPopularQuizzes(5));
+            List<Quiz> trendingQuizzes = fragmentCache.get(FragmentCache.TRENDING, RANKING_TTL_MILLIS, () ->
+                    popularityService != null
+                            ? quizDAO.getQuizzesByIds(popularityService.getTrendingQuizIds(5))
+                            : new java.util.ArrayList<>());
             req.setAttribute("popularQuizzes", popularQuizzes);
+            req.setAttribute("trendingQuizzes", trendingQuizzes);
 
             // Recently created quizzes
-            List<Quiz> recentQuizzes = quizDAO.getAllQuizzes(0, 5);
+            List<Quiz> recentQuizzes = fragmentCache.get(FragmentCache.RECENT, CATALOG_TTL_MILLIS, () -> quizDAO.getAllQuizzes(0, 5));
             req.setAttribute("recentQuizzes", recentQuizzes);
 
             // Get active announcements for homepage
-            List<Announcement> activeAnnouncements = announcementDAO.getActiveAnnouncements();
+            List<Announcement> activeAnnouncements = fragmentCache.get(FragmentCache.ANNOUNCEMENTS, ANNOUNCEMENT_TTL_MILLIS,
+                    announcementDAO::getActiveAnnouncements);
             req.setAttribute("activeAnnouncements", activeAnnouncements);
 
-            // User-specific lists
-            User user = (User) req.getSession().getAttribute("user");
+            // User-specific lists, cached in the session until the user's data changes
+            HttpSession session = req.getSession();
+            User user = (User) session.getAttribute("user");
             if (user != null) {
-                // Recent quiz attempts
-                List<QuizAttempt> recentAttempts = quizAttemptDAO.getRecentAttemptsForUser(user.getUserId(), 5);
-                req.setAttribute("recentAttempts", recentAttempts);
-
-                // User's created quizzes
-                List<Quiz> userCreatedQuizzes = quizDAO.getQuizzesByCreator(user.getUserId());
-                req.setAttribute("userCreatedQuizzes", userCreatedQuizzes);
-
-                // Add unread message badge info for logged-in users
-                try {
-                    int unreadCount = messageDAO.getUnreadMessageCount(user.getUserId());
-                    req.setAttribute("unreadMessageCount", unreadCount);
-                    String recentTypeEmoji = null;
-                    if (unreadCount > 0) {
-                        java.util.List<Message> unreadMessages = messageDAO.getUnreadMessages(user.getUserId());
-                        if (!unreadMessages.isEmpty()) {
-                            String type = unreadMessages.get(0).getMessageType();
-                            if ("note".equals(type)) recentTypeEmoji = "📝";
-                            else if ("challenge".equals(type)) recentTypeEmoji = "🎯";
-                            else if ("friend_request".equals(type)) recentTypeEmoji = "👥";
-                        }
-                    }
-                    req.setAttribute("recentUnreadTypeEmoji", recentTypeEmoji);
-                } catch (Exception e) {
-                    req.setAttribute("unreadMessageCount", 0);
-                    req.setAttribute("recentUnreadTypeEmoji", null);
+                FragmentCache.UserFragments fragments = (FragmentCache.UserFragments) session.getAttribute(USER_FRAGMENTS_ATTRIBUTE);
+                if (!fragmentCache.isFresh(fragments, user.getUserId())) {
+                    fragments = loadUserFragments(user.getUserId());
+                    session.setAttribute(USER_FRAGMENTS_ATTRIBUTE, fragments);
                 }
+                req.setAttribute("recentAttempts", fragments.get("recentAttempts"));
+                req.setAttribute("userCreatedQuizzes", fragments.get("userCreatedQuizzes"));
+                req.setAttribute("recommendedQuizzes", fragments.get("recommendedQuizzes"));
+                setUnreadBadge(req, user.getUserId());
             }
 
             req.getRequestDispatcher("/index.jsp").forward(req, resp);
@@ -90,4 +106,58 @@ public class HomeController extends HttpServlet {
             throw new ServletException(e);
         }
     }
+
+    private FragmentCache.UserFragments loadUserFragments(int userId) throws SQLException {
+        // Stamp before loading so a write that races with the load forces a reload next time
+        FragmentCache.UserFragments fragments = fragmentCache.newUserFragments(userId);
+
+        // Recent quiz attempts
+        List<QuizAttempt> recentAttempts = quizAttemptDAO.getRecentAttemptsForUser(userId, 5);
+        fragments.put("recentAttempts", recentAttempts);
+
+        // Quizzes often taken by people who took the same recent quizzes
+        List<Quiz> recommendedQuizzes = new ArrayList<>();
+        if (recommendationService != null && !recentAttempts.isEmpty()) {
+            List<Integer> takenQuizIds = new ArrayList<>();
+            for (QuizAttempt attempt : recentAttempts) {
+                takenQuizIds.add(attempt.getQuizId());
+            }
+            List<Integer> recommendedIds = recommendationService.recommendFor(takenQuizIds, 5);
+            if (!recommendedIds.isEmpty()) {
+                recommendedQuizzes = quizDAO.getQuizzesByIds(recommendedIds);
+            }
+        }
+        fragments.put("recommendedQuizzes", recommendedQuizzes);
+
+        // User's created quizzes
+        List<Quiz> userCreatedQuizzes = quizDAO.getQuizzesByCreator(userId);
+        fragments.put("userCreatedQuizzes", userCreatedQuizzes);
+
+        return fragments;
+    }
+
+    // Unread badge from the in-memory inbox counters; cheap enough to read on every view
+    private void setUnreadBadge(HttpServletRequest req, int userId) {
+        int unreadCount = 0;
+        String recentTypeEmoji = null;
+        try {
+            if (inboxCounterService != null) {
+                InboxCounters counters = inboxCounterService.getCounters(userId);
+                unreadCount = counters.getUnreadTotal();
+                if (unreadCount > 0) {
+                    String type = counters.getLatestUnreadType();
+                    if ("note".equals(type)) recentTypeEmoji = "📝";
+                    else if ("challenge".equals(type)) recentTypeEmoji = "🎯";
+                    else if ("friend_request".equals(type)) recentTypeEmoji = "👥";
+                }
+            } else {
+                unreadCount = messageDAO.getUnreadMessageCount(userId);
+            }
+        } catch (Exception e) {
+            unreadCount = 0;
+            recentTypeEmoji = null;
+        }
+        req.setAttribute("unreadMessageCount", unreadCount);
+        req.setAttribute("recentUnreadTypeEmoji", recentTypeEmoji);
+    }
 }
@@ -1,36 +1,143 @@
 package controller;
 
+import com.google.gson.Gson;
 import dao.QuizAttemptDAO;
+import dao.QuizDAO;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import model.LeaderboardEntry;
+import model.Quiz;
+import model.User;
+import service.LeaderboardService;
+import util.RequestParams;
 
-@WebServlet("/leaderboard")
+@WebServlet(urlPatterns = {"/leaderboard", "/leaderboard/quiz", "/api/leaderboard"})
 public class LeaderboardController extends HttpServlet {
+    // Entries shown above and below the current user, and on the top-N view
+    private static final int DEFAULT_RADIUS = LeaderboardQuery.DEFAULT_RADIUS;
+    private static final int DEFAULT_TOP = LeaderboardQuery.DEFAULT_TOP;
+
+    private static final Gson gson = new Gson();
+
+    private QuizDAO quizDAO;
+    private LeaderboardService leaderboardService;
+
+    @Override
+    public void init() throws ServletException {
+        quizDAO = (QuizDAO) getServletContext().getAttribute("quizDAO");
+        leaderboardService = (LeaderboardService) getServletContext().getAttribute("leaderboardService");
+    }
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
-        // Fetch leaderboard data from DAO
-        Connection connection = (Connection) getServletContext().getAttribute("DBConnection");
-        QuizAttemptDAO quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
-        List<LeaderboardEntry> leaderboard = null;
+        String path = req.getServletPath();
         try {
-            if (quizAttemptDAO == null && connection != null) {
-                quizAttemptDAO = new QuizAttemptDAO(connection);
-            }
-            if (quizAttemptDAO != null) {
-                leaderboard = quizAttemptDAO.getLeaderboardData();
+            switch (path) {
+                case "/leaderboard/quiz":
+                    handleQuizLeaderboard(req, resp);
+                    break;
+                case "/api/leaderboard":
+                    handleLeaderboardApi(req, resp);
+                    break;
+                default:
+                    handleOverallLeaderboard(req, resp);
+                    break;
             }
         } catch (SQLException e) {
             throw new ServletException(e);
         }
+    }
+
+    private void handleOverallLeaderboard(HttpServletRequest req, HttpServletResponse resp) throws SQLException, ServletException, IOException {
+        // Fetch leaderboard data from DAO
+        Connection connection = (Connection) getServletContext().getAttribute("DBConnection");
+        QuizAttemptDAO quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
+        List<LeaderboardEntry> leaderboard = null;
+        if (quizAttemptDAO == null && connection != null) {
+            quizAttemptDAO = new QuizAttemptDAO(connection);
+        }
+        if (quizAttemptDAO != null) {
+            leaderboard = quizAttemptDAO.getLeaderboardData();
+        }
         req.setAttribute("leaderboard", leaderboard);
         req.getRequestDispatcher("/jsp/leaderboard.jsp").forward(req, resp);
     }
+
+    private void handleQuizLeaderboard(HttpServletRequest req, HttpServletResponse resp) throws SQLException, ServletException, IOException {
+        Integer quizId = RequestParams.parseInt(req.getParameter("quizId"));
+        if (quizId == null || leaderboardService == null) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing quizId parameter");
+            return;
+        }
+        Quiz quiz = quizDAO.findById(quizId);
+        if (quiz == null) {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Quiz not found");
+            return;
+        }
+
+        User user = (User) req.getSession().getAttribute("user");
+        int userRank = user != null ? leaderboardService.getRank(quizId, user.getUserId()) : 0;
+        req.setAttribute("quiz", quiz);
+        req.setAttribute("userRank", userRank);
+        req.setAttribute("rankedCount", leaderboardService.getRankedCount(quizId));
+        req.setAttribute("topEntries", leaderboardService.getTop(quizId, DEFAULT_TOP));
+        // Only show the window when the user is below the top-N already on screen
+        if (userRank > DEFAULT_TOP) {
+            req.setAttribute("aroundEntries", leaderboardService.getAroundUser(quizId, user.getUserId(), DEFAULT_RADIUS));
+        }
+        if (user != null) {
+            req.setAttribute("friendsEntries", leaderboardService.getFriendsLeaderboard(quizId, user.getUserId()));
+        }
+        req.getRequestDispatcher("/jsp/quizLeaderboard.jsp").forward(req, resp);
+    }
+
+    /**
+     * JSON leaderboard window for a quiz
+     * ?quizId=1                  top entries
+     * ?quizId=1&around=me        the current user's rank with radius entries on each side
+     * ?quizId=1&userId=7         the same window for any user
+     * ?quizId=1&from=11&to=20    an explicit rank range
+     * ?quizId=1&scope=friends    the signed-in user and their friends, ranked among themselves; never another user's
+     */
+    private void handleLeaderboardApi(HttpServletRequest req, HttpServletResponse resp) throws SQLException, IOException {
+        Integer quizId = RequestParams.parseInt(req.getParameter("quizId"));
+        if (quizId == null || leaderboardService == null) {
+            resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Missing quizId parameter");
+            return;
+        }
+        HttpSession session = req.getSession(false);
+        User user = session != null ? (User) session.getAttribute("user") : null;
+        LeaderboardQuery query = LeaderboardQuery.parse(req, quizId, user);
+        if (query == null) {
+            resp.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Login required");
+            return;
+        }
+        List<LeaderboardEntry> entries = query.load(leaderboardService);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("quizId", quizId);
+        body.put("rankedCount", leaderboardService.getRankedCount(quizId));
+        if (query.friendsScope) {
+            body.put("scope", "friends");
+        }
+        if (query.userId != null) {
+            body.put("userId", query.userId);
+            body.put("userRank", leaderboardService.getRank(quizId, query.userId));
+        }
+        body.put("entries", entries);
+
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        resp.getWriter().write(gson.toJson(body));
+    }
 }
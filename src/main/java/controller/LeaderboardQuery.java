@@ -0,0 +1,83 @@
+package controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import model.LeaderboardEntry;
+import model.User;
+import service.LeaderboardService;
+import util.RequestParams;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * A quiz leaderboard window parsed from request parameters
+ * Shared by the JSON leaderboard endpoints so they read the parameters, and enforce who may see what, the same way.
+ * ?around=me or ?userId=7    the user's rank with radius entries on each side (?radius=)
+ * ?from=11&to=20             an explicit rank range
+ * ?scope=friends             the signed-in user and their friends; userId is ignored, since friend lists are private
+ * Anything else is the top entries.
+ */
+final class LeaderboardQuery {
+    // Entries shown above and below a user, and on the top-N view
+    static final int DEFAULT_RADIUS = 10;
+    static final int MAX_RADIUS = 50;
+    static final int DEFAULT_TOP = 10;
+
+    final int quizId;
+    final boolean friendsScope;
+    final Integer userId;
+    private final int radius;
+    private final Integer from;
+    private final Integer to;
+
+    private LeaderboardQuery(int quizId, boolean friendsScope, Integer userId, int radius, Integer from, Integer to) {
+        this.quizId = quizId;
+        this.friendsScope = friendsScope;
+        this.userId = userId;
+        this.radius = radius;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Parse a leaderboard window
+     * @param req The request
+     * @param quizId The quiz ID
+     * @param sessionUser The signed-in user, or null
+     * @return The query, or null if it needs a signed-in user and there is none
+     */
+    static LeaderboardQuery parse(HttpServletRequest req, int quizId, User sessionUser) {
+        boolean friendsScope = "friends".equals(req.getParameter("scope"));
+        Integer userId;
+        if (friendsScope || "me".equals(req.getParameter("around"))) {
+            if (sessionUser == null) {
+                return null;
+            }
+            userId = sessionUser.getUserId();
+        } else {
+            userId = RequestParams.parseInt(req.getParameter("userId"));
+        }
+        Integer radius = RequestParams.parseInt(req.getParameter("radius"));
+        int window = radius == null ? DEFAULT_RADIUS : Math.max(0, Math.min(MAX_RADIUS, radius));
+        return new LeaderboardQuery(quizId, friendsScope, userId, window,
+                RequestParams.parseInt(req.getParameter("from")), RequestParams.parseInt(req.getParameter("to")));
+    }
+
+    /**
+     * Load the window's entries
+     * @param leaderboardService The leaderboard service
+     * @return Ranked entries
+     * @throws SQLException If database error occurs
+     */
+    List<LeaderboardEntry> load(LeaderboardService leaderboardService) throws SQLException {
+        if (friendsScope) {
+            return leaderboardService.getFriendsLeaderboard(quizId, userId);
+        } else if (userId != null) {
+            return leaderboardService.getAroundUser(quizId, userId, radius);
+        } else if (from != null) {
+            int last = to != null ? Math.min(to, from + 2 * MAX_RADIUS) : from + DEFAULT_TOP - 1;
+            return leaderboardService.getRange(quizId, from, last);
+        }
+        return leaderboardService.getTop(quizId, DEFAULT_TOP);
+    }
+}
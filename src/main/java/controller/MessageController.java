@@ -6,9 +6,15 @@ import dao.FriendshipDAO;
 import dao.QuizDAO;
 import dao.QuizAttemptDAO;
 import dao.AchievementDAO;
+import model.Friendship;
+import model.InboxCounters;
 import model.Message;
 import model.User;
 import model.Achievement;
+import service.FriendGraph;
+import service.InboxCounterService;
+import service.QuizTitleCache;
+import util.RequestParams;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -17,9 +23,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
-@WebServlet(urlPatterns = {"/messages", "/messages/send", "/messages/markRead", "/messages/delete"})public class MessageController extends HttpServlet {
+@WebServlet(urlPatterns = {"/messages", "/messages/send", "/messages/challengeFriends", "/messages/markRead", "/messages/delete"})public class MessageController extends HttpServlet {
     
     private MessageDAO messageDAO;
     private UserDAO userDAO;
@@ -27,6 +35,11 @@ import java.util.List;
     private QuizDAO quizDAO;
     private QuizAttemptDAO quizAttemptDAO;
     private AchievementDAO achievementDAO;
+    private FriendGraph friendGraph;
+    private InboxCounterService inboxCounterService;
+    private QuizTitleCache quizTitleCache;
+
+    static final int INBOX_PAGE_SIZE = 50;
 
     @Override
     public void init() throws ServletException {
@@ -37,6 +50,9 @@ import java.util.List;
             quizDAO = (QuizDAO) getServletContext().getAttribute("quizDAO");
             quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
             achievementDAO = (AchievementDAO) getServletContext().getAttribute("achievementDAO");
+            friendGraph = (FriendGraph) getServletContext().getAttribute("friendGraph");
+            inboxCounterService = (InboxCounterService) getServletContext().getAttribute("inboxCounterService");
+            quizTitleCache = (QuizTitleCache) getServletContext().getAttribute("quizTitleCache");
         } catch (Exception e) {
             throw new ServletException("Database connection error", e);
         }
@@ -76,6 +92,8 @@ import java.util.List;
         try {
             if ("/messages/send".equals(path)) {
                 handleSendMessage(req, resp, currentUser);
+            } else if ("/messages/challengeFriends".equals(path)) {
+                handleChallengeFriends(req, resp, currentUser);
             } else if ("/messages/markRead".equals(path)) {
                 handleMarkAsRead(req, resp, currentUser);
             } else if ("/messages/delete".equals(path)) {
@@ -91,17 +109,26 @@ import java.util.List;
     private void handleViewMessages(HttpServletRequest req, HttpServletResponse resp, User user) 
             throws SQLException, ServletException, IOException {
         
-        List<Message> messages = messageDAO.getReceivedMessages(user.getUserId());
-        req.setAttribute("messages", messages);
-        // After getting messages, set quizName for challenge messages
-        for (Message msg : messages) {
-            if (Message.TYPE_CHALLENGE.equals(msg.getMessageType()) && msg.getQuizId() != null) {
-                model.Quiz quiz = quizDAO.findById(msg.getQuizId());
-                if (quiz != null) {
-                    msg.setQuizName(quiz.getTitle());
+        Integer pageParam = RequestParams.parseInt(req.getParameter("page"));
+        int page = pageParam == null ? 1 : Math.max(1, pageParam);
+        // One extra row tells whether an older page exists
+        List<Message> messages = messageDAO.getInboxPage(user.getUserId(), (page - 1) * INBOX_PAGE_SIZE, INBOX_PAGE_SIZE + 1);
+        boolean hasNextPage = messages.size() > INBOX_PAGE_SIZE;
+        if (hasNextPage) {
+            messages = messages.subList(0, INBOX_PAGE_SIZE);
+        }
+        // Challenge titles arrive with the page; hand them to the shared cache
+        if (quizTitleCache != null) {
+            for (Message msg : messages) {
+                if (msg.getQuizId() != null) {
+                    quizTitleCache.remember(msg.getQuizId(), msg.getQuizName());
                 }
             }
         }
+        req.setAttribute("messages", messages);
+        req.setAttribute("currentPage", page);
+        req.setAttribute("hasNextPage", hasNextPage);
+        setUnreadStats(req, user.getUserId(), messages);
         req.getRequestDispatcher("/jsp/messages.jsp").forward(req, resp);
     }
     
@@ -151,10 +178,9 @@ import java.util.List;
                     req.setAttribute("error", "You cannot send a friend request to yourself.");
                     handleViewMessages(req, resp, user);
                     return;
-                } else if (friendshipDAO.areFriends(user.getUserId(), recipient.getUserId())) {
+                } else if (areFriends(user.getUserId(), recipient.getUserId())) {
                     req.setAttribute("error", "You are already friends with this user.");
-                } else if (friendshipDAO.hasPendingRequest(user.getUserId(), recipient.getUserId()) ||
-                           friendshipDAO.hasPendingRequest(recipient.getUserId(), user.getUserId())) {
+                } else if (hasPendingRequestEitherWay(user.getUserId(), recipient.getUserId())) {
                     req.setAttribute("error", "A friend request is already pending between you and this user.");
                 } else {
                     try {
@@ -179,7 +205,7 @@ import java.util.List;
                         req.setAttribute("error", "Quiz not found with that name");
                     } else {
                         // Friendship check before sending challenge
-                        if (!friendshipDAO.areFriends(user.getUserId(), recipient.getUserId())) {
+                        if (!areFriends(user.getUserId(), recipient.getUserId())) {
                             req.setAttribute("error", "You can only send a challenge to users who are your friends.");
                             handleViewMessages(req, resp, user);
                             return;
@@ -223,6 +249,48 @@ import java.util.List;
         handleViewMessages(req, resp, user);
     }
     
+    /**
+     * Challenge every friend to a quiz at once
+     * The quiz, the sender's best score and the friend set are each resolved once, and all challenges are
+     * written together, so the cost does not grow with the number of friends.
+     */
+    private void handleChallengeFriends(HttpServletRequest req, HttpServletResponse resp, User user)
+            throws SQLException, ServletException, IOException {
+        String quizNameParam = req.getParameter("quizName");
+        if (quizNameParam == null || quizNameParam.trim().isEmpty()) {
+            req.setAttribute("error", "Quiz name is required for a challenge");
+            handleViewMessages(req, resp, user);
+            return;
+        }
+        model.Quiz quiz = quizDAO.findByTitle(quizNameParam.trim());
+        if (quiz == null) {
+            req.setAttribute("error", "Quiz not found with that name");
+            handleViewMessages(req, resp, user);
+            return;
+        }
+        double bestScore = quizAttemptDAO.getBestScore(user.getUserId(), quiz.getQuizId(), false);
+        if (bestScore < 0) {
+            req.setAttribute("error", "You must complete this quiz (not in practice mode) before you can send a challenge!");
+            handleViewMessages(req, resp, user);
+            return;
+        }
+        List<Integer> friendIds = getFriendIds(user.getUserId());
+        if (friendIds.isEmpty()) {
+            req.setAttribute("error", "You have no friends to challenge yet.");
+            handleViewMessages(req, resp, user);
+            return;
+        }
+
+        String challengeMsg = "I challenge you to quiz '" + quiz.getTitle() + "'! My best score is: " + String.format("%.2f", bestScore) + ".";
+        List<Message> sent = messageDAO.sendChallenges(user.getUserId(), friendIds, challengeMsg, quiz.getQuizId());
+        if (sent.isEmpty()) {
+            req.setAttribute("error", "Failed to send challenge");
+        } else {
+            req.setAttribute("success", "Challenge sent to " + sent.size() + (sent.size() == 1 ? " friend" : " friends"));
+        }
+        handleViewMessages(req, resp, user);
+    }
+    
     private void handleMarkAsRead(HttpServletRequest req, HttpServletResponse resp, User user)
             throws SQLException, ServletException, IOException {
         String messageIdParam = req.getParameter("messageId");
@@ -243,6 +311,47 @@ import java.util.List;
         resp.sendRedirect(req.getContextPath() + "/messages");
     }
     
+    // Inbox-wide unread figures come from the cached counters; without them only the shown page is counted
+    private void setUnreadStats(HttpServletRequest req, int userId, List<Message> messages) throws SQLException {
+        if (inboxCounterService != null) {
+            InboxCounters counters = inboxCounterService.getCounters(userId);
+            req.setAttribute("unreadCount", counters.getUnreadTotal());
+            req.setAttribute("unreadChallengeCount", counters.getUnreadChallenges());
+            return;
+        }
+        int unread = 0;
+        int unreadChallenges = 0;
+        for (Message msg : messages) {
+            if (!msg.isRead()) {
+                unread++;
+                if (Message.TYPE_CHALLENGE.equals(msg.getMessageType())) {
+                    unreadChallenges++;
+                }
+            }
+        }
+        req.setAttribute("unreadCount", unread);
+        req.setAttribute("unreadChallengeCount", unreadChallenges);
+    }
+
+    // Relationship checks come from the in-memory friend graph when it is available
+    private boolean areFriends(int userId1, int userId2) throws SQLException {
+        return friendGraph != null ? friendGraph.areFriends(userId1, userId2) : friendshipDAO.areFriends(userId1, userId2);
+    }
+
+    private List<Integer> getFriendIds(int userId) throws SQLException {
+        if (friendGraph != null) {
+            return Arrays.stream(friendGraph.getFriendIds(userId)).boxed().collect(Collectors.toList());
+        }
+        return friendshipDAO.getFriendIds(userId);
+    }
+
+    private boolean hasPendingRequestEitherWay(int userId1, int userId2) throws SQLException {
+        if (friendGraph != null) {
+            return Friendship.STATUS_PENDING.equals(friendGraph.getStatus(userId1, userId2));
+        }
+        return friendshipDAO.hasPendingRequest(userId1, userId2) || friendshipDAO.hasPendingRequest(userId2, userId1);
+    }
+
     private User getCurrentUser(HttpServletRequest req) {
         HttpSession session = req.getSession(false);
         if (session != null) {
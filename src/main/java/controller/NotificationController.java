@@ -0,0 +1,185 @@
+package controller;
+
+import model.User;
+import service.NotificationHub;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * Server-Sent Events stream of the signed-in user's notifications
+ * The request is put in async mode and the container thread is released at once, so an idle connection holds
+ * no thread. Events are queued per connection and written with a WriteListener only while the socket accepts
+ * data; a client that falls MAX_PENDING_EVENTS behind is disconnected and reconnects through EventSource.
+ */
+@WebServlet(urlPatterns = {"/notifications/stream"}, asyncSupported = true)
+public class NotificationController extends HttpServlet {
+    // Events queued for a connection that is not reading before it is dropped
+    private static final int MAX_PENDING_EVENTS = 256;
+    // Client reconnect delay sent with the stream
+    private static final int RETRY_MILLIS = 5000;
+
+    private NotificationHub notificationHub;
+
+    @Override
+    public void init() throws ServletException {
+        notificationHub = (NotificationHub) getServletContext().getAttribute("notificationHub");
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        User currentUser = getCurrentUser(req);
+        if (currentUser == null) {
+            resp.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (notificationHub == null) {
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        resp.setContentType("text/event-stream");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-cache");
+        resp.setHeader("X-Accel-Buffering", "no");
+
+        AsyncContext async = req.startAsync();
+        async.setTimeout(0); // Kept open until the client leaves; the hub heartbeat finds dead connections
+        ServletOutputStream out = resp.getOutputStream();
+        SseConnection connection = new SseConnection(async, out, currentUser.getUserId());
+        async.addListener(connection);
+        out.setWriteListener(connection);
+        connection.enqueue("retry: " + RETRY_MILLIS + "\n\n");
+        notificationHub.subscribe(currentUser.getUserId(), connection);
+    }
+
+    private User getCurrentUser(HttpServletRequest req) {
+        HttpSession session = req.getSession(false);
+        if (session != null) {
+            return (User) session.getAttribute("user");
+        }
+        return null;
+    }
+
+    /**
+     * One open event stream
+     * Queued frames are written from whichever thread finds the socket ready: the publisher, or the container
+     * calling onWritePossible once a blocked write can continue.
+     */
+    private class SseConnection implements NotificationHub.Subscriber, WriteListener, AsyncListener {
+        private final AsyncContext async;
+        private final int userId;
+        private final Queue<byte[]> pending = new ArrayDeque<>();
+        private final ServletOutputStream out;
+        private boolean writable;   // Set once the container has called onWritePossible
+        private boolean flushNeeded;
+        private boolean closed;
+
+        SseConnection(AsyncContext async, ServletOutputStream out, int userId) {
+            this.async = async;
+            this.out = out;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean send(String event, String data) {
+            return enqueue("event: " + event + "\ndata: " + data + "\n\n");
+        }
+
+        @Override
+        public boolean ping() {
+            return enqueue(": ping\n\n");
+        }
+
+        synchronized boolean enqueue(String frame) {
+            if (closed) {
+                return false;
+            }
+            if (pending.size() >= MAX_PENDING_EVENTS) {
+                close();
+                return false;
+            }
+            pending.add(frame.getBytes(StandardCharsets.UTF_8));
+            if (writable) {
+                drain();
+            }
+            return !closed;
+        }
+
+        @Override
+        public synchronized void onWritePossible() throws IOException {
+            writable = true;
+            drain();
+        }
+
+        // Write while the container says the socket is ready; stop and wait for onWritePossible otherwise
+        private void drain() {
+            try {
+                while (!closed && out.isReady()) {
+                    byte[] frame = pending.poll();
+                    if (frame != null) {
+                        out.write(frame);
+                        flushNeeded = true;
+                    } else if (flushNeeded) {
+                        out.flush();
+                        flushNeeded = false;
+                    } else {
+                        return;
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close();
+            }
+        }
+
+        private synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.clear();
+            notificationHub.unsubscribe(userId, this);
+            try {
+                async.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package controller;
 
 import dao.UserDAO;
-import dao.QuizAttemptDAO;
 import dao.AchievementDAO;
 import model.User;
 import model.Achievement;
+import model.UserStats;
+import service.UserStatsService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -13,20 +14,21 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 
 @WebServlet(urlPatterns = {"/profile"})
 public class ProfileController extends HttpServlet {
     private UserDAO userDAO;
-    private QuizAttemptDAO quizAttemptDAO;
     private AchievementDAO achievementDAO;
+    private UserStatsService userStatsService;
 
     @Override
     public void init() throws ServletException {
         Connection connection = (Connection) getServletContext().getAttribute("DBConnection");
         userDAO = (UserDAO) getServletContext().getAttribute("userDAO");
-        quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
         achievementDAO = (AchievementDAO) getServletContext().getAttribute("achievementDAO");
+        userStatsService = (UserStatsService) getServletContext().getAttribute("userStatsService");
     }
 
     @Override
@@ -40,18 +42,7 @@ public class ProfileController extends HttpServlet {
             }
             User user = (User) session.getAttribute("user");
             try {
-                // Refresh user info from DB
-                User dbUser = userDAO.findById(user.getUserId());
-                req.setAttribute("userInfo", dbUser);
-                req.setAttribute("isOwnProfile", true);
-                // Quiz stats
-                int quizCount = quizAttemptDAO.getAttemptCountByUser(user.getUserId());
-                double avgScore = quizAttemptDAO.getAverageScore(user.getUserId(), false);
-                req.setAttribute("quizCount", quizCount);
-                req.setAttribute("avgScore", avgScore);
-                // Achievements
-                List<Achievement> achievements = achievementDAO.getAchievementsByUser(user.getUserId());
-                req.setAttribute("achievements", achievements);
+                setProfileAttributes(req, user.getUserId());
                 req.getRequestDispatcher("/jsp/profile.jsp").forward(req, resp);
             } catch (Exception e) {
                 throw new ServletException(e);
@@ -90,15 +81,7 @@ public class ProfileController extends HttpServlet {
                     }
                 }
                 // Refresh user info and stats for redisplay
-                User dbUser = userDAO.findById(user.getUserId());
-                req.setAttribute("userInfo", dbUser);
-                req.setAttribute("isOwnProfile", true);
-                int quizCount = quizAttemptDAO.getAttemptCountByUser(user.getUserId());
-                double avgScore = quizAttemptDAO.getAverageScore(user.getUserId(), false);
-                req.setAttribute("quizCount", quizCount);
-                req.setAttribute("avgScore", avgScore);
-                List<Achievement> achievements = achievementDAO.getAchievementsByUser(user.getUserId());
-                req.setAttribute("achievements", achievements);
+                setProfileAttributes(req, user.getUserId());
                 req.getRequestDispatcher("/jsp/profile.jsp").forward(req, resp);
             } catch (Exception e) {
                 throw new ServletException(e);
@@ -107,4 +90,20 @@ public class ProfileController extends HttpServlet {
             resp.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
+
+    // Profile data shared by the GET and POST views
+    private void setProfileAttributes(HttpServletRequest req, int userId) throws SQLException {
+        // Refresh user info from DB
+        User dbUser = userDAO.findById(userId);
+        req.setAttribute("userInfo", dbUser);
+        req.setAttribute("isOwnProfile", true);
+        // Quiz stats from the cached rollup
+        UserStats stats = userStatsService.getStats(userId);
+        req.setAttribute("userStats", stats);
+        req.setAttribute("quizCount", stats.getAttempts());
+        req.setAttribute("avgScore", stats.getAverageScore());
+        // Achievements
+        List<Achievement> achievements = achievementDAO.getAchievementsByUser(userId);
+        req.setAttribute("achievements", achievements);
+    }
 }
@@ -18,12 +18,36 @@ import model.Question;
 import java.util.ArrayList;
 import dao.AchievementDAO;
 import model.Achievement;
+import service.ContentSimilarityIndex;
+import service.QuizCatalog;
+import service.QuizSearchIndex;
+import service.RecommendationService;
+import service.UsernameIndex;
+import util.RequestParams;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @WebServlet(urlPatterns = {"/quizzes", "/quiz", "/quiz/create", "/quiz/addQuestion"})
 public class QuizController extends HttpServlet {
     private QuizDAO quizDAO;
     private QuestionDAO questionDAO;
     private AchievementDAO achievementDAO;
+    private QuizSearchIndex searchIndex;
+    private QuizCatalog quizCatalog;
+    private UsernameIndex usernameIndex;
+    private RecommendationService recommendationService;
+    private ContentSimilarityIndex contentSimilarityIndex;
+
+    // Maximum number of quizzes shown for a search
+    private static final int SEARCH_LIMIT = 50;
+    // "Also taken" quizzes shown on a quiz page
+    private static final int SIMILAR_QUIZZES = 5;
+    // Quizzes per catalog page
+    private static final int CATALOG_PAGE_SIZE = 24;
+    // Request parameters that make up a catalog filter, kept when paging
+    private static final String[] CATALOG_PARAMS = {"practice", "onePage", "immediate", "creator", "type", "typeMatch", "minQuestions", "maxQuestions", "sort"};
 
     @Override
     public void init() throws ServletException
@@ -34,6 +58,11 @@ public class QuizController extends HttpServlet {
             quizDAO = (QuizDAO)getServletContext().getAttribute("quizDAO");
             questionDAO = (QuestionDAO)getServletContext().getAttribute("questionDAO");
             achievementDAO = (AchievementDAO)getServletContext().getAttribute("achievementDAO");
+            searchIndex = (QuizSearchIndex)getServletContext().getAttribute("quizSearchIndex");
+            quizCatalog = (QuizCatalog)getServletContext().getAttribute("quizCatalog");
+            usernameIndex = (UsernameIndex)getServletContext().getAttribute("usernameIndex");
+            recommendationService = (RecommendationService)getServletContext().getAttribute("recommendationService");
+            contentSimilarityIndex = (ContentSimilarityIndex)getServletContext().getAttribute("contentSimilarityIndex");
         }
         catch (Exception e)
         {
@@ -47,7 +76,20 @@ public class QuizController extends HttpServlet {
         try {
             switch (path) {
                 case "/quizzes":
-                    List<Quiz> quizzes = quizDAO.getAllQuizzes();
+                    String query = req.getParameter("q");
+                    List<Quiz> quizzes;
+                    if (query != null && !query.isBlank()) {
+                        if (searchIndex != null) {
+                            quizzes = quizDAO.getQuizzesByIds(searchIndex.search(query, SEARCH_LIMIT));
+                        } else {
+                            quizzes = quizDAO.searchQuizzes(query);
+                        }
+                        req.setAttribute("searchQuery", query);
+                    } else if (quizCatalog != null) {
+                        quizzes = handleCatalog(req);
+                    } else {
+                        quizzes = quizDAO.getAllQuizzes();
+                    }
                     req.setAttribute("quizzes", quizzes);
                     req.getRequestDispatcher("/jsp/quizzes.jsp").forward(req, resp);
                     break;
@@ -59,6 +101,22 @@ public class QuizController extends HttpServlet {
                     int quizId = Integer.parseInt(req.getParameter("id"));
                     Quiz quiz = quizDAO.findById(quizId);
                     req.setAttribute("quiz", quiz);
+                    List<Integer> similarIds = new ArrayList<>();
+                    if (recommendationService != null) {
+                        similarIds = recommendationService.getSimilarQuizIds(quizId, SIMILAR_QUIZZES);
+                        if (!similarIds.isEmpty()) {
+                            req.setAttribute("similarQuizzes", quizDAO.getQuizzesByIds(similarIds));
+                        }
+                    }
+                    // Content matches cover quizzes nobody has taken yet; skip ones already shown above
+                    if (contentSimilarityIndex != null) {
+                        List<Integer> relatedIds = contentSimilarityIndex.getSimilarQuizIds(quizId, SIMILAR_QUIZZES * 2);
+                        relatedIds.removeAll(similarIds);
+                        if (!relatedIds.isEmpty()) {
+                            req.setAttribute("relatedQuizzes", quizDAO.getQuizzesByIds(
+                                    relatedIds.subList(0, Math.min(SIMILAR_QUIZZES, relatedIds.size()))));
+                        }
+                    }
                     req.getRequestDispatcher("/jsp/quiz.jsp").forward(req, resp);
                     break;
                 case "/quiz/create":
@@ -224,4 +282,83 @@ public class QuizController extends HttpServlet {
             throw new ServletException(e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Filter and page the quiz catalog from request parameters
+     * ?practice=yes&onePage=no             flag facets, yes or no
+     * ?creator=3&creator=8                 quizzes by any of these creators
+     * ?type=multiple-choice&typeMatch=all  question types, any or all of them
+     * ?minQuestions=5&maxQuestions=10      question count range
+     * ?sort=title&page=2                   order and page
+     */
+    private List<Quiz> handleCatalog(HttpServletRequest req) throws SQLException {
+        QuizCatalog.Query query = new QuizCatalog.Query()
+                .practice(parseFlag(req.getParameter("practice")))
+                .onePage(parseFlag(req.getParameter("onePage")))
+                .immediateCorrection(parseFlag(req.getParameter("immediate")))
+                .allTypes("all".equals(req.getParameter("typeMatch")))
+                .questions(RequestParams.parseInt(req.getParameter("minQuestions")), RequestParams.parseInt(req.getParameter("maxQuestions")));
+        String[] creatorParams = req.getParameterValues("creator");
+        if (creatorParams != null) {
+            for (String creator : creatorParams) {
+                Integer creatorId = RequestParams.parseInt(creator);
+                if (creatorId != null) {
+                    query.creator(creatorId);
+                }
+            }
+        }
+        String[] typeParams = req.getParameterValues("type");
+        if (typeParams != null) {
+            for (String type : typeParams) {
+                query.type(type);
+            }
+        }
+        String sort = req.getParameter("sort");
+        if (sort != null) {
+            query.sort(sort);
+        }
+        Integer pageParam = RequestParams.parseInt(req.getParameter("page"));
+        int page = pageParam == null ? 1 : Math.max(1, pageParam);
+        query.page((page - 1) * CATALOG_PAGE_SIZE, CATALOG_PAGE_SIZE);
+
+        QuizCatalog.Page result = quizCatalog.query(query);
+
+        // Creator facet values are user IDs; names come from the in-memory username index
+        Map<String, String> creatorNames = new LinkedHashMap<>();
+        for (String creatorId : result.getFacets().get(QuizCatalog.FACET_CREATOR).keySet()) {
+            String name = usernameIndex != null ? usernameIndex.getUsername(Integer.parseInt(creatorId)) : null;
+            creatorNames.put(creatorId, name != null ? name : "User #" + creatorId);
+        }
+
+        StringBuilder filterQuery = new StringBuilder();
+        for (String name : CATALOG_PARAMS) {
+            String[] values = req.getParameterValues(name);
+            if (values == null) {
+                continue;
+            }
+            for (String value : values) {
+                if (value.isEmpty()) {
+                    continue;
+                }
+                filterQuery.append(filterQuery.length() == 0 ? "" : "&")
+                        .append(name).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        }
+
+        req.setAttribute("catalogPage", result);
+        req.setAttribute("creatorNames", creatorNames);
+        req.setAttribute("currentPage", page);
+        req.setAttribute("filterQuery", filterQuery.toString());
+        return result.getQuizzes();
+    }
+
+    private static Boolean parseFlag(String value) {
+        if ("yes".equals(value)) {
+            return Boolean.TRUE;
+        }
+        if ("no".equals(value)) {
+            return Boolean.FALSE;
+        }
+        return null;
+    }
+}
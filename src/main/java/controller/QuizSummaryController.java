@@ -2,8 +2,8 @@ package controller;
 
 import dao.QuizAttemptDAO;
 import dao.UserDAO;
+import dao.UserLookup;
 import model.QuizAttempt;
-import model.User;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -99,10 +99,9 @@ public class QuizSummaryController extends HttpServlet {
             for (QuizAttempt a : recent) userIds.add(a.getUserId());
 
             // Map userId to username
-            Map<Integer, String> userIdToUsername = new HashMap<>();
+            Map<Integer, String> userIdToUsername = new HashMap<>(new UserLookup(userDAO).getUsernames(userIds));
             for (Integer userId : userIds) {
-                User user = userDAO.findById(userId);
-                userIdToUsername.put(userId, user != null ? user.getUsername() : ("User#" + userId));
+                userIdToUsername.putIfAbsent(userId, "User#" + userId);
             }
 
             req.setAttribute("allTimeTop", allTimeTop);
@@ -2,13 +2,12 @@ package controller;
 
 import dao.QuestionDAO;
 import dao.QuizDAO;
-import dao.QuizAttemptDAO;
-import dao.AchievementDAO;
 import model.Question;
 import model.Quiz;
 import model.QuizAttempt;
 import model.User;
-import model.Achievement;
+import service.PercentileService;
+import service.QuizGrader;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.annotation.WebServlet;
 import jakarta.servlet.http.HttpServlet;
@@ -26,8 +25,8 @@ import java.util.List;
 public class QuizTakingController extends HttpServlet {
     private QuizDAO quizDAO;
     private QuestionDAO questionDAO;
-    private QuizAttemptDAO quizAttemptDAO;
-    private AchievementDAO achievementDAO;
+    private PercentileService percentileService;
+    private QuizGrader quizGrader;
 
     @Override
     public void init() throws ServletException {
@@ -35,8 +34,8 @@ public class QuizTakingController extends HttpServlet {
             Connection connection = (Connection) getServletContext().getAttribute("DBConnection");
             quizDAO = (QuizDAO) getServletContext().getAttribute("quizDAO");
             questionDAO = (QuestionDAO) getServletContext().getAttribute("questionDAO");
-            quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
-            achievementDAO = (AchievementDAO) getServletContext().getAttribute("achievementDAO");
+            percentileService = (PercentileService) getServletContext().getAttribute("percentileService");
+            quizGrader = (QuizGrader) getServletContext().getAttribute("quizGrader");
         } catch (Exception e) {
             throw new ServletException("DB connection error", e);
         }
@@ -101,62 +100,12 @@ public class QuizTakingController extends HttpServlet {
         }
         // All-at-once mode
         if ("true".equals(allAtOnce)) {
-            int correct = 0;
             ArrayList<String> allAnswers = new ArrayList<>();
             for (int i = 0; i < questions.size(); i++) {
                 String answer = req.getParameter("answer" + i);
                 allAnswers.add(answer != null ? answer : "");
-                String[] correctAnswers = questions.get(i).getCorrectAnswer().split(",");
-                boolean isCorrect = false;
-                if (answer != null) {
-                    for (String ca : correctAnswers) {
-                        if (answer.trim().equalsIgnoreCase(ca.trim())) {
-                            isCorrect = true;
-                            break;
-                        }
-                    }
-                }
-                if (isCorrect) correct++;
-            }
-            double score = (double) correct / questions.size() * 100.0;
-            long startTime = (long) session.getAttribute("quizStartTime");
-            long timeTaken = (System.currentTimeMillis() - startTime) / 1000;
-            // Save attempt if user is logged in
-            User user = (User) session.getAttribute("user");
-            if (user != null) {
-                try {
-                    if (practiceMode != null && practiceMode) {
-                        quizAttemptDAO.createPracticeAttempt(user.getUserId(), quiz.getQuizId(), score, questions.size(), timeTaken);
-                        achievementDAO.awardAchievement(user.getUserId(), Achievement.PRACTICE_MAKES_PERFECT);
-                    } else {
-                        quizAttemptDAO.createSimpleAttempt(user.getUserId(), quiz.getQuizId(), score, questions.size(), timeTaken);
-                        int nonPracticeAttempts = quizAttemptDAO.getAttemptCountByUser(user.getUserId()) - quizAttemptDAO.getPracticeAttemptCount();
-                        if (nonPracticeAttempts >= 10) {
-                            achievementDAO.awardAchievement(user.getUserId(), Achievement.QUIZ_MACHINE);
-                        }
-                        // Award I_AM_THE_GREATEST if user is top scorer for this quiz
-                        List<model.QuizAttempt> topAttempts = quizAttemptDAO.getTopScoresForQuiz(quiz.getQuizId(), 1, false);
-                        if (!topAttempts.isEmpty() && topAttempts.get(0).getUserId() == user.getUserId()) {
-                            achievementDAO.awardAchievement(user.getUserId(), Achievement.I_AM_THE_GREATEST);
-                        }
-                    }
-                } catch (SQLException e) {
-                    throw new ServletException(e);
-                }
             }
-            req.setAttribute("score", score);
-            req.setAttribute("correct", correct);
-            req.setAttribute("totalQuestions", questions.size());
-            req.setAttribute("timeTaken", timeTaken);
-            req.setAttribute("practiceMode", practiceMode);
-            // Clean up session
-            session.removeAttribute("currentQuiz");
-            session.removeAttribute("quizQuestions");
-            session.removeAttribute("currentQuestionIndex");
-            session.removeAttribute("userAnswers");
-            session.removeAttribute("quizStartTime");
-            session.removeAttribute("practiceMode");
-            req.getRequestDispatcher("/jsp/quizResult.jsp").forward(req, resp);
+            finishQuiz(req, resp, session, quiz, questions, allAnswers, practiceMode);
             return;
         }
         // Multi-page, immediate correction logic
@@ -175,16 +124,7 @@ public class QuizTakingController extends HttpServlet {
                     userAnswers.add(answer != null ? answer : "");
                 }
                 Question currentQuestion = questions.get(currentIndex);
-                String[] correctAnswers = currentQuestion.getCorrectAnswer().split(",");
-                boolean isCorrect = false;
-                if (answer != null) {
-                    for (String ca : correctAnswers) {
-                        if (answer.trim().equalsIgnoreCase(ca.trim())) {
-                            isCorrect = true;
-                            break;
-                        }
-                    }
-                }
+                boolean isCorrect = QuizGrader.isCorrect(currentQuestion, answer);
                 req.setAttribute("question", currentQuestion);
                 req.setAttribute("questionNumber", currentIndex + 1);
                 req.setAttribute("totalQuestions", questions.size());
@@ -211,59 +151,8 @@ public class QuizTakingController extends HttpServlet {
                     return;
                 } else {
                     // Quiz finished: grade and show result
-                    int correct = 0;
-                    for (int i = 0; i < questions.size(); i++) {
-                        String[] correctAnswers = questions.get(i).getCorrectAnswer().split(",");
-                        String userAnswer = userAnswers.get(i).trim();
-                        boolean isCorrect = false;
-                        for (String ca : correctAnswers) {
-                            if (userAnswer.equalsIgnoreCase(ca.trim())) {
-                                isCorrect = true;
-                                break;
-                            }
-                        }
-                        if (isCorrect) correct++;
-                    }
-                    double score = (double) correct / questions.size() * 100.0;
-                    long startTime = (long) session.getAttribute("quizStartTime");
-                    long timeTaken = (System.currentTimeMillis() - startTime) / 1000;
-                    // Save attempt if user is logged in
-                    User user = (User) session.getAttribute("user");
-                    if (user != null) {
-                        try {
-                            if (practiceMode != null && practiceMode) {
-                                quizAttemptDAO.createPracticeAttempt(user.getUserId(), quiz.getQuizId(), score, questions.size(), timeTaken);
-                                achievementDAO.awardAchievement(user.getUserId(), Achievement.PRACTICE_MAKES_PERFECT);
-                            } else {
-                                quizAttemptDAO.createSimpleAttempt(user.getUserId(), quiz.getQuizId(), score, questions.size(), timeTaken);
-                                int nonPracticeAttempts = quizAttemptDAO.getAttemptCountByUser(user.getUserId()) - quizAttemptDAO.getPracticeAttemptCount();
-                                if (nonPracticeAttempts >= 10) {
-                                    achievementDAO.awardAchievement(user.getUserId(), Achievement.QUIZ_MACHINE);
-                                }
-                                // Award I_AM_THE_GREATEST if user is top scorer for this quiz
-                                List<model.QuizAttempt> topAttempts = quizAttemptDAO.getTopScoresForQuiz(quiz.getQuizId(), 1, false);
-                                if (!topAttempts.isEmpty() && topAttempts.get(0).getUserId() == user.getUserId()) {
-                                    achievementDAO.awardAchievement(user.getUserId(), Achievement.I_AM_THE_GREATEST);
-                                }
-                            }
-                        } catch (SQLException e) {
-                            throw new ServletException(e);
-                        }
-                    }
-                    req.setAttribute("score", score);
-                    req.setAttribute("correct", correct);
-                    req.setAttribute("totalQuestions", questions.size());
-                    req.setAttribute("timeTaken", timeTaken);
-                    req.setAttribute("practiceMode", practiceMode);
-                    // Clean up session
-                    session.removeAttribute("currentQuiz");
-                    session.removeAttribute("quizQuestions");
-                    session.removeAttribute("currentQuestionIndex");
-                    session.removeAttribute("userAnswers");
-                    session.removeAttribute("quizStartTime");
-                    session.removeAttribute("practiceMode");
                     session.removeAttribute("feedbackShown");
-                    req.getRequestDispatcher("/jsp/quizResult.jsp").forward(req, resp);
+                    finishQuiz(req, resp, session, quiz, questions, userAnswers, practiceMode);
                     return;
                 }
             } else {
@@ -295,60 +184,56 @@ public class QuizTakingController extends HttpServlet {
             req.getRequestDispatcher("/jsp/quizQuestion.jsp").forward(req, resp);
         } else {
             // Quiz finished: grade and show result
-            int correct = 0;
-            for (int i = 0; i < questions.size(); i++) {
-                String[] correctAnswers = questions.get(i).getCorrectAnswer().split(",");
-                String userAnswer = userAnswers.get(i).trim();
-                boolean isCorrect = false;
-                for (String ca : correctAnswers) {
-                    if (userAnswer.equalsIgnoreCase(ca.trim())) {
-                        isCorrect = true;
-                        break;
-                    }
-                }
-                if (isCorrect) {
-                    correct++;
-                }
-            }
-            double score = (double) correct / questions.size() * 100.0;
-            long startTime = (long) session.getAttribute("quizStartTime");
-            long timeTaken = (System.currentTimeMillis() - startTime) / 1000;
-            // Save attempt if user is logged in
-            User user = (User) session.getAttribute("user");
-            if (user != null) {
-                try {
-                    if (practiceMode != null && practiceMode) {
-                        quizAttemptDAO.createPracticeAttempt(user.getUserId(), quiz.getQuizId(), score, questions.size(), timeTaken);
-                        achievementDAO.awardAchievement(user.getUserId(), Achievement.PRACTICE_MAKES_PERFECT);
-                    } else {
-                        quizAttemptDAO.createSimpleAttempt(user.getUserId(), quiz.getQuizId(), score, questions.size(), timeTaken);
-                        int nonPracticeAttempts = quizAttemptDAO.getAttemptCountByUser(user.getUserId()) - quizAttemptDAO.getPracticeAttemptCount();
-                        if (nonPracticeAttempts >= 10) {
-                            achievementDAO.awardAchievement(user.getUserId(), Achievement.QUIZ_MACHINE);
-                        }
-                        // Award I_AM_THE_GREATEST if user is top scorer for this quiz
-                        List<model.QuizAttempt> topAttempts = quizAttemptDAO.getTopScoresForQuiz(quiz.getQuizId(), 1, false);
-                        if (!topAttempts.isEmpty() && topAttempts.get(0).getUserId() == user.getUserId()) {
-                            achievementDAO.awardAchievement(user.getUserId(), Achievement.I_AM_THE_GREATEST);
-                        }
-                    }
-                } catch (SQLException e) {
-                    throw new ServletException(e);
-                }
+            finishQuiz(req, resp, session, quiz, questions, userAnswers, practiceMode);
+        }
+    }
+
+    /**
+     * Grade the collected answers, save the attempt for a signed-in user and show the result page
+     */
+    private void finishQuiz(HttpServletRequest req, HttpServletResponse resp, HttpSession session, Quiz quiz,
+                            List<Question> questions, List<String> answers, Boolean practiceMode)
+            throws ServletException, IOException {
+        int correct = QuizGrader.countCorrect(questions, answers);
+        double score = QuizGrader.score(correct, questions.size());
+        long startTime = (long) session.getAttribute("quizStartTime");
+        long timeTaken = (System.currentTimeMillis() - startTime) / 1000;
+        // Rank against earlier graded attempts before this one is counted
+        setPercentileAttributes(req, quiz.getQuizId(), score, timeTaken);
+        // Save attempt if user is logged in
+        User user = (User) session.getAttribute("user");
+        if (user != null) {
+            try {
+                quizGrader.recordAttempt(user.getUserId(), quiz.getQuizId(), score, questions.size(), timeTaken,
+                        practiceMode != null && practiceMode);
+            } catch (SQLException e) {
+                throw new ServletException(e);
             }
-            req.setAttribute("score", score);
-            req.setAttribute("correct", correct);
-            req.setAttribute("totalQuestions", questions.size());
-            req.setAttribute("timeTaken", timeTaken);
-            req.setAttribute("practiceMode", practiceMode);
-            // Clean up session
-            session.removeAttribute("currentQuiz");
-            session.removeAttribute("quizQuestions");
-            session.removeAttribute("currentQuestionIndex");
-            session.removeAttribute("userAnswers");
-            session.removeAttribute("quizStartTime");
-            session.removeAttribute("practiceMode");
-            req.getRequestDispatcher("/jsp/quizResult.jsp").forward(req, resp);
+        }
+        req.setAttribute("score", score);
+        req.setAttribute("correct", correct);
+        req.setAttribute("totalQuestions", questions.size());
+        req.setAttribute("timeTaken", timeTaken);
+        req.setAttribute("practiceMode", practiceMode);
+        // Clean up session
+        session.removeAttribute("currentQuiz");
+        session.removeAttribute("quizQuestions");
+        session.removeAttribute("currentQuestionIndex");
+        session.removeAttribute("userAnswers");
+        session.removeAttribute("quizStartTime");
+        session.removeAttribute("practiceMode");
+        req.getRequestDispatcher("/jsp/quizResult.jsp").forward(req, resp);
+    }
+
+    private void setPercentileAttributes(HttpServletRequest req, int quizId, double score, long timeTaken) throws ServletException {
+        if (percentileService == null) {
+            return;
+        }
+        try {
+            req.setAttribute("scorePercentile", percentileService.getScorePercentile(quizId, score));
+            req.setAttribute("timePercentile", percentileService.getTimePercentile(quizId, timeTaken));
+        } catch (SQLException e) {
+            throw new ServletException(e);
         }
     }
 }
@@ -1,5 +1,6 @@
 package controller;
 
+import com.google.gson.Gson;
 import dao.UserDAO;
 import model.User;
 import util.PasswordHasher;
@@ -13,16 +14,33 @@ import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
-import dao.QuizAttemptDAO;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import dao.AchievementDAO;
 import dao.FriendshipDAO;
+import service.FriendGraph;
+import service.UserStatsService;
+import service.UsernameIndex;
 
-@WebServlet(urlPatterns = {"/login", "/register", "/logout", "/user"})
+@WebServlet(urlPatterns = {"/login", "/register", "/logout", "/user", "/api/users/autocomplete"})
 public class UserController extends HttpServlet {
+    private static final int DEFAULT_SUGGESTIONS = 8;
+    private static final int MAX_SUGGESTIONS = 20;
+    // Mutual friends named on a profile next to the count
+    private static final int MUTUAL_FRIENDS_SHOWN = 5;
+
+    private static final Gson gson = new Gson();
+
     private UserDAO userDAO;
-    private QuizAttemptDAO quizAttemptDAO;
     private AchievementDAO achievementDAO;
     private FriendshipDAO friendshipDAO;
+    private FriendGraph friendGraph;
+    private UserStatsService userStatsService;
+    private UsernameIndex usernameIndex;
 
     @Override
     public void init() throws ServletException
@@ -32,9 +50,11 @@ public class UserController extends HttpServlet {
         {
             Connection connection = (Connection) getServletContext().getAttribute("DBConnection");
             userDAO = (UserDAO) getServletContext().getAttribute("userDAO");
-            quizAttemptDAO = (QuizAttemptDAO) getServletContext().getAttribute("quizAttemptDAO");
             achievementDAO = (AchievementDAO) getServletContext().getAttribute("achievementDAO");
             friendshipDAO = (FriendshipDAO) getServletContext().getAttribute("friendshipDAO");
+            friendGraph = (FriendGraph) getServletContext().getAttribute("friendGraph");
+            userStatsService = (UserStatsService) getServletContext().getAttribute("userStatsService");
+            usernameIndex = (UsernameIndex) getServletContext().getAttribute("usernameIndex");
         }
         catch (Exception e)
         {
@@ -60,6 +80,9 @@ public class UserController extends HttpServlet {
             case "/user":
                 handleUserProfile(req, resp);
                 break;
+            case "/api/users/autocomplete":
+                handleAutocomplete(req, resp);
+                break;
             default:
                 resp.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
@@ -143,10 +166,10 @@ public class UserController extends HttpServlet {
             req.setAttribute("isOwnProfile", isOwnProfile);
             if (quizId != null) req.setAttribute("quizId", quizId);
             // Optionally, add stats/achievements as in ProfileController
-            int quizCount = quizAttemptDAO.getAttemptCountByUser(profileUser.getUserId());
-            double avgScore = quizAttemptDAO.getAverageScore(profileUser.getUserId(), false);
-            req.setAttribute("quizCount", quizCount);
-            req.setAttribute("avgScore", avgScore);
+            model.UserStats stats = userStatsService.getStats(profileUser.getUserId());
+            req.setAttribute("userStats", stats);
+            req.setAttribute("quizCount", stats.getAttempts());
+            req.setAttribute("avgScore", stats.getAverageScore());
             java.util.List<model.Achievement> achievements = achievementDAO.getAchievementsByUser(profileUser.getUserId());
             req.setAttribute("achievements", achievements);
             // Friendship logic
@@ -154,14 +177,35 @@ public class UserController extends HttpServlet {
             boolean pendingRequest = false;
             boolean canSendFriendRequest = false;
             if (!isOwnProfile && loggedInUser != null) {
-                areFriends = friendshipDAO.areFriends(loggedInUser.getUserId(), profileUser.getUserId());
-                if (!areFriends) {
-                    boolean sentPending = friendshipDAO.hasPendingRequest(loggedInUser.getUserId(), profileUser.getUserId());
-                    boolean receivedPending = friendshipDAO.hasPendingRequest(profileUser.getUserId(), loggedInUser.getUserId());
-                    pendingRequest = sentPending || receivedPending;
-                    canSendFriendRequest = !pendingRequest;
+                if (friendGraph != null) {
+                    // One in-memory lookup answers all three questions
+                    String status = friendGraph.getStatus(loggedInUser.getUserId(), profileUser.getUserId());
+                    areFriends = model.Friendship.STATUS_ACCEPTED.equals(status);
+                    pendingRequest = model.Friendship.STATUS_PENDING.equals(status);
+                    canSendFriendRequest = !areFriends && !pendingRequest;
+                } else {
+                    areFriends = friendshipDAO.areFriends(loggedInUser.getUserId(), profileUser.getUserId());
+                    if (!areFriends) {
+                        boolean sentPending = friendshipDAO.hasPendingRequest(loggedInUser.getUserId(), profileUser.getUserId());
+                        boolean receivedPending = friendshipDAO.hasPendingRequest(profileUser.getUserId(), loggedInUser.getUserId());
+                        pendingRequest = sentPending || receivedPending;
+                        canSendFriendRequest = !pendingRequest;
+                    }
                 }
             }
+            if (!isOwnProfile && loggedInUser != null && friendGraph != null) {
+                // The badge needs the count; only the first few names are listed
+                int[] mutualIds = friendGraph.getMutualFriendIds(loggedInUser.getUserId(), profileUser.getUserId());
+                List<String> mutualNames = new ArrayList<>();
+                for (int i = 0; i < mutualIds.length && mutualNames.size() < MUTUAL_FRIENDS_SHOWN; i++) {
+                    String name = usernameIndex != null ? usernameIndex.getUsername(mutualIds[i]) : null;
+                    if (name != null) {
+                        mutualNames.add(name);
+                    }
+                }
+                req.setAttribute("mutualFriendCount", mutualIds.length);
+                req.setAttribute("mutualFriendNames", mutualNames);
+            }
             req.setAttribute("areFriends", areFriends);
             req.setAttribute("pendingRequest", pendingRequest);
             req.setAttribute("canSendFriendRequest", canSendFriendRequest);
@@ -184,4 +228,58 @@ public class UserController extends HttpServlet {
             throw new ServletException(e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * JSON username suggestions for the friend, message and admin search fields
+     * ?q=al             up to 8 usernames starting with "al", friends first
+     * ?q=al&limit=15    a larger page, capped at 20
+     */
+    private void handleAutocomplete(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        HttpSession session = req.getSession(false);
+        User user = (session != null) ? (User) session.getAttribute("user") : null;
+        if (user == null && (session == null || session.getAttribute("admin") == null)) {
+            resp.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Login required");
+            return;
+        }
+        if (usernameIndex == null) {
+            resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        String prefix = req.getParameter("q");
+        int limit = DEFAULT_SUGGESTIONS;
+        try {
+            if (req.getParameter("limit") != null) {
+                limit = Math.max(1, Math.min(MAX_SUGGESTIONS, Integer.parseInt(req.getParameter("limit"))));
+            }
+        } catch (NumberFormatException e) {
+            // Keep the default page size
+        }
+        try {
+            Set<Integer> friendIds = user != null ? getFriendIds(user.getUserId()) : new HashSet<>();
+            List<UsernameIndex.Match> matches = usernameIndex.complete(prefix, limit, friendIds,
+                    user != null ? user.getUserId() : 0);
+
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("query", prefix == null ? "" : prefix);
+            body.put("matches", matches);
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            resp.getWriter().write(gson.toJson(body));
+        } catch (SQLException e) {
+            throw new ServletException(e);
+        }
+    }
+
+    // Typeahead fires on every keystroke, so friends come from the in-memory graph when it is available
+    private Set<Integer> getFriendIds(int userId) throws SQLException {
+        if (friendGraph == null) {
+            return new HashSet<>(friendshipDAO.getFriendIds(userId));
+        }
+        int[] friendIds = friendGraph.getFriendIds(userId);
+        Set<Integer> ids = new HashSet<>(friendIds.length * 2);
+        for (int friendId : friendIds) {
+            ids.add(friendId);
+        }
+        return ids;
+    }
+}
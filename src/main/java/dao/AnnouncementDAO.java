@@ -6,6 +6,7 @@ import java.sql.*;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Data Access Object for Announcement entity
@@ -15,11 +16,32 @@ public class AnnouncementDAO {
     
     private Connection connection;
     
+    // Components that cache announcements and must drop them on writes
+    private final List<AnnouncementListener> announcementListeners = new CopyOnWriteArrayList<>();
+    
     // Constructor that takes a database connection
     public AnnouncementDAO(Connection connection) {
         this.connection = connection;
     }
     
+    /**
+     * Callback notified after announcements are created, updated or deleted
+     */
+    public interface AnnouncementListener {
+        /**
+         * Called after any announcement row was written
+         */
+        void onAnnouncementsChanged();
+    }
+    
+    /**
+     * Register a listener for announcement writes
+     * @param listener Listener to notify
+     */
+    public void addAnnouncementListener(AnnouncementListener listener) {
+        announcementListeners.add(listener);
+    }
+    
     // ========================= CREATE OPERATIONS =========================
     
     /**
@@ -47,6 +69,7 @@ public class AnnouncementDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     announcement.setId(generatedKeys.getInt(1));
+                    notifyAnnouncementsChanged();
                     return announcement;
                 }
             }
@@ -163,7 +186,11 @@ public class AnnouncementDAO {
             stmt.setString(4, announcement.getPriority().getValue());
             stmt.setInt(5, announcement.getId());
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyAnnouncementsChanged();
+            }
+            return updated;
         }
     }
     
@@ -181,7 +208,11 @@ public class AnnouncementDAO {
             stmt.setBoolean(1, isActive);
             stmt.setInt(2, id);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyAnnouncementsChanged();
+            }
+            return updated;
         }
     }
     
@@ -198,7 +229,11 @@ public class AnnouncementDAO {
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                notifyAnnouncementsChanged();
+            }
+            return deleted;
         }
     }
 
@@ -211,7 +246,11 @@ public class AnnouncementDAO {
         String sql = "DELETE FROM announcements WHERE is_active = FALSE";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                notifyAnnouncementsChanged();
+            }
+            return deleted;
         }
     }
     
@@ -224,7 +263,11 @@ public class AnnouncementDAO {
         String sql = "DELETE FROM announcements";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                notifyAnnouncementsChanged();
+            }
+            return deleted;
         }
     }
     
@@ -254,6 +297,15 @@ public class AnnouncementDAO {
     
     // ========================= HELPER METHODS =========================
     
+    /**
+     * Notify listeners that announcements were written
+     */
+    private void notifyAnnouncementsChanged() {
+        for (AnnouncementListener listener : announcementListeners) {
+            listener.onAnnouncementsChanged();
+        }
+    }
+    
     /**
      * Helper method to map database row to Announcement object
      * @param rs ResultSet containing announcement data
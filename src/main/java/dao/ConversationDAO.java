@@ -0,0 +1,535 @@
+package dao;
+
+import model.Conversation;
+import model.Message;
+import util.IdBatches;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data Access Object for Conversation entity
+ * A conversation groups every message between two users. The conversations row carries a pointer to the last
+ * message and each participant row carries that user's unread count and last activity, so listing a user's
+ * threads is one index range scan and opening a thread pages through messages(conversation_id, date_sent, id).
+ * MessageDAO calls in here on every message write; nothing else should change these tables.
+ */
+public class ConversationDAO {
+
+    private Connection connection;
+
+    // Pairs or rows per multi-row statement
+    static final int BATCH_SIZE = 500;
+    // Messages assigned to conversations per backfill statement
+    private static final int MIGRATION_BATCH = 5000;
+
+    // Set once every message has a conversation; until then history falls back to the sender/receiver pair
+    private volatile boolean ready;
+
+    private static final String CONVERSATION_COLUMNS =
+            "SELECT p.conversation_id, p.user_id, p.other_user_id, p.unread_count, p.last_activity, c.last_message_id ";
+
+    // Constructor that takes a database connection
+    public ConversationDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    // ========================= WRITE PATH =========================
+
+    /**
+     * Set the conversation ID of each message, creating conversations for new pairs
+     * Two statements per BATCH_SIZE distinct pairs: an INSERT IGNORE and a lookup of the pairs' IDs.
+     * @param messages Messages about to be inserted
+     * @throws SQLException If database error occurs
+     */
+    public void assignConversations(List<Message> messages) throws SQLException {
+        Map<Long, Integer> idsByPair = new HashMap<>();
+        Set<Long> pairs = new LinkedHashSet<>();
+        for (Message message : messages) {
+            pairs.add(pairKey(message.getSenderId(), message.getReceiverId()));
+        }
+        List<Long> all = new ArrayList<>(pairs);
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            List<Long> batch = all.subList(from, Math.min(from + BATCH_SIZE, all.size()));
+            String rows = String.join(", ", Collections.nCopies(batch.size(), "(?, ?)"));
+
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "INSERT IGNORE INTO conversations (user_low_id, user_high_id) VALUES " + rows)) {
+                bindPairs(stmt, batch);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "SELECT id, user_low_id, user_high_id FROM conversations WHERE (user_low_id, user_high_id) IN (" + rows + ")")) {
+                bindPairs(stmt, batch);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        idsByPair.put(pairKey(rs.getInt("user_low_id"), rs.getInt("user_high_id")), rs.getInt("id"));
+                    }
+                }
+            }
+        }
+        for (Message message : messages) {
+            message.setConversationId(idsByPair.get(pairKey(message.getSenderId(), message.getReceiverId())));
+        }
+    }
+
+    /**
+     * Move the last-message pointers and participant rows forward for newly inserted messages
+     * One multi-row upsert for the conversations and one for the participants, per BATCH_SIZE rows.
+     * @param messages Stored messages with IDs and conversation IDs
+     * @throws SQLException If database error occurs
+     */
+    public void recordMessages(List<Message> messages) throws SQLException {
+        Map<Integer, Message> latest = new LinkedHashMap<>();
+        Map<Long, int[]> participants = new LinkedHashMap<>();   // (conversation, user) -> {other user, unread}
+        Map<Long, Date> activity = new HashMap<>();
+        for (Message message : messages) {
+            Integer conversationId = message.getConversationId();
+            if (conversationId == null) {
+                continue;
+            }
+            Message current = latest.get(conversationId);
+            if (current == null || isAfter(message, current)) {
+                latest.put(conversationId, message);
+            }
+            addParticipant(participants, activity, conversationId, message.getSenderId(), message.getReceiverId(), 0,
+                    message.getDateSent());
+            addParticipant(participants, activity, conversationId, message.getReceiverId(), message.getSenderId(),
+                    message.isRead() ? 0 : 1, message.getDateSent());
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        // Assignments run left to right: the pointer moves only if the new message is not older than the current one
+        String conversationSql = "INSERT INTO conversations (id, user_low_id, user_high_id, last_message_id, last_activity) VALUES ";
+        String conversationUpdate = " ON DUPLICATE KEY UPDATE " +
+                "last_message_id = IF(last_activity IS NULL OR VALUES(last_activity) >= last_activity, VALUES(last_message_id), last_message_id), " +
+                "last_activity = IF(last_activity IS NULL OR VALUES(last_activity) >= last_activity, VALUES(last_activity), last_activity)";
+        List<Message> latestMessages = new ArrayList<>(latest.values());
+        for (int from = 0; from < latestMessages.size(); from += BATCH_SIZE) {
+            List<Message> batch = latestMessages.subList(from, Math.min(from + BATCH_SIZE, latestMessages.size()));
+            String sql = conversationSql + String.join(", ", Collections.nCopies(batch.size(), "(?, ?, ?, ?, ?)")) + conversationUpdate;
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (Message message : batch) {
+                    stmt.setInt(index++, message.getConversationId());
+                    stmt.setInt(index++, Math.min(message.getSenderId(), message.getReceiverId()));
+                    stmt.setInt(index++, Math.max(message.getSenderId(), message.getReceiverId()));
+                    stmt.setInt(index++, message.getMessageId());
+                    stmt.setTimestamp(index++, new Timestamp(message.getDateSent().getTime()));
+                }
+                stmt.executeUpdate();
+            }
+        }
+
+        String participantSql = "INSERT INTO conversation_participants (user_id, conversation_id, other_user_id, unread_count, last_activity) VALUES ";
+        String participantUpdate = " ON DUPLICATE KEY UPDATE unread_count = unread_count + VALUES(unread_count), " +
+                "last_activity = IF(last_activity IS NULL OR VALUES(last_activity) > last_activity, VALUES(last_activity), last_activity)";
+        List<Map.Entry<Long, int[]>> rows = new ArrayList<>(participants.entrySet());
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            List<Map.Entry<Long, int[]>> batch = rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()));
+            String sql = participantSql + String.join(", ", Collections.nCopies(batch.size(), "(?, ?, ?, ?, ?)")) + participantUpdate;
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (Map.Entry<Long, int[]> row : batch) {
+                    stmt.setInt(index++, (int) (row.getKey() & 0xffffffffL));
+                    stmt.setInt(index++, (int) (row.getKey() >>> 32));
+                    stmt.setInt(index++, row.getValue()[0]);
+                    stmt.setInt(index++, row.getValue()[1]);
+                    stmt.setTimestamp(index++, new Timestamp(activity.get(row.getKey()).getTime()));
+                }
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Count the unread messages among some messages, per conversation and receiver
+     * Called before the messages are marked read so the counts can be released afterwards.
+     * @param messageIds The message IDs
+     * @return Rows of {conversation ID, receiver ID, unread count}
+     * @throws SQLException If database error occurs
+     */
+    public List<int[]> findUnreadCounts(Collection<Integer> messageIds) throws SQLException {
+        List<int[]> counts = new ArrayList<>();
+        for (List<Integer> batch : IdBatches.chunk(messageIds)) {
+            String sql = "SELECT conversation_id, receiver_id, COUNT(*) FROM messages WHERE id IN (" + IdBatches.placeholders(batch.size()) + ") " +
+                         "AND is_read = FALSE AND conversation_id IS NOT NULL GROUP BY conversation_id, receiver_id";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                IdBatches.bindIds(stmt, 1, batch);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        counts.add(new int[] {rs.getInt(1), rs.getInt(2), rs.getInt(3)});
+                    }
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Subtract messages that were just read from the participants' unread counts
+     * @param counts Rows from findUnreadCounts
+     * @throws SQLException If database error occurs
+     */
+    public void releaseUnread(List<int[]> counts) throws SQLException {
+        if (counts.isEmpty()) {
+            return;
+        }
+        String sql = "UPDATE conversation_participants SET unread_count = GREATEST(unread_count - ?, 0) " +
+                     "WHERE user_id = ? AND conversation_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int[] count : counts) {
+                stmt.setInt(1, count[2]);
+                stmt.setInt(2, count[1]);
+                stmt.setInt(3, count[0]);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Reset a user's unread count in one conversation, or in all of them
+     * @param userId The user ID
+     * @param conversationId The conversation ID, or null for every conversation of the user
+     * @throws SQLException If database error occurs
+     */
+    public void clearUnread(int userId, Integer conversationId) throws SQLException {
+        String sql = "UPDATE conversation_participants SET unread_count = 0 WHERE user_id = ?" +
+                     (conversationId != null ? " AND conversation_id = ?" : "");
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            if (conversationId != null) {
+                stmt.setInt(2, conversationId);
+            }
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Find the conversations some messages belong to
+     * Called before the messages are deleted so the conversations can be refreshed afterwards.
+     * @param messageIds The message IDs
+     * @return Distinct conversation IDs
+     * @throws SQLException If database error occurs
+     */
+    public Set<Integer> findConversationIds(Collection<Integer> messageIds) throws SQLException {
+        Set<Integer> conversationIds = new LinkedHashSet<>();
+        for (List<Integer> batch : IdBatches.chunk(messageIds)) {
+            String sql = "SELECT DISTINCT conversation_id FROM messages WHERE id IN (" + IdBatches.placeholders(batch.size()) + ") " +
+                         "AND conversation_id IS NOT NULL";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                IdBatches.bindIds(stmt, 1, batch);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        conversationIds.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return conversationIds;
+    }
+
+    /**
+     * Recompute the last message and unread counts of some conversations from their messages
+     * Used after deletes. A conversation left without messages drops out of its participants' lists but keeps
+     * its ID, so a message being sent to the pair at the same time still has a conversation to point to.
+     * @param conversationIds The conversation IDs
+     * @throws SQLException If database error occurs
+     */
+    public void refresh(Collection<Integer> conversationIds) throws SQLException {
+        refresh(connection, conversationIds);
+    }
+
+    // ========================= READ OPERATIONS =========================
+
+    /**
+     * Find a conversation as seen by one of its participants
+     * @param conversationId The conversation ID
+     * @param userId The participant's user ID
+     * @return Conversation object, or null if the conversation does not exist or the user is not in it
+     * @throws SQLException If database error occurs
+     */
+    public Conversation findConversation(int conversationId, int userId) throws SQLException {
+        String sql = CONVERSATION_COLUMNS +
+                     "FROM conversation_participants p JOIN conversations c ON c.id = p.conversation_id " +
+                     "WHERE p.user_id = ? AND p.conversation_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, conversationId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRowToConversation(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the conversation ID of two users
+     * @param userId1 First user ID
+     * @param userId2 Second user ID
+     * @return The conversation ID, or null if they have never exchanged a message
+     * @throws SQLException If database error occurs
+     */
+    public Integer findConversationId(int userId1, int userId2) throws SQLException {
+        String sql = "SELECT id FROM conversations WHERE user_low_id = ? AND user_high_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, Math.min(userId1, userId2));
+            stmt.setInt(2, Math.max(userId1, userId2));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get one page of a user's conversations, most recently active first, each with its last message
+     * Keyset paginated over conversation_participants(user_id, last_activity, conversation_id).
+     * @param userId The user ID
+     * @param beforeActivity Last activity of the previous page's final conversation, or null for the first page
+     * @param beforeConversationId Conversation ID of the previous page's final conversation, ignored on the first page
+     * @param limit Maximum number of conversations to return
+     * @return Conversations with lastMessage set
+     * @throws SQLException If database error occurs
+     */
+    public List<Conversation> getConversations(int userId, Date beforeActivity, int beforeConversationId, int limit) throws SQLException {
+        String sql = CONVERSATION_COLUMNS + ", " +
+                     "m.id, m.sender_id, m.receiver_id, m.message_type, m.content, m.quiz_id, m.date_sent, m.is_read " +
+                     "FROM conversation_participants p JOIN conversations c ON c.id = p.conversation_id " +
+                     "LEFT JOIN messages m ON m.id = c.last_message_id " +
+                     "WHERE p.user_id = ?" +
+                     (beforeActivity != null
+                             ? " AND (p.last_activity < ? OR (p.last_activity = ? AND p.conversation_id < ?))"
+                             : "") +
+                     " ORDER BY p.last_activity DESC, p.conversation_id DESC LIMIT ?";
+        List<Conversation> conversations = new ArrayList<>();
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            stmt.setInt(index++, userId);
+            if (beforeActivity != null) {
+                Timestamp before = new Timestamp(beforeActivity.getTime());
+                stmt.setTimestamp(index++, before);
+                stmt.setTimestamp(index++, before);
+                stmt.setInt(index++, beforeConversationId);
+            }
+            stmt.setInt(index, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Conversation conversation = mapRowToConversation(rs);
+                    if (rs.getObject("id") != null) {
+                        Message last = new Message(
+                            rs.getInt("id"),
+                            rs.getInt("sender_id"),
+                            rs.getInt("receiver_id"),
+                            rs.getString("message_type"),
+                            rs.getString("content"),
+                            (rs.getObject("quiz_id") != null ? rs.getInt("quiz_id") : null),
+                            rs.getTimestamp("date_sent"),
+                            rs.getBoolean("is_read")
+                        );
+                        last.setConversationId(conversation.getConversationId());
+                        conversation.setLastMessage(last);
+                    }
+                    conversations.add(conversation);
+                }
+            }
+        }
+        return conversations;
+    }
+
+    // ========================= MIGRATION =========================
+
+    /**
+     * Assign existing messages to conversations and build the denormalized columns
+     * Safe to run while messages are being written: new messages are assigned as they are inserted. Runs over
+     * the given connection in MIGRATION_BATCH keyset ranges of message IDs, and only the conversations that
+     * received messages are recomputed in ID batches.
+     * @param migrationConnection Connection used for the backfill, so requests on the shared one are not held up
+     * @return Number of messages assigned
+     * @throws SQLException If database error occurs
+     */
+    public int migrate(Connection migrationConnection) throws SQLException {
+        if (countRows(migrationConnection, "SELECT COUNT(*) FROM (SELECT 1 FROM messages WHERE conversation_id IS NULL LIMIT 1) t") == 0) {
+            ready = true;
+            return 0;
+        }
+
+        String pairSql = "INSERT IGNORE INTO conversations (user_low_id, user_high_id) " +
+                "SELECT DISTINCT LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id) " +
+                "FROM messages WHERE conversation_id IS NULL AND id > ? AND id <= ?";
+        String assignSql = "UPDATE messages m JOIN conversations c " +
+                "ON c.user_low_id = LEAST(m.sender_id, m.receiver_id) AND c.user_high_id = GREATEST(m.sender_id, m.receiver_id) " +
+                "SET m.conversation_id = c.id WHERE m.conversation_id IS NULL AND m.id > ? AND m.id <= ?";
+        String touchedSql = "SELECT DISTINCT conversation_id FROM messages WHERE id > ? AND id <= ? AND conversation_id IS NOT NULL";
+        long maxId = countRows(migrationConnection, "SELECT COALESCE(MAX(id), 0) FROM messages");
+        Set<Integer> touched = new LinkedHashSet<>();
+        int assigned = 0;
+
+        try (PreparedStatement pairs = migrationConnection.prepareStatement(pairSql);
+             PreparedStatement assign = migrationConnection.prepareStatement(assignSql);
+             PreparedStatement find = migrationConnection.prepareStatement(touchedSql)) {
+            for (long from = 0; from < maxId; from += MIGRATION_BATCH) {
+                long to = from + MIGRATION_BATCH;
+                pairs.setLong(1, from);
+                pairs.setLong(2, to);
+                pairs.executeUpdate();
+                assign.setLong(1, from);
+                assign.setLong(2, to);
+                int batchAssigned = assign.executeUpdate();
+                if (batchAssigned == 0) {
+                    continue;
+                }
+                assigned += batchAssigned;
+                find.setLong(1, from);
+                find.setLong(2, to);
+                try (ResultSet rs = find.executeQuery()) {
+                    while (rs.next()) {
+                        touched.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        refresh(migrationConnection, touched);
+        ready = true;
+        return assigned;
+    }
+
+    /**
+     * Check whether every message has been assigned to a conversation
+     * @return true once migrate has completed
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    /**
+     * Recompute conversations IdBatches.BATCH_SIZE at a time over a given connection
+     * @param conn The connection to run on
+     * @param conversationIds The conversation IDs
+     * @throws SQLException If database error occurs
+     */
+    private static void refresh(Connection conn, Collection<Integer> conversationIds) throws SQLException {
+        for (List<Integer> batch : IdBatches.chunk(conversationIds)) {
+            refreshBatch(conn, batch);
+        }
+    }
+
+    /**
+     * Recompute one batch of conversations from their messages
+     * Each correlated subquery reads one conversation's range of messages(conversation_id, date_sent, id).
+     * @param conn The connection to run on
+     * @param ids The conversation IDs
+     * @throws SQLException If database error occurs
+     */
+    private static void refreshBatch(Connection conn, List<Integer> ids) throws SQLException {
+        String condition = "c.id IN (" + IdBatches.placeholders(ids.size()) + ")";
+        String[] statements = {
+            "UPDATE conversations c SET c.last_message_id = (SELECT m.id FROM messages m WHERE m.conversation_id = c.id " +
+                "ORDER BY m.date_sent DESC, m.id DESC LIMIT 1) WHERE " + condition,
+            "UPDATE conversations c LEFT JOIN messages m ON m.id = c.last_message_id SET c.last_activity = m.date_sent WHERE " + condition,
+            "DELETE p FROM conversation_participants p JOIN conversations c ON c.id = p.conversation_id " +
+                "WHERE c.last_message_id IS NULL AND " + condition,
+            "INSERT INTO conversation_participants (user_id, conversation_id, other_user_id, unread_count, last_activity) " +
+                "SELECT c.user_low_id, c.id, c.user_high_id, (SELECT COUNT(*) FROM messages m WHERE m.conversation_id = c.id " +
+                "AND m.receiver_id = c.user_low_id AND m.is_read = FALSE), c.last_activity FROM conversations c " +
+                "WHERE c.last_message_id IS NOT NULL AND " + condition +
+                " ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count), last_activity = VALUES(last_activity)",
+            "INSERT INTO conversation_participants (user_id, conversation_id, other_user_id, unread_count, last_activity) " +
+                "SELECT c.user_high_id, c.id, c.user_low_id, (SELECT COUNT(*) FROM messages m WHERE m.conversation_id = c.id " +
+                "AND m.receiver_id = c.user_high_id AND m.is_read = FALSE), c.last_activity FROM conversations c " +
+                "WHERE c.last_message_id IS NOT NULL AND c.user_high_id <> c.user_low_id AND " + condition +
+                " ON DUPLICATE KEY UPDATE unread_count = VALUES(unread_count), last_activity = VALUES(last_activity)"
+        };
+        for (String sql : statements) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                IdBatches.bindIds(stmt, 1, ids);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    // One key per unordered pair of users
+    static long pairKey(int userId1, int userId2) {
+        return ((long) Math.min(userId1, userId2) << 32) | (Math.max(userId1, userId2) & 0xffffffffL);
+    }
+
+    private static boolean isAfter(Message a, Message b) {
+        int byDate = a.getDateSent().compareTo(b.getDateSent());
+        return byDate > 0 || (byDate == 0 && a.getMessageId() > b.getMessageId());
+    }
+
+    // Accumulate one participant row: unread deltas add up, activity keeps the latest
+    private static void addParticipant(Map<Long, int[]> participants, Map<Long, Date> activity, int conversationId,
+                                       int userId, int otherUserId, int unread, Date sentAt) {
+        long key = ((long) conversationId << 32) | (userId & 0xffffffffL);
+        int[] row = participants.computeIfAbsent(key, k -> new int[] {otherUserId, 0});
+        row[1] += unread;
+        Date current = activity.get(key);
+        if (current == null || sentAt.after(current)) {
+            activity.put(key, sentAt);
+        }
+    }
+
+    private static void bindPairs(PreparedStatement stmt, List<Long> pairs) throws SQLException {
+        int index = 1;
+        for (long pair : pairs) {
+            stmt.setInt(index++, (int) (pair >>> 32));
+            stmt.setInt(index++, (int) (pair & 0xffffffffL));
+        }
+    }
+
+    private static long countRows(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Map a ResultSet row to a Conversation object
+     * @param rs The ResultSet positioned at a valid row
+     * @return Conversation object
+     * @throws SQLException If database error occurs
+     */
+    private Conversation mapRowToConversation(ResultSet rs) throws SQLException {
+        Timestamp lastActivity = rs.getTimestamp("last_activity");
+        return new Conversation(
+            rs.getInt("conversation_id"),
+            rs.getInt("user_id"),
+            rs.getInt("other_user_id"),
+            rs.getInt("unread_count"),
+            lastActivity != null ? new Date(lastActivity.getTime()) : null,
+            (rs.getObject("last_message_id") != null ? rs.getInt("last_message_id") : null)
+        );
+    }
+}
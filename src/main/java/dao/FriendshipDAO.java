@@ -1,26 +1,83 @@
 package dao;
 
 import model.Friendship;
+import util.SortedIntArrays;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Friendship entity
  * Provides full CRUD operations and friendship-specific functionality
  * Supports friend requests, acceptance, declining, blocking, and friendship management
+ *
+ * Each friendships row is mirrored by two friend_edges rows, one per direction, written in the same code path.
+ * Lookups by "either side of the pair" then become a single range scan on friend_edges(user_id, ...) instead of
+ * an OR over requester_id and receiver_id. Edges are deleted by cascade with their friendship.
  */
 public class FriendshipDAO {
 
+    // Friendships copied per batch by migrateEdges
+    private static final int EDGE_MIGRATION_BATCH = 1000;
+    // Friendships read per page by forEachFriendship
+    static final int SCAN_PAGE_SIZE = 5000;
+
+    private static final String FRIENDSHIP_COLUMNS = "f.id, f.requester_id, f.receiver_id, f.status, f.date_requested, f.date_accepted";
+
     private Connection connection;
 
+    // Set once every friendship has its edges; until then reads use the requester/receiver columns
+    private volatile boolean edgesReady;
+
+    // Components that keep derived data in sync with friendship writes
+    private final List<FriendshipListener> friendshipListeners = new CopyOnWriteArrayList<>();
+
     // Constructor that takes a database connection
     public FriendshipDAO(Connection connection) {
         this.connection = connection;
     }
 
+    /**
+     * Callback notified after friendship rows are written
+     */
+    public interface FriendshipListener {
+        /**
+         * Called after the friendship between two users was created, changed or deleted
+         * @param userId1 One user of the pair (the requester when the row still exists)
+         * @param userId2 The other user of the pair
+         * @param friendship The row as now stored, or null if it was deleted
+         */
+        default void onFriendshipChanged(int userId1, int userId2, Friendship friendship) {
+        }
+
+        /**
+         * Called after several friendships of one user were deleted at once
+         * @param userId The user whose friendships changed
+         */
+        default void onFriendshipsChanged(int userId) {
+        }
+
+        /**
+         * Called after friendships of unknown users were deleted
+         */
+        default void onAllFriendshipsChanged() {
+        }
+    }
+
+    /**
+     * Register a listener for friendship writes
+     * @param listener Listener to notify
+     */
+    public void addFriendshipListener(FriendshipListener listener) {
+        friendshipListeners.add(listener);
+    }
+
     // ========================= CREATE OPERATIONS =========================
 
     /**
@@ -53,6 +110,8 @@ public class FriendshipDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     friendship.setFriendshipId(generatedKeys.getInt(1));
+                    syncEdges(friendship.getFriendshipId());
+                    fireChanged(friendship.getRequesterId(), friendship.getReceiverId(), friendship);
                     return friendship;
                 }
             }
@@ -101,11 +160,13 @@ public class FriendshipDAO {
                 stmt.setInt(5, existing.getFriendshipId());
                 int updated = stmt.executeUpdate();
                 if (updated > 0) {
+                    syncEdges(existing.getFriendshipId());
                     existing.setRequesterId(requesterId);
                     existing.setReceiverId(receiverId);
                     existing.setStatus(Friendship.STATUS_PENDING);
                     existing.setDateRequested(new Date());
                     existing.setDateAccepted(null);
+                    fireChanged(requesterId, receiverId, existing);
                     return existing;
                 }
             }
@@ -147,6 +208,23 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public Friendship findFriendship(int userId1, int userId2) throws SQLException {
+        if (edgesReady) {
+            String sql = "SELECT " + FRIENDSHIP_COLUMNS + " FROM friend_edges e JOIN friendships f ON f.id = e.friendship_id " +
+                    "WHERE e.user_id = ? AND e.friend_id = ?";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, userId1);
+                stmt.setInt(2, userId2);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRowToFriendship(rs);
+                    }
+                }
+            }
+            return null;
+        }
+
         String sql = "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
                 "WHERE (requester_id = ? AND receiver_id = ?) OR (requester_id = ? AND receiver_id = ?)";
 
@@ -172,22 +250,7 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public List<Friendship> getFriends(int userId) throws SQLException {
-        String sql = "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
-                "WHERE (requester_id = ? OR receiver_id = ?) AND status = ? ORDER BY date_accepted DESC";
-        List<Friendship> friendships = new ArrayList<>();
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setInt(2, userId);
-            stmt.setString(3, Friendship.STATUS_ACCEPTED);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    friendships.add(mapRowToFriendship(rs));
-                }
-            }
-        }
-        return friendships;
+        return getFriends(userId, 0, Integer.MAX_VALUE);
     }
 
     /**
@@ -268,14 +331,17 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public List<Friendship> getFriendshipsByStatus(int userId, String status) throws SQLException {
-        String sql = "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
-                "WHERE (requester_id = ? OR receiver_id = ?) AND status = ? ORDER BY date_requested DESC";
+        boolean edges = edgesReady;
+        String sql = edges
+                ? "SELECT " + FRIENDSHIP_COLUMNS + " FROM friend_edges e JOIN friendships f ON f.id = e.friendship_id " +
+                  "WHERE e.user_id = ? AND e.status = ? ORDER BY f.date_requested DESC"
+                : "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
+                  "WHERE (requester_id = ? OR receiver_id = ?) AND status = ? ORDER BY date_requested DESC";
         List<Friendship> friendships = new ArrayList<>();
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setInt(2, userId);
-            stmt.setString(3, status);
+            int index = bindUser(stmt, userId, edges);
+            stmt.setString(index, status);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -293,13 +359,16 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public List<Friendship> getAllFriendships(int userId) throws SQLException {
-        String sql = "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
-                "WHERE requester_id = ? OR receiver_id = ? ORDER BY date_requested DESC";
+        boolean edges = edgesReady;
+        String sql = edges
+                ? "SELECT " + FRIENDSHIP_COLUMNS + " FROM friend_edges e JOIN friendships f ON f.id = e.friendship_id " +
+                  "WHERE e.user_id = ? ORDER BY f.date_requested DESC"
+                : "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
+                  "WHERE requester_id = ? OR receiver_id = ? ORDER BY date_requested DESC";
         List<Friendship> friendships = new ArrayList<>();
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setInt(2, userId);
+            bindUser(stmt, userId, edges);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -319,16 +388,20 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public List<Friendship> getFriends(int userId, int offset, int limit) throws SQLException {
-        String sql = "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
-                "WHERE (requester_id = ? OR receiver_id = ?) AND status = ? ORDER BY date_accepted DESC LIMIT ? OFFSET ?";
+        // The edge index (user_id, status, date_accepted) returns friends already in order
+        boolean edges = edgesReady;
+        String sql = edges
+                ? "SELECT " + FRIENDSHIP_COLUMNS + " FROM friend_edges e JOIN friendships f ON f.id = e.friendship_id " +
+                  "WHERE e.user_id = ? AND e.status = ? ORDER BY e.date_accepted DESC LIMIT ? OFFSET ?"
+                : "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
+                  "WHERE (requester_id = ? OR receiver_id = ?) AND status = ? ORDER BY date_accepted DESC LIMIT ? OFFSET ?";
         List<Friendship> friendships = new ArrayList<>();
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setInt(2, userId);
-            stmt.setString(3, Friendship.STATUS_ACCEPTED);
-            stmt.setInt(4, limit);
-            stmt.setInt(5, offset);
+            int index = bindUser(stmt, userId, edges);
+            stmt.setString(index++, Friendship.STATUS_ACCEPTED);
+            stmt.setInt(index++, limit);
+            stmt.setInt(index, offset);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -339,44 +412,67 @@ public class FriendshipDAO {
         return friendships;
     }
 
+    /**
+     * Visit every friendship row in ID order
+     * Rows are read in keyset pages of SCAN_PAGE_SIZE, so building an in-memory graph never holds the whole table
+     * as a list, and the shared connection is free for other statements between pages instead of being tied up
+     * by one streaming result set for the whole scan.
+     * @param consumer Callback invoked once per row
+     * @return Number of rows visited
+     * @throws SQLException If database error occurs
+     */
+    public int forEachFriendship(Consumer<Friendship> consumer) throws SQLException {
+        String sql = "SELECT id, requester_id, receiver_id, status, date_requested, date_accepted FROM friendships " +
+                "WHERE id > ? ORDER BY id LIMIT ?";
+        int visited = 0;
+        int lastId = 0;
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(2, SCAN_PAGE_SIZE);
+            int pageRows;
+            do {
+                List<Friendship> page = new ArrayList<>();
+                stmt.setInt(1, lastId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        page.add(mapRowToFriendship(rs));
+                    }
+                }
+                pageRows = page.size();
+                for (Friendship friendship : page) {
+                    consumer.accept(friendship);
+                    lastId = friendship.getFriendshipId();
+                }
+                visited += pageRows;
+            } while (pageRows == SCAN_PAGE_SIZE);
+        }
+        return visited;
+    }
+
     /**
      * Get mutual friends between two users
+     * Loads each user's friends with its own query and intersects the sorted ID lists in memory, instead of a
+     * self-join of friendships that no index can serve.
      * @param userId1 First user ID
      * @param userId2 Second user ID
-     * @return List of mutual friendships
+     * @return userId1's accepted friendships with users who are also friends of userId2
      * @throws SQLException If database error occurs
      */
     public List<Friendship> getMutualFriends(int userId1, int userId2) throws SQLException {
-        String sql = "SELECT DISTINCT f1.id, f1.requester_id, f1.receiver_id, f1.status, f1.date_requested, f1.date_accepted " +
-                "FROM friendships f1 " +
-                "JOIN friendships f2 ON " +
-                "  ((f1.requester_id = f2.requester_id OR f1.requester_id = f2.receiver_id OR " +
-                "    f1.receiver_id = f2.requester_id OR f1.receiver_id = f2.receiver_id) AND " +
-                "   f1.id != f2.id) " +
-                "WHERE f1.status = ? AND f2.status = ? AND " +
-                "  ((f1.requester_id = ? OR f1.receiver_id = ?) AND " +
-                "   (f2.requester_id = ? OR f2.receiver_id = ?)) AND " +
-                "  f1.requester_id != ? AND f1.receiver_id != ? AND " +
-                "  f2.requester_id != ? AND f2.receiver_id != ?";
+        List<Friendship> friendships1 = getFriends(userId1);
+        int[] ids1 = new int[friendships1.size()];
+        for (int i = 0; i < ids1.length; i++) {
+            ids1[i] = friendships1.get(i).getFriendId(userId1);
+        }
+        int[] ids2 = getFriendIds(userId2).stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(ids1);
+        Arrays.sort(ids2);
+        int[] mutual = SortedIntArrays.intersect(ids1, ids2);
 
         List<Friendship> mutualFriends = new ArrayList<>();
-
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, Friendship.STATUS_ACCEPTED);
-            stmt.setString(2, Friendship.STATUS_ACCEPTED);
-            stmt.setInt(3, userId1);
-            stmt.setInt(4, userId1);
-            stmt.setInt(5, userId2);
-            stmt.setInt(6, userId2);
-            stmt.setInt(7, userId1);
-            stmt.setInt(8, userId1);
-            stmt.setInt(9, userId2);
-            stmt.setInt(10, userId2);
-
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    mutualFriends.add(mapRowToFriendship(rs));
-                }
+        for (Friendship friendship : friendships1) {
+            if (Arrays.binarySearch(mutual, friendship.getFriendId(userId1)) >= 0) {
+                mutualFriends.add(friendship);
             }
         }
         return mutualFriends;
@@ -399,7 +495,12 @@ public class FriendshipDAO {
             stmt.setInt(3, friendshipId);
             stmt.setString(4, Friendship.STATUS_PENDING);
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                syncEdges(friendshipId);
+                fireChanged(friendshipId);
+            }
+            return updated;
         }
     }
 
@@ -417,7 +518,12 @@ public class FriendshipDAO {
             stmt.setInt(2, friendshipId);
             stmt.setString(3, Friendship.STATUS_PENDING);
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                syncEdges(friendshipId);
+                fireChanged(friendshipId);
+            }
+            return updated;
         }
     }
 
@@ -434,7 +540,12 @@ public class FriendshipDAO {
             stmt.setString(1, Friendship.STATUS_BLOCKED);
             stmt.setInt(2, friendshipId);
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                syncEdges(friendshipId);
+                fireChanged(friendshipId);
+            }
+            return updated;
         }
     }
 
@@ -460,7 +571,12 @@ public class FriendshipDAO {
                 stmt.setInt(2, friendshipId);
             }
 
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                syncEdges(friendshipId);
+                fireChanged(friendshipId);
+            }
+            return updated;
         }
     }
 
@@ -473,11 +589,18 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public boolean deleteFriendship(int friendshipId) throws SQLException {
+        // Edges go with the row through ON DELETE CASCADE
         String sql = "DELETE FROM friendships WHERE id = ?";
+        // Listeners need to know which pair the row belonged to
+        Friendship deleted = friendshipListeners.isEmpty() ? null : findById(friendshipId);
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, friendshipId);
-            return stmt.executeUpdate() > 0;
+            boolean removed = stmt.executeUpdate() > 0;
+            if (removed && deleted != null) {
+                fireChanged(deleted.getRequesterId(), deleted.getReceiverId(), null);
+            }
+            return removed;
         }
     }
 
@@ -489,6 +612,22 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public boolean removeFriendship(int userId1, int userId2) throws SQLException {
+        if (edgesReady) {
+            // Primary-key lookup on the edge, then a primary-key delete that cascades to both edges
+            Integer friendshipId = findFriendshipId(userId1, userId2);
+            if (friendshipId == null) {
+                return false;
+            }
+            try (PreparedStatement stmt = connection.prepareStatement("DELETE FROM friendships WHERE id = ?")) {
+                stmt.setInt(1, friendshipId);
+                boolean removed = stmt.executeUpdate() > 0;
+                if (removed) {
+                    fireChanged(userId1, userId2, null);
+                }
+                return removed;
+            }
+        }
+
         String sql = "DELETE FROM friendships WHERE (requester_id = ? AND receiver_id = ?) OR (requester_id = ? AND receiver_id = ?)";
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -497,7 +636,11 @@ public class FriendshipDAO {
             stmt.setInt(3, userId2);
             stmt.setInt(4, userId1);
 
-            return stmt.executeUpdate() > 0;
+            boolean removed = stmt.executeUpdate() > 0;
+            if (removed) {
+                fireChanged(userId1, userId2, null);
+            }
+            return removed;
         }
     }
 
@@ -508,12 +651,24 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public int deleteAllFriendships(int userId) throws SQLException {
+        if (edgesReady) {
+            int deleted = deleteByIds(findFriendshipIds(userId, null));
+            if (deleted > 0) {
+                fireChangedForUser(userId);
+            }
+            return deleted;
+        }
+
         String sql = "DELETE FROM friendships WHERE requester_id = ? OR receiver_id = ?";
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             stmt.setInt(2, userId);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                fireChangedForUser(userId);
+            }
+            return deleted;
         }
     }
 
@@ -525,13 +680,25 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public int deleteFriendshipsByStatus(int userId, String status) throws SQLException {
+        if (edgesReady) {
+            int deleted = deleteByIds(findFriendshipIds(userId, status));
+            if (deleted > 0) {
+                fireChangedForUser(userId);
+            }
+            return deleted;
+        }
+
         String sql = "DELETE FROM friendships WHERE (requester_id = ? OR receiver_id = ?) AND status = ?";
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             stmt.setInt(2, userId);
             stmt.setString(3, status);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                fireChangedForUser(userId);
+            }
+            return deleted;
         }
     }
 
@@ -548,7 +715,13 @@ public class FriendshipDAO {
             stmt.setString(1, Friendship.STATUS_DECLINED);
             stmt.setString(2, Friendship.STATUS_BLOCKED);
             stmt.setInt(3, days);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                for (FriendshipListener listener : friendshipListeners) {
+                    listener.onAllFriendshipsChanged();
+                }
+            }
+            return deleted;
         }
     }
 
@@ -562,6 +735,10 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public boolean friendshipExists(int userId1, int userId2) throws SQLException {
+        if (edgesReady) {
+            return findFriendshipId(userId1, userId2) != null;
+        }
+
         String sql = "SELECT 1 FROM friendships WHERE (requester_id = ? AND receiver_id = ?) OR (requester_id = ? AND receiver_id = ?)";
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -584,6 +761,20 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public boolean areFriends(int userId1, int userId2) throws SQLException {
+        if (edgesReady) {
+            String sql = "SELECT 1 FROM friend_edges WHERE user_id = ? AND friend_id = ? AND status = ?";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, userId1);
+                stmt.setInt(2, userId2);
+                stmt.setString(3, Friendship.STATUS_ACCEPTED);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        }
+
         String sql = "SELECT 1 FROM friendships WHERE ((requester_id = ? AND receiver_id = ?) OR (requester_id = ? AND receiver_id = ?)) AND status = ?";
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
@@ -627,12 +818,19 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public int getFriendCount(int userId) throws SQLException {
-        String sql = "SELECT COUNT(*) FROM friendships WHERE (requester_id = ? OR receiver_id = ?) AND status = ?";
+        return countByStatus(userId, Friendship.STATUS_ACCEPTED);
+    }
+
+    // Friendships of a user with one status; with edges this is answered from the covering index alone
+    private int countByStatus(int userId, String status) throws SQLException {
+        boolean edges = edgesReady;
+        String sql = edges
+                ? "SELECT COUNT(*) FROM friend_edges WHERE user_id = ? AND status = ?"
+                : "SELECT COUNT(*) FROM friendships WHERE (requester_id = ? OR receiver_id = ?) AND status = ?";
 
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, userId);
-            stmt.setInt(2, userId);
-            stmt.setString(3, Friendship.STATUS_ACCEPTED);
+            int index = bindUser(stmt, userId, edges);
+            stmt.setString(index, status);
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -689,18 +887,7 @@ public class FriendshipDAO {
         }
 
         // Get blocked count
-        String blockedSql = "SELECT COUNT(*) FROM friendships WHERE (requester_id = ? OR receiver_id = ?) AND status = ?";
-        int blocked = 0;
-        try (PreparedStatement stmt = connection.prepareStatement(blockedSql)) {
-            stmt.setInt(1, userId);
-            stmt.setInt(2, userId);
-            stmt.setString(3, Friendship.STATUS_BLOCKED);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    blocked = rs.getInt(1);
-                }
-            }
-        }
+        int blocked = countByStatus(userId, Friendship.STATUS_BLOCKED);
 
         return new int[]{friends, pendingReceived, pendingSent, blocked};
     }
@@ -724,6 +911,24 @@ public class FriendshipDAO {
      * @throws SQLException If database error occurs
      */
     public List<Integer> getFriendIds(int userId) throws SQLException {
+        if (edgesReady) {
+            // Index-only: friend_id is part of the edge primary key carried by the secondary index
+            String sql = "SELECT friend_id FROM friend_edges WHERE user_id = ? AND status = ? ORDER BY date_accepted DESC";
+            List<Integer> friendIds = new ArrayList<>();
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                stmt.setInt(1, userId);
+                stmt.setString(2, Friendship.STATUS_ACCEPTED);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        friendIds.add(rs.getInt(1));
+                    }
+                }
+            }
+            return friendIds;
+        }
+
         List<Friendship> friends = getFriends(userId);
         List<Integer> friendIds = new ArrayList<>();
 
@@ -734,8 +939,155 @@ public class FriendshipDAO {
         return friendIds;
     }
 
+    // ========================= EDGE MIGRATION =========================
+
+    /**
+     * Copy friendships that have no edges yet into friend_edges, then switch reads to the edges
+     * Safe to run while the site is up: new writes already maintain their own edges, and each batch is a
+     * keyset range of friendship IDs copied with INSERT IGNORE, so rows written meanwhile are left alone.
+     * When every friendship already has both edges the copy is skipped.
+     * @return Number of edges inserted
+     * @throws SQLException If database error occurs
+     */
+    public int migrateEdges() throws SQLException {
+        return migrateEdges(connection);
+    }
+
+    /**
+     * Backfill friend_edges over a separate connection, so the copy never holds up requests on the shared one
+     * @param migrationConnection Connection used for the backfill statements
+     * @return Number of edges inserted
+     * @throws SQLException If database error occurs
+     */
+    public int migrateEdges(Connection migrationConnection) throws SQLException {
+        if (countRows(migrationConnection, "SELECT COUNT(*) FROM friend_edges")
+                == 2L * countRows(migrationConnection, "SELECT COUNT(*) FROM friendships")) {
+            edgesReady = true;
+            return 0;
+        }
+
+        String sql = "INSERT IGNORE INTO friend_edges (user_id, friend_id, friendship_id, status, date_accepted) " +
+                "SELECT requester_id, receiver_id, id, status, date_accepted FROM friendships WHERE id > ? AND id <= ? " +
+                "UNION ALL " +
+                "SELECT receiver_id, requester_id, id, status, date_accepted FROM friendships WHERE id > ? AND id <= ?";
+        long maxId = countRows(migrationConnection, "SELECT COALESCE(MAX(id), 0) FROM friendships");
+        int inserted = 0;
+
+        try (PreparedStatement stmt = migrationConnection.prepareStatement(sql)) {
+            for (long from = 0; from < maxId; from += EDGE_MIGRATION_BATCH) {
+                long to = from + EDGE_MIGRATION_BATCH;
+                stmt.setLong(1, from);
+                stmt.setLong(2, to);
+                stmt.setLong(3, from);
+                stmt.setLong(4, to);
+                inserted += stmt.executeUpdate();
+            }
+        }
+        edgesReady = true;
+        return inserted;
+    }
+
+    /**
+     * Check whether reads are served from friend_edges
+     * @return true once migrateEdges has completed
+     */
+    public boolean isEdgesReady() {
+        return edgesReady;
+    }
+
     // ========================= HELPER METHODS =========================
 
+    /**
+     * Write both edges of a friendship from its current row
+     * Inserts missing edges and refreshes status and acceptance date on existing ones.
+     * @param friendshipId The friendship ID
+     * @throws SQLException If database error occurs
+     */
+    private void syncEdges(int friendshipId) throws SQLException {
+        String sql = "INSERT INTO friend_edges (user_id, friend_id, friendship_id, status, date_accepted) " +
+                "SELECT * FROM (" +
+                "SELECT requester_id AS user_id, receiver_id AS friend_id, id AS friendship_id, status, date_accepted FROM friendships WHERE id = ? " +
+                "UNION ALL " +
+                "SELECT receiver_id, requester_id, id, status, date_accepted FROM friendships WHERE id = ?) AS src " +
+                "ON DUPLICATE KEY UPDATE friendship_id = src.friendship_id, status = src.status, date_accepted = src.date_accepted";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, friendshipId);
+            stmt.setInt(2, friendshipId);
+            stmt.executeUpdate();
+        }
+    }
+
+    // Friendship ID of a pair from the edge primary key, or null if there is none
+    private Integer findFriendshipId(int userId1, int userId2) throws SQLException {
+        String sql = "SELECT friendship_id FROM friend_edges WHERE user_id = ? AND friend_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId1);
+            stmt.setInt(2, userId2);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    // Friendship IDs of a user, optionally with one status, from the edge index
+    private List<Integer> findFriendshipIds(int userId, String status) throws SQLException {
+        String sql = "SELECT friendship_id FROM friend_edges WHERE user_id = ?" + (status != null ? " AND status = ?" : "");
+        List<Integer> ids = new ArrayList<>();
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            if (status != null) {
+                stmt.setString(2, status);
+            }
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Delete friendships by primary key; their edges cascade
+    private int deleteByIds(List<Integer> friendshipIds) throws SQLException {
+        if (friendshipIds.isEmpty()) {
+            return 0;
+        }
+        String sql = "DELETE FROM friendships WHERE id IN (" + String.join(",", Collections.nCopies(friendshipIds.size(), "?")) + ")";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < friendshipIds.size(); i++) {
+                stmt.setInt(i + 1, friendshipIds.get(i));
+            }
+            return stmt.executeUpdate();
+        }
+    }
+
+    // Bind a user ID for either query shape; returns the next parameter index
+    private int bindUser(PreparedStatement stmt, int userId, boolean edges) throws SQLException {
+        stmt.setInt(1, userId);
+        if (edges) {
+            return 2;
+        }
+        stmt.setInt(2, userId);
+        return 3;
+    }
+
+    private long countRows(String sql) throws SQLException {
+        return countRows(connection, sql);
+    }
+
+    private static long countRows(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
     /**
      * Map a ResultSet row to a Friendship object
      * @param rs The ResultSet positioned at a valid row
@@ -761,4 +1113,27 @@ public class FriendshipDAO {
 
         return friendship;
     }
-}
\ No newline at end of file
+
+    // Re-read a row updated by ID so listeners see the pair and its new status
+    private void fireChanged(int friendshipId) throws SQLException {
+        if (friendshipListeners.isEmpty()) {
+            return;
+        }
+        Friendship friendship = findById(friendshipId);
+        if (friendship != null) {
+            fireChanged(friendship.getRequesterId(), friendship.getReceiverId(), friendship);
+        }
+    }
+
+    private void fireChanged(int userId1, int userId2, Friendship friendship) {
+        for (FriendshipListener listener : friendshipListeners) {
+            listener.onFriendshipChanged(userId1, userId2, friendship);
+        }
+    }
+
+    private void fireChangedForUser(int userId) {
+        for (FriendshipListener listener : friendshipListeners) {
+            listener.onFriendshipsChanged(userId);
+        }
+    }
+}
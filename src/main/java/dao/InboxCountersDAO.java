@@ -0,0 +1,291 @@
+package dao;
+
+import model.InboxCounters;
+import util.IdBatches;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for InboxCounters entity
+ * Stores per-user unread counters so the message badge never has to count rows in messages
+ */
+public class InboxCountersDAO {
+
+    private Connection connection;
+
+    // Rows per multi-row upsert
+    static final int BATCH_SIZE = 500;
+
+    private static final String UPSERT_COLUMNS =
+            "INSERT INTO inbox_counters (user_id, unread_notes, unread_challenges, unread_friend_requests, latest_unread_type, latest_unread_at) " +
+            "VALUES ";
+    private static final String UPSERT_ROW = "(?, ?, ?, ?, ?, ?)";
+    private static final String UPSERT_UPDATE =
+            " ON DUPLICATE KEY UPDATE unread_notes = VALUES(unread_notes), unread_challenges = VALUES(unread_challenges), " +
+            "unread_friend_requests = VALUES(unread_friend_requests), latest_unread_type = VALUES(latest_unread_type), " +
+            "latest_unread_at = VALUES(latest_unread_at)";
+    private static final String UPSERT_SQL = UPSERT_COLUMNS + UPSERT_ROW + UPSERT_UPDATE;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT user_id, unread_notes, unread_challenges, unread_friend_requests, latest_unread_type, latest_unread_at " +
+            "FROM inbox_counters";
+
+    // Unread messages grouped by receiver and type; served by messages(receiver_id, is_read, message_type, date_sent)
+    private static final String UNREAD_SQL =
+            "SELECT receiver_id, message_type, COUNT(*) AS unread, MAX(date_sent) AS latest FROM messages " +
+            "WHERE is_read = FALSE";
+
+    // Constructor that takes a database connection
+    public InboxCountersDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    // ========================= CREATE / UPDATE OPERATIONS =========================
+
+    /**
+     * Insert or replace the counters row of a user
+     * @param counters The counters to store
+     * @return true if the row was written
+     * @throws SQLException If database error occurs
+     */
+    public boolean saveCounters(InboxCounters counters) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(UPSERT_SQL)) {
+            bindCounters(stmt, 1, counters);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Insert or replace the counters rows of several users with one multi-row upsert per batch
+     * @param countersList The counters to store
+     * @return Number of rows written
+     * @throws SQLException If database error occurs
+     */
+    public int saveAllCounters(Collection<InboxCounters> countersList) throws SQLException {
+        if (countersList == null || countersList.isEmpty()) {
+            return 0;
+        }
+
+        List<InboxCounters> all = new ArrayList<>(countersList);
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            List<InboxCounters> batch = all.subList(from, Math.min(from + BATCH_SIZE, all.size()));
+            String sql = UPSERT_COLUMNS + String.join(", ", Collections.nCopies(batch.size(), UPSERT_ROW)) + UPSERT_UPDATE;
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                int index = 1;
+                for (InboxCounters counters : batch) {
+                    index = bindCounters(stmt, index, counters);
+                }
+                stmt.executeUpdate();
+            }
+        }
+        return all.size();
+    }
+
+    // ========================= READ OPERATIONS =========================
+
+    /**
+     * Find the counters of a user by primary key
+     * @param userId The user ID
+     * @return InboxCounters object if a row exists, null otherwise
+     * @throws SQLException If database error occurs
+     */
+    public InboxCounters findByUserId(int userId) throws SQLException {
+        String sql = SELECT_COLUMNS + " WHERE user_id = ?";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRowToInboxCounters(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find the counters of several users with one IN query per ID batch
+     * @param userIds The user IDs
+     * @return Counters by user ID; users without a row are absent
+     * @throws SQLException If database error occurs
+     */
+    public Map<Integer, InboxCounters> findByUserIds(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, InboxCounters> countersByUser = new HashMap<>();
+        for (List<Integer> batch : IdBatches.chunk(userIds)) {
+            String sql = SELECT_COLUMNS + " WHERE user_id IN (" + IdBatches.placeholders(batch.size()) + ")";
+
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                IdBatches.bindIds(stmt, 1, batch);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        InboxCounters counters = mapRowToInboxCounters(rs);
+                        countersByUser.put(counters.getUserId(), counters);
+                    }
+                }
+            }
+        }
+        return countersByUser;
+    }
+
+    /**
+     * Get the number of stored counters rows
+     * @return Row count
+     * @throws SQLException If database error occurs
+     */
+    public int getCountersCount() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM inbox_counters";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Recount one user's unread messages from the messages table
+     * Used after reads and deletes, where the change cannot be applied as a simple increment
+     * @param userId The user ID
+     * @return The user's counters, empty if nothing is unread
+     * @throws SQLException If database error occurs
+     */
+    public InboxCounters computeCounters(int userId) throws SQLException {
+        String sql = UNREAD_SQL + " AND receiver_id = ? GROUP BY receiver_id, message_type";
+        InboxCounters counters = new InboxCounters(userId);
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    applyUnreadRow(counters, rs);
+                }
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Recount every user's unread messages
+     * Used to seed the counters and to repair them after messages of unknown receivers changed
+     * @return Counters for every user with at least one unread message
+     * @throws SQLException If database error occurs
+     */
+    public List<InboxCounters> computeAllCounters() throws SQLException {
+        String sql = UNREAD_SQL + " GROUP BY receiver_id, message_type";
+        Map<Integer, InboxCounters> countersByUser = new LinkedHashMap<>();
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    applyUnreadRow(countersByUser.computeIfAbsent(rs.getInt("receiver_id"), InboxCounters::new), rs);
+                }
+            }
+        }
+        return new ArrayList<>(countersByUser.values());
+    }
+
+    // ========================= DELETE OPERATIONS =========================
+
+    /**
+     * Delete the counters rows of users with no unread messages
+     * @return Number of rows deleted
+     * @throws SQLException If database error occurs
+     */
+    public int deleteInactiveCounters() throws SQLException {
+        String sql = "DELETE FROM inbox_counters " +
+                     "WHERE NOT EXISTS (SELECT 1 FROM messages m WHERE m.receiver_id = inbox_counters.user_id AND m.is_read = FALSE)";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            return stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Delete all counters rows
+     * @return Number of rows deleted
+     * @throws SQLException If database error occurs
+     */
+    public int deleteAllCounters() throws SQLException {
+        String sql = "DELETE FROM inbox_counters";
+
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            return stmt.executeUpdate();
+        }
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    /**
+     * Add one (receiver, type) group of unread messages to a user's counters
+     * @param counters The counters to update
+     * @param rs The ResultSet positioned at a grouped row
+     * @throws SQLException If database error occurs
+     */
+    private void applyUnreadRow(InboxCounters counters, ResultSet rs) throws SQLException {
+        String type = rs.getString("message_type");
+        counters.setUnreadCount(type, rs.getInt("unread"));
+        Timestamp latest = rs.getTimestamp("latest");
+        if (latest != null && (counters.getLatestUnreadAt() == null || latest.after(counters.getLatestUnreadAt()))) {
+            counters.setLatestUnreadType(type);
+            counters.setLatestUnreadAt(new Date(latest.getTime()));
+        }
+    }
+
+    /**
+     * Bind an InboxCounters object to one row of the upsert statement
+     * @param stmt The prepared upsert statement
+     * @param index Index of the row's first parameter
+     * @param counters The counters to bind
+     * @return Index of the next row's first parameter
+     * @throws SQLException If database error occurs
+     */
+    private int bindCounters(PreparedStatement stmt, int index, InboxCounters counters) throws SQLException {
+        stmt.setInt(index++, counters.getUserId());
+        stmt.setInt(index++, counters.getUnreadNotes());
+        stmt.setInt(index++, counters.getUnreadChallenges());
+        stmt.setInt(index++, counters.getUnreadFriendRequests());
+        stmt.setString(index++, counters.getLatestUnreadType());
+        if (counters.getLatestUnreadAt() != null) {
+            stmt.setTimestamp(index++, new Timestamp(counters.getLatestUnreadAt().getTime()));
+        } else {
+            stmt.setNull(index++, Types.TIMESTAMP);
+        }
+        return index;
+    }
+
+    /**
+     * Map a ResultSet row to an InboxCounters object
+     * @param rs The ResultSet positioned at a valid row
+     * @return InboxCounters object
+     * @throws SQLException If database error occurs
+     */
+    private InboxCounters mapRowToInboxCounters(ResultSet rs) throws SQLException {
+        InboxCounters counters = new InboxCounters();
+        counters.setUserId(rs.getInt("user_id"));
+        counters.setUnreadNotes(rs.getInt("unread_notes"));
+        counters.setUnreadChallenges(rs.getInt("unread_challenges"));
+        counters.setUnreadFriendRequests(rs.getInt("unread_friend_requests"));
+        counters.setLatestUnreadType(rs.getString("latest_unread_type"));
+
+        Timestamp latestTimestamp = rs.getTimestamp("latest_unread_at");
+        if (latestTimestamp != null) {
+            counters.setLatestUnreadAt(new Date(latestTimestamp.getTime()));
+        }
+
+        return counters;
+    }
+}
@@ -1,11 +1,17 @@
 package dao;
 
 import model.Message;
+import util.IdBatches;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Data Access Object for Message entity
@@ -15,10 +21,71 @@ import java.util.List;
 public class MessageDAO {
     
     private Connection connection;
+    private final ConversationDAO conversationDAO;
+    
+    // Components that keep derived data in sync with message writes
+    private final List<MessageListener> messageListeners = new CopyOnWriteArrayList<>();
+    
+    // Rows per multi-row INSERT; keeps statements well under max_allowed_packet
+    static final int INSERT_BATCH_SIZE = 500;
+    
+    private static final String INSERT_COLUMNS =
+            "INSERT INTO messages (sender_id, receiver_id, message_type, content, quiz_id, conversation_id, date_sent, is_read) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
     
     // Constructor that takes a database connection
     public MessageDAO(Connection connection) {
+        this(connection, new ConversationDAO(connection));
+    }
+    
+    // Constructor sharing the conversation DAO registered with the application
+    public MessageDAO(Connection connection, ConversationDAO conversationDAO) {
         this.connection = connection;
+        this.conversationDAO = conversationDAO;
+    }
+    
+    /**
+     * Callback notified after messages are sent, read or deleted
+     */
+    public interface MessageListener {
+        /**
+         * Called once a new message row has been inserted
+         * @param message The stored message, including its generated ID
+         */
+        default void onMessageCreated(Message message) {
+        }
+        
+        /**
+         * Called once after several message rows were inserted in one statement
+         * Listeners that write to the database override this to batch their own writes.
+         * @param messages The stored messages, including their generated IDs
+         */
+        default void onMessagesCreated(List<Message> messages) {
+            for (Message message : messages) {
+                onMessageCreated(message);
+            }
+        }
+        
+        /**
+         * Called after messages of a known receiver were marked read or deleted
+         * @param receiverId The receiver whose inbox changed
+         */
+        default void onInboxChanged(int receiverId) {
+        }
+        
+        /**
+         * Called after messages were modified without a single known receiver
+         */
+        default void onMessagesChanged() {
+        }
+    }
+    
+    /**
+     * Register a listener for message writes
+     * @param listener Listener to notify
+     */
+    public void addMessageListener(MessageListener listener) {
+        messageListeners.add(listener);
     }
     
     // ========================= CREATE OPERATIONS =========================
@@ -30,23 +97,11 @@ public class MessageDAO {
      * @throws SQLException If database error occurs
      */
     public Message createMessage(Message message) throws SQLException {
-        String sql = "INSERT INTO messages (sender_id, receiver_id, message_type, content, quiz_id, date_sent, is_read) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String sql = INSERT_COLUMNS + INSERT_ROW;
+        conversationDAO.assignConversations(List.of(message));
         
         try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setInt(1, message.getSenderId());
-            stmt.setInt(2, message.getReceiverId());
-            stmt.setString(3, message.getMessageType());
-            stmt.setString(4, message.getContent());
-            
-            // Handle nullable quiz_id
-            if (message.getQuizId() != null) {
-                stmt.setInt(5, message.getQuizId());
-            } else {
-                stmt.setNull(5, Types.INTEGER);
-            }
-            
-            stmt.setTimestamp(6, new Timestamp(message.getDateSent().getTime()));
-            stmt.setBoolean(7, message.isRead());
+            bindMessage(stmt, 1, message);
             
             int affectedRows = stmt.executeUpdate();
             if (affectedRows == 0) {
@@ -56,6 +111,10 @@ public class MessageDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     message.setMessageId(generatedKeys.getInt(1));
+                    conversationDAO.recordMessages(List.of(message));
+                    for (MessageListener listener : messageListeners) {
+                        listener.onMessageCreated(message);
+                    }
                     return message;
                 }
             }
@@ -63,6 +122,49 @@ public class MessageDAO {
         return null;
     }
     
+    /**
+     * Create several messages with one multi-row INSERT per INSERT_BATCH_SIZE rows
+     * Conversations are resolved and advanced for the whole batch at once; listeners are notified once with every
+     * stored message.
+     * @param messages Message objects with all necessary fields
+     * @return The created messages with generated IDs, in input order
+     * @throws SQLException If database error occurs
+     */
+    public List<Message> createMessages(List<Message> messages) throws SQLException {
+        List<Message> created = new ArrayList<>(messages.size());
+        conversationDAO.assignConversations(messages);
+        for (int from = 0; from < messages.size(); from += INSERT_BATCH_SIZE) {
+            List<Message> batch = messages.subList(from, Math.min(from + INSERT_BATCH_SIZE, messages.size()));
+            String sql = INSERT_COLUMNS + String.join(", ", Collections.nCopies(batch.size(), INSERT_ROW));
+            
+            try (PreparedStatement stmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int index = 1;
+                for (Message message : batch) {
+                    index = bindMessage(stmt, index, message);
+                }
+                stmt.executeUpdate();
+                
+                // Keys of a multi-row insert come back in row order
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    for (Message message : batch) {
+                        if (!generatedKeys.next()) {
+                            break;
+                        }
+                        message.setMessageId(generatedKeys.getInt(1));
+                        created.add(message);
+                    }
+                }
+            }
+        }
+        if (!created.isEmpty()) {
+            conversationDAO.recordMessages(created);
+            for (MessageListener listener : messageListeners) {
+                listener.onMessagesCreated(created);
+            }
+        }
+        return created;
+    }
+    
     /**
      * Send a note message
      * @param senderId ID of the sender
@@ -103,6 +205,23 @@ public class MessageDAO {
         return createMessage(message);
     }
     
+    /**
+     * Send the same challenge to several receivers in one write
+     * @param senderId ID of the sender
+     * @param receiverIds IDs of the receivers
+     * @param content Challenge message content
+     * @param quizId ID of the quiz being challenged
+     * @return Created messages with generated IDs
+     * @throws SQLException If database error occurs
+     */
+    public List<Message> sendChallenges(int senderId, Collection<Integer> receiverIds, String content, int quizId) throws SQLException {
+        List<Message> messages = new ArrayList<>(receiverIds.size());
+        for (int receiverId : receiverIds) {
+            messages.add(new Message(senderId, receiverId, content, quizId));
+        }
+        return createMessages(messages);
+    }
+    
     // ========================= READ OPERATIONS =========================
     
     /**
@@ -149,6 +268,40 @@ public class MessageDAO {
         return messages;
     }
     
+    /**
+     * Get one page of a user's inbox with sender names and challenge quiz titles
+     * One bounded query: users and quizzes are joined in, so rendering needs no per-message lookups.
+     * Served by messages(receiver_id, date_sent, id).
+     * @param receiverId The receiver's user ID
+     * @param offset Starting position (0-based)
+     * @param limit Maximum number of messages to return
+     * @return Messages ordered by date_sent DESC, with senderUsername and, for challenges, quizName set
+     * @throws SQLException If database error occurs
+     */
+    public List<Message> getInboxPage(int receiverId, int offset, int limit) throws SQLException {
+        String sql = "SELECT m.id, m.sender_id, m.receiver_id, m.message_type, m.content, m.quiz_id, m.date_sent, m.is_read, " +
+                     "u.username AS sender_username, q.title AS quiz_title " +
+                     "FROM messages m JOIN users u ON m.sender_id = u.id " +
+                     "LEFT JOIN quizzes q ON m.message_type = 'challenge' AND q.id = m.quiz_id " +
+                     "WHERE m.receiver_id = ? ORDER BY m.date_sent DESC, m.id DESC LIMIT ? OFFSET ?";
+        List<Message> messages = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, receiverId);
+            stmt.setInt(2, limit);
+            stmt.setInt(3, offset);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Message message = mapRowToMessage(rs);
+                    message.setQuizName(rs.getString("quiz_title"));
+                    messages.add(message);
+                }
+            }
+        }
+        return messages;
+    }
+    
     /**
      * Get all messages sent by a user
      * @param senderId The sender's user ID
@@ -199,6 +352,43 @@ public class MessageDAO {
         return messages;
     }
     
+    /**
+     * Get one page of a conversation's history, newest first
+     * Keyset pagination on (conversation_id, date_sent, id): each page is an index range read, however deep it is.
+     * @param conversationId The conversation ID
+     * @param beforeDate Send date of the last message of the previous page, or null for the first page
+     * @param beforeId ID of the last message of the previous page (ignored when beforeDate is null)
+     * @param limit Maximum number of messages to return
+     * @return Messages ordered by date_sent DESC, id DESC
+     * @throws SQLException If database error occurs
+     */
+    public List<Message> getConversationPage(int conversationId, Date beforeDate, int beforeId, int limit) throws SQLException {
+        String sql = "SELECT id, sender_id, receiver_id, message_type, content, quiz_id, conversation_id, date_sent, is_read " +
+                    "FROM messages WHERE conversation_id = ? " +
+                    (beforeDate != null ? "AND (date_sent < ? OR (date_sent = ? AND id < ?)) " : "") +
+                    "ORDER BY date_sent DESC, id DESC LIMIT ?";
+        List<Message> messages = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            stmt.setInt(index++, conversationId);
+            if (beforeDate != null) {
+                Timestamp before = new Timestamp(beforeDate.getTime());
+                stmt.setTimestamp(index++, before);
+                stmt.setTimestamp(index++, before);
+                stmt.setInt(index++, beforeId);
+            }
+            stmt.setInt(index, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    messages.add(mapRowToMessage(rs));
+                }
+            }
+        }
+        return messages;
+    }
+    
     /**
      * Get messages by type for a user
      * @param receiverId The receiver's user ID
@@ -311,10 +501,17 @@ public class MessageDAO {
      */
     public boolean markAsRead(int messageId) throws SQLException {
         String sql = "UPDATE messages SET is_read = TRUE WHERE id = ?";
+        List<Integer> receiverIds = findReceiverIds(List.of(messageId));
+        List<int[]> unread = conversationDAO.findUnreadCounts(List.of(messageId));
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, messageId);
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                conversationDAO.releaseUnread(unread);
+                notifyInboxesChanged(receiverIds);
+            }
+            return updated;
         }
     }
     
@@ -337,12 +534,41 @@ public class MessageDAO {
             }
         }
         sql.append(")");
+        List<Integer> receiverIds = findReceiverIds(messageIds);
+        List<int[]> unread = conversationDAO.findUnreadCounts(messageIds);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
             for (int i = 0; i < messageIds.size(); i++) {
                 stmt.setInt(i + 1, messageIds.get(i));
             }
-            return stmt.executeUpdate();
+            int updated = stmt.executeUpdate();
+            if (updated > 0) {
+                conversationDAO.releaseUnread(unread);
+                notifyInboxesChanged(receiverIds);
+            }
+            return updated;
+        }
+    }
+    
+    /**
+     * Mark every message a user received in one conversation as read
+     * @param conversationId The conversation ID
+     * @param userId The reading participant
+     * @return Number of messages marked as read
+     * @throws SQLException If database error occurs
+     */
+    public int markConversationRead(int conversationId, int userId) throws SQLException {
+        String sql = "UPDATE messages SET is_read = TRUE WHERE conversation_id = ? AND receiver_id = ? AND is_read = FALSE";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, conversationId);
+            stmt.setInt(2, userId);
+            int updated = stmt.executeUpdate();
+            conversationDAO.clearUnread(userId, conversationId);
+            if (updated > 0) {
+                notifyInboxChanged(userId);
+            }
+            return updated;
         }
     }
     
@@ -357,7 +583,12 @@ public class MessageDAO {
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, receiverId);
-            return stmt.executeUpdate();
+            int updated = stmt.executeUpdate();
+            if (updated > 0) {
+                conversationDAO.clearUnread(receiverId, null);
+                notifyInboxChanged(receiverId);
+            }
+            return updated;
         }
     }
     
@@ -388,10 +619,17 @@ public class MessageDAO {
      */
     public boolean deleteMessage(int messageId) throws SQLException {
         String sql = "DELETE FROM messages WHERE id = ?";
+        List<Integer> receiverIds = findReceiverIds(List.of(messageId));
+        Set<Integer> conversationIds = conversationDAO.findConversationIds(List.of(messageId));
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, messageId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                conversationDAO.refresh(conversationIds);
+                notifyInboxesChanged(receiverIds);
+            }
+            return deleted;
         }
     }
     
@@ -403,10 +641,28 @@ public class MessageDAO {
      */
     public int deleteMessagesBySender(int senderId) throws SQLException {
         String sql = "DELETE FROM messages WHERE sender_id = ?";
+        List<Integer> receiverIds = new ArrayList<>();
+        if (!messageListeners.isEmpty()) {
+            try (PreparedStatement stmt = connection.prepareStatement("SELECT DISTINCT receiver_id FROM messages WHERE sender_id = ?")) {
+                stmt.setInt(1, senderId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        receiverIds.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        
+        List<Integer> conversationIds = findConversationIds("sender_id = ?", senderId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, senderId);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                conversationDAO.refresh(conversationIds);
+                notifyInboxesChanged(receiverIds);
+            }
+            return deleted;
         }
     }
     
@@ -418,10 +674,16 @@ public class MessageDAO {
      */
     public int deleteMessagesByReceiver(int receiverId) throws SQLException {
         String sql = "DELETE FROM messages WHERE receiver_id = ?";
+        List<Integer> conversationIds = findConversationIds("receiver_id = ?", receiverId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, receiverId);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                conversationDAO.refresh(conversationIds);
+                notifyInboxChanged(receiverId);
+            }
+            return deleted;
         }
     }
     
@@ -434,13 +696,22 @@ public class MessageDAO {
      */
     public int deleteConversation(int userId1, int userId2) throws SQLException {
         String sql = "DELETE FROM messages WHERE (sender_id = ? AND receiver_id = ?) OR (sender_id = ? AND receiver_id = ?)";
+        Integer conversationId = conversationDAO.findConversationId(userId1, userId2);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, userId1);
             stmt.setInt(2, userId2);
             stmt.setInt(3, userId2);
             stmt.setInt(4, userId1);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                if (conversationId != null) {
+                    conversationDAO.refresh(List.of(conversationId));
+                }
+                notifyInboxChanged(userId1);
+                notifyInboxChanged(userId2);
+            }
+            return deleted;
         }
     }
     
@@ -453,11 +724,17 @@ public class MessageDAO {
      */
     public int deleteMessagesByType(int receiverId, String messageType) throws SQLException {
         String sql = "DELETE FROM messages WHERE receiver_id = ? AND message_type = ?";
+        List<Integer> conversationIds = findConversationIds("receiver_id = ?", receiverId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, receiverId);
             stmt.setString(2, messageType);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                conversationDAO.refresh(conversationIds);
+                notifyInboxChanged(receiverId);
+            }
+            return deleted;
         }
     }
     
@@ -468,11 +745,26 @@ public class MessageDAO {
      * @throws SQLException If database error occurs
      */
     public int deleteOldMessages(int days) throws SQLException {
-        String sql = "DELETE FROM messages WHERE date_sent < DATE_SUB(NOW(), INTERVAL ? DAY)";
+        // Fix the cutoff once so the conversations looked up are exactly those the delete touches
+        Timestamp cutoff;
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT DATE_SUB(NOW(), INTERVAL ? DAY)")) {
+            stmt.setInt(1, days);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                cutoff = rs.getTimestamp(1);
+            }
+        }
+        String sql = "DELETE FROM messages WHERE date_sent < ?";
+        List<Integer> conversationIds = findConversationIds("date_sent < ?", cutoff);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setInt(1, days);
-            return stmt.executeUpdate();
+            stmt.setTimestamp(1, cutoff);
+            int deleted = stmt.executeUpdate();
+            if (deleted > 0) {
+                conversationDAO.refresh(conversationIds);
+                notifyMessagesChanged();
+            }
+            return deleted;
         }
     }
     
@@ -605,6 +897,21 @@ public class MessageDAO {
      * @throws SQLException If database error occurs
      */
     public Message getLatestMessage(int userId1, int userId2) throws SQLException {
+        if (conversationDAO.isReady()) {
+            // One primary-key join through the conversation's last-message pointer
+            String pointerSql = "SELECT m.id, m.sender_id, m.receiver_id, m.message_type, m.content, m.quiz_id, m.conversation_id, " +
+                                "m.date_sent, m.is_read FROM conversations c JOIN messages m ON m.id = c.last_message_id " +
+                                "WHERE c.user_low_id = ? AND c.user_high_id = ?";
+            
+            try (PreparedStatement stmt = connection.prepareStatement(pointerSql)) {
+                stmt.setInt(1, Math.min(userId1, userId2));
+                stmt.setInt(2, Math.max(userId1, userId2));
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? mapRowToMessage(rs) : null;
+                }
+            }
+        }
         String sql = "SELECT id, sender_id, receiver_id, message_type, content, quiz_id, date_sent, is_read FROM messages " +
                     "WHERE (sender_id = ? AND receiver_id = ?) OR (sender_id = ? AND receiver_id = ?) " +
                     "ORDER BY date_sent DESC LIMIT 1";
@@ -626,6 +933,115 @@ public class MessageDAO {
     
     // ========================= HELPER METHODS =========================
     
+    /**
+     * Notify listeners that a receiver's inbox changed
+     * @param receiverId The receiver ID
+     */
+    private void notifyInboxChanged(int receiverId) {
+        for (MessageListener listener : messageListeners) {
+            listener.onInboxChanged(receiverId);
+        }
+    }
+    
+    /**
+     * Notify listeners that several receivers' inboxes changed
+     * @param receiverIds The receiver IDs
+     */
+    private void notifyInboxesChanged(List<Integer> receiverIds) {
+        for (int receiverId : receiverIds) {
+            notifyInboxChanged(receiverId);
+        }
+    }
+    
+    /**
+     * Look up the receivers of messages before they are changed, so listeners can be told whose inbox moved
+     * Skipped when nobody is listening.
+     * @param messageIds The message IDs
+     * @return Distinct receiver IDs of the messages that exist
+     * @throws SQLException If database error occurs
+     */
+    private List<Integer> findReceiverIds(List<Integer> messageIds) throws SQLException {
+        Set<Integer> receiverIds = new LinkedHashSet<>();
+        if (messageListeners.isEmpty()) {
+            return new ArrayList<>(receiverIds);
+        }
+        for (List<Integer> chunk : IdBatches.chunk(messageIds)) {
+            String sql = "SELECT DISTINCT receiver_id FROM messages WHERE id IN (" + IdBatches.placeholders(chunk.size()) + ")";
+            
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                IdBatches.bindIds(stmt, 1, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        receiverIds.add(rs.getInt(1));
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(receiverIds);
+    }
+    
+    /**
+     * Look up the conversations of the messages a bulk delete is about to remove, so their pointers can be refreshed
+     * @param condition WHERE condition on messages with one parameter
+     * @param value The parameter value
+     * @return Distinct conversation IDs
+     * @throws SQLException If database error occurs
+     */
+    private List<Integer> findConversationIds(String condition, Object value) throws SQLException {
+        String sql = "SELECT DISTINCT conversation_id FROM messages WHERE " + condition + " AND conversation_id IS NOT NULL";
+        List<Integer> conversationIds = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setObject(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    conversationIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return conversationIds;
+    }
+    
+    /**
+     * Notify listeners that messages changed for receivers that are not known here
+     */
+    private void notifyMessagesChanged() {
+        for (MessageListener listener : messageListeners) {
+            listener.onMessagesChanged();
+        }
+    }
+    
+    /**
+     * Bind one message's insert columns starting at a parameter index
+     * @param stmt The prepared insert statement
+     * @param index Index of the row's first parameter
+     * @param message The message to bind
+     * @return Index of the next row's first parameter
+     * @throws SQLException If database error occurs
+     */
+    private int bindMessage(PreparedStatement stmt, int index, Message message) throws SQLException {
+        stmt.setInt(index++, message.getSenderId());
+        stmt.setInt(index++, message.getReceiverId());
+        stmt.setString(index++, message.getMessageType());
+        stmt.setString(index++, message.getContent());
+        
+        // Handle nullable quiz_id
+        if (message.getQuizId() != null) {
+            stmt.setInt(index++, message.getQuizId());
+        } else {
+            stmt.setNull(index++, Types.INTEGER);
+        }
+        if (message.getConversationId() != null) {
+            stmt.setInt(index++, message.getConversationId());
+        } else {
+            stmt.setNull(index++, Types.INTEGER);
+        }
+        
+        stmt.setTimestamp(index++, new Timestamp(message.getDateSent().getTime()));
+        stmt.setBoolean(index++, message.isRead());
+        return index;
+    }
+    
     /**
      * Map a ResultSet row to a Message object
      * @param rs The ResultSet positioned at a valid row
@@ -649,6 +1065,12 @@ public class MessageDAO {
         } catch (SQLException e) {
             // sender_username column may not exist in some queries
         }
+        try {
+            Object conversationId = rs.getObject("conversation_id");
+            message.setConversationId(conversationId != null ? ((Number) conversationId).intValue() : null);
+        } catch (SQLException e) {
+            // conversation_id column may not exist in some queries
+        }
         return message;
     }
 } 
\ No newline at end of file
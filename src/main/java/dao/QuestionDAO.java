@@ -4,7 +4,10 @@ import model.Question;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Data Access Object for Question entity
@@ -14,11 +17,50 @@ public class QuestionDAO {
     
     private Connection connection;
     
+    // Components that keep derived data in sync with question writes
+    private final List<QuestionListener> questionListeners = new CopyOnWriteArrayList<>();
+    
     // Constructor that takes a database connection
     public QuestionDAO(Connection connection) {
         this.connection = connection;
     }
     
+    /**
+     * Callback notified after questions are created, edited or deleted
+     * Reordering does not change question content and is not reported.
+     */
+    public interface QuestionListener {
+        /**
+         * Called once a new question row has been inserted
+         * @param question The stored question, including its generated ID
+         */
+        default void onQuestionCreated(Question question) {
+        }
+        
+        /**
+         * Called after the content of a question was modified
+         * @param questionId The modified question ID
+         */
+        default void onQuestionUpdated(int questionId) {
+        }
+        
+        /**
+         * Called after a question row was deleted
+         * @param questionId The deleted question ID
+         * @param quizId The quiz the question belonged to
+         */
+        default void onQuestionDeleted(int questionId, int quizId) {
+        }
+    }
+    
+    /**
+     * Register a listener for question writes
+     * @param listener Listener to notify
+     */
+    public void addQuestionListener(QuestionListener listener) {
+        questionListeners.add(listener);
+    }
+    
     // ========================= CREATE OPERATIONS =========================
     
     /**
@@ -47,6 +89,9 @@ public class QuestionDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     question.setQuestionId(generatedKeys.getInt(1));
+                    for (QuestionListener listener : questionListeners) {
+                        listener.onQuestionCreated(question);
+                    }
                     return question;
                 }
             }
@@ -257,6 +302,50 @@ public class QuestionDAO {
         return questions;
     }
     
+    /**
+     * Get questions by their IDs in one query
+     * @param questionIds Question IDs to look up
+     * @return Questions in the order of the given IDs (missing IDs are skipped)
+     * @throws SQLException If database error occurs
+     */
+    public List<Question> getQuestionsByIds(List<Integer> questionIds) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        if (questionIds == null || questionIds.isEmpty()) {
+            return questions;
+        }
+        
+        StringBuilder sql = new StringBuilder("SELECT id, quiz_id, question_type, question_text, correct_answer, choices_json, image_url, order_num FROM questions WHERE id IN (");
+        for (int i = 0; i < questionIds.size(); i++) {
+            sql.append("?");
+            if (i < questionIds.size() - 1) {
+                sql.append(",");
+            }
+        }
+        sql.append(")");
+        
+        Map<Integer, Question> questionsById = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < questionIds.size(); i++) {
+                stmt.setInt(i + 1, questionIds.get(i));
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Question question = mapRowToQuestion(rs);
+                    questionsById.put(question.getQuestionId(), question);
+                }
+            }
+        }
+        
+        for (Integer questionId : questionIds) {
+            Question question = questionsById.get(questionId);
+            if (question != null) {
+                questions.add(question);
+            }
+        }
+        return questions;
+    }
+    
     // ========================= UPDATE OPERATIONS =========================
     
     /**
@@ -278,7 +367,11 @@ public class QuestionDAO {
             stmt.setInt(7, question.getOrderNum());
             stmt.setInt(8, question.getQuestionId());
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuestionUpdated(question.getQuestionId());
+            }
+            return updated;
         }
     }
     
@@ -296,7 +389,11 @@ public class QuestionDAO {
             stmt.setString(1, newQuestionText);
             stmt.setInt(2, questionId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuestionUpdated(questionId);
+            }
+            return updated;
         }
     }
     
@@ -314,7 +411,11 @@ public class QuestionDAO {
             stmt.setString(1, newCorrectAnswer);
             stmt.setInt(2, questionId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuestionUpdated(questionId);
+            }
+            return updated;
         }
     }
     
@@ -335,7 +436,11 @@ public class QuestionDAO {
                 stmt.setString(1, question.getChoicesJson());
                 stmt.setInt(2, questionId);
                 
-                return stmt.executeUpdate() > 0;
+                boolean updated = stmt.executeUpdate() > 0;
+                if (updated) {
+                    notifyQuestionUpdated(questionId);
+                }
+                return updated;
             }
         }
         return false;
@@ -355,7 +460,11 @@ public class QuestionDAO {
             stmt.setString(1, newImageUrl);
             stmt.setInt(2, questionId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuestionUpdated(questionId);
+            }
+            return updated;
         }
     }
     
@@ -415,11 +524,20 @@ public class QuestionDAO {
      * @throws SQLException If database error occurs
      */
     public boolean deleteQuestion(int questionId) throws SQLException {
+        // Capture the owning quiz first so listeners can update it
+        Question question = questionListeners.isEmpty() ? null : findById(questionId);
+        
         String sql = "DELETE FROM questions WHERE id = ?";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, questionId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted && question != null) {
+                for (QuestionListener listener : questionListeners) {
+                    listener.onQuestionDeleted(questionId, question.getQuizId());
+                }
+            }
+            return deleted;
         }
     }
     
@@ -430,11 +548,20 @@ public class QuestionDAO {
      * @throws SQLException If database error occurs
      */
     public int deleteQuestionsByQuizId(int quizId) throws SQLException {
+        // Capture the affected IDs first so listeners can drop them individually
+        List<Question> questions = questionListeners.isEmpty() ? new ArrayList<>() : getQuestionsByQuizId(quizId);
+        
         String sql = "DELETE FROM questions WHERE quiz_id = ?";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, quizId);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            for (Question question : questions) {
+                for (QuestionListener listener : questionListeners) {
+                    listener.onQuestionDeleted(question.getQuestionId(), quizId);
+                }
+            }
+            return deleted;
         }
     }
     
@@ -518,6 +645,25 @@ public class QuestionDAO {
         return 0;
     }
     
+    /**
+     * Get a checksum of the searchable question content
+     * Covers each question's ID, quiz and text, so an edit changes it even when the question count stays the same.
+     * @return XOR of the per-row CRC32 values, 0 if there are no questions
+     * @throws SQLException If database error occurs
+     */
+    public long getContentChecksum() throws SQLException {
+        String sql = "SELECT COALESCE(BIT_XOR(CRC32(CONCAT_WS(CHAR(31), id, quiz_id, question_text))), 0) FROM questions";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        }
+        return 0;
+    }
+    
     /**
      * Get next order number for a quiz
      * @param quizId The quiz ID
@@ -561,6 +707,18 @@ public class QuestionDAO {
         return questions;
     }
     
+    // ========================= HELPER METHODS =========================
+    
+    /**
+     * Notify listeners that a question's content was modified
+     * @param questionId The modified question ID
+     */
+    private void notifyQuestionUpdated(int questionId) {
+        for (QuestionListener listener : questionListeners) {
+            listener.onQuestionUpdated(questionId);
+        }
+    }
+    
     /**
      * Map a ResultSet row to a Question object
      * @param rs The ResultSet positioned at a valid row
@@ -4,8 +4,14 @@ import model.QuizAttempt;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for QuizAttempt entity
@@ -15,11 +21,49 @@ public class QuizAttemptDAO {
     
     private Connection connection;
     
+    // Components that keep derived data in sync with newly written attempts
+    private final List<AttemptListener> attemptListeners = new CopyOnWriteArrayList<>();
+    
     // Constructor that takes a database connection
     public QuizAttemptDAO(Connection connection) {
         this.connection = connection;
     }
     
+    /**
+     * Callback notified after quiz attempts are written or removed
+     */
+    public interface AttemptListener {
+        /**
+         * Called once a new attempt row has been inserted
+         * @param attempt The stored attempt, including its generated ID
+         */
+        void onAttemptCreated(QuizAttempt attempt);
+        
+        /**
+         * Called after existing attempts were updated or deleted
+         */
+        default void onAttemptsChanged() {
+        }
+        
+        /**
+         * Called after existing attempts of known quizzes and users were updated or deleted
+         * Defaults to onAttemptsChanged(); listeners that can refresh part of their state override it.
+         * @param quizIds Quizzes whose attempts changed
+         * @param userIds Users whose attempts changed
+         */
+        default void onAttemptsChanged(Set<Integer> quizIds, Set<Integer> userIds) {
+            onAttemptsChanged();
+        }
+    }
+    
+    /**
+     * Register a listener for attempt writes
+     * @param listener Listener to notify
+     */
+    public void addAttemptListener(AttemptListener listener) {
+        attemptListeners.add(listener);
+    }
+    
     // ========================= CREATE OPERATIONS =========================
     
     /**
@@ -48,6 +92,9 @@ public class QuizAttemptDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     quizAttempt.setAttemptId(generatedKeys.getInt(1));
+                    for (AttemptListener listener : attemptListeners) {
+                        listener.onAttemptCreated(quizAttempt);
+                    }
                     return quizAttempt;
                 }
             }
@@ -152,6 +199,30 @@ public class QuizAttemptDAO {
         return attempts;
     }
     
+    /**
+     * Get the graded attempts on a quiz
+     * Used to reload one quiz's in-memory state after its attempts changed
+     * @param quizId The quiz ID
+     * @return Graded attempts on the quiz, in no particular order
+     * @throws SQLException If database error occurs
+     */
+    public List<QuizAttempt> getGradedAttemptsByQuiz(int quizId) throws SQLException {
+        String sql = "SELECT id, user_id, quiz_id, score, total_questions, time_taken, date_taken, is_practice FROM quiz_attempts " +
+                     "WHERE quiz_id = ? AND is_practice = FALSE";
+        List<QuizAttempt> attempts = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    attempts.add(mapRowToQuizAttempt(rs));
+                }
+            }
+        }
+        return attempts;
+    }
+    
     /**
      * Get attempts by user for a specific quiz
      * @param userId The user ID
@@ -257,6 +328,69 @@ public class QuizAttemptDAO {
         return attempts;
     }
     
+    /**
+     * Stream every graded attempt to a consumer without materializing the full list
+     * Used to rebuild in-memory indexes at startup
+     * @param consumer Callback invoked once per graded attempt
+     * @return Number of attempts visited
+     * @throws SQLException If database error occurs
+     */
+    public int forEachGradedAttempt(Consumer<QuizAttempt> consumer) throws SQLException {
+        String sql = "SELECT id, user_id, quiz_id, score, total_questions, time_taken, date_taken, is_practice FROM quiz_attempts WHERE is_practice = FALSE";
+        int visited = 0;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // MySQL driver: stream rows instead of buffering them
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapRowToQuizAttempt(rs));
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+    
+    /**
+     * Stream the distinct quizzes each user has attempted, one user at a time
+     * Rows come off the (user_id, quiz_id) index already grouped, so only one user's quizzes are held in memory.
+     * The scan holds the connection until it finishes; use a dedicated connection for large tables.
+     * @param consumer Callback invoked once per user with the user ID and the user's quiz IDs in ascending order
+     * @return Number of users visited
+     * @throws SQLException If database error occurs
+     */
+    public int forEachUserQuizzes(BiConsumer<Integer, int[]> consumer) throws SQLException {
+        String sql = "SELECT user_id, quiz_id FROM quiz_attempts GROUP BY user_id, quiz_id ORDER BY user_id, quiz_id";
+        int visited = 0;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // MySQL driver: stream rows instead of buffering them
+            try (ResultSet rs = stmt.executeQuery()) {
+                int currentUser = -1;
+                int[] quizIds = new int[16];
+                int count = 0;
+                while (rs.next()) {
+                    int userId = rs.getInt("user_id");
+                    if (userId != currentUser && count > 0) {
+                        consumer.accept(currentUser, Arrays.copyOf(quizIds, count));
+                        visited++;
+                        count = 0;
+                    }
+                    currentUser = userId;
+                    if (count == quizIds.length) {
+                        quizIds = Arrays.copyOf(quizIds, count * 2);
+                    }
+                    quizIds[count++] = rs.getInt("quiz_id");
+                }
+                if (count > 0) {
+                    consumer.accept(currentUser, Arrays.copyOf(quizIds, count));
+                    visited++;
+                }
+            }
+        }
+        return visited;
+    }
+    
     /**
      * Get attempts by user with pagination
      * @param userId The user ID
@@ -401,6 +535,7 @@ public class QuizAttemptDAO {
      */
     public boolean updateQuizAttempt(QuizAttempt quizAttempt) throws SQLException {
         String sql = "UPDATE quiz_attempts SET score = ?, total_questions = ?, time_taken = ?, is_practice = ? WHERE id = ?";
+        Affected affected = findAffected("id = ?", quizAttempt.getAttemptId());
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setDouble(1, quizAttempt.getScore());
@@ -409,7 +544,9 @@ public class QuizAttemptDAO {
             stmt.setBoolean(4, quizAttempt.isPractice());
             stmt.setInt(5, quizAttempt.getAttemptId());
             
-            return stmt.executeUpdate() > 0;
+            boolean changed = stmt.executeUpdate() > 0;
+            notifyAttemptsChanged(changed, affected);
+            return changed;
         }
     }
     
@@ -422,12 +559,15 @@ public class QuizAttemptDAO {
      */
     public boolean updateAttemptScore(int attemptId, double newScore) throws SQLException {
         String sql = "UPDATE quiz_attempts SET score = ? WHERE id = ?";
+        Affected affected = findAffected("id = ?", attemptId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setDouble(1, newScore);
             stmt.setInt(2, attemptId);
             
-            return stmt.executeUpdate() > 0;
+            boolean changed = stmt.executeUpdate() > 0;
+            notifyAttemptsChanged(changed, affected);
+            return changed;
         }
     }
     
@@ -440,12 +580,15 @@ public class QuizAttemptDAO {
      */
     public boolean updateAttemptTime(int attemptId, long timeTaken) throws SQLException {
         String sql = "UPDATE quiz_attempts SET time_taken = ? WHERE id = ?";
+        Affected affected = findAffected("id = ?", attemptId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, timeTaken);
             stmt.setInt(2, attemptId);
             
-            return stmt.executeUpdate() > 0;
+            boolean changed = stmt.executeUpdate() > 0;
+            notifyAttemptsChanged(changed, affected);
+            return changed;
         }
     }
     
@@ -457,11 +600,14 @@ public class QuizAttemptDAO {
      */
     public boolean togglePracticeMode(int attemptId) throws SQLException {
         String sql = "UPDATE quiz_attempts SET is_practice = NOT is_practice WHERE id = ?";
+        Affected affected = findAffected("id = ?", attemptId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, attemptId);
             
-            return stmt.executeUpdate() > 0;
+            boolean changed = stmt.executeUpdate() > 0;
+            notifyAttemptsChanged(changed, affected);
+            return changed;
         }
     }
     
@@ -475,10 +621,13 @@ public class QuizAttemptDAO {
      */
     public boolean deleteAttempt(int attemptId) throws SQLException {
         String sql = "DELETE FROM quiz_attempts WHERE id = ?";
+        Affected affected = findAffected("id = ?", attemptId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, attemptId);
-            return stmt.executeUpdate() > 0;
+            boolean changed = stmt.executeUpdate() > 0;
+            notifyAttemptsChanged(changed, affected);
+            return changed;
         }
     }
     
@@ -490,10 +639,13 @@ public class QuizAttemptDAO {
      */
     public int deleteAttemptsByUser(int userId) throws SQLException {
         String sql = "DELETE FROM quiz_attempts WHERE user_id = ?";
+        Affected affected = findAffected("user_id = ?", userId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, userId);
-            return stmt.executeUpdate();
+            int changed = stmt.executeUpdate();
+            notifyAttemptsChanged(changed > 0, affected);
+            return changed;
         }
     }
     
@@ -505,10 +657,13 @@ public class QuizAttemptDAO {
      */
     public int deleteAttemptsByQuiz(int quizId) throws SQLException {
         String sql = "DELETE FROM quiz_attempts WHERE quiz_id = ?";
+        Affected affected = findAffected("quiz_id = ?", quizId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, quizId);
-            return stmt.executeUpdate();
+            int changed = stmt.executeUpdate();
+            notifyAttemptsChanged(changed > 0, affected);
+            return changed;
         }
     }
     
@@ -520,10 +675,13 @@ public class QuizAttemptDAO {
      */
     public int deletePracticeAttemptsByUser(int userId) throws SQLException {
         String sql = "DELETE FROM quiz_attempts WHERE user_id = ? AND is_practice = TRUE";
+        Affected affected = findAffected("user_id = ? AND is_practice = TRUE", userId);
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, userId);
-            return stmt.executeUpdate();
+            int changed = stmt.executeUpdate();
+            notifyAttemptsChanged(changed > 0, affected);
+            return changed;
         }
     }
     
@@ -645,6 +803,27 @@ public class QuizAttemptDAO {
         return 0;
     }
     
+    /**
+     * Get count of practice attempts by user
+     * @param userId The user ID
+     * @return Number of practice attempts by the user
+     * @throws SQLException If database error occurs
+     */
+    public int getPracticeAttemptCountByUser(int userId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM quiz_attempts WHERE user_id = ? AND is_practice = TRUE";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        return 0;
+    }
+    
     /**
      * Get count of graded (non-practice) attempts
      * @return Number of graded attempts
@@ -838,12 +1017,74 @@ public class QuizAttemptDAO {
         String sql = "DELETE FROM quiz_attempts";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            notifyAttemptsChanged(deleted > 0);
+            return deleted;
         }
     }
 
     // ========================= HELPER METHODS =========================
     
+    /**
+     * Notify listeners that previously written attempts were modified
+     * @param changed Whether any row was actually affected
+     */
+    private void notifyAttemptsChanged(boolean changed) {
+        if (!changed) {
+            return;
+        }
+        for (AttemptListener listener : attemptListeners) {
+            listener.onAttemptsChanged();
+        }
+    }
+    
+    /**
+     * Notify listeners that attempts of known quizzes and users were modified
+     * @param changed Whether any row was actually affected
+     * @param affected Quizzes and users of the rows, looked up before the write
+     */
+    private void notifyAttemptsChanged(boolean changed, Affected affected) {
+        if (!changed) {
+            return;
+        }
+        for (AttemptListener listener : attemptListeners) {
+            listener.onAttemptsChanged(affected.quizIds, affected.userIds);
+        }
+    }
+    
+    /**
+     * Look up the quizzes and users of the attempts a write is about to change
+     * Skipped when nobody is listening.
+     * @param condition WHERE condition on quiz_attempts with one integer parameter
+     * @param value The parameter value
+     * @return Distinct quiz and user IDs
+     * @throws SQLException If database error occurs
+     */
+    private Affected findAffected(String condition, int value) throws SQLException {
+        Affected affected = new Affected();
+        if (attemptListeners.isEmpty()) {
+            return affected;
+        }
+        String sql = "SELECT DISTINCT quiz_id, user_id FROM quiz_attempts WHERE " + condition;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    affected.quizIds.add(rs.getInt("quiz_id"));
+                    affected.userIds.add(rs.getInt("user_id"));
+                }
+            }
+        }
+        return affected;
+    }
+    
+    // Quizzes and users touched by an update or delete
+    private static final class Affected {
+        final Set<Integer> quizIds = new LinkedHashSet<>();
+        final Set<Integer> userIds = new LinkedHashSet<>();
+    }
+    
     /**
      * Map a ResultSet row to a QuizAttempt object
      * @param rs The ResultSet positioned at a valid row
@@ -5,7 +5,13 @@ import model.Quiz;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Data Access Object for Quiz entity
@@ -15,11 +21,58 @@ public class QuizDAO {
     
     private Connection connection;
     
+    // Components that keep derived data in sync with quiz writes
+    private final List<QuizListener> quizListeners = new CopyOnWriteArrayList<>();
+    
     // Constructor that takes a database connection
     public QuizDAO(Connection connection) {
         this.connection = connection;
     }
     
+    /**
+     * Callback notified after quizzes are created, updated or deleted
+     */
+    public interface QuizListener {
+        /**
+         * Called once a new quiz row has been inserted
+         * @param quiz The stored quiz, including its generated ID
+         */
+        default void onQuizCreated(Quiz quiz) {
+        }
+        
+        /**
+         * Called after a quiz row was modified
+         * @param quizId The modified quiz ID
+         */
+        default void onQuizUpdated(int quizId) {
+        }
+        
+        /**
+         * Called after a quiz row was deleted
+         * @param quizId The deleted quiz ID
+         */
+        default void onQuizDeleted(int quizId) {
+        }
+        
+        /**
+         * Called after a quiz row was deleted, with the users whose activity went with it
+         * Defaults to the plain delete event for listeners that only track quizzes.
+         * @param quizId The deleted quiz ID
+         * @param userIds The quiz's creator and every user who had an attempt on it
+         */
+        default void onQuizDeleted(int quizId, Set<Integer> userIds) {
+            onQuizDeleted(quizId);
+        }
+    }
+    
+    /**
+     * Register a listener for quiz writes
+     * @param listener Listener to notify
+     */
+    public void addQuizListener(QuizListener listener) {
+        quizListeners.add(listener);
+    }
+    
     // ========================= CREATE OPERATIONS =========================
     
     /**
@@ -49,6 +102,9 @@ public class QuizDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     quiz.setQuizId(generatedKeys.getInt(1));
+                    for (QuizListener listener : quizListeners) {
+                        listener.onQuizCreated(quiz);
+                    }
                     return quiz;
                 }
             }
@@ -338,6 +394,50 @@ public class QuizDAO {
         return quizzes;
     }
     
+    /**
+     * Get quizzes for a list of IDs, preserving the order of the given IDs
+     * @param quizIds Quiz IDs to look up
+     * @return List of quizzes found, in the same order as the IDs (missing IDs are skipped)
+     * @throws SQLException If database error occurs
+     */
+    public List<Quiz> getQuizzesByIds(List<Integer> quizIds) throws SQLException {
+        List<Quiz> quizzes = new ArrayList<>();
+        if (quizIds == null || quizIds.isEmpty()) {
+            return quizzes;
+        }
+        
+        StringBuilder sql = new StringBuilder("SELECT id, title, description, creator_id, random_order, one_page, immediate_correction, practice_mode, created_date FROM quizzes WHERE id IN (");
+        for (int i = 0; i < quizIds.size(); i++) {
+            sql.append("?");
+            if (i < quizIds.size() - 1) {
+                sql.append(",");
+            }
+        }
+        sql.append(")");
+        
+        Map<Integer, Quiz> quizzesById = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+            for (int i = 0; i < quizIds.size(); i++) {
+                stmt.setInt(i + 1, quizIds.get(i));
+            }
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Quiz quiz = mapRowToQuiz(rs);
+                    quizzesById.put(quiz.getQuizId(), quiz);
+                }
+            }
+        }
+        
+        for (Integer quizId : quizIds) {
+            Quiz quiz = quizzesById.get(quizId);
+            if (quiz != null) {
+                quizzes.add(quiz);
+            }
+        }
+        return quizzes;
+    }
+    
     // ========================= UPDATE OPERATIONS =========================
     
     /**
@@ -358,7 +458,11 @@ public class QuizDAO {
             stmt.setBoolean(6, quiz.isPracticeMode());
             stmt.setInt(7, quiz.getQuizId());
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuizUpdated(quiz.getQuizId());
+            }
+            return updated;
         }
     }
     
@@ -376,7 +480,11 @@ public class QuizDAO {
             stmt.setString(1, newTitle);
             stmt.setInt(2, quizId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuizUpdated(quizId);
+            }
+            return updated;
         }
     }
     
@@ -394,7 +502,11 @@ public class QuizDAO {
             stmt.setString(1, newDescription);
             stmt.setInt(2, quizId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuizUpdated(quizId);
+            }
+            return updated;
         }
     }
     
@@ -419,7 +531,11 @@ public class QuizDAO {
             stmt.setBoolean(4, practiceMode);
             stmt.setInt(5, quizId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuizUpdated(quizId);
+            }
+            return updated;
         }
     }
     
@@ -435,7 +551,11 @@ public class QuizDAO {
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, quizId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                notifyQuizUpdated(quizId);
+            }
+            return updated;
         }
     }
     
@@ -448,11 +568,18 @@ public class QuizDAO {
      * @throws SQLException If database error occurs
      */
     public boolean deleteQuiz(int quizId) throws SQLException {
+        // Capture the affected users first; the quiz's attempts are deleted with it
+        Map<Integer, Set<Integer>> affected = findAffectedUsers("q.id = ?", quizId);
+        
         String sql = "DELETE FROM quizzes WHERE id = ?";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, quizId);
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                notifyQuizDeleted(quizId, affected.getOrDefault(quizId, new LinkedHashSet<>()));
+            }
+            return deleted;
         }
     }
     
@@ -463,11 +590,18 @@ public class QuizDAO {
      * @throws SQLException If database error occurs
      */
     public int deleteQuizzesByCreator(int creatorId) throws SQLException {
+        // Capture the affected IDs first so listeners can drop them individually
+        Map<Integer, Set<Integer>> affected = findAffectedUsers("q.creator_id = ?", creatorId);
+        
         String sql = "DELETE FROM quizzes WHERE creator_id = ?";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, creatorId);
-            return stmt.executeUpdate();
+            int deleted = stmt.executeUpdate();
+            for (Map.Entry<Integer, Set<Integer>> entry : affected.entrySet()) {
+                notifyQuizDeleted(entry.getKey(), entry.getValue());
+            }
+            return deleted;
         }
     }
     
@@ -550,6 +684,25 @@ public class QuizDAO {
         return 0;
     }
     
+    /**
+     * Get a checksum of the searchable quiz content
+     * Covers each quiz's ID, title and description, so an edit changes it even when the quiz count stays the same.
+     * @return XOR of the per-row CRC32 values, 0 if there are no quizzes
+     * @throws SQLException If database error occurs
+     */
+    public long getContentChecksum() throws SQLException {
+        String sql = "SELECT COALESCE(BIT_XOR(CRC32(CONCAT_WS(CHAR(31), id, title, COALESCE(description, '')))), 0) FROM quizzes";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getLong(1);
+                }
+            }
+        }
+        return 0;
+    }
+    
     /**
      * Get count of practice mode quizzes
      * @return Number of practice mode quizzes
@@ -618,6 +771,59 @@ public class QuizDAO {
     
     // ========================= HELPER METHODS =========================
     
+    /**
+     * Notify listeners that a quiz row was modified
+     * @param quizId The modified quiz ID
+     */
+    private void notifyQuizUpdated(int quizId) {
+        for (QuizListener listener : quizListeners) {
+            listener.onQuizUpdated(quizId);
+        }
+    }
+    
+    /**
+     * Find the quizzes matching a condition together with their creator and every user who attempted them
+     * Skipped when nobody listens for deletes.
+     * @param condition Condition on quizzes aliased as q, with one int parameter
+     * @param value The parameter value
+     * @return User IDs by quiz ID
+     * @throws SQLException If database error occurs
+     */
+    private Map<Integer, Set<Integer>> findAffectedUsers(String condition, int value) throws SQLException {
+        Map<Integer, Set<Integer>> usersByQuiz = new LinkedHashMap<>();
+        if (quizListeners.isEmpty()) {
+            return usersByQuiz;
+        }
+        String sql = "SELECT q.id AS quiz_id, q.creator_id AS user_id FROM quizzes q WHERE " + condition + " " +
+                     "UNION SELECT a.quiz_id, a.user_id FROM quiz_attempts a JOIN quizzes q ON q.id = a.quiz_id WHERE " + condition;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, value);
+            stmt.setInt(2, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Set<Integer> users = usersByQuiz.computeIfAbsent(rs.getInt("quiz_id"), id -> new LinkedHashSet<>());
+                    int userId = rs.getInt("user_id");
+                    if (!rs.wasNull()) {
+                        users.add(userId);
+                    }
+                }
+            }
+        }
+        return usersByQuiz;
+    }
+    
+    /**
+     * Notify listeners that a quiz row was deleted
+     * @param quizId The deleted quiz ID
+     * @param userIds The users whose activity went with it
+     */
+    private void notifyQuizDeleted(int quizId, Set<Integer> userIds) {
+        for (QuizListener listener : quizListeners) {
+            listener.onQuizDeleted(quizId, userIds);
+        }
+    }
+    
     /**
      * Map a ResultSet row to a Quiz object
      * @param rs The ResultSet positioned at a valid row
@@ -0,0 +1,157 @@
+package dao;
+
+import model.QuizPopularity;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Data Access Object for QuizPopularity entity
+ * Persists periodic snapshots of the decayed attempt scores kept by the popularity service
+ */
+public class QuizPopularityDAO {
+    
+    private Connection connection;
+    
+    // Constructor that takes a database connection
+    public QuizPopularityDAO(Connection connection) {
+        this.connection = connection;
+    }
+    
+    // ========================= CREATE / UPDATE OPERATIONS =========================
+    
+    /**
+     * Insert or update the popularity rows of several quizzes in one batch
+     * Rows of quizzes that no longer exist are skipped.
+     * @param snapshot Popularity rows to store
+     * @return Number of rows submitted
+     * @throws SQLException If database error occurs
+     */
+    public int savePopularity(Collection<QuizPopularity> snapshot) throws SQLException {
+        if (snapshot == null || snapshot.isEmpty()) {
+            return 0;
+        }
+        
+        // Selected from quizzes so a quiz deleted since the snapshot is skipped instead of failing the whole batch
+        String sql = "INSERT INTO quiz_popularity (quiz_id, popular_score, trending_score, updated_at) " +
+                     "SELECT id, ?, ?, ? FROM quizzes WHERE id = ? " +
+                     "ON DUPLICATE KEY UPDATE popular_score = VALUES(popular_score), trending_score = VALUES(trending_score), updated_at = VALUES(updated_at)";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (QuizPopularity popularity : snapshot) {
+                stmt.setDouble(1, popularity.getPopularScore());
+                stmt.setDouble(2, popularity.getTrendingScore());
+                stmt.setTimestamp(3, new Timestamp(popularity.getUpdatedAt().getTime()));
+                stmt.setInt(4, popularity.getQuizId());
+                stmt.addBatch();
+            }
+            return stmt.executeBatch().length;
+        }
+    }
+    
+    // ========================= READ OPERATIONS =========================
+    
+    /**
+     * Get the last stored popularity snapshot
+     * @return List of popularity rows for all quizzes that still exist
+     * @throws SQLException If database error occurs
+     */
+    public List<QuizPopularity> getAllPopularity() throws SQLException {
+        String sql = "SELECT quiz_id, popular_score, trending_score, updated_at FROM quiz_popularity";
+        List<QuizPopularity> snapshot = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    snapshot.add(mapRowToQuizPopularity(rs));
+                }
+            }
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Compute decayed attempt scores directly from quiz_attempts
+     * Used once to seed the popularity service when no snapshot exists yet
+     * @param popularDecayPerSecond Decay rate of the long-term score, per second
+     * @param trendingDecayPerSecond Decay rate of the short-term score, per second
+     * @return List of popularity rows as of now
+     * @throws SQLException If database error occurs
+     */
+    public List<QuizPopularity> computePopularityFromAttempts(double popularDecayPerSecond, double trendingDecayPerSecond) throws SQLException {
+        String sql = "SELECT quiz_id, " +
+                     "SUM(EXP(-? * TIMESTAMPDIFF(SECOND, date_taken, NOW()))) AS popular_score, " +
+                     "SUM(EXP(-? * TIMESTAMPDIFF(SECOND, date_taken, NOW()))) AS trending_score " +
+                     "FROM quiz_attempts GROUP BY quiz_id";
+        List<QuizPopularity> snapshot = new ArrayList<>();
+        Date now = new Date();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setDouble(1, popularDecayPerSecond);
+            stmt.setDouble(2, trendingDecayPerSecond);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    snapshot.add(new QuizPopularity(rs.getInt("quiz_id"), rs.getDouble("popular_score"),
+                            rs.getDouble("trending_score"), now));
+                }
+            }
+        }
+        return snapshot;
+    }
+    
+    // ========================= DELETE OPERATIONS =========================
+    
+    /**
+     * Delete the popularity row of a quiz
+     * @param quizId The quiz ID
+     * @return true if a row was deleted, false otherwise
+     * @throws SQLException If database error occurs
+     */
+    public boolean deletePopularity(int quizId) throws SQLException {
+        String sql = "DELETE FROM quiz_popularity WHERE quiz_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Delete all stored popularity rows
+     * @return Number of rows deleted
+     * @throws SQLException If database error occurs
+     */
+    public int deleteAllPopularity() throws SQLException {
+        String sql = "DELETE FROM quiz_popularity";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            return stmt.executeUpdate();
+        }
+    }
+    
+    // ========================= HELPER METHODS =========================
+    
+    /**
+     * Map a ResultSet row to a QuizPopularity object
+     * @param rs The ResultSet positioned at a valid row
+     * @return QuizPopularity object
+     * @throws SQLException If database error occurs
+     */
+    private QuizPopularity mapRowToQuizPopularity(ResultSet rs) throws SQLException {
+        QuizPopularity popularity = new QuizPopularity();
+        popularity.setQuizId(rs.getInt("quiz_id"));
+        popularity.setPopularScore(rs.getDouble("popular_score"));
+        popularity.setTrendingScore(rs.getDouble("trending_score"));
+        
+        Timestamp updatedTimestamp = rs.getTimestamp("updated_at");
+        if (updatedTimestamp != null) {
+            popularity.setUpdatedAt(new Date(updatedTimestamp.getTime()));
+        }
+        
+        return popularity;
+    }
+}
@@ -0,0 +1,134 @@
+package dao;
+
+import model.QuizRecommendation;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object for QuizRecommendation entity
+ * Persists the top-k co-attempted quizzes computed by the recommendation job
+ */
+public class QuizRecommendationDAO {
+    
+    // Rows sent to the server per executeBatch call
+    private static final int BATCH_SIZE = 1000;
+    
+    private Connection connection;
+    
+    // Constructor that takes a database connection
+    public QuizRecommendationDAO(Connection connection) {
+        this.connection = connection;
+    }
+    
+    // ========================= CREATE / UPDATE OPERATIONS =========================
+    
+    /**
+     * Replace every stored recommendation with a new job result
+     * @param recommendations All recommendation rows
+     * @return Number of rows written
+     * @throws SQLException If database error occurs
+     */
+    public int replaceAllRecommendations(Collection<QuizRecommendation> recommendations) throws SQLException {
+        deleteAllRecommendations();
+        
+        // IGNORE skips rows whose quizzes were deleted while the job was running
+        String sql = "INSERT IGNORE INTO quiz_recommendations (quiz_id, rank_pos, similar_quiz_id, score) VALUES (?, ?, ?, ?)";
+        int written = 0;
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (QuizRecommendation recommendation : recommendations) {
+                stmt.setInt(1, recommendation.getQuizId());
+                stmt.setInt(2, recommendation.getRank());
+                stmt.setInt(3, recommendation.getSimilarQuizId());
+                stmt.setFloat(4, (float) recommendation.getScore());
+                stmt.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    written += stmt.executeBatch().length;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                written += stmt.executeBatch().length;
+            }
+        }
+        return written;
+    }
+    
+    // ========================= READ OPERATIONS =========================
+    
+    /**
+     * Get every stored recommendation
+     * @return Recommendation rows ordered by quiz and rank
+     * @throws SQLException If database error occurs
+     */
+    public List<QuizRecommendation> getAllRecommendations() throws SQLException {
+        String sql = "SELECT quiz_id, rank_pos, similar_quiz_id, score FROM quiz_recommendations ORDER BY quiz_id, rank_pos";
+        List<QuizRecommendation> recommendations = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    recommendations.add(mapRowToQuizRecommendation(rs));
+                }
+            }
+        }
+        return recommendations;
+    }
+    
+    /**
+     * Get the stored recommendations of one quiz
+     * @param quizId The quiz ID
+     * @return Recommendation rows in rank order
+     * @throws SQLException If database error occurs
+     */
+    public List<QuizRecommendation> getRecommendationsForQuiz(int quizId) throws SQLException {
+        String sql = "SELECT quiz_id, rank_pos, similar_quiz_id, score FROM quiz_recommendations WHERE quiz_id = ? ORDER BY rank_pos";
+        List<QuizRecommendation> recommendations = new ArrayList<>();
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, quizId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    recommendations.add(mapRowToQuizRecommendation(rs));
+                }
+            }
+        }
+        return recommendations;
+    }
+    
+    // ========================= DELETE OPERATIONS =========================
+    
+    /**
+     * Delete all stored recommendations
+     * @return Number of rows deleted
+     * @throws SQLException If database error occurs
+     */
+    public int deleteAllRecommendations() throws SQLException {
+        String sql = "DELETE FROM quiz_recommendations";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            return stmt.executeUpdate();
+        }
+    }
+    
+    // ========================= HELPER METHODS =========================
+    
+    /**
+     * Map a ResultSet row to a QuizRecommendation object
+     * @param rs The ResultSet positioned at a valid row
+     * @return QuizRecommendation object
+     * @throws SQLException If database error occurs
+     */
+    private QuizRecommendation mapRowToQuizRecommendation(ResultSet rs) throws SQLException {
+        return new QuizRecommendation(
+            rs.getInt("quiz_id"),
+            rs.getInt("rank_pos"),
+            rs.getInt("similar_quiz_id"),
+            rs.getFloat("score")
+        );
+    }
+}
@@ -1,12 +1,19 @@
 package dao;
 
 import model.User;
+import util.IdBatches;
 import util.PasswordHasher;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Data Access Object for User entity
@@ -16,11 +23,93 @@ public class UserDAO {
     
     private Connection connection;
     
+    // Components that keep derived data in sync with account writes
+    private final List<UserListener> userListeners = new CopyOnWriteArrayList<>();
+    
     // Constructor that takes a database connection
     public UserDAO(Connection connection) {
         this.connection = connection;
     }
     
+    /**
+     * Callback notified after accounts are created, renamed or deleted
+     * Password, email and admin changes are not reported.
+     */
+    public interface UserListener {
+        /**
+         * Called once a new user row has been inserted
+         * @param user The stored user, including its generated ID
+         */
+        default void onUserCreated(User user) {
+        }
+        
+        /**
+         * Called after a user's username may have changed
+         * @param userId The user ID
+         * @param username The username now stored
+         */
+        default void onUsernameChanged(int userId, String username) {
+        }
+        
+        /**
+         * Called after a user row was deleted
+         * @param userId The deleted user ID
+         */
+        default void onUserDeleted(int userId) {
+        }
+        
+        /**
+         * Called after a user row was deleted, with the rows its foreign key cascades removed
+         * Defaults to the plain delete event for listeners that only track accounts.
+         * @param deleted The deleted user and what went with it
+         */
+        default void onUserDeleted(DeletedUser deleted) {
+            onUserDeleted(deleted.getUserId());
+        }
+    }
+    
+    /**
+     * A deleted user and the rows the foreign key cascades removed with it, captured before the delete
+     * No quiz or attempt events fire for those rows, so listeners that index them read them from here.
+     */
+    public static final class DeletedUser {
+        private final int userId;
+        private final Set<Integer> createdQuizIds = new LinkedHashSet<>();
+        private final Set<Integer> attemptedQuizIds = new LinkedHashSet<>();
+        private final Set<Integer> unreadReceiverIds = new LinkedHashSet<>();
+        
+        public DeletedUser(int userId) {
+            this.userId = userId;
+        }
+        
+        public int getUserId() {
+            return userId;
+        }
+        
+        // Quizzes the user created; they are gone together with their questions and attempts
+        public Set<Integer> getCreatedQuizIds() {
+            return createdQuizIds;
+        }
+        
+        // Quizzes the user had attempts on; those attempts are gone
+        public Set<Integer> getAttemptedQuizIds() {
+            return attemptedQuizIds;
+        }
+        
+        // Other users who had unread messages from the user; those messages are gone
+        public Set<Integer> getUnreadReceiverIds() {
+            return unreadReceiverIds;
+        }
+    }
+    
+    /**
+     * Register a listener for account writes
+     * @param listener Listener to notify
+     */
+    public void addUserListener(UserListener listener) {
+        userListeners.add(listener);
+    }
+    
     // ========================= CREATE OPERATIONS =========================
     
     /**
@@ -47,6 +136,9 @@ public class UserDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     user.setUserId(generatedKeys.getInt(1));
+                    for (UserListener listener : userListeners) {
+                        listener.onUserCreated(user);
+                    }
                     return user;
                 }
             }
@@ -243,6 +335,58 @@ public class UserDAO {
         return users;
     }
     
+    /**
+     * Find users for a set of user IDs
+     * IDs are sent in chunks of at most IdBatches.BATCH_SIZE per IN list, so a page costs one query per chunk.
+     * @param userIds User IDs to look up
+     * @return Map of user ID to user (missing IDs are absent)
+     * @throws SQLException If database error occurs
+     */
+    public Map<Integer, User> findByIds(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, User> users = new HashMap<>();
+        for (List<Integer> chunk : IdBatches.chunk(userIds)) {
+            String sql = "SELECT id, username, password_hash, email, created_date, is_admin FROM users WHERE id IN (" +
+                         IdBatches.placeholders(chunk.size()) + ")";
+            
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                IdBatches.bindIds(stmt, 1, chunk);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        User user = mapRowToUser(rs);
+                        users.put(user.getUserId(), user);
+                    }
+                }
+            }
+        }
+        return users;
+    }
+    
+    /**
+     * Get usernames for a set of user IDs
+     * Only the ID and username columns are read, in chunks of at most IdBatches.BATCH_SIZE IDs per query.
+     * @param userIds User IDs to look up
+     * @return Map of user ID to username (missing IDs are absent)
+     * @throws SQLException If database error occurs
+     */
+    public Map<Integer, String> getUsernamesByIds(Collection<Integer> userIds) throws SQLException {
+        Map<Integer, String> usernames = new HashMap<>();
+        for (List<Integer> chunk : IdBatches.chunk(userIds)) {
+            String sql = "SELECT id, username FROM users WHERE id IN (" + IdBatches.placeholders(chunk.size()) + ")";
+            
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                IdBatches.bindIds(stmt, 1, chunk);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        usernames.put(rs.getInt("id"), rs.getString("username"));
+                    }
+                }
+            }
+        }
+        return usernames;
+    }
+    
     // ========================= UPDATE OPERATIONS =========================
     
     /**
@@ -261,7 +405,13 @@ public class UserDAO {
             stmt.setBoolean(4, user.isAdmin());
             stmt.setInt(5, user.getUserId());
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                for (UserListener listener : userListeners) {
+                    listener.onUsernameChanged(user.getUserId(), user.getUsername());
+                }
+            }
+            return updated;
         }
     }
     
@@ -316,7 +466,13 @@ public class UserDAO {
             stmt.setString(1, newUsername);
             stmt.setInt(2, userId);
             
-            return stmt.executeUpdate() > 0;
+            boolean updated = stmt.executeUpdate() > 0;
+            if (updated) {
+                for (UserListener listener : userListeners) {
+                    listener.onUsernameChanged(userId, newUsername);
+                }
+            }
+            return updated;
         }
     }
     
@@ -347,12 +503,18 @@ public class UserDAO {
      * @throws SQLException If database error occurs
      */
     public boolean deleteUser(int userId) throws SQLException {
+        // Capture what the cascades will remove while it can still be read
+        DeletedUser cascade = findCascade(userId);
         String sql = "DELETE FROM users WHERE id = ?";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setInt(1, userId);
             
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted) {
+                notifyUserDeleted(cascade);
+            }
+            return deleted;
         }
     }
     
@@ -363,12 +525,19 @@ public class UserDAO {
      * @throws SQLException If database error occurs
      */
     public boolean deleteUserByUsername(String username) throws SQLException {
+        // Capture the ID and the cascade first so listeners can drop the account
+        User user = userListeners.isEmpty() ? null : findByUsername(username);
+        DeletedUser cascade = user == null ? null : findCascade(user.getUserId());
         String sql = "DELETE FROM users WHERE username = ?";
         
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, username);
             
-            return stmt.executeUpdate() > 0;
+            boolean deleted = stmt.executeUpdate() > 0;
+            if (deleted && cascade != null) {
+                notifyUserDeleted(cascade);
+            }
+            return deleted;
         }
     }
     
@@ -496,6 +665,48 @@ public class UserDAO {
     
     // ========================= HELPER METHODS =========================
     
+    /**
+     * Look up the rows a user delete will cascade to
+     * Skipped when nobody listens for deletes.
+     * @param userId The user ID
+     * @return The user and their dependent rows
+     * @throws SQLException If database error occurs
+     */
+    private DeletedUser findCascade(int userId) throws SQLException {
+        DeletedUser cascade = new DeletedUser(userId);
+        if (userListeners.isEmpty()) {
+            return cascade;
+        }
+        collectIds("SELECT id FROM quizzes WHERE creator_id = ?", userId, cascade.getCreatedQuizIds());
+        collectIds("SELECT DISTINCT quiz_id FROM quiz_attempts WHERE user_id = ?", userId, cascade.getAttemptedQuizIds());
+        collectIds("SELECT DISTINCT receiver_id FROM messages WHERE sender_id = ? AND is_read = FALSE", userId,
+                cascade.getUnreadReceiverIds());
+        cascade.getUnreadReceiverIds().remove(userId);
+        return cascade;
+    }
+    
+    // Add the single int column of a query with one int parameter to a set
+    private void collectIds(String sql, int value, Set<Integer> ids) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Notify listeners that a user row was deleted
+     * @param cascade The deleted user and what went with it
+     */
+    private void notifyUserDeleted(DeletedUser cascade) {
+        for (UserListener listener : userListeners) {
+            listener.onUserDeleted(cascade);
+        }
+    }
+    
     /**
      * Map a ResultSet row to a User object
      * @param rs The ResultSet positioned at a valid row
@@ -0,0 +1,125 @@
+package dao;
+
+import model.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Request-scoped identity map in front of UserDAO's batch lookups
+ * A controller collects the user IDs a page needs, resolves them with one call, and then reads users or
+ * usernames from memory. Each ID is fetched at most once per lookup, including IDs that turned out not to exist.
+ * Instances are not thread-safe and should not outlive the request that created them.
+ */
+public class UserLookup {
+
+    private final UserDAO userDAO;
+    private final Map<Integer, User> users = new HashMap<>();
+    private final Map<Integer, String> usernames = new HashMap<>();
+    // IDs already queried that have no users row
+    private final Set<Integer> missing = new HashSet<>();
+
+    public UserLookup(UserDAO userDAO) {
+        this.userDAO = userDAO;
+    }
+
+    /**
+     * Load full user rows for every ID not seen yet
+     * @param userIds User IDs the request will read
+     * @throws SQLException If database error occurs
+     */
+    public void loadUsers(Collection<Integer> userIds) throws SQLException {
+        List<Integer> pending = new ArrayList<>();
+        for (Integer userId : userIds) {
+            if (userId != null && !users.containsKey(userId) && !missing.contains(userId)) {
+                pending.add(userId);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Integer, User> found = userDAO.findByIds(pending);
+        for (Integer userId : pending) {
+            User user = found.get(userId);
+            if (user == null) {
+                missing.add(userId);
+            } else {
+                users.put(userId, user);
+                usernames.put(userId, user.getUsername());
+            }
+        }
+    }
+
+    /**
+     * Load usernames for every ID not seen yet
+     * Only the username projection is queried; loaded users are reused.
+     * @param userIds User IDs the request will read
+     * @throws SQLException If database error occurs
+     */
+    public void loadUsernames(Collection<Integer> userIds) throws SQLException {
+        List<Integer> pending = new ArrayList<>();
+        for (Integer userId : userIds) {
+            if (userId != null && !usernames.containsKey(userId) && !missing.contains(userId)) {
+                pending.add(userId);
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> found = userDAO.getUsernamesByIds(pending);
+        for (Integer userId : pending) {
+            String username = found.get(userId);
+            if (username == null) {
+                missing.add(userId);
+            } else {
+                usernames.put(userId, username);
+            }
+        }
+    }
+
+    /**
+     * Get a user, querying only if it was not loaded
+     * @param userId The user ID
+     * @return User object or null if not found
+     * @throws SQLException If database error occurs
+     */
+    public User getUser(int userId) throws SQLException {
+        loadUsers(List.of(userId));
+        return users.get(userId);
+    }
+
+    /**
+     * Get a username, querying only if it was not loaded
+     * @param userId The user ID
+     * @return Username or null if not found
+     * @throws SQLException If database error occurs
+     */
+    public String getUsername(int userId) throws SQLException {
+        loadUsernames(List.of(userId));
+        return usernames.get(userId);
+    }
+
+    /**
+     * Resolve usernames for a set of IDs
+     * @param userIds User IDs to look up
+     * @return Map of user ID to username (missing IDs are absent)
+     * @throws SQLException If database error occurs
+     */
+    public Map<Integer, String> getUsernames(Collection<Integer> userIds) throws SQLException {
+        loadUsernames(userIds);
+        Map<Integer, String> result = new HashMap<>();
+        for (Integer userId : userIds) {
+            String username = usernames.get(userId);
+            if (username != null) {
+                result.put(userId, username);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,296 @@
+package dao;
+
+import model.UserStats;
+import util.IdBatches;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data Access Object for UserStats entity
+ * Stores the per-user statistics rollup so a profile page needs a single primary-key lookup
+ */
+public class UserStatsDAO {
+    
+    private Connection connection;
+    
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_stats (user_id, attempts, graded_attempts, score_sum, current_streak, best_streak, quizzes_created, last_active) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE attempts = VALUES(attempts), graded_attempts = VALUES(graded_attempts), " +
+            "score_sum = VALUES(score_sum), current_streak = VALUES(current_streak), best_streak = VALUES(best_streak), " +
+            "quizzes_created = VALUES(quizzes_created), last_active = VALUES(last_active)";
+    
+    // Constructor that takes a database connection
+    public UserStatsDAO(Connection connection) {
+        this.connection = connection;
+    }
+    
+    // ========================= CREATE / UPDATE OPERATIONS =========================
+    
+    /**
+     * Insert or replace the statistics row of a user
+     * @param stats The statistics to store
+     * @return true if the row was written
+     * @throws SQLException If database error occurs
+     */
+    public boolean saveStats(UserStats stats) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(UPSERT_SQL)) {
+            bindStats(stmt, stats);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Insert or replace the statistics rows of several users in one batch
+     * @param statsList The statistics to store
+     * @return Number of rows written
+     * @throws SQLException If database error occurs
+     */
+    public int saveAllStats(Collection<UserStats> statsList) throws SQLException {
+        if (statsList == null || statsList.isEmpty()) {
+            return 0;
+        }
+        
+        try (PreparedStatement stmt = connection.prepareStatement(UPSERT_SQL)) {
+            for (UserStats stats : statsList) {
+                bindStats(stmt, stats);
+                stmt.addBatch();
+            }
+            return stmt.executeBatch().length;
+        }
+    }
+    
+    // ========================= READ OPERATIONS =========================
+    
+    /**
+     * Find the statistics of a user by primary key
+     * @param userId The user ID
+     * @return UserStats object if a row exists, null otherwise
+     * @throws SQLException If database error occurs
+     */
+    public UserStats findByUserId(int userId) throws SQLException {
+        String sql = "SELECT user_id, attempts, graded_attempts, score_sum, current_streak, best_streak, quizzes_created, last_active " +
+                     "FROM user_stats WHERE user_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRowToUserStats(rs);
+                }
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get the number of stored statistics rows
+     * @return Row count
+     * @throws SQLException If database error occurs
+     */
+    public int getStatsCount() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM user_stats";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Recompute every user's statistics from quiz_attempts and quizzes
+     * Used to seed the rollup and to repair it after every attempt is deleted
+     * @return Statistics for every user with at least one attempt or created quiz
+     * @throws SQLException If database error occurs
+     */
+    public List<UserStats> computeAllStats() throws SQLException {
+        Map<Integer, UserStats> statsByUser = new LinkedHashMap<>();
+        compute(statsByUser, null);
+        return new ArrayList<>(statsByUser.values());
+    }
+    
+    /**
+     * Recompute the statistics of some users from quiz_attempts and quizzes
+     * Used to repair the rollup after their attempts or quizzes are edited or deleted
+     * @param userIds The user IDs
+     * @return Statistics for every given user; users without activity get an empty rollup
+     * @throws SQLException If database error occurs
+     */
+    public List<UserStats> computeStats(Collection<Integer> userIds) throws SQLException {
+        List<UserStats> computed = new ArrayList<>();
+        for (List<Integer> chunk : IdBatches.chunk(userIds)) {
+            Map<Integer, UserStats> statsByUser = new LinkedHashMap<>();
+            for (int userId : chunk) {
+                statsByUser.put(userId, new UserStats(userId));
+            }
+            compute(statsByUser, chunk);
+            computed.addAll(statsByUser.values());
+        }
+        return computed;
+    }
+    
+    // ========================= DELETE OPERATIONS =========================
+    
+    /**
+     * Delete the statistics row of a user
+     * @param userId The user ID
+     * @return true if a row was deleted, false otherwise
+     * @throws SQLException If database error occurs
+     */
+    public boolean deleteStats(int userId) throws SQLException {
+        String sql = "DELETE FROM user_stats WHERE user_id = ?";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, userId);
+            return stmt.executeUpdate() > 0;
+        }
+    }
+    
+    /**
+     * Delete the statistics rows of users with no attempts and no created quizzes
+     * @return Number of rows deleted
+     * @throws SQLException If database error occurs
+     */
+    public int deleteInactiveStats() throws SQLException {
+        String sql = "DELETE FROM user_stats " +
+                     "WHERE NOT EXISTS (SELECT 1 FROM quiz_attempts a WHERE a.user_id = user_stats.user_id) " +
+                     "AND NOT EXISTS (SELECT 1 FROM quizzes q WHERE q.creator_id = user_stats.user_id)";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            return stmt.executeUpdate();
+        }
+    }
+    
+    /**
+     * Delete all statistics rows
+     * @return Number of rows deleted
+     * @throws SQLException If database error occurs
+     */
+    public int deleteAllStats() throws SQLException {
+        String sql = "DELETE FROM user_stats";
+        
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            return stmt.executeUpdate();
+        }
+    }
+    
+    // ========================= HELPER METHODS =========================
+    
+    /**
+     * Fold attempt counts, created quizzes and activity days into per-user statistics
+     * @param statsByUser Statistics by user ID, extended with users first seen here
+     * @param userIds Users to restrict the queries to, or null for every user
+     * @throws SQLException If database error occurs
+     */
+    private void compute(Map<Integer, UserStats> statsByUser, List<Integer> userIds) throws SQLException {
+        String in = userIds == null ? null : "IN (" + IdBatches.placeholders(userIds.size()) + ")";
+        
+        String attemptsSql = "SELECT user_id, COUNT(*) AS attempts, SUM(is_practice = FALSE) AS graded_attempts, " +
+                             "SUM(CASE WHEN is_practice = FALSE THEN score ELSE 0 END) AS score_sum " +
+                             "FROM quiz_attempts " + (in == null ? "" : "WHERE user_id " + in + " ") + "GROUP BY user_id";
+        try (PreparedStatement stmt = connection.prepareStatement(attemptsSql)) {
+            bindIfPresent(stmt, 1, userIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    UserStats stats = statsByUser.computeIfAbsent(rs.getInt("user_id"), UserStats::new);
+                    stats.setAttempts(rs.getInt("attempts"));
+                    stats.setGradedAttempts(rs.getInt("graded_attempts"));
+                    stats.setScoreSum(rs.getDouble("score_sum"));
+                }
+            }
+        }
+        
+        String quizzesSql = "SELECT creator_id, COUNT(*) AS quizzes_created FROM quizzes " +
+                            (in == null ? "" : "WHERE creator_id " + in + " ") + "GROUP BY creator_id";
+        try (PreparedStatement stmt = connection.prepareStatement(quizzesSql)) {
+            bindIfPresent(stmt, 1, userIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    statsByUser.computeIfAbsent(rs.getInt("creator_id"), UserStats::new)
+                            .setQuizzesCreated(rs.getInt("quizzes_created"));
+                }
+            }
+        }
+        
+        // One row per user and active day, in order, to replay the day streaks
+        String daysSql = "SELECT user_id, day, MAX(last_at) AS last_at FROM (" +
+                         "SELECT user_id, DATE(date_taken) AS day, MAX(date_taken) AS last_at FROM quiz_attempts " +
+                         (in == null ? "" : "WHERE user_id " + in + " ") + "GROUP BY user_id, DATE(date_taken) " +
+                         "UNION ALL " +
+                         "SELECT creator_id, DATE(created_date), MAX(created_date) FROM quizzes " +
+                         (in == null ? "" : "WHERE creator_id " + in + " ") + "GROUP BY creator_id, DATE(created_date)" +
+                         ") activity GROUP BY user_id, day ORDER BY user_id, day";
+        try (PreparedStatement stmt = connection.prepareStatement(daysSql)) {
+            bindIfPresent(stmt, bindIfPresent(stmt, 1, userIds), userIds);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp lastAt = rs.getTimestamp("last_at");
+                    if (lastAt != null) {
+                        statsByUser.computeIfAbsent(rs.getInt("user_id"), UserStats::new)
+                                .recordActivity(new Date(lastAt.getTime()));
+                    }
+                }
+            }
+        }
+    }
+    
+    private static int bindIfPresent(PreparedStatement stmt, int index, List<Integer> userIds) throws SQLException {
+        return userIds == null ? index : IdBatches.bindIds(stmt, index, userIds);
+    }
+    
+    /**
+     * Bind a UserStats object to the upsert statement
+     * @param stmt The prepared upsert statement
+     * @param stats The statistics to bind
+     * @throws SQLException If database error occurs
+     */
+    private void bindStats(PreparedStatement stmt, UserStats stats) throws SQLException {
+        stmt.setInt(1, stats.getUserId());
+        stmt.setInt(2, stats.getAttempts());
+        stmt.setInt(3, stats.getGradedAttempts());
+        stmt.setDouble(4, stats.getScoreSum());
+        stmt.setInt(5, stats.getCurrentStreak());
+        stmt.setInt(6, stats.getBestStreak());
+        stmt.setInt(7, stats.getQuizzesCreated());
+        if (stats.getLastActive() != null) {
+            stmt.setTimestamp(8, new Timestamp(stats.getLastActive().getTime()));
+        } else {
+            stmt.setNull(8, Types.TIMESTAMP);
+        }
+    }
+    
+    /**
+     * Map a ResultSet row to a UserStats object
+     * @param rs The ResultSet positioned at a valid row
+     * @return UserStats object
+     * @throws SQLException If database error occurs
+     */
+    private UserStats mapRowToUserStats(ResultSet rs) throws SQLException {
+        UserStats stats = new UserStats();
+        stats.setUserId(rs.getInt("user_id"));
+        stats.setAttempts(rs.getInt("attempts"));
+        stats.setGradedAttempts(rs.getInt("graded_attempts"));
+        stats.setScoreSum(rs.getDouble("score_sum"));
+        stats.setCurrentStreak(rs.getInt("current_streak"));
+        stats.setBestStreak(rs.getInt("best_streak"));
+        stats.setQuizzesCreated(rs.getInt("quizzes_created"));
+        
+        Timestamp lastActiveTimestamp = rs.getTimestamp("last_active");
+        if (lastActiveTimestamp != null) {
+            stats.setLastActive(new Date(lastActiveTimestamp.getTime()));
+        }
+        
+        return stats;
+    }
+}
@@ -0,0 +1,20 @@
+package dto;
+
+import java.util.Date;
+
+/**
+ * Data Transfer Object for Conversation entity
+ * One entry of a user's conversation list: the other participant, the latest message and the unread count
+ */
+public record ConversationDTO(
+    int conversationId,
+    UserDTO otherUser,
+    MessageDTO lastMessage,
+    int unreadCount,
+    Date lastActivity
+) {
+    // Helper method for unread badges
+    public boolean hasUnread() {
+        return unreadCount > 0;
+    }
+}
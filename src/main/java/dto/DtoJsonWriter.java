@@ -0,0 +1,215 @@
+package dto;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.LeaderboardEntry;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Streaming JSON serialization of the DTO records
+ * Each record is written field by field to a Gson JsonWriter, so a response is produced as it is serialized with
+ * no intermediate JsonElement trees or reflection. Null fields are left to the writer's serializeNulls setting,
+ * which lets callers drop data they must not expose, such as another user's email, by leaving it null in the DTO.
+ * Dates are written as ISO-8601 instants in UTC.
+ */
+public final class DtoJsonWriter {
+
+    private DtoJsonWriter() {
+    }
+
+    /**
+     * Write a user as an object, or null
+     */
+    public static void write(JsonWriter out, UserDTO user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("userId").value(user.userId());
+        out.name("username").value(user.username());
+        out.name("email").value(user.email());
+        writeDate(out, "createdDate", user.createdDate());
+        out.name("isAdmin").value(user.isAdmin());
+        out.endObject();
+    }
+
+    /**
+     * Write a quiz as an object, or null
+     */
+    public static void write(JsonWriter out, QuizDTO quiz) throws IOException {
+        if (quiz == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("quizId").value(quiz.quizId());
+        out.name("title").value(quiz.title());
+        out.name("description").value(quiz.description());
+        out.name("creator");
+        write(out, quiz.creator());
+        out.name("randomOrder").value(quiz.randomOrder());
+        out.name("onePage").value(quiz.onePage());
+        out.name("immediateCorrection").value(quiz.immediateCorrection());
+        out.name("practiceMode").value(quiz.practiceMode());
+        writeDate(out, "createdDate", quiz.createdDate());
+        out.endObject();
+    }
+
+    /**
+     * Write a question as an object, or null
+     * The stored choices JSON is re-read into a "choices" array rather than embedded raw.
+     */
+    public static void write(JsonWriter out, QuestionDTO question) throws IOException {
+        if (question == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("questionId").value(question.questionId());
+        out.name("quizId").value(question.quizId());
+        out.name("questionType").value(question.questionType());
+        out.name("questionText").value(question.questionText());
+        if (question.choicesJson() != null && !question.choicesJson().trim().isEmpty()) {
+            out.name("choices");
+            writeChoices(out, question.choicesJson());
+        }
+        out.name("imageUrl").value(question.imageUrl());
+        out.name("orderNum").value(question.orderNum());
+        out.endObject();
+    }
+
+    /**
+     * Write a quiz attempt as an object, or null
+     */
+    public static void write(JsonWriter out, QuizAttemptDTO attempt) throws IOException {
+        if (attempt == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("attemptId").value(attempt.attemptId());
+        out.name("user");
+        write(out, attempt.user());
+        out.name("quiz");
+        write(out, attempt.quiz());
+        out.name("score").value(attempt.score());
+        out.name("totalQuestions").value(attempt.totalQuestions());
+        out.name("timeTaken").value(attempt.timeTaken());
+        writeDate(out, "dateTaken", attempt.dateTaken());
+        out.name("isPractice").value(attempt.isPractice());
+        out.endObject();
+    }
+
+    /**
+     * Write a message as an object, or null
+     */
+    public static void write(JsonWriter out, MessageDTO message) throws IOException {
+        if (message == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("messageId").value(message.messageId());
+        out.name("sender");
+        write(out, message.sender());
+        out.name("receiver");
+        write(out, message.receiver());
+        out.name("messageType").value(message.messageType());
+        out.name("content").value(message.content());
+        out.name("quiz");
+        write(out, message.quiz());
+        writeDate(out, "dateSent", message.dateSent());
+        out.name("isRead").value(message.isRead());
+        out.endObject();
+    }
+
+    /**
+     * Write a conversation list entry as an object, or null
+     */
+    public static void write(JsonWriter out, ConversationDTO conversation) throws IOException {
+        if (conversation == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("conversationId").value(conversation.conversationId());
+        out.name("otherUser");
+        write(out, conversation.otherUser());
+        out.name("lastMessage");
+        write(out, conversation.lastMessage());
+        out.name("unreadCount").value(conversation.unreadCount());
+        writeDate(out, "lastActivity", conversation.lastActivity());
+        out.endObject();
+    }
+
+    /**
+     * Write a leaderboard entry as an object, or null
+     * Leaderboard rows have no DTO of their own; the model only carries public fields.
+     */
+    public static void write(JsonWriter out, LeaderboardEntry entry) throws IOException {
+        if (entry == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        if (entry.getRank() > 0) {
+            out.name("rank").value(entry.getRank());
+        }
+        out.name("quizId").value(entry.getQuizId());
+        out.name("quizTitle").value(entry.getQuizTitle());
+        out.name("userId").value(entry.getUserId());
+        out.name("username").value(entry.getUsername());
+        out.name("bestScore").value(entry.getBestScore());
+        out.name("mostCorrect").value(entry.getMostCorrect());
+        writeDate(out, "mostRecent", entry.getMostRecent());
+        out.endObject();
+    }
+
+    /**
+     * Format a date as an ISO-8601 instant
+     * @param date The date, may be a java.sql subtype
+     * @return e.g. "2024-05-01T12:00:00Z", or null
+     */
+    public static String formatDate(Date date) {
+        // java.sql.Date does not support toInstant(), so go through the epoch millis
+        return date == null ? null : Instant.ofEpochMilli(date.getTime()).toString();
+    }
+
+    private static void writeDate(JsonWriter out, String name, Date date) throws IOException {
+        out.name(name).value(formatDate(date));
+    }
+
+    // Copy a stored JSON array of strings; anything malformed is written as null
+    private static void writeChoices(JsonWriter out, String choicesJson) throws IOException {
+        // Choices are a handful of short strings, read first so a malformed array never leaves half-written output
+        List<String> choices = new ArrayList<>();
+        try (JsonReader in = new JsonReader(new StringReader(choicesJson))) {
+            in.beginArray();
+            while (in.hasNext()) {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    choices.add(null);
+                } else {
+                    choices.add(in.nextString());
+                }
+            }
+            in.endArray();
+        } catch (IllegalStateException | IOException e) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String choice : choices) {
+            out.value(choice);
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,314 @@
+package filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import util.CompressedResponseCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip compression for text responses
+ * Text bodies are buffered and compressed once complete if they reach MIN_COMPRESS_BYTES; other content types
+ * stream through untouched, which also keeps long-lived streams unbuffered. A response carrying an ETag is
+ * compressed at the highest level once and its bytes are kept in a bounded cache keyed by URI and ETag. When
+ * ConditionalGetFilter has already set the ETag of a cached page, the page is replayed without running the
+ * controller at all. Runs inside ConditionalGetFilter (see web.xml), so 304 answers never reach it.
+ */
+public class CompressionFilter extends HttpFilter {
+
+    // Bodies smaller than this gain little and still pay for a gzip header and a deflate pass
+    static final int MIN_COMPRESS_BYTES = 1024;
+    // Budget of the compressed page cache and of one entry in it
+    static final long CACHE_BYTES = 16L * 1024 * 1024;
+    static final int MAX_CACHE_ENTRY_BYTES = 512 * 1024;
+
+    private static final String GZIP = "gzip";
+    private static final Set<String> COMPRESSIBLE_TYPES = Set.of(
+            "application/javascript", "application/json", "application/xml", "image/svg+xml");
+
+    private final CompressedResponseCache cache = new CompressedResponseCache(CACHE_BYTES, MAX_CACHE_ENTRY_BYTES);
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+        if ("HEAD".equals(req.getMethod())) {
+            chain.doFilter(req, resp);
+            return;
+        }
+        resp.addHeader("Vary", "Accept-Encoding");
+        if (!acceptsGzip(req.getHeader("Accept-Encoding"))) {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        boolean get = "GET".equals(req.getMethod());
+        String uri = req.getQueryString() == null ? req.getRequestURI() : req.getRequestURI() + "?" + req.getQueryString();
+        String knownEtag = get ? resp.getHeader("ETag") : null;
+        if (knownEtag != null) {
+            CompressedResponseCache.Entry cached = cache.get(CompressedResponseCache.key(uri, knownEtag, GZIP));
+            if (cached != null) {
+                send(resp, cached);
+                return;
+            }
+        }
+
+        BufferedResponse buffered = new BufferedResponse(resp);
+        chain.doFilter(req, buffered);
+        if (!buffered.isBuffering() || resp.isCommitted()) {
+            // Streamed through, or the chain redirected or sent an error
+            return;
+        }
+
+        byte[] body = buffered.getBody();
+        if (body.length < MIN_COMPRESS_BYTES || resp.getHeader("Content-Encoding") != null) {
+            resp.setContentLength(body.length);
+            resp.getOutputStream().write(body);
+            return;
+        }
+        String etag = resp.getHeader("ETag");
+        boolean cacheable = get && etag != null && resp.getStatus() == HttpServletResponse.SC_OK;
+        String key = cacheable ? CompressedResponseCache.key(uri, etag, GZIP) : null;
+        CompressedResponseCache.Entry entry = cacheable && knownEtag == null ? cache.get(key) : null;
+        if (entry == null) {
+            // Cached bodies are compressed once and sent many times, so they get the best ratio
+            entry = new CompressedResponseCache.Entry(
+                    gzip(body, cacheable ? Deflater.BEST_COMPRESSION : Deflater.DEFAULT_COMPRESSION),
+                    resp.getContentType(), GZIP);
+            if (cacheable) {
+                cache.put(key, entry);
+            }
+        }
+        send(resp, entry);
+    }
+
+    /**
+     * Check whether a client accepts gzip
+     * @param acceptEncoding The Accept-Encoding header, may be null
+     * @return true if gzip is listed without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            if (!coding.equals(GZIP) && !coding.equals("x-gzip")) {
+                continue;
+            }
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a content type is worth compressing
+     * @param contentType Content type with optional parameters, may be null
+     * @return true for text and other textual formats
+     */
+    static boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        // Event streams are text but must reach the client as they are written
+        if (type.equals("text/event-stream")) {
+            return false;
+        }
+        return type.startsWith("text/") || COMPRESSIBLE_TYPES.contains(type);
+    }
+
+    static byte[] gzip(byte[] body, int level) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 8192) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static void send(HttpServletResponse resp, CompressedResponseCache.Entry entry) throws IOException {
+        if (entry.getContentType() != null) {
+            resp.setContentType(entry.getContentType());
+        }
+        resp.setHeader("Content-Encoding", entry.getEncoding());
+        resp.setContentLength(entry.getBody().length);
+        resp.getOutputStream().write(entry.getBody());
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    /**
+     * Response that buffers compressible bodies and passes everything else straight through
+     * The choice is made when the body is first opened, by which time servlets and JSPs have set the content type.
+     */
+    private static final class BufferedResponse extends HttpServletResponseWrapper {
+        private ByteArrayOutputStream buffer;
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+        private boolean passThrough;
+        private long contentLength = -1;
+
+        BufferedResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        boolean isBuffering() {
+            return buffer != null;
+        }
+
+        byte[] getBody() {
+            if (writer != null) {
+                writer.flush();
+            }
+            return buffer.toByteArray();
+        }
+
+        private void decide() {
+            if (buffer != null || passThrough) {
+                return;
+            }
+            if (isCompressible(getContentType())) {
+                buffer = new ByteArrayOutputStream(8192);
+            } else {
+                passThrough = true;
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            decide();
+            if (passThrough) {
+                return super.getOutputStream();
+            }
+            if (stream == null) {
+                stream = new BufferStream(buffer);
+            }
+            return stream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (stream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            decide();
+            if (passThrough) {
+                return super.getWriter();
+            }
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(buffer, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // A buffered body's length is only known after compression
+            if (passThrough) {
+                super.setContentLengthLong(len);
+            } else {
+                contentLength = len;
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (passThrough) {
+                super.flushBuffer();
+            } else if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (buffer != null) {
+                if (writer != null) {
+                    writer.flush();
+                }
+                buffer.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (buffer != null) {
+                if (writer != null) {
+                    writer.flush();
+                }
+                buffer.reset();
+            }
+        }
+    }
+
+    /**
+     * Servlet stream writing into a byte buffer
+     */
+    private static final class BufferStream extends ServletOutputStream {
+        private final ByteArrayOutputStream buffer;
+
+        BufferStream(ByteArrayOutputStream buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Buffered responses are written synchronously");
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import model.User;
+import service.ContentVersions;
+import util.RequestParams;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conditional GET for read-heavy pages
+ * Each covered page lists the version keys of the data it renders. Their versions, the signed-in user and, where
+ * a page also changes with time, a time bucket are hashed into a weak ETag. A request whose If-None-Match still
+ * matches is answered with 304 Not Modified before the controller runs, so no queries or rendering happen.
+ * Pages are marked private and must be revalidated, since most of them differ per user.
+ * Mapped in web.xml ahead of CompressionFilter, which relies on the ETag being set before it runs.
+ */
+public class ConditionalGetFilter extends HttpFilter {
+
+    // The quiz summary's "last 24 hours" list also moves as attempts age out of the window
+    static final long SUMMARY_BUCKET_MILLIS = 10 * 60 * 1000L;
+
+    private ContentVersions versions;
+
+    @Override
+    public void init() throws ServletException {
+        versions = (ContentVersions) getServletContext().getAttribute("contentVersions");
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+        if (versions == null || !("GET".equals(req.getMethod()) || "HEAD".equals(req.getMethod()))) {
+            chain.doFilter(req, resp);
+            return;
+        }
+        HttpSession session = req.getSession(false);
+        User user = session != null ? (User) session.getAttribute("user") : null;
+        String path = req.getServletPath();
+        List<String> keys = dependencies(path, req, user);
+        if (keys == null) {
+            chain.doFilter(req, resp);
+            return;
+        }
+
+        long lastModified = 0;
+        long hash = mix(0xcbf29ce484222325L, user != null ? user.getUserId() : -1);
+        for (String key : keys) {
+            long version = versions.getVersion(key);
+            lastModified = Math.max(lastModified, version);
+            hash = mix(hash, version);
+        }
+        if ("/quiz-summery".equals(path)) {
+            hash = mix(hash, System.currentTimeMillis() / SUMMARY_BUCKET_MILLIS);
+        }
+        String etag = "W/\"" + Long.toHexString(hash) + "\"";
+
+        resp.setHeader("ETag", etag);
+        resp.setDateHeader("Last-Modified", lastModified);
+        resp.setHeader("Cache-Control", "private, no-cache");
+        resp.setHeader("Vary", "Cookie");
+        if (isNotModified(req, etag, lastModified, user)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        chain.doFilter(req, resp);
+    }
+
+    /**
+     * List the version keys a page depends on
+     * @param path Servlet path of the request
+     * @param req The request, for its parameters
+     * @param user The signed-in user, or null
+     * @return Version keys, or null if the page is not covered
+     */
+    static List<String> dependencies(String path, HttpServletRequest req, User user) {
+        List<String> keys = new ArrayList<>();
+        Integer quizId;
+        switch (path) {
+            case "":
+            case "/":
+                if (req.getPathInfo() != null && !"/".equals(req.getPathInfo())) {
+                    return null;
+                }
+                keys.add(ContentVersions.ANNOUNCEMENTS);
+                keys.add(ContentVersions.CATALOG);
+                keys.add(ContentVersions.ATTEMPTS);
+                keys.add(ContentVersions.RECOMMENDATIONS);
+                if (user != null) {
+                    keys.add(ContentVersions.inbox(user.getUserId()));
+                }
+                return keys;
+            case "/quiz":
+                quizId = RequestParams.parseInt(req.getParameter("id"));
+                if (quizId == null) {
+                    return null;
+                }
+                keys.add(ContentVersions.quiz(quizId));
+                // Related quizzes come from the whole catalog and the recommendation jobs
+                keys.add(ContentVersions.CATALOG);
+                keys.add(ContentVersions.RECOMMENDATIONS);
+                return keys;
+            case "/quizzes":
+                keys.add(ContentVersions.CATALOG);
+                keys.add(ContentVersions.USERS);
+                return keys;
+            case "/quiz-summery":
+                quizId = RequestParams.parseInt(req.getParameter("quizId"));
+                if (quizId == null) {
+                    return null;
+                }
+                keys.add(ContentVersions.quiz(quizId));
+                keys.add(ContentVersions.quizAttempts(quizId));
+                keys.add(ContentVersions.USERS);
+                return keys;
+            case "/leaderboard":
+                keys.add(ContentVersions.ATTEMPTS);
+                keys.add(ContentVersions.USERS);
+                return keys;
+            case "/leaderboard/quiz":
+            case "/api/leaderboard":
+                quizId = RequestParams.parseInt(req.getParameter("quizId"));
+                if (quizId == null) {
+                    return null;
+                }
+                keys.add(ContentVersions.quiz(quizId));
+                keys.add(ContentVersions.quizAttempts(quizId));
+                keys.add(ContentVersions.USERS);
+                if (user != null) {
+                    keys.add(ContentVersions.friends(user.getUserId()));
+                }
+                return keys;
+            case "/api/v1":
+                return apiDependencies(req.getPathInfo(), req, user);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * List the version keys of a JSON API resource
+     * Question lists are left out because fetching them starts an attempt's clock.
+     */
+    static List<String> apiDependencies(String pathInfo, HttpServletRequest req, User user) {
+        String[] path = pathInfo == null ? new String[0] : pathInfo.replaceAll("^/+|/+$", "").split("/+");
+        List<String> keys = new ArrayList<>();
+        if (path.length == 1 && "quizzes".equals(path[0])) {
+            keys.add(ContentVersions.CATALOG);
+            keys.add(ContentVersions.USERS);
+            return keys;
+        }
+        if (path.length == 1 && "leaderboard".equals(path[0])) {
+            keys.add(ContentVersions.ATTEMPTS);
+            keys.add(ContentVersions.USERS);
+            return keys;
+        }
+        if (path.length == 1 && "inbox".equals(path[0])) {
+            if (user == null) {
+                return null;
+            }
+            keys.add(ContentVersions.inbox(user.getUserId()));
+            keys.add(ContentVersions.CATALOG);
+            keys.add(ContentVersions.USERS);
+            return keys;
+        }
+        Integer quizId = path.length >= 2 && "quizzes".equals(path[0]) ? RequestParams.parseInt(path[1]) : null;
+        if (quizId == null) {
+            return null;
+        }
+        if (path.length == 2) {
+            keys.add(ContentVersions.quiz(quizId));
+            keys.add(ContentVersions.USERS);
+            return keys;
+        }
+        if (path.length == 3 && "leaderboard".equals(path[2])) {
+            keys.add(ContentVersions.quiz(quizId));
+            keys.add(ContentVersions.quizAttempts(quizId));
+            keys.add(ContentVersions.USERS);
+            if (user != null) {
+                keys.add(ContentVersions.friends(user.getUserId()));
+            }
+            return keys;
+        }
+        return null;
+    }
+
+    /**
+     * Check the request's validators against the current ones
+     * If-None-Match wins when present. If-Modified-Since is only trusted for anonymous requests, because a date
+     * cannot tell apart copies rendered for different users.
+     */
+    static boolean isNotModified(HttpServletRequest req, String etag, long lastModified, User user) {
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || weak(tag).equals(weak(etag))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (user != null) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = req.getDateHeader("If-Modified-Since");
+            // HTTP dates have one-second precision
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Weak comparison: W/"x" and "x" are the same tag
+    private static String weak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash ^= (value >>> (i * 8)) & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
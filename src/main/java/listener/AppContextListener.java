@@ -1,7 +1,13 @@
 package listener;
 import jakarta.servlet.ServletContextEvent;
 import jakarta.servlet.ServletContextListener;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.servlet.annotation.WebListener;
 import util.DbUtil;
@@ -9,15 +15,68 @@ import dao.UserDAO;
 import dao.QuizDAO;
 import dao.QuestionDAO;
 import dao.QuizAttemptDAO;
+import dao.ConversationDAO;
 import dao.FriendshipDAO;
 import dao.MessageDAO;
 import dao.AchievementDAO;
 import dao.AnnouncementDAO;
+import dao.QuizPopularityDAO;
+import dao.QuizRecommendationDAO;
+import dao.UserStatsDAO;
+import dao.InboxCountersDAO;
+import service.ContentSimilarityIndex;
+import service.ContentVersions;
+import service.DuplicateQuestionIndex;
+import service.FragmentCache;
+import service.FriendGraph;
+import service.FriendSuggestionService;
+import service.InboxCounterService;
+import service.LeaderboardService;
+import service.NotificationHub;
+import service.PercentileService;
+import service.QuizGrader;
+import service.PopularityService;
+import service.QuizCatalog;
+import service.QuizSearchIndex;
+import service.QuizTitleCache;
+import service.RecommendationService;
+import service.UserStatsService;
+import service.UsernameIndex;
 
 @WebListener
 public class AppContextListener implements ServletContextListener
 {
     private Connection _connection;
+    private ScheduledExecutorService _scheduler;
+    // Notification keep-alives only; kept off _scheduler so long jobs there never delay a ping
+    private ScheduledExecutorService _heartbeatScheduler;
+    // One-off startup backfills; kept off _scheduler so they never wait behind the recommendation job
+    private ExecutorService _migrationExecutor;
+    private PopularityService _popularityService;
+    private QuizSearchIndex _searchIndex;
+    private Path _searchSegment;
+    private RecommendationService _recommendationService;
+    private ContentSimilarityIndex _contentSimilarityIndex;
+    private ContentVersions _contentVersions;
+    private FriendSuggestionService _friendSuggestionService;
+    private NotificationHub _notificationHub;
+
+    // How often the in-memory popularity scores are written back to the database
+    private static final long POPULARITY_SNAPSHOT_MINUTES = 5;
+    // Per-user homepage fragments are reloaded at least this often
+    private static final long USER_FRAGMENT_TTL_MINUTES = 2;
+    // How often a changed search index is written to its segment file
+    private static final long SEARCH_SEGMENT_MINUTES = 5;
+    // How often the co-attempt recommendations are recomputed from quiz_attempts
+    private static final long RECOMMENDATION_HOURS = 6;
+    // How often content similarity is rebuilt with fresh IDF values; writes are applied incrementally in between
+    private static final long CONTENT_SIMILARITY_HOURS = 24;
+    // How often friend suggestions of recently active users are recomputed after friendship changes
+    private static final long FRIEND_SUGGESTION_MINUTES = 1;
+    // Keep-alive interval for notification streams; below common 30-60s proxy idle timeouts
+    private static final long NOTIFICATION_HEARTBEAT_SECONDS = 25;
+    // Directory for files derived from the database; override with -Dquizapp.dataDir
+    private static final String DATA_DIR_PROPERTY = "quizapp.dataDir";
 
     @Override
     public void contextInitialized(ServletContextEvent e) {
@@ -34,7 +93,8 @@ public class AppContextListener implements ServletContextListener
             QuestionDAO questionDAO = new QuestionDAO(_connection);
             QuizAttemptDAO quizAttemptDAO = new QuizAttemptDAO(_connection);
             FriendshipDAO friendshipDAO = new FriendshipDAO(_connection);
-            MessageDAO messageDAO = new MessageDAO(_connection);
+            ConversationDAO conversationDAO = new ConversationDAO(_connection);
+            MessageDAO messageDAO = new MessageDAO(_connection, conversationDAO);
             AchievementDAO achievementDAO = new AchievementDAO(_connection);
             AnnouncementDAO announcementDAO = new AnnouncementDAO(_connection);
 
@@ -44,8 +104,145 @@ public class AppContextListener implements ServletContextListener
             e.getServletContext().setAttribute("quizAttemptDAO", quizAttemptDAO);
             e.getServletContext().setAttribute("friendshipDAO", friendshipDAO);
             e.getServletContext().setAttribute("messageDAO", messageDAO);
+            e.getServletContext().setAttribute("conversationDAO", conversationDAO);
             e.getServletContext().setAttribute("achievementDAO", achievementDAO);
             e.getServletContext().setAttribute("announcementDAO", announcementDAO);
+
+            //Adding services In context
+            _contentVersions = new ContentVersions();
+            quizDAO.addQuizListener(_contentVersions);
+            questionDAO.addQuestionListener(_contentVersions);
+            quizAttemptDAO.addAttemptListener(_contentVersions);
+            announcementDAO.addAnnouncementListener(_contentVersions);
+            userDAO.addUserListener(_contentVersions);
+            messageDAO.addMessageListener(_contentVersions);
+            friendshipDAO.addFriendshipListener(_contentVersions);
+            e.getServletContext().setAttribute("contentVersions", _contentVersions);
+
+            _popularityService = new PopularityService(new QuizPopularityDAO(_connection));
+            _popularityService.initialize();
+            quizAttemptDAO.addAttemptListener(_popularityService);
+            quizDAO.addQuizListener(_popularityService);
+            userDAO.addUserListener(_popularityService);
+            e.getServletContext().setAttribute("popularityService", _popularityService);
+
+            PercentileService percentileService = new PercentileService(quizAttemptDAO);
+            percentileService.initialize();
+            quizAttemptDAO.addAttemptListener(percentileService);
+            userDAO.addUserListener(percentileService);
+            e.getServletContext().setAttribute("percentileService", percentileService);
+
+            QuizGrader quizGrader = new QuizGrader(quizAttemptDAO, achievementDAO);
+            e.getServletContext().setAttribute("quizGrader", quizGrader);
+
+            LeaderboardService leaderboardService = new LeaderboardService(quizAttemptDAO, quizDAO, userDAO, friendshipDAO);
+            leaderboardService.initialize();
+            quizAttemptDAO.addAttemptListener(leaderboardService);
+            quizDAO.addQuizListener(leaderboardService);
+            userDAO.addUserListener(leaderboardService);
+            e.getServletContext().setAttribute("leaderboardService", leaderboardService);
+
+            UserStatsService userStatsService = new UserStatsService(new UserStatsDAO(_connection));
+            userStatsService.initialize();
+            quizAttemptDAO.addAttemptListener(userStatsService);
+            quizDAO.addQuizListener(userStatsService);
+            e.getServletContext().setAttribute("userStatsService", userStatsService);
+
+            InboxCounterService inboxCounterService = new InboxCounterService(new InboxCountersDAO(_connection));
+            inboxCounterService.initialize();
+            messageDAO.addMessageListener(inboxCounterService);
+            userDAO.addUserListener(inboxCounterService);
+            e.getServletContext().setAttribute("inboxCounterService", inboxCounterService);
+
+            FragmentCache fragmentCache = new FragmentCache(USER_FRAGMENT_TTL_MINUTES * 60 * 1000L);
+            quizDAO.addQuizListener(fragmentCache);
+            quizAttemptDAO.addAttemptListener(fragmentCache);
+            messageDAO.addMessageListener(fragmentCache);
+            announcementDAO.addAnnouncementListener(fragmentCache);
+            e.getServletContext().setAttribute("fragmentCache", fragmentCache);
+
+            Path dataDir = Paths.get(System.getProperty(DATA_DIR_PROPERTY,
+                    Paths.get(System.getProperty("java.io.tmpdir"), "quizapp").toString()));
+            _searchSegment = dataDir.resolve("quiz-search.seg");
+            _searchIndex = new QuizSearchIndex(quizDAO, questionDAO);
+            _searchIndex.initialize(_searchSegment);
+            quizDAO.addQuizListener(_searchIndex);
+            questionDAO.addQuestionListener(_searchIndex);
+            userDAO.addUserListener(_searchIndex);
+            e.getServletContext().setAttribute("quizSearchIndex", _searchIndex);
+
+            DuplicateQuestionIndex duplicateQuestionIndex = new DuplicateQuestionIndex(questionDAO);
+            duplicateQuestionIndex.initialize();
+            questionDAO.addQuestionListener(duplicateQuestionIndex);
+            quizDAO.addQuizListener(duplicateQuestionIndex);
+            e.getServletContext().setAttribute("duplicateQuestionIndex", duplicateQuestionIndex);
+
+            UsernameIndex usernameIndex = new UsernameIndex(userDAO);
+            usernameIndex.initialize();
+            userDAO.addUserListener(usernameIndex);
+            e.getServletContext().setAttribute("usernameIndex", usernameIndex);
+
+            FriendGraph friendGraph = new FriendGraph(friendshipDAO);
+            friendGraph.initialize();
+            friendshipDAO.addFriendshipListener(friendGraph);
+            userDAO.addUserListener(friendGraph);
+            e.getServletContext().setAttribute("friendGraph", friendGraph);
+
+            // Registered after the graph so it sees friendships as they are after each write
+            _friendSuggestionService = new FriendSuggestionService(friendGraph, usernameIndex);
+            friendshipDAO.addFriendshipListener(_friendSuggestionService);
+            userDAO.addUserListener(_friendSuggestionService);
+            e.getServletContext().setAttribute("friendSuggestionService", _friendSuggestionService);
+
+            QuizTitleCache quizTitleCache = new QuizTitleCache(quizDAO);
+            quizDAO.addQuizListener(quizTitleCache);
+            e.getServletContext().setAttribute("quizTitleCache", quizTitleCache);
+
+            _notificationHub = new NotificationHub(usernameIndex, quizTitleCache);
+            messageDAO.addMessageListener(_notificationHub);
+            friendshipDAO.addFriendshipListener(_notificationHub);
+            e.getServletContext().setAttribute("notificationHub", _notificationHub);
+
+            QuizCatalog quizCatalog = new QuizCatalog(quizDAO, questionDAO);
+            quizCatalog.initialize();
+            quizDAO.addQuizListener(quizCatalog);
+            questionDAO.addQuestionListener(quizCatalog);
+            userDAO.addUserListener(quizCatalog);
+            e.getServletContext().setAttribute("quizCatalog", quizCatalog);
+
+            _recommendationService = new RecommendationService(new QuizRecommendationDAO(_connection));
+            boolean haveRecommendations = _recommendationService.initialize();
+            quizDAO.addQuizListener(_recommendationService);
+            e.getServletContext().setAttribute("recommendationService", _recommendationService);
+
+            _contentSimilarityIndex = new ContentSimilarityIndex(quizDAO, questionDAO);
+            _contentSimilarityIndex.initialize();
+            quizDAO.addQuizListener(_contentSimilarityIndex);
+            questionDAO.addQuestionListener(_contentSimilarityIndex);
+            e.getServletContext().setAttribute("contentSimilarityIndex", _contentSimilarityIndex);
+
+            _heartbeatScheduler = Executors.newSingleThreadScheduledExecutor();
+            _heartbeatScheduler.scheduleAtFixedRate(_notificationHub::heartbeat,
+                    NOTIFICATION_HEARTBEAT_SECONDS, NOTIFICATION_HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+
+            //Background jobs
+            _scheduler = Executors.newSingleThreadScheduledExecutor();
+            _scheduler.scheduleAtFixedRate(this::savePopularitySnapshot,
+                    POPULARITY_SNAPSHOT_MINUTES, POPULARITY_SNAPSHOT_MINUTES, TimeUnit.MINUTES);
+            _scheduler.scheduleAtFixedRate(this::saveSearchSegment,
+                    SEARCH_SEGMENT_MINUTES, SEARCH_SEGMENT_MINUTES, TimeUnit.MINUTES);
+            // Run the first recommendation job right away if none has ever completed
+            _scheduler.scheduleAtFixedRate(this::recomputeRecommendations,
+                    haveRecommendations ? RECOMMENDATION_HOURS : 0, RECOMMENDATION_HOURS, TimeUnit.HOURS);
+            _scheduler.scheduleAtFixedRate(this::rebuildContentSimilarity,
+                    CONTENT_SIMILARITY_HOURS, CONTENT_SIMILARITY_HOURS, TimeUnit.HOURS);
+            _scheduler.scheduleWithFixedDelay(this::refreshFriendSuggestions,
+                    FRIEND_SUGGESTION_MINUTES, FRIEND_SUGGESTION_MINUTES, TimeUnit.MINUTES);
+            // Friendship reads switch to friend_edges once the backfill has caught up
+            _migrationExecutor = Executors.newSingleThreadExecutor();
+            _migrationExecutor.execute(() -> migrateFriendEdges(friendshipDAO));
+            // Latest-message lookups switch to conversation pointers once existing messages are threaded
+            _migrationExecutor.execute(() -> migrateConversations(conversationDAO));
         }
         catch (Exception ex)
         {
@@ -57,6 +254,24 @@ public class AppContextListener implements ServletContextListener
     @Override
     public void contextDestroyed(ServletContextEvent e)
     {
+        if (_scheduler != null)
+        {
+            _scheduler.shutdownNow();
+        }
+        if (_migrationExecutor != null)
+        {
+            _migrationExecutor.shutdownNow();
+        }
+        if (_heartbeatScheduler != null)
+        {
+            _heartbeatScheduler.shutdownNow();
+        }
+        if (_notificationHub != null)
+        {
+            _notificationHub.shutdown();
+        }
+        savePopularitySnapshot();
+        saveSearchSegment();
         try
         {
             System.out.println("Closing DB connection...");
@@ -67,4 +282,100 @@ public class AppContextListener implements ServletContextListener
             ex.printStackTrace();
         }
     }
+
+    private void savePopularitySnapshot()
+    {
+        if (_popularityService == null)
+        {
+            return;
+        }
+        try
+        {
+            _popularityService.saveSnapshot();
+        }
+        catch (Exception ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private void recomputeRecommendations()
+    {
+        // The scan streams the whole attempts table, so it gets its own connection
+        try (Connection scanConnection = DbUtil.getConnection())
+        {
+            _recommendationService.recompute(new QuizAttemptDAO(scanConnection));
+            _contentVersions.bump(ContentVersions.RECOMMENDATIONS);
+        }
+        catch (Exception ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private void rebuildContentSimilarity()
+    {
+        try
+        {
+            _contentSimilarityIndex.rebuild();
+            _contentVersions.bump(ContentVersions.RECOMMENDATIONS);
+        }
+        catch (Exception ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private void refreshFriendSuggestions()
+    {
+        try
+        {
+            _friendSuggestionService.refreshDirty();
+        }
+        catch (Exception ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private void migrateFriendEdges(FriendshipDAO friendshipDAO)
+    {
+        // The backfill copies every friendship, so it gets its own connection
+        try (Connection migrationConnection = DbUtil.getConnection())
+        {
+            int inserted = friendshipDAO.migrateEdges(migrationConnection);
+            if (inserted > 0)
+            {
+                System.out.println("Backfilled " + inserted + " friendship edges");
+            }
+        }
+        catch (Exception ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private void migrateConversations(ConversationDAO conversationDAO)
+    {
+        try (Connection migrationConnection = DbUtil.getConnection())
+        {
+            int assigned = conversationDAO.migrate(migrationConnection);
+            if (assigned > 0)
+            {
+                System.out.println("Assigned " + assigned + " messages to conversations");
+            }
+        }
+        catch (Exception ex)
+        {
+            ex.printStackTrace();
+        }
+    }
+
+    private void saveSearchSegment()
+    {
+        if (_searchIndex != null)
+        {
+            _searchIndex.save(_searchSegment);
+        }
+    }
 }
@@ -0,0 +1,126 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * Conversation model: one user's view of the thread between two users
+ * Corresponds to a 'conversation_participants' row joined with its 'conversations' row
+ * Every message between the same two users belongs to one conversation. The last message and the
+ * participant's unread count are stored with the conversation, so listing threads never scans messages.
+ */
+public class Conversation {
+    private int conversationId;
+    private int userId;
+    private int otherUserId;
+    private int unreadCount;
+    private Date lastActivity;
+    private Integer lastMessageId;
+    private Message lastMessage;   // Only set by queries that join the last message
+
+    // Default constructor
+    public Conversation() {
+    }
+
+    // Full constructor
+    public Conversation(int conversationId, int userId, int otherUserId, int unreadCount,
+                        Date lastActivity, Integer lastMessageId) {
+        this.conversationId = conversationId;
+        this.userId = userId;
+        this.otherUserId = otherUserId;
+        this.unreadCount = unreadCount;
+        this.lastActivity = lastActivity;
+        this.lastMessageId = lastMessageId;
+    }
+
+    // Getters and Setters
+    public int getConversationId() {
+        return conversationId;
+    }
+
+    public void setConversationId(int conversationId) {
+        this.conversationId = conversationId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getOtherUserId() {
+        return otherUserId;
+    }
+
+    public void setOtherUserId(int otherUserId) {
+        this.otherUserId = otherUserId;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public Date getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(Date lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+
+    public Integer getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Integer lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public Message getLastMessage() {
+        return lastMessage;
+    }
+
+    public void setLastMessage(Message lastMessage) {
+        this.lastMessage = lastMessage;
+    }
+
+    // Utility methods
+
+    /**
+     * Check whether the participant has unread messages in this conversation
+     * @return true if the unread count is positive
+     */
+    public boolean hasUnread() {
+        return unreadCount > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Conversation{" +
+                "conversationId=" + conversationId +
+                ", userId=" + userId +
+                ", otherUserId=" + otherUserId +
+                ", unreadCount=" + unreadCount +
+                ", lastActivity=" + lastActivity +
+                ", lastMessageId=" + lastMessageId +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        Conversation that = (Conversation) obj;
+        return conversationId == that.conversationId && userId == that.userId;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(conversationId) + Integer.hashCode(userId);
+    }
+}
@@ -0,0 +1,165 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * InboxCounters model holding a user's unread message badge data
+ * Corresponds to the 'inbox_counters' table in the database
+ * The latest unread type is the type of the most recently sent unread message, as shown next to the badge.
+ */
+public class InboxCounters {
+    private int userId;
+    private int unreadNotes;
+    private int unreadChallenges;
+    private int unreadFriendRequests;
+    private String latestUnreadType;   // null when nothing is unread
+    private Date latestUnreadAt;
+
+    // Default constructor
+    public InboxCounters() {
+    }
+
+    // Constructor for a user with an empty inbox
+    public InboxCounters(int userId) {
+        this.userId = userId;
+    }
+
+    // Full constructor
+    public InboxCounters(int userId, int unreadNotes, int unreadChallenges, int unreadFriendRequests,
+                         String latestUnreadType, Date latestUnreadAt) {
+        this.userId = userId;
+        this.unreadNotes = unreadNotes;
+        this.unreadChallenges = unreadChallenges;
+        this.unreadFriendRequests = unreadFriendRequests;
+        this.latestUnreadType = latestUnreadType;
+        this.latestUnreadAt = latestUnreadAt;
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getUnreadNotes() {
+        return unreadNotes;
+    }
+
+    public void setUnreadNotes(int unreadNotes) {
+        this.unreadNotes = unreadNotes;
+    }
+
+    public int getUnreadChallenges() {
+        return unreadChallenges;
+    }
+
+    public void setUnreadChallenges(int unreadChallenges) {
+        this.unreadChallenges = unreadChallenges;
+    }
+
+    public int getUnreadFriendRequests() {
+        return unreadFriendRequests;
+    }
+
+    public void setUnreadFriendRequests(int unreadFriendRequests) {
+        this.unreadFriendRequests = unreadFriendRequests;
+    }
+
+    public String getLatestUnreadType() {
+        return latestUnreadType;
+    }
+
+    public void setLatestUnreadType(String latestUnreadType) {
+        this.latestUnreadType = latestUnreadType;
+    }
+
+    public Date getLatestUnreadAt() {
+        return latestUnreadAt;
+    }
+
+    public void setLatestUnreadAt(Date latestUnreadAt) {
+        this.latestUnreadAt = latestUnreadAt;
+    }
+
+    // Utility methods
+
+    /**
+     * Total unread messages over all types
+     * @return Unread count
+     */
+    public int getUnreadTotal() {
+        return unreadNotes + unreadChallenges + unreadFriendRequests;
+    }
+
+    /**
+     * Unread messages of one type
+     * @param messageType One of the Message.TYPE_* constants
+     * @return Unread count, 0 for unknown types
+     */
+    public int getUnreadCount(String messageType) {
+        if (Message.TYPE_NOTE.equals(messageType)) {
+            return unreadNotes;
+        } else if (Message.TYPE_CHALLENGE.equals(messageType)) {
+            return unreadChallenges;
+        } else if (Message.TYPE_FRIEND_REQUEST.equals(messageType)) {
+            return unreadFriendRequests;
+        }
+        return 0;
+    }
+
+    /**
+     * Set the unread count of one type
+     * @param messageType One of the Message.TYPE_* constants; unknown types are ignored
+     * @param count Unread count
+     */
+    public void setUnreadCount(String messageType, int count) {
+        if (Message.TYPE_NOTE.equals(messageType)) {
+            unreadNotes = count;
+        } else if (Message.TYPE_CHALLENGE.equals(messageType)) {
+            unreadChallenges = count;
+        } else if (Message.TYPE_FRIEND_REQUEST.equals(messageType)) {
+            unreadFriendRequests = count;
+        }
+    }
+
+    /**
+     * Count one newly received unread message
+     * @param messageType The message type
+     * @param sentAt When it was sent; a message older than the latest one leaves the latest type alone
+     */
+    public void recordUnread(String messageType, Date sentAt) {
+        setUnreadCount(messageType, getUnreadCount(messageType) + 1);
+        if (latestUnreadAt == null || sentAt == null || !sentAt.before(latestUnreadAt)) {
+            latestUnreadType = messageType;
+            latestUnreadAt = sentAt;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InboxCounters{" +
+                "userId=" + userId +
+                ", unreadNotes=" + unreadNotes +
+                ", unreadChallenges=" + unreadChallenges +
+                ", unreadFriendRequests=" + unreadFriendRequests +
+                ", latestUnreadType='" + latestUnreadType + '\'' +
+                ", latestUnreadAt=" + latestUnreadAt +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        InboxCounters that = (InboxCounters) obj;
+        return userId == that.userId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(userId);
+    }
+}
@@ -10,8 +10,13 @@ public class LeaderboardEntry {
     private double bestScore;
     private int mostCorrect;
     private Timestamp mostRecent;
+    private int rank; // 1-based position on the quiz leaderboard, 0 when not ranked
 
     public LeaderboardEntry(int quizId, String quizTitle, int userId, String username, double bestScore, int mostCorrect, Timestamp mostRecent) {
+        this(quizId, quizTitle, userId, username, bestScore, mostCorrect, mostRecent, 0);
+    }
+
+    public LeaderboardEntry(int quizId, String quizTitle, int userId, String username, double bestScore, int mostCorrect, Timestamp mostRecent, int rank) {
         this.quizId = quizId;
         this.quizTitle = quizTitle;
         this.userId = userId;
@@ -19,6 +24,7 @@ public class LeaderboardEntry {
         this.bestScore = bestScore;
         this.mostCorrect = mostCorrect;
         this.mostRecent = mostRecent;
+        this.rank = rank;
     }
 
     public int getQuizId() { return quizId; }
@@ -28,6 +34,7 @@ public class LeaderboardEntry {
     public double getBestScore() { return bestScore; }
     public int getMostCorrect() { return mostCorrect; }
     public Timestamp getMostRecent() { return mostRecent; }
+    public int getRank() { return rank; }
 
     @Override
     public String toString() {
@@ -39,6 +46,7 @@ public class LeaderboardEntry {
                 ", bestScore=" + bestScore +
                 ", mostCorrect=" + mostCorrect +
                 ", mostRecent=" + mostRecent +
+                ", rank=" + rank +
                 '}';
     }
 } 
\ No newline at end of file
@@ -14,6 +14,7 @@ public class Message {
     private String messageType;
     private String content;
     private Integer quizId;      // Only for challenge messages
+    private Integer conversationId;  // Conversation of the sender/receiver pair; null until assigned
     private Date dateSent;
     private boolean isRead;
     private String senderUsername;
@@ -127,6 +128,14 @@ public class Message {
         isRead = read;
     }
     
+    public Integer getConversationId() {
+        return conversationId;
+    }
+    
+    public void setConversationId(Integer conversationId) {
+        this.conversationId = conversationId;
+    }
+    
     public String getSenderUsername() {
         return senderUsername;
     }
@@ -0,0 +1,37 @@
+package model;
+
+/**
+ * A pair of questions whose text is estimated to be near-identical
+ */
+public class QuestionSimilarity {
+    private int questionId;
+    private int similarQuestionId;
+    private double similarity; // Estimated Jaccard similarity of the shingled texts, 0..1
+
+    public QuestionSimilarity(int questionId, int similarQuestionId, double similarity) {
+        this.questionId = questionId;
+        this.similarQuestionId = similarQuestionId;
+        this.similarity = similarity;
+    }
+
+    public int getQuestionId() { return questionId; }
+    public int getSimilarQuestionId() { return similarQuestionId; }
+    public double getSimilarity() { return similarity; }
+
+    /**
+     * Get the similarity as a whole percentage for display
+     * @return Similarity between 0 and 100
+     */
+    public int getSimilarityPercent() {
+        return (int) Math.round(similarity * 100);
+    }
+
+    @Override
+    public String toString() {
+        return "QuestionSimilarity{" +
+                "questionId=" + questionId +
+                ", similarQuestionId=" + similarQuestionId +
+                ", similarity=" + similarity +
+                '}';
+    }
+}
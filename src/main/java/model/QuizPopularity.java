@@ -0,0 +1,83 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * QuizPopularity model holding the decayed attempt scores of a quiz
+ * Corresponds to the 'quiz_popularity' table in the database
+ */
+public class QuizPopularity {
+    private int quizId;
+    private double popularScore;
+    private double trendingScore;
+    private Date updatedAt;
+    
+    // Default constructor
+    public QuizPopularity() {
+        this.updatedAt = new Date();
+    }
+    
+    // Full constructor
+    public QuizPopularity(int quizId, double popularScore, double trendingScore, Date updatedAt) {
+        this.quizId = quizId;
+        this.popularScore = popularScore;
+        this.trendingScore = trendingScore;
+        this.updatedAt = updatedAt;
+    }
+    
+    // Getters and Setters
+    public int getQuizId() {
+        return quizId;
+    }
+    
+    public void setQuizId(int quizId) {
+        this.quizId = quizId;
+    }
+    
+    public double getPopularScore() {
+        return popularScore;
+    }
+    
+    public void setPopularScore(double popularScore) {
+        this.popularScore = popularScore;
+    }
+    
+    public double getTrendingScore() {
+        return trendingScore;
+    }
+    
+    public void setTrendingScore(double trendingScore) {
+        this.trendingScore = trendingScore;
+    }
+    
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "QuizPopularity{" +
+                "quizId=" + quizId +
+                ", popularScore=" + popularScore +
+                ", trendingScore=" + trendingScore +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        QuizPopularity that = (QuizPopularity) obj;
+        return quizId == that.quizId;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(quizId);
+    }
+}
@@ -0,0 +1,80 @@
+package model;
+
+/**
+ * QuizRecommendation model holding one "also taken" entry of a quiz
+ * Corresponds to the 'quiz_recommendations' table in the database
+ */
+public class QuizRecommendation {
+    private int quizId;
+    private int rank;
+    private int similarQuizId;
+    private double score;
+    
+    // Default constructor
+    public QuizRecommendation() {
+    }
+    
+    // Full constructor
+    public QuizRecommendation(int quizId, int rank, int similarQuizId, double score) {
+        this.quizId = quizId;
+        this.rank = rank;
+        this.similarQuizId = similarQuizId;
+        this.score = score;
+    }
+    
+    // Getters and Setters
+    public int getQuizId() {
+        return quizId;
+    }
+    
+    public void setQuizId(int quizId) {
+        this.quizId = quizId;
+    }
+    
+    public int getRank() {
+        return rank;
+    }
+    
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+    
+    public int getSimilarQuizId() {
+        return similarQuizId;
+    }
+    
+    public void setSimilarQuizId(int similarQuizId) {
+        this.similarQuizId = similarQuizId;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public void setScore(double score) {
+        this.score = score;
+    }
+    
+    @Override
+    public String toString() {
+        return "QuizRecommendation{" +
+                "quizId=" + quizId +
+                ", rank=" + rank +
+                ", similarQuizId=" + similarQuizId +
+                ", score=" + score +
+                '}';
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        QuizRecommendation that = (QuizRecommendation) obj;
+        return quizId == that.quizId && rank == that.rank;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(quizId) + Integer.hashCode(rank);
+    }
+}
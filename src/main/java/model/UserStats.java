@@ -0,0 +1,199 @@
+package model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * UserStats model holding the per-user counters shown on profile pages
+ * Corresponds to the 'user_stats' table in the database
+ * A streak is a run of consecutive calendar days with at least one quiz attempt or created quiz
+ */
+public class UserStats {
+    private int userId;
+    private int attempts;          // All attempts, practice included
+    private int gradedAttempts;    // Non-practice attempts
+    private double scoreSum;       // Sum of graded scores, for the average
+    private int currentStreak;
+    private int bestStreak;
+    private int quizzesCreated;
+    private Date lastActive;
+
+    // Default constructor
+    public UserStats() {
+    }
+
+    // Constructor for a user without any activity yet
+    public UserStats(int userId) {
+        this.userId = userId;
+    }
+
+    // Full constructor
+    public UserStats(int userId, int attempts, int gradedAttempts, double scoreSum, int currentStreak,
+                     int bestStreak, int quizzesCreated, Date lastActive) {
+        this.userId = userId;
+        this.attempts = attempts;
+        this.gradedAttempts = gradedAttempts;
+        this.scoreSum = scoreSum;
+        this.currentStreak = currentStreak;
+        this.bestStreak = bestStreak;
+        this.quizzesCreated = quizzesCreated;
+        this.lastActive = lastActive;
+    }
+
+    // Getters and Setters
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public int getGradedAttempts() {
+        return gradedAttempts;
+    }
+
+    public void setGradedAttempts(int gradedAttempts) {
+        this.gradedAttempts = gradedAttempts;
+    }
+
+    public double getScoreSum() {
+        return scoreSum;
+    }
+
+    public void setScoreSum(double scoreSum) {
+        this.scoreSum = scoreSum;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public void setCurrentStreak(int currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    public void setBestStreak(int bestStreak) {
+        this.bestStreak = bestStreak;
+    }
+
+    public int getQuizzesCreated() {
+        return quizzesCreated;
+    }
+
+    public void setQuizzesCreated(int quizzesCreated) {
+        this.quizzesCreated = quizzesCreated;
+    }
+
+    public Date getLastActive() {
+        return lastActive;
+    }
+
+    public void setLastActive(Date lastActive) {
+        this.lastActive = lastActive;
+    }
+
+    // Utility methods
+
+    /**
+     * Average graded score, matching QuizAttemptDAO.getAverageScore(userId, false)
+     * @return Average score, or -1 if the user has no graded attempts
+     */
+    public double getAverageScore() {
+        return gradedAttempts == 0 ? -1 : scoreSum / gradedAttempts;
+    }
+
+    /**
+     * Count one quiz attempt
+     * @param score Score as a percentage
+     * @param practice Whether it was a practice attempt
+     * @param when When the attempt was taken
+     */
+    public void recordAttempt(double score, boolean practice, Date when) {
+        attempts++;
+        if (!practice) {
+            gradedAttempts++;
+            scoreSum += score;
+        }
+        recordActivity(when);
+    }
+
+    /**
+     * Count one created quiz
+     * @param when When the quiz was created
+     */
+    public void recordQuizCreated(Date when) {
+        quizzesCreated++;
+        recordActivity(when);
+    }
+
+    /**
+     * Extend the day streak with an activity; activities older than the last one leave the streak alone
+     * @param when When the activity happened
+     */
+    public void recordActivity(Date when) {
+        if (when == null) {
+            return;
+        }
+        LocalDate day = toDay(when);
+        if (lastActive == null || currentStreak == 0) {
+            currentStreak = 1;
+        } else {
+            LocalDate lastDay = toDay(lastActive);
+            if (day.equals(lastDay.plusDays(1))) {
+                currentStreak++;
+            } else if (day.isAfter(lastDay)) {
+                currentStreak = 1;
+            }
+        }
+        bestStreak = Math.max(bestStreak, currentStreak);
+        if (lastActive == null || when.after(lastActive)) {
+            lastActive = when;
+        }
+    }
+
+    private static LocalDate toDay(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    @Override
+    public String toString() {
+        return "UserStats{" +
+                "userId=" + userId +
+                ", attempts=" + attempts +
+                ", gradedAttempts=" + gradedAttempts +
+                ", averageScore=" + getAverageScore() +
+                ", currentStreak=" + currentStreak +
+                ", bestStreak=" + bestStreak +
+                ", quizzesCreated=" + quizzesCreated +
+                ", lastActive=" + lastActive +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        UserStats that = (UserStats) obj;
+        return userId == that.userId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(userId);
+    }
+}
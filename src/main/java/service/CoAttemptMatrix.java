@@ -0,0 +1,231 @@
+package service;
+
+import model.QuizRecommendation;
+import util.IntIntMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sparse quiz-by-quiz co-attempt counts, built from one basket of quizzes per user
+ * Baskets are buffered in fixed-size chunks and folded into the matrix by a fork/join task split over row
+ * stripes, so every row has exactly one writer and no locking is needed. Heap use is bounded by the chunk size
+ * and a per-row entry cap rather than by the number of attempts: a row that outgrows the cap drops its rarest
+ * co-attempts, which are the ones least likely to reach the top k anyway.
+ */
+class CoAttemptMatrix {
+
+    // Baskets buffered before they are folded in parallel
+    static final int CHUNK_SIZE = 20_000;
+    // Users with more distinct quizzes than this add quadratic noise and are skipped
+    static final int MAX_BASKET = 200;
+    // Co-attempt entries kept per quiz before the rarest are pruned
+    static final int MAX_ROW_ENTRIES = 5_000;
+    // Dampens scores backed by few shared users
+    static final double SHRINKAGE = 5.0;
+
+    private static final int STRIPES = 64;
+
+    private final ForkJoinPool pool;
+    private final Map<Integer, Integer> ordinals = new HashMap<>();
+    private int[] quizIds = new int[64];
+    private int[] userCounts = new int[64];
+    private IntIntMap[] rows = new IntIntMap[64];
+    private final List<int[]> pending = new ArrayList<>();
+
+    CoAttemptMatrix(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Add the distinct quizzes one user attempted
+     * @param basket Quiz IDs, without duplicates
+     */
+    void addBasket(int[] basket) {
+        if (basket.length < 2 || basket.length > MAX_BASKET) {
+            return;
+        }
+        int[] basketOrdinals = new int[basket.length];
+        for (int i = 0; i < basket.length; i++) {
+            int ordinal = ordinal(basket[i]);
+            userCounts[ordinal]++;
+            basketOrdinals[i] = ordinal;
+        }
+        pending.add(basketOrdinals);
+        if (pending.size() >= CHUNK_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Fold the buffered baskets into the matrix
+     */
+    void flush() {
+        if (!pending.isEmpty()) {
+            pool.invoke(new StripeTask(pending.toArray(new int[0][]), 0, STRIPES));
+            pending.clear();
+        }
+    }
+
+    /**
+     * Rank the most similar quizzes of every quiz
+     * Similarity is the cosine of the two quizzes' user sets, damped by SHRINKAGE for small overlaps.
+     * @param k Recommendations per quiz
+     * @return Recommendation rows, ranked from 1 within each quiz
+     */
+    List<QuizRecommendation> topK(int k) {
+        flush();
+        int size = ordinals.size();
+        List<List<QuizRecommendation>> perQuiz = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            perQuiz.add(null);
+        }
+        pool.invoke(new TopKTask(perQuiz, k, 0, size));
+        List<QuizRecommendation> result = new ArrayList<>();
+        for (List<QuizRecommendation> recommendations : perQuiz) {
+            result.addAll(recommendations);
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of co-attempt entries held, for monitoring heap use
+     * @return Total entries across all rows
+     */
+    long entryCount() {
+        long entries = 0;
+        for (int i = 0; i < ordinals.size(); i++) {
+            entries += rows[i].size();
+        }
+        return entries;
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    // Only called from the loading thread, between parallel phases
+    private int ordinal(int quizId) {
+        Integer existing = ordinals.get(quizId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = ordinals.size();
+        if (ordinal == quizIds.length) {
+            quizIds = Arrays.copyOf(quizIds, ordinal * 2);
+            userCounts = Arrays.copyOf(userCounts, ordinal * 2);
+            rows = Arrays.copyOf(rows, ordinal * 2);
+        }
+        ordinals.put(quizId, ordinal);
+        quizIds[ordinal] = quizId;
+        rows[ordinal] = new IntIntMap();
+        return ordinal;
+    }
+
+    private List<QuizRecommendation> rank(int ordinal, int k) {
+        PriorityQueue<double[]> best = new PriorityQueue<>(k + 1, (a, b) -> Double.compare(a[0], b[0]));
+        double ownUsers = userCounts[ordinal];
+        rows[ordinal].forEach((other, together) -> {
+            double cosine = together / Math.sqrt(ownUsers * userCounts[other]);
+            double score = cosine * together / (together + SHRINKAGE);
+            if (best.size() < k) {
+                best.add(new double[]{score, other});
+            } else if (score > best.peek()[0]) {
+                best.poll();
+                best.add(new double[]{score, other});
+            }
+        });
+        List<double[]> ordered = new ArrayList<>(best);
+        ordered.sort((a, b) -> a[0] != b[0] ? Double.compare(b[0], a[0])
+                : Integer.compare(quizIds[(int) a[1]], quizIds[(int) b[1]]));
+        List<QuizRecommendation> recommendations = new ArrayList<>(ordered.size());
+        for (int i = 0; i < ordered.size(); i++) {
+            recommendations.add(new QuizRecommendation(quizIds[ordinal], i + 1,
+                    quizIds[(int) ordered.get(i)[1]], ordered.get(i)[0]));
+        }
+        return recommendations;
+    }
+
+    private static void prune(IntIntMap row) {
+        int threshold = 1;
+        while (row.size() > MAX_ROW_ENTRIES * 3 / 4) {
+            row.removeValuesAtMost(threshold++);
+        }
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    /**
+     * Folds a chunk of baskets into the rows of a range of stripes
+     */
+    private final class StripeTask extends RecursiveAction {
+        private final int[][] baskets;
+        private final int fromStripe;
+        private final int toStripe;
+
+        StripeTask(int[][] baskets, int fromStripe, int toStripe) {
+            this.baskets = baskets;
+            this.fromStripe = fromStripe;
+            this.toStripe = toStripe;
+        }
+
+        @Override
+        protected void compute() {
+            if (toStripe - fromStripe > 1) {
+                int mid = (fromStripe + toStripe) >>> 1;
+                invokeAll(new StripeTask(baskets, fromStripe, mid), new StripeTask(baskets, mid, toStripe));
+                return;
+            }
+            for (int[] basket : baskets) {
+                for (int a : basket) {
+                    if (a % STRIPES != fromStripe) {
+                        continue;
+                    }
+                    IntIntMap row = rows[a];
+                    for (int b : basket) {
+                        if (b != a) {
+                            row.addTo(b, 1);
+                        }
+                    }
+                    if (row.size() > MAX_ROW_ENTRIES) {
+                        prune(row);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ranks the rows of an ordinal range
+     */
+    private final class TopKTask extends RecursiveAction {
+        private static final int THRESHOLD = 256;
+        private final List<List<QuizRecommendation>> out;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        TopKTask(List<List<QuizRecommendation>> out, int k, int from, int to) {
+            this.out = out;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TopKTask(out, k, from, mid), new TopKTask(out, k, mid, to));
+                return;
+            }
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                out.set(ordinal, rank(ordinal, k));
+            }
+        }
+    }
+}
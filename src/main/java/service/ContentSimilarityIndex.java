@@ -0,0 +1,600 @@
+package service;
+
+import dao.QuestionDAO;
+import dao.QuizDAO;
+import model.Question;
+import model.Quiz;
+import util.TextAnalyzer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Content-based "similar quizzes" from TF-IDF vectors over quiz text
+ * Every quiz becomes a sparse, L2-normalised vector of sublinear term frequency times IDF over its title,
+ * description and question text, with the search index's field weights. The cosine top k of every quiz is
+ * precomputed by a parallel all-pairs pass that walks shared postings, so only quizzes with a common term are
+ * ever multiplied. Quiz and question writes re-vectorise the changed quiz and refresh just the rows it can
+ * affect; other vectors keep the IDF they were built with until the next full rebuild. Changes that arrive while
+ * a rebuild is running are journaled and replayed onto the new model before it is swapped in.
+ */
+public class ContentSimilarityIndex implements QuizDAO.QuizListener, QuestionDAO.QuestionListener {
+
+    // Neighbours kept per quiz
+    public static final int TOP_K = 10;
+    // Terms found in more quizzes than this are skipped in dot products; their IDF is low and they cost the most
+    static final int MAX_POSTINGS = 5_000;
+    // Quizzes ranked per fork/join leaf
+    private static final int ROW_THRESHOLD = 64;
+
+    // Weakest first, so a bounded min-heap evicts the right entry; ties go to the lower quiz ID
+    private static final Comparator<Neighbour> WORST_FIRST = Comparator.comparingDouble(Neighbour::score)
+            .thenComparing(Comparator.comparingInt(Neighbour::quizId).reversed());
+
+    private final QuizDAO quizDAO;
+    private final QuestionDAO questionDAO;
+    private final ForkJoinPool pool;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Model model = new Model();
+    // Set when an incremental update failed; the index is rebuilt on next use
+    private volatile boolean stale;
+    // Changes made while a rebuild is running, guarded by the lock; null when no rebuild is running
+    private List<Consumer<Model>> journal;
+
+    public ContentSimilarityIndex(QuizDAO quizDAO, QuestionDAO questionDAO) {
+        this(quizDAO, questionDAO, ForkJoinPool.commonPool());
+    }
+
+    // Constructor with an explicit pool for the all-pairs pass
+    public ContentSimilarityIndex(QuizDAO quizDAO, QuestionDAO questionDAO, ForkJoinPool pool) {
+        this.quizDAO = quizDAO;
+        this.questionDAO = questionDAO;
+        this.pool = pool;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Build the index from the database
+     * @throws SQLException If database error occurs
+     */
+    public void initialize() throws SQLException {
+        rebuild();
+    }
+
+    /**
+     * Re-vectorise every quiz with fresh IDF values and recompute all neighbour rows
+     * The new index is built beside the old one, which keeps serving queries until it is swapped in.
+     * The stale flag is cleared first so a failed update during the build marks it again, and restored if the
+     * build fails.
+     * @throws SQLException If database error occurs
+     */
+    public synchronized void rebuild() throws SQLException {
+        stale = false;
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Model built;
+        try {
+            built = build();
+        } catch (SQLException | RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            stale = true;
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Each change sets the final vector of one quiz, so replaying one the build already saw is harmless
+            for (Consumer<Model> change : journal) {
+                change.accept(built);
+            }
+            journal = null;
+            model = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Vectorise every quiz with fresh IDF values and rank all neighbour rows
+    private Model build() throws SQLException {
+        List<Quiz> quizzes = quizDAO.getAllQuizzes();
+        Map<Integer, List<Question>> questionsByQuiz = new HashMap<>();
+        for (Question question : questionDAO.getAllQuestions()) {
+            questionsByQuiz.computeIfAbsent(question.getQuizId(), id -> new ArrayList<>()).add(question);
+        }
+
+        Map<Integer, Map<String, Float>> frequencies = new LinkedHashMap<>();
+        Map<String, Integer> documentFrequencies = new HashMap<>();
+        for (Quiz quiz : quizzes) {
+            Map<String, Float> quizFrequencies =
+                    termFrequencies(quiz, questionsByQuiz.getOrDefault(quiz.getQuizId(), new ArrayList<>()));
+            frequencies.put(quiz.getQuizId(), quizFrequencies);
+            for (String term : quizFrequencies.keySet()) {
+                documentFrequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        Model built = new Model();
+        for (Map.Entry<Integer, Map<String, Float>> entry : frequencies.entrySet()) {
+            built.put(entry.getKey(), vectorize(entry.getValue(), documentFrequencies::get, frequencies.size()));
+        }
+        computeAllRows(built);
+        return built;
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get the quizzes whose text is most similar to a quiz
+     * @param quizId The quiz ID
+     * @param limit Maximum number of quizzes
+     * @return Similar quiz IDs, most similar first
+     * @throws SQLException If the index had to be rebuilt and the database failed
+     */
+    public List<Integer> getSimilarQuizIds(int quizId, int limit) throws SQLException {
+        if (stale) {
+            synchronized (this) {
+                if (stale) {
+                    rebuild();
+                }
+            }
+        }
+        List<Integer> quizIds = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Neighbour neighbour : model.rows.getOrDefault(quizId, Collections.emptyList())) {
+                if (quizIds.size() >= limit) {
+                    break;
+                }
+                quizIds.add(neighbour.quizId());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return quizIds;
+    }
+
+    /**
+     * Get the cosine similarity of two quizzes' vectors
+     * @param quizId First quiz ID
+     * @param otherQuizId Second quiz ID
+     * @return Similarity between 0 and 1, or 0 if either quiz is not indexed
+     */
+    public double getSimilarity(int quizId, int otherQuizId) {
+        lock.readLock().lock();
+        try {
+            Vector vector = model.vectors.get(quizId);
+            Vector other = model.vectors.get(otherQuizId);
+            if (vector == null || other == null) {
+                return 0;
+            }
+            Map<String, Float> otherWeights = new HashMap<>();
+            for (int i = 0; i < other.terms.length; i++) {
+                otherWeights.put(other.terms[i], other.weights[i]);
+            }
+            double dot = 0;
+            for (int i = 0; i < vector.terms.length; i++) {
+                dot += vector.weights[i] * otherWeights.getOrDefault(vector.terms[i], 0f);
+            }
+            return dot;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed quizzes
+     * @return Number of quizzes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return model.vectors.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onQuizCreated(Quiz quiz) {
+        replaceQuiz(quiz.getQuizId(), termFrequencies(quiz, new ArrayList<>()));
+    }
+
+    @Override
+    public void onQuizUpdated(int quizId) {
+        reindexQuiz(quizId);
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        replaceQuiz(quizId, null);
+    }
+
+    @Override
+    public void onQuestionCreated(Question question) {
+        // Question text only adds terms, so the quiz does not need to be re-read; the read and the replace share
+        // one write lock so a concurrent update of the same quiz cannot be lost
+        lock.writeLock().lock();
+        try {
+            Vector vector = model.vectors.get(question.getQuizId());
+            if (vector == null) {
+                return;
+            }
+            Map<String, Float> frequencies = vector.frequencies();
+            addTerms(frequencies, question.getQuestionText(), QuizSearchIndex.QUESTION_WEIGHT);
+            replaceQuiz(question.getQuizId(), frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onQuestionUpdated(int questionId) {
+        try {
+            Question question = questionDAO.findById(questionId);
+            if (question != null) {
+                reindexQuiz(question.getQuizId());
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(int questionId, int quizId) {
+        reindexQuiz(quizId);
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    // Re-read one quiz and its questions and replace its vector
+    private void reindexQuiz(int quizId) {
+        try {
+            Quiz quiz = quizDAO.findById(quizId);
+            List<Question> questions = quiz != null ? questionDAO.getQuestionsByQuizId(quizId) : new ArrayList<>();
+            replaceQuiz(quizId, quiz != null ? termFrequencies(quiz, questions) : null);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    // Replace one quiz's vector, and journal the change for the rebuild in progress if there is one
+    private void replaceQuiz(int quizId, Map<String, Float> frequencies) {
+        lock.writeLock().lock();
+        try {
+            replaceQuiz(model, quizId, frequencies);
+            if (journal != null) {
+                journal.add(built -> replaceQuiz(built, quizId, frequencies));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swap one quiz's vector in a model and refresh the rows it can change
+     * Rows that listed the quiz are recomputed, since it may have dropped out of them; every other quiz sharing
+     * a term only needs the new similarity offered to its bounded row. Callers hold the write lock or own the model.
+     */
+    private static void replaceQuiz(Model current, int quizId, Map<String, Float> frequencies) {
+        current.remove(quizId);
+        current.rows.remove(quizId);
+        Set<Integer> affected = new HashSet<>();
+        for (Map.Entry<Integer, List<Neighbour>> entry : current.rows.entrySet()) {
+            for (Neighbour neighbour : entry.getValue()) {
+                if (neighbour.quizId() == quizId) {
+                    affected.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        if (frequencies != null) {
+            int documents = current.vectors.size() + 1;
+            Vector vector = vectorize(frequencies, term -> current.documentFrequency(term) + 1, documents);
+            current.put(quizId, vector);
+            Map<Integer, Float> scores = current.dotProducts(quizId, vector);
+            PriorityQueue<Neighbour> best = new PriorityQueue<>(WORST_FIRST);
+            for (Map.Entry<Integer, Float> entry : scores.entrySet()) {
+                offer(best, new Neighbour(entry.getKey(), entry.getValue()));
+                if (!affected.contains(entry.getKey())) {
+                    current.rows.put(entry.getKey(), withNeighbour(
+                            current.rows.getOrDefault(entry.getKey(), Collections.emptyList()),
+                            new Neighbour(quizId, entry.getValue())));
+                }
+            }
+            current.rows.put(quizId, ranked(best));
+        }
+        for (Integer other : affected) {
+            PriorityQueue<Neighbour> best = new PriorityQueue<>(WORST_FIRST);
+            current.dotProducts(other, current.vectors.get(other))
+                    .forEach((candidate, score) -> offer(best, new Neighbour(candidate, score)));
+            current.rows.put(other, ranked(best));
+        }
+    }
+
+    /**
+     * Score every pair of quizzes that share a term and keep each quiz's top k
+     * Vectors and postings are first frozen into ordinal arrays so the parallel pass accumulates dot products
+     * into a dense scratch array per leaf instead of a map.
+     */
+    private void computeAllRows(Model built) {
+        int n = built.vectors.size();
+        int[] quizIds = new int[n];
+        Map<Integer, Integer> ordinals = new HashMap<>();
+        for (Integer quizId : built.vectors.keySet()) {
+            quizIds[ordinals.size()] = quizId;
+            ordinals.put(quizId, ordinals.size());
+        }
+        Map<String, Integer> termOrdinals = new HashMap<>();
+        List<int[]> postingDocs = new ArrayList<>();
+        List<float[]> postingWeights = new ArrayList<>();
+        for (Map.Entry<String, QuizSearchIndex.PostingList> entry : built.postings.entrySet()) {
+            QuizSearchIndex.PostingList list = entry.getValue();
+            int[] docs = new int[list.size];
+            for (int i = 0; i < list.size; i++) {
+                docs[i] = ordinals.get(list.docs[i]);
+            }
+            termOrdinals.put(entry.getKey(), postingDocs.size());
+            postingDocs.add(docs);
+            postingWeights.add(Arrays.copyOf(list.frequencies, list.size));
+        }
+        int[][] docTerms = new int[n][];
+        float[][] docWeights = new float[n][];
+        for (int doc = 0; doc < n; doc++) {
+            Vector vector = built.vectors.get(quizIds[doc]);
+            docTerms[doc] = new int[vector.terms.length];
+            for (int i = 0; i < vector.terms.length; i++) {
+                docTerms[doc][i] = termOrdinals.get(vector.terms[i]);
+            }
+            docWeights[doc] = vector.weights;
+        }
+
+        List<List<Neighbour>> rows = new ArrayList<>(Collections.nCopies(n, null));
+        pool.invoke(new RowTask(new Frozen(quizIds, docTerms, docWeights,
+                postingDocs.toArray(new int[0][]), postingWeights.toArray(new float[0][])), rows, 0, n));
+        for (int doc = 0; doc < n; doc++) {
+            built.rows.put(quizIds[doc], rows.get(doc));
+        }
+    }
+
+    private static Map<String, Float> termFrequencies(Quiz quiz, List<Question> questions) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addTerms(frequencies, quiz.getTitle(), QuizSearchIndex.TITLE_WEIGHT);
+        addTerms(frequencies, quiz.getDescription(), QuizSearchIndex.DESCRIPTION_WEIGHT);
+        for (Question question : questions) {
+            addTerms(frequencies, question.getQuestionText(), QuizSearchIndex.QUESTION_WEIGHT);
+        }
+        return frequencies;
+    }
+
+    private static void addTerms(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    // Sublinear TF times smoothed IDF, scaled to unit length
+    private static Vector vectorize(Map<String, Float> frequencies, ToIntFunction<String> documentFrequency,
+                                    int documents) {
+        String[] terms = new String[frequencies.size()];
+        float[] rawFrequencies = new float[terms.length];
+        float[] weights = new float[terms.length];
+        double norm = 0;
+        int i = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            terms[i] = entry.getKey();
+            rawFrequencies[i] = entry.getValue();
+            double tf = 1 + Math.log(entry.getValue());
+            double idf = Math.log(1 + (double) documents / documentFrequency.applyAsInt(entry.getKey()));
+            weights[i] = (float) (tf * idf);
+            norm += weights[i] * weights[i];
+            i++;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int j = 0; j < weights.length; j++) {
+                weights[j] *= scale;
+            }
+        }
+        return new Vector(terms, rawFrequencies, weights);
+    }
+
+    private static void offer(PriorityQueue<Neighbour> best, Neighbour neighbour) {
+        best.offer(neighbour);
+        if (best.size() > TOP_K) {
+            best.poll();
+        }
+    }
+
+    private static List<Neighbour> ranked(PriorityQueue<Neighbour> best) {
+        List<Neighbour> row = new ArrayList<>(best);
+        row.sort(WORST_FIRST.reversed());
+        return Collections.unmodifiableList(row);
+    }
+
+    // Offer one neighbour to an existing row, returning the row unchanged if it does not make the cut
+    private static List<Neighbour> withNeighbour(List<Neighbour> row, Neighbour neighbour) {
+        if (row.size() >= TOP_K && WORST_FIRST.compare(neighbour, row.get(row.size() - 1)) <= 0) {
+            return row;
+        }
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(WORST_FIRST);
+        best.addAll(row);
+        offer(best, neighbour);
+        return ranked(best);
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    /**
+     * One entry of a quiz's neighbour row
+     */
+    private record Neighbour(int quizId, float score) {
+    }
+
+    /**
+     * Vector of one quiz: raw weighted term frequencies and the normalised TF-IDF weights built from them
+     */
+    private static final class Vector {
+        final String[] terms;
+        final float[] rawFrequencies;
+        final float[] weights;
+
+        Vector(String[] terms, float[] rawFrequencies, float[] weights) {
+            this.terms = terms;
+            this.rawFrequencies = rawFrequencies;
+            this.weights = weights;
+        }
+
+        Map<String, Float> frequencies() {
+            Map<String, Float> frequencies = new HashMap<>();
+            for (int i = 0; i < terms.length; i++) {
+                frequencies.put(terms[i], rawFrequencies[i]);
+            }
+            return frequencies;
+        }
+    }
+
+    /**
+     * Vectors, postings holding each quiz's weight for a term, and the precomputed neighbour rows
+     */
+    private static final class Model {
+        final Map<Integer, Vector> vectors = new HashMap<>();
+        final Map<String, QuizSearchIndex.PostingList> postings = new HashMap<>();
+        final Map<Integer, List<Neighbour>> rows = new HashMap<>();
+
+        int documentFrequency(String term) {
+            QuizSearchIndex.PostingList list = postings.get(term);
+            return list == null ? 0 : list.size;
+        }
+
+        void put(int quizId, Vector vector) {
+            vectors.put(quizId, vector);
+            for (int i = 0; i < vector.terms.length; i++) {
+                postings.computeIfAbsent(vector.terms[i], term -> new QuizSearchIndex.PostingList())
+                        .put(quizId, vector.weights[i]);
+            }
+        }
+
+        void remove(int quizId) {
+            Vector vector = vectors.remove(quizId);
+            if (vector == null) {
+                return;
+            }
+            for (String term : vector.terms) {
+                QuizSearchIndex.PostingList list = postings.get(term);
+                if (list != null && list.remove(quizId) && list.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        // Sparse dot products of one vector with every other quiz sharing a term
+        Map<Integer, Float> dotProducts(int quizId, Vector vector) {
+            Map<Integer, Float> scores = new HashMap<>();
+            for (int i = 0; i < vector.terms.length; i++) {
+                QuizSearchIndex.PostingList list = postings.get(vector.terms[i]);
+                if (list == null || list.size > MAX_POSTINGS) {
+                    continue;
+                }
+                for (int j = 0; j < list.size; j++) {
+                    if (list.docs[j] != quizId) {
+                        scores.merge(list.docs[j], vector.weights[i] * list.frequencies[j], Float::sum);
+                    }
+                }
+            }
+            return scores;
+        }
+    }
+
+    /**
+     * Read-only ordinal form of a model used by the all-pairs pass
+     */
+    private record Frozen(int[] quizIds, int[][] docTerms, float[][] docWeights,
+                          int[][] postingDocs, float[][] postingWeights) {
+    }
+
+    /**
+     * Ranks the neighbours of an ordinal range of quizzes
+     */
+    private static final class RowTask extends RecursiveAction {
+        private final Frozen frozen;
+        private final List<List<Neighbour>> out;
+        private final int from;
+        private final int to;
+
+        RowTask(Frozen frozen, List<List<Neighbour>> out, int from, int to) {
+            this.frozen = frozen;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROW_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(frozen, out, from, mid), new RowTask(frozen, out, mid, to));
+                return;
+            }
+            int n = frozen.quizIds().length;
+            float[] scores = new float[n];
+            int[] touched = new int[n];
+            for (int doc = from; doc < to; doc++) {
+                int touchedCount = 0;
+                int[] terms = frozen.docTerms()[doc];
+                float[] weights = frozen.docWeights()[doc];
+                for (int i = 0; i < terms.length; i++) {
+                    int[] docs = frozen.postingDocs()[terms[i]];
+                    if (docs.length > MAX_POSTINGS) {
+                        continue;
+                    }
+                    float[] postingWeights = frozen.postingWeights()[terms[i]];
+                    for (int j = 0; j < docs.length; j++) {
+                        int other = docs[j];
+                        if (other == doc) {
+                            continue;
+                        }
+                        if (scores[other] == 0) {
+                            touched[touchedCount++] = other;
+                        }
+                        scores[other] += weights[i] * postingWeights[j];
+                    }
+                }
+                PriorityQueue<Neighbour> best = new PriorityQueue<>(WORST_FIRST);
+                for (int t = 0; t < touchedCount; t++) {
+                    offer(best, new Neighbour(frozen.quizIds()[touched[t]], scores[touched[t]]));
+                    scores[touched[t]] = 0;
+                }
+                out.set(doc, ranked(best));
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package service;
+
+import dao.AnnouncementDAO;
+import dao.FriendshipDAO;
+import dao.MessageDAO;
+import dao.QuestionDAO;
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import dao.UserDAO;
+import model.Friendship;
+import model.Message;
+import model.Question;
+import model.Quiz;
+import model.QuizAttempt;
+import model.User;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the data behind read-heavy pages
+ * Every DAO write bumps the keys of the entities it touched, so a page can derive an ETag from the versions of
+ * the keys it renders and answer 304 Not Modified while none of them moved. Per-entity keys such as "quiz:7"
+ * also follow a family key ("quiz:*") for writes that cannot name the entity. Versions come from one clock that
+ * starts at the boot time in milliseconds and never goes backwards, so a version doubles as a Last-Modified
+ * time and ETags from before a restart never match.
+ */
+public class ContentVersions implements QuizDAO.QuizListener, QuestionDAO.QuestionListener,
+        QuizAttemptDAO.AttemptListener, AnnouncementDAO.AnnouncementListener, UserDAO.UserListener,
+        MessageDAO.MessageListener, FriendshipDAO.FriendshipListener {
+
+    // Keys shared by every quiz
+    public static final String CATALOG = "catalog";
+    public static final String ATTEMPTS = "attempts";
+    public static final String ANNOUNCEMENTS = "announcements";
+    public static final String USERS = "users";
+    public static final String RECOMMENDATIONS = "recommendations";
+
+    private final AtomicLong clock;
+    private final long bootVersion;
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    public ContentVersions() {
+        this(System.currentTimeMillis());
+    }
+
+    // Constructor with an explicit boot time
+    public ContentVersions(long bootMillis) {
+        this.clock = new AtomicLong(bootMillis);
+        this.bootVersion = bootMillis;
+    }
+
+    // ========================= KEYS =========================
+
+    public static String quiz(int quizId) {
+        return "quiz:" + quizId;
+    }
+
+    public static String quizAttempts(int quizId) {
+        return "attempts:" + quizId;
+    }
+
+    public static String inbox(int userId) {
+        return "inbox:" + userId;
+    }
+
+    public static String friends(int userId) {
+        return "friends:" + userId;
+    }
+
+    // Family key that moves every key of one kind, e.g. all("attempts") for "attempts:<quizId>"
+    static String all(String kind) {
+        return kind + ":*";
+    }
+
+    // ========================= VERSIONS =========================
+
+    /**
+     * Mark keys as changed
+     * @param keys Keys whose data was written
+     */
+    public void bump(String... keys) {
+        long version = next();
+        for (String key : keys) {
+            versions.merge(key, version, Math::max);
+        }
+    }
+
+    /**
+     * Get the current version of a key
+     * @param key The key
+     * @return The version, or the boot version if the key has not changed since startup
+     */
+    public long getVersion(String key) {
+        long version = versions.getOrDefault(key, bootVersion);
+        int separator = key.indexOf(':');
+        if (separator > 0) {
+            version = Math.max(version, versions.getOrDefault(key.substring(0, separator + 1) + "*", bootVersion));
+        }
+        return version;
+    }
+
+    // Current time, or one past the last version if the clock has not advanced
+    private long next() {
+        long now = System.currentTimeMillis();
+        return clock.updateAndGet(last -> Math.max(now, last + 1));
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onQuizCreated(Quiz quiz) {
+        bump(CATALOG, quiz(quiz.getQuizId()));
+    }
+
+    @Override
+    public void onQuizUpdated(int quizId) {
+        bump(CATALOG, quiz(quizId));
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        bump(CATALOG, quiz(quizId), ATTEMPTS, quizAttempts(quizId));
+    }
+
+    @Override
+    public void onQuestionCreated(Question question) {
+        bump(CATALOG, quiz(question.getQuizId()));
+    }
+
+    @Override
+    public void onQuestionUpdated(int questionId) {
+        // The owning quiz is not known without a query; question counts and types only show in the catalog
+        bump(CATALOG);
+    }
+
+    @Override
+    public void onQuestionDeleted(int questionId, int quizId) {
+        bump(CATALOG, quiz(quizId));
+    }
+
+    @Override
+    public void onAttemptCreated(QuizAttempt attempt) {
+        bump(ATTEMPTS, quizAttempts(attempt.getQuizId()));
+    }
+
+    @Override
+    public void onAttemptsChanged() {
+        // Not tied to one quiz, so every per-quiz attempt key must be treated as changed
+        bump(ATTEMPTS, all("attempts"));
+    }
+
+    @Override
+    public void onAnnouncementsChanged() {
+        bump(ANNOUNCEMENTS);
+    }
+
+    @Override
+    public void onUserCreated(User user) {
+        bump(USERS);
+    }
+
+    @Override
+    public void onUsernameChanged(int userId, String username) {
+        bump(USERS);
+    }
+
+    @Override
+    public void onUserDeleted(int userId) {
+        // Deleting a user cascades to their quizzes, attempts, messages and friendships
+        bump(USERS, CATALOG, all("quiz"), ATTEMPTS, all("attempts"), all("inbox"), all("friends"));
+    }
+
+    @Override
+    public void onMessageCreated(Message message) {
+        bump(inbox(message.getReceiverId()));
+    }
+
+    @Override
+    public void onInboxChanged(int receiverId) {
+        bump(inbox(receiverId));
+    }
+
+    @Override
+    public void onMessagesChanged() {
+        bump(all("inbox"));
+    }
+
+    @Override
+    public void onFriendshipChanged(int userId1, int userId2, Friendship friendship) {
+        bump(friends(userId1), friends(userId2));
+    }
+
+    @Override
+    public void onFriendshipsChanged(int userId) {
+        // The other side of each deleted row is unknown
+        onAllFriendshipsChanged();
+    }
+
+    @Override
+    public void onAllFriendshipsChanged() {
+        bump(all("friends"));
+    }
+}
@@ -0,0 +1,364 @@
+package service;
+
+import dao.QuestionDAO;
+import dao.QuizDAO;
+import model.Question;
+import model.QuestionSimilarity;
+import util.TextAnalyzer;
+
+import java.sql.SQLException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * MinHash / locality-sensitive hashing index over question text for finding copied questions
+ * Each question is reduced to a fixed-size MinHash signature of its character shingles. Signatures are split
+ * into bands, and questions sharing any band land in the same bucket, so a lookup only compares against a
+ * handful of candidates instead of the whole question bank.
+ */
+public class DuplicateQuestionIndex implements QuestionDAO.QuestionListener, QuizDAO.QuizListener {
+
+    // Characters per shingle; short enough to survive small edits in short questions
+    static final int SHINGLE_LENGTH = 4;
+    // 16 bands of 4 rows: pairs above ~0.5 Jaccard similarity almost always share a band
+    static final int BANDS = 16;
+    static final int ROWS = 4;
+    static final int NUM_HASHES = BANDS * ROWS;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED5EEDL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            SEEDS[i] = random.nextLong();
+        }
+    }
+
+    private final QuestionDAO questionDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, int[]> signatures = new HashMap<>();
+    private final Map<Integer, Integer> questionQuizzes = new HashMap<>();
+    // One bucket table per band, keyed by a hash of the band's rows
+    private final List<Map<Long, List<Integer>>> buckets = new ArrayList<>();
+    // Set when an incremental update failed; the index is rebuilt on next use
+    private volatile boolean stale;
+
+    public DuplicateQuestionIndex(QuestionDAO questionDAO) {
+        this.questionDAO = questionDAO;
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Build the index from every question, computing signatures in parallel
+     * @throws SQLException If database error occurs
+     */
+    public void initialize() throws SQLException {
+        List<Question> questions = questionDAO.getAllQuestions();
+        // Signatures are the expensive part and independent per question
+        List<Map.Entry<Question, int[]>> computed = questions.parallelStream()
+                .map(q -> new AbstractMap.SimpleImmutableEntry<>(q, signature(q.getQuestionText())))
+                .filter(entry -> entry.getValue() != null)
+                .collect(Collectors.toList());
+
+        lock.writeLock().lock();
+        try {
+            stale = false;
+            signatures.clear();
+            questionQuizzes.clear();
+            buckets.forEach(Map::clear);
+            for (Map.Entry<Question, int[]> entry : computed) {
+                insert(entry.getKey().getQuestionId(), entry.getKey().getQuizId(), entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Find questions whose text is similar to an indexed question
+     * @param questionId The question to compare against
+     * @param minSimilarity Minimum estimated similarity, 0..1
+     * @param limit Maximum number of results
+     * @return Similar questions, most similar first; empty if the question is not indexed
+     * @throws SQLException If the index had to be rebuilt and the database failed
+     */
+    public List<QuestionSimilarity> findSimilar(int questionId, double minSimilarity, int limit) throws SQLException {
+        refreshIfStale();
+        lock.readLock().lock();
+        try {
+            int[] signature = signatures.get(questionId);
+            return signature == null ? new ArrayList<>() : similarTo(questionId, signature, minSimilarity, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find indexed questions similar to a text that is not stored yet
+     * @param text Question text, e.g. a question about to be created
+     * @param minSimilarity Minimum estimated similarity, 0..1
+     * @param limit Maximum number of results
+     * @return Similar questions, most similar first; the question ID of each result is 0
+     * @throws SQLException If the index had to be rebuilt and the database failed
+     */
+    public List<QuestionSimilarity> findSimilar(String text, double minSimilarity, int limit) throws SQLException {
+        refreshIfStale();
+        int[] signature = signature(text);
+        if (signature == null) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return similarTo(0, signature, minSimilarity, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find all pairs of near-identical questions
+     * @param minSimilarity Minimum estimated similarity, 0..1
+     * @param limit Maximum number of pairs
+     * @return Pairs with the lower question ID first, most similar first
+     * @throws SQLException If the index had to be rebuilt and the database failed
+     */
+    public List<QuestionSimilarity> findDuplicatePairs(double minSimilarity, int limit) throws SQLException {
+        refreshIfStale();
+        lock.readLock().lock();
+        try {
+            Set<Long> seen = new HashSet<>();
+            List<QuestionSimilarity> pairs = new ArrayList<>();
+            for (Map<Long, List<Integer>> band : buckets) {
+                for (List<Integer> bucket : band.values()) {
+                    for (int i = 0; i < bucket.size(); i++) {
+                        for (int j = i + 1; j < bucket.size(); j++) {
+                            int a = Math.min(bucket.get(i), bucket.get(j));
+                            int b = Math.max(bucket.get(i), bucket.get(j));
+                            if (!seen.add(((long) a << 32) | (b & 0xFFFFFFFFL))) {
+                                continue;
+                            }
+                            double similarity = estimate(signatures.get(a), signatures.get(b));
+                            if (similarity >= minSimilarity) {
+                                pairs.add(new QuestionSimilarity(a, b, similarity));
+                            }
+                        }
+                    }
+                }
+            }
+            return sortAndLimit(pairs, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed questions
+     * @return Number of questions with text
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return signatures.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onQuestionCreated(Question question) {
+        int[] signature = signature(question.getQuestionText());
+        lock.writeLock().lock();
+        try {
+            remove(question.getQuestionId());
+            if (signature != null) {
+                insert(question.getQuestionId(), question.getQuizId(), signature);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onQuestionUpdated(int questionId) {
+        try {
+            Question question = questionDAO.findById(questionId);
+            if (question != null) {
+                onQuestionCreated(question);
+            } else {
+                onQuestionDeleted(questionId, 0);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(int questionId, int quizId) {
+        lock.writeLock().lock();
+        try {
+            remove(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        // Questions go with their quiz through ON DELETE CASCADE, without QuestionDAO events
+        lock.writeLock().lock();
+        try {
+            List<Integer> orphaned = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : questionQuizzes.entrySet()) {
+                if (entry.getValue() == quizId) {
+                    orphaned.add(entry.getKey());
+                }
+            }
+            orphaned.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========================= SIGNATURES =========================
+
+    /**
+     * Compute the MinHash signature of a text
+     * @param text The text
+     * @return NUM_HASHES minimum hash values, or null if the text has no letters or digits
+     */
+    static int[] signature(String text) {
+        String normalized = String.join(" ", TextAnalyzer.tokenize(text));
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            int end = Math.min(normalized.length(), start + SHINGLE_LENGTH);
+            int shingle = 0;
+            for (int i = start; i < end; i++) {
+                shingle = 31 * shingle + normalized.charAt(i);
+            }
+            for (int h = 0; h < NUM_HASHES; h++) {
+                int value = (int) mix(shingle ^ SEEDS[h]);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimate the Jaccard similarity of two shingle sets from their signatures
+     * @return Fraction of matching signature positions
+     */
+    static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    // SplitMix64 finalizer: turns a seeded shingle hash into an independent-looking 64-bit value
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            key = mix(key * 31 + signature[r]);
+        }
+        return key;
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    private void refreshIfStale() throws SQLException {
+        if (stale) {
+            initialize();
+        }
+    }
+
+    // Caller holds a lock
+    private List<QuestionSimilarity> similarTo(int questionId, int[] signature, double minSimilarity, int limit) {
+        Set<Integer> candidates = new HashSet<>();
+        for (int band = 0; band < BANDS; band++) {
+            List<Integer> bucket = buckets.get(band).get(bandKey(signature, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        candidates.remove(questionId);
+        List<QuestionSimilarity> result = new ArrayList<>();
+        for (Integer candidate : candidates) {
+            double similarity = estimate(signature, signatures.get(candidate));
+            if (similarity >= minSimilarity) {
+                result.add(new QuestionSimilarity(questionId, candidate, similarity));
+            }
+        }
+        return sortAndLimit(result, limit);
+    }
+
+    private static List<QuestionSimilarity> sortAndLimit(List<QuestionSimilarity> result, int limit) {
+        result.sort((x, y) -> {
+            int cmp = Double.compare(y.getSimilarity(), x.getSimilarity());
+            return cmp != 0 ? cmp : Integer.compare(x.getSimilarQuestionId(), y.getSimilarQuestionId());
+        });
+        return result.size() > limit ? new ArrayList<>(result.subList(0, Math.max(0, limit))) : result;
+    }
+
+    // Caller holds the write lock
+    private void insert(int questionId, int quizId, int[] signature) {
+        signatures.put(questionId, signature);
+        questionQuizzes.put(questionId, quizId);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new ArrayList<>(2)).add(questionId);
+        }
+    }
+
+    // Caller holds the write lock
+    private void remove(int questionId) {
+        int[] signature = signatures.remove(questionId);
+        questionQuizzes.remove(questionId);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signature, band);
+            List<Integer> bucket = buckets.get(band).get(key);
+            if (bucket != null) {
+                bucket.remove(Integer.valueOf(questionId));
+                if (bucket.isEmpty()) {
+                    buckets.get(band).remove(key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package service;
+
+import dao.AnnouncementDAO;
+import dao.MessageDAO;
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import model.Message;
+import model.Quiz;
+import model.QuizAttempt;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache for the pieces of a page that are expensive to load
+ * Global fragments (catalog, popular, recent, announcements) are shared by all visitors, expire after a TTL and
+ * are dropped as soon as a DAO write touches them. Per-user fragments live in the user's session and are
+ * checked against an in-memory version that DAO writes bump, so a warm page needs no database round-trip.
+ */
+public class FragmentCache implements QuizDAO.QuizListener, QuizAttemptDAO.AttemptListener,
+        MessageDAO.MessageListener, AnnouncementDAO.AnnouncementListener {
+
+    public static final String CATALOG = "catalog";
+    public static final String POPULAR = "popular";
+    public static final String TRENDING = "trending";
+    public static final String RECENT = "recent";
+    public static final String ANNOUNCEMENTS = "announcements";
+
+    /**
+     * Loads a fragment on a cache miss
+     * @param <T> Fragment type
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws SQLException;
+    }
+
+    private final Map<String, Entry> global = new ConcurrentHashMap<>();
+    // Bumped on invalidation so a load that raced with a write is not stored
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> userVersions = new ConcurrentHashMap<>();
+    // Bumped when a write may affect users that are not known individually
+    private final AtomicLong epoch = new AtomicLong();
+    private final long userTtlMillis;
+    private final LongSupplier clock;
+
+    public FragmentCache(long userTtlMillis) {
+        this(userTtlMillis, System::currentTimeMillis);
+    }
+
+    FragmentCache(long userTtlMillis, LongSupplier clock) {
+        this.userTtlMillis = userTtlMillis;
+        this.clock = clock;
+    }
+
+    // ========================= GLOBAL FRAGMENTS =========================
+
+    /**
+     * Get a shared fragment, loading it if it is missing or expired
+     * @param key Fragment key
+     * @param ttlMillis How long a loaded value may be served
+     * @param loader Loads the value on a miss
+     * @return The cached or freshly loaded value
+     * @throws SQLException If the loader fails
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, long ttlMillis, Loader<T> loader) throws SQLException {
+        long now = clock.getAsLong();
+        Entry entry = global.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return (T) entry.value;
+        }
+        long generation = generations.getOrDefault(key, 0L);
+        T value = loader.load();
+        synchronized (this) {
+            if (generations.getOrDefault(key, 0L) == generation) {
+                global.put(key, new Entry(value, now + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop shared fragments so the next request reloads them
+     * @param keys Fragment keys
+     */
+    public synchronized void invalidate(String... keys) {
+        for (String key : keys) {
+            generations.merge(key, 1L, Long::sum);
+            global.remove(key);
+        }
+    }
+
+    // ========================= PER-USER FRAGMENTS =========================
+
+    /**
+     * Start an empty set of per-user fragments stamped with the user's current version
+     * @param userId The user ID
+     * @return Fragments to fill and store in the session
+     */
+    public UserFragments newUserFragments(int userId) {
+        return new UserFragments(userId, getUserVersion(userId), clock.getAsLong());
+    }
+
+    /**
+     * Check whether session fragments can still be served
+     * @param fragments Fragments from the session, may be null
+     * @param userId The user the page is rendered for
+     * @return true if the fragments belong to the user, are within the TTL and no relevant write happened since
+     */
+    public boolean isFresh(UserFragments fragments, int userId) {
+        return fragments != null
+                && fragments.userId == userId
+                && fragments.version == getUserVersion(userId)
+                && clock.getAsLong() - fragments.loadedAt < userTtlMillis;
+    }
+
+    /**
+     * Invalidate every cached fragment of a user
+     * @param userId The user ID
+     */
+    public void invalidateUser(int userId) {
+        userVersions.merge(userId, 1L, Long::sum);
+    }
+
+    private long getUserVersion(int userId) {
+        // Epoch and user counters only grow, so their sum changes whenever either does
+        return epoch.get() + userVersions.getOrDefault(userId, 0L);
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onQuizCreated(Quiz quiz) {
+        invalidate(CATALOG, RECENT);
+        invalidateUser(quiz.getCreatorId());
+    }
+
+    @Override
+    public void onQuizUpdated(int quizId) {
+        invalidate(CATALOG, RECENT, POPULAR, TRENDING);
+        epoch.incrementAndGet();
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        invalidate(CATALOG, RECENT, POPULAR, TRENDING);
+        epoch.incrementAndGet();
+    }
+
+    @Override
+    public void onAttemptCreated(QuizAttempt attempt) {
+        invalidateUser(attempt.getUserId());
+    }
+
+    @Override
+    public void onAttemptsChanged() {
+        epoch.incrementAndGet();
+    }
+
+    @Override
+    public void onMessageCreated(Message message) {
+        invalidateUser(message.getReceiverId());
+    }
+
+    @Override
+    public void onInboxChanged(int receiverId) {
+        invalidateUser(receiverId);
+    }
+
+    @Override
+    public void onMessagesChanged() {
+        epoch.incrementAndGet();
+    }
+
+    @Override
+    public void onAnnouncementsChanged() {
+        invalidate(ANNOUNCEMENTS);
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Per-user fragments kept in the HTTP session
+     */
+    public static final class UserFragments {
+        private final int userId;
+        private final long version;
+        private final long loadedAt;
+        private final Map<String, Object> values = new HashMap<>();
+
+        UserFragments(int userId, long version, long loadedAt) {
+            this.userId = userId;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String key) {
+            return (T) values.get(key);
+        }
+
+        public void put(String key, Object value) {
+            values.put(key, value);
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package service;
+
+import dao.FriendshipDAO;
+import dao.UserDAO;
+import model.Friendship;
+import util.IntHashSet;
+import util.SortedIntArrays;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory friendship graph for relationship checks
+ * Each user has primitive int sets of accepted friends, requests they sent, requests they received and users
+ * blocked in either direction, so "are these two friends" or "is a request pending" is a hash lookup instead of a
+ * query. The graph is loaded with one paged scan of friendships and kept current by FriendshipDAO writes.
+ * Declined rows carry no edge: they neither block a new request nor show as a relationship.
+ * Changes that arrive while the graph is loading are journaled and replayed onto the loaded map before it is
+ * swapped in, so a reload never loses a write made during its scan.
+ */
+public class FriendGraph implements FriendshipDAO.FriendshipListener, UserDAO.UserListener {
+
+    private static final int[] NO_IDS = new int[0];
+
+    private final FriendshipDAO friendshipDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Integer, Edges> users = new HashMap<>();
+    // Set when rows of unknown users were deleted; the graph is reloaded on next use
+    private volatile boolean stale = true;
+    // Changes applied since the current load started, or null when no load is running; guarded by the write lock
+    private List<Consumer<Map<Integer, Edges>>> journal;
+
+    public FriendGraph(FriendshipDAO friendshipDAO) {
+        this.friendshipDAO = friendshipDAO;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Load the graph from the friendships table
+     * The stale flag is cleared first so a change during the scan marks it again, and restored if the scan fails.
+     * @throws SQLException If database error occurs
+     */
+    public synchronized void initialize() throws SQLException {
+        stale = false;
+        lock.writeLock().lock();
+        try {
+            journal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<Integer, Edges> loaded = new HashMap<>();
+        try {
+            friendshipDAO.forEachFriendship(friendship -> link(loaded, friendship));
+        } catch (SQLException | RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                journal = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            stale = true;
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // Each change sets the final state of the edges it touches, so replaying one the scan already saw is harmless
+            for (Consumer<Map<Integer, Edges>> change : journal) {
+                change.accept(loaded);
+            }
+            journal = null;
+            users = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Check whether two users are friends
+     * @param userId1 First user ID
+     * @param userId2 Second user ID
+     * @return true if their friendship was accepted
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public boolean areFriends(int userId1, int userId2) throws SQLException {
+        return has(userId1, userId2, Kind.FRIEND);
+    }
+
+    /**
+     * Check whether one user has a pending request to another
+     * @param requesterId The user who sent the request
+     * @param receiverId The user who received it
+     * @return true if the request is pending
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public boolean hasPendingRequest(int requesterId, int receiverId) throws SQLException {
+        return has(requesterId, receiverId, Kind.PENDING_OUT);
+    }
+
+    /**
+     * Check whether either of two users has blocked the other
+     * @param userId1 First user ID
+     * @param userId2 Second user ID
+     * @return true if their friendship is blocked
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public boolean isBlocked(int userId1, int userId2) throws SQLException {
+        return has(userId1, userId2, Kind.BLOCKED);
+    }
+
+    /**
+     * Get the relationship between two users
+     * @param userId1 First user ID
+     * @param userId2 Second user ID
+     * @return Friendship.STATUS_ACCEPTED, STATUS_PENDING in either direction, STATUS_BLOCKED, or null
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public String getStatus(int userId1, int userId2) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Edges edges = users.get(userId1);
+            if (edges == null) {
+                return null;
+            }
+            if (edges.friends.contains(userId2)) {
+                return Friendship.STATUS_ACCEPTED;
+            }
+            if (edges.pendingOut.contains(userId2) || edges.pendingIn.contains(userId2)) {
+                return Friendship.STATUS_PENDING;
+            }
+            return edges.blocked.contains(userId2) ? Friendship.STATUS_BLOCKED : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a user's friends
+     * @param userId The user ID
+     * @return Friend IDs in ascending order; callers must not modify the array
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public int[] getFriendIds(int userId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Edges edges = users.get(userId);
+            return edges == null ? NO_IDS : edges.sortedFriends();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the friends two users have in common
+     * @param userId1 First user ID
+     * @param userId2 Second user ID
+     * @return Mutual friend IDs in ascending order
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public int[] getMutualFriendIds(int userId1, int userId2) throws SQLException {
+        return SortedIntArrays.intersect(getFriendIds(userId1), getFriendIds(userId2));
+    }
+
+    /**
+     * Count the friends two users have in common, for badges that do not list them
+     * @param userId1 First user ID
+     * @param userId2 Second user ID
+     * @return Number of mutual friends
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public int getMutualFriendCount(int userId1, int userId2) throws SQLException {
+        return SortedIntArrays.intersectionSize(getFriendIds(userId1), getFriendIds(userId2));
+    }
+
+    /**
+     * Get a user's number of friends
+     * @param userId The user ID
+     * @return Number of accepted friendships
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public int getFriendCount(int userId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Edges edges = users.get(userId);
+            return edges == null ? 0 : edges.friends.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of requests waiting for a user's answer
+     * @param userId The user ID
+     * @return Number of pending requests received
+     * @throws SQLException If the graph had to be reloaded and the reload failed
+     */
+    public int getPendingInCount(int userId) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Edges edges = users.get(userId);
+            return edges == null ? 0 : edges.pendingIn.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onFriendshipChanged(int userId1, int userId2, Friendship friendship) {
+        apply(users -> {
+            unlink(users, userId1, userId2);
+            if (friendship != null) {
+                link(users, friendship);
+            }
+        });
+    }
+
+    @Override
+    public void onFriendshipsChanged(int userId) {
+        try {
+            List<Friendship> remaining = friendshipDAO.getAllFriendships(userId);
+            apply(users -> {
+                removeUser(users, userId);
+                for (Friendship friendship : remaining) {
+                    link(users, friendship);
+                }
+            });
+        } catch (SQLException e) {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onAllFriendshipsChanged() {
+        stale = true;
+    }
+
+    @Override
+    public void onUserDeleted(int userId) {
+        // Friendship rows go with the user through the foreign key cascade
+        apply(users -> removeUser(users, userId));
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    private enum Kind { FRIEND, PENDING_OUT, BLOCKED }
+
+    private boolean has(int userId, int otherId, Kind kind) throws SQLException {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Edges edges = users.get(userId);
+            if (edges == null) {
+                return false;
+            }
+            switch (kind) {
+                case FRIEND:
+                    return edges.friends.contains(otherId);
+                case PENDING_OUT:
+                    return edges.pendingOut.contains(otherId);
+                default:
+                    return edges.blocked.contains(otherId);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (stale) {
+            synchronized (this) {
+                if (stale) {
+                    initialize();
+                }
+            }
+        }
+    }
+
+    // Apply a change to the graph, and journal it for the load in progress if there is one
+    private void apply(Consumer<Map<Integer, Edges>> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(users);
+            if (journal != null) {
+                journal.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Add the edge a row stands for; callers hold the write lock or own the map
+    private static void link(Map<Integer, Edges> users, Friendship friendship) {
+        int requesterId = friendship.getRequesterId();
+        int receiverId = friendship.getReceiverId();
+        if (requesterId == receiverId) {
+            return;
+        }
+        String status = friendship.getStatus();
+        if (Friendship.STATUS_ACCEPTED.equals(status)) {
+            edges(users, requesterId).addFriend(receiverId);
+            edges(users, receiverId).addFriend(requesterId);
+        } else if (Friendship.STATUS_PENDING.equals(status)) {
+            edges(users, requesterId).pendingOut.add(receiverId);
+            edges(users, receiverId).pendingIn.add(requesterId);
+        } else if (Friendship.STATUS_BLOCKED.equals(status)) {
+            edges(users, requesterId).blocked.add(receiverId);
+            edges(users, receiverId).blocked.add(requesterId);
+        }
+    }
+
+    // Drop every edge between two users
+    private static void unlink(Map<Integer, Edges> users, int userId1, int userId2) {
+        Edges first = users.get(userId1);
+        if (first != null) {
+            first.clear(userId2);
+        }
+        Edges second = users.get(userId2);
+        if (second != null) {
+            second.clear(userId1);
+        }
+    }
+
+    private static void removeUser(Map<Integer, Edges> users, int userId) {
+        Edges removed = users.remove(userId);
+        if (removed == null) {
+            return;
+        }
+        for (IntHashSet set : new IntHashSet[] {removed.friends, removed.pendingOut, removed.pendingIn, removed.blocked}) {
+            for (int otherId : set.toSortedArray()) {
+                Edges other = users.get(otherId);
+                if (other != null) {
+                    other.clear(userId);
+                }
+            }
+        }
+    }
+
+    private static Edges edges(Map<Integer, Edges> users, int userId) {
+        return users.computeIfAbsent(userId, id -> new Edges());
+    }
+
+    /**
+     * The edges of one user
+     */
+    private static final class Edges {
+        final IntHashSet friends = new IntHashSet();
+        final IntHashSet pendingOut = new IntHashSet();
+        final IntHashSet pendingIn = new IntHashSet();
+        final IntHashSet blocked = new IntHashSet();
+        // Friends in ascending order, built on first read after a change
+        private volatile int[] sortedFriends;
+
+        void addFriend(int userId) {
+            if (friends.add(userId)) {
+                sortedFriends = null;
+            }
+        }
+
+        void clear(int userId) {
+            if (friends.remove(userId)) {
+                sortedFriends = null;
+            }
+            pendingOut.remove(userId);
+            pendingIn.remove(userId);
+            blocked.remove(userId);
+        }
+
+        // Readers only race to build the same array from a set that cannot change under the read lock
+        int[] sortedFriends() {
+            int[] sorted = sortedFriends;
+            if (sorted == null) {
+                sorted = friends.toSortedArray();
+                sortedFriends = sorted;
+            }
+            return sorted;
+        }
+    }
+}
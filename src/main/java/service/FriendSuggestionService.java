@@ -0,0 +1,244 @@
+package service;
+
+import dao.FriendshipDAO;
+import dao.UserDAO;
+import model.Friendship;
+import util.IntIntMap;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * "People you may know" suggestions from the friend graph
+ * A user's candidates are the friends of their friends, counted with a primitive counter per candidate and ranked by
+ * how many mutual friends they share. Existing friends, pending requests either way and blocked users are left out.
+ * Results are kept for the most recently active users only. A friendship change marks the two users and their
+ * friends dirty, since those are the only users whose two-hop neighbourhood moved, and dirty users are recomputed in
+ * the background by refreshDirty() or, if a page gets there first, on demand.
+ */
+public class FriendSuggestionService implements FriendshipDAO.FriendshipListener, UserDAO.UserListener {
+
+    // Suggestions kept per user
+    static final int MAX_SUGGESTIONS = 10;
+    // Users whose suggestions are kept; the least recently viewed are dropped first
+    static final int MAX_CACHED_USERS = 10_000;
+    // Friend-of-friend edges walked for one user, so a user with very popular friends stays cheap
+    static final int MAX_EDGES_SCANNED = 100_000;
+
+    private final FriendGraph friendGraph;
+    private final UsernameIndex usernameIndex;
+    private final LinkedHashMap<Integer, List<Suggestion>> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Suggestion>> eldest) {
+            return size() > MAX_CACHED_USERS;
+        }
+    };
+    private final Set<Integer> dirty = new LinkedHashSet<>();
+    // Users being computed right now, with the number of computations in flight, so changes meanwhile mark them dirty
+    private final Map<Integer, Integer> computing = new HashMap<>();
+    // Bumped by clear(), so a result computed from before a bulk change is not cached after it
+    private long generation;
+
+    public FriendSuggestionService(FriendGraph friendGraph, UsernameIndex usernameIndex) {
+        this.friendGraph = friendGraph;
+        this.usernameIndex = usernameIndex;
+    }
+
+    /**
+     * One suggested user
+     */
+    public static final class Suggestion {
+        private final int userId;
+        private final String username;
+        private final int mutualCount;
+
+        public Suggestion(int userId, String username, int mutualCount) {
+            this.userId = userId;
+            this.username = username;
+            this.mutualCount = mutualCount;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getMutualCount() {
+            return mutualCount;
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get friend suggestions for a user
+     * @param userId The user ID
+     * @param limit Maximum number of suggestions, at most MAX_SUGGESTIONS
+     * @return Suggestions, most mutual friends first
+     * @throws SQLException If the friend graph had to be reloaded and the reload failed
+     */
+    public List<Suggestion> getSuggestions(int userId, int limit) throws SQLException {
+        List<Suggestion> suggestions;
+        synchronized (this) {
+            suggestions = dirty.contains(userId) ? null : cache.get(userId);
+        }
+        if (suggestions == null) {
+            suggestions = refresh(userId);
+        }
+        return suggestions.size() <= limit ? suggestions : suggestions.subList(0, limit);
+    }
+
+    /**
+     * Recompute the suggestions of every user marked dirty since the last call
+     * @return Number of users recomputed
+     */
+    public int refreshDirty() {
+        List<Integer> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(dirty);
+        }
+        int refreshed = 0;
+        for (int userId : pending) {
+            try {
+                refresh(userId);
+                refreshed++;
+            } catch (SQLException e) {
+                // Left dirty; the next page view or run retries
+            }
+        }
+        return refreshed;
+    }
+
+    /**
+     * Rank the friends of a user's friends
+     * @param userId The user ID
+     * @return Up to MAX_SUGGESTIONS candidates, most mutual friends first, then lowest user ID
+     * @throws SQLException If the friend graph had to be reloaded and the reload failed
+     */
+    List<Suggestion> compute(int userId) throws SQLException {
+        int[] friends = friendGraph.getFriendIds(userId);
+        IntIntMap mutualCounts = new IntIntMap();
+        int scanned = 0;
+        for (int friendId : friends) {
+            for (int candidateId : friendGraph.getFriendIds(friendId)) {
+                if (candidateId != userId && Arrays.binarySearch(friends, candidateId) < 0) {
+                    mutualCounts.addTo(candidateId, 1);
+                }
+            }
+            scanned += friendGraph.getFriendCount(friendId);
+            if (scanned >= MAX_EDGES_SCANNED) {
+                break;
+            }
+        }
+
+        // Pack (count, candidate) so one sort ranks by count descending, then ID ascending
+        long[] ranked = new long[mutualCounts.size()];
+        int[] n = {0};
+        mutualCounts.forEach((candidateId, count) ->
+                ranked[n[0]++] = ((long) -count << 32) | (candidateId & 0xffffffffL));
+        Arrays.sort(ranked);
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (int i = 0; i < ranked.length && suggestions.size() < MAX_SUGGESTIONS; i++) {
+            int candidateId = (int) ranked[i];
+            int count = (int) -(ranked[i] >> 32);
+            // Pending either way or blocked; friends were already skipped
+            if (friendGraph.getStatus(userId, candidateId) != null) {
+                continue;
+            }
+            String username = usernameIndex != null ? usernameIndex.getUsername(candidateId) : null;
+            if (usernameIndex != null && username == null) {
+                continue;
+            }
+            suggestions.add(new Suggestion(candidateId, username, count));
+        }
+        return Collections.unmodifiableList(suggestions);
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onFriendshipChanged(int userId1, int userId2, Friendship friendship) {
+        try {
+            // Runs after FriendGraph has applied the change, so these are the friends as they are now
+            int[] friends1 = friendGraph.getFriendIds(userId1);
+            int[] friends2 = friendGraph.getFriendIds(userId2);
+            synchronized (this) {
+                markDirty(userId1);
+                markDirty(userId2);
+                for (int friendId : friends1) {
+                    markDirty(friendId);
+                }
+                for (int friendId : friends2) {
+                    markDirty(friendId);
+                }
+            }
+        } catch (SQLException e) {
+            clear();
+        }
+    }
+
+    @Override
+    public void onFriendshipsChanged(int userId) {
+        clear();
+    }
+
+    @Override
+    public void onAllFriendshipsChanged() {
+        clear();
+    }
+
+    @Override
+    public void onUserDeleted(int userId) {
+        clear();
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    private List<Suggestion> refresh(int userId) throws SQLException {
+        long started;
+        synchronized (this) {
+            // Registered before computing, so changes that land meanwhile mark the user dirty again
+            dirty.remove(userId);
+            computing.merge(userId, 1, Integer::sum);
+            started = generation;
+        }
+        try {
+            List<Suggestion> suggestions = compute(userId);
+            synchronized (this) {
+                if (generation == started) {
+                    cache.put(userId, suggestions);
+                }
+            }
+            return suggestions;
+        } finally {
+            synchronized (this) {
+                computing.computeIfPresent(userId, (id, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    // Only users with cached or in-flight suggestions are worth recomputing ahead of time
+    private void markDirty(int userId) {
+        if (cache.containsKey(userId) || computing.containsKey(userId)) {
+            dirty.add(userId);
+        }
+    }
+
+    private synchronized void clear() {
+        generation++;
+        cache.clear();
+        dirty.clear();
+    }
+}
@@ -0,0 +1,172 @@
+package service;
+
+import dao.InboxCountersDAO;
+import dao.MessageDAO;
+import dao.UserDAO;
+import model.InboxCounters;
+import model.Message;
+
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user unread message counters for the inbox badge
+ * Counters are cached in memory and written through to the inbox_counters table. A new message is a simple
+ * increment; reads and deletes recount the receiver's unread messages once, on the write path. Rendering the
+ * badge therefore costs at most one primary-key lookup on a cold cache and never reads the messages table.
+ * Deleting a user cascades to the messages they sent without message events, so their receivers are recounted.
+ */
+public class InboxCounterService implements MessageDAO.MessageListener, UserDAO.UserListener {
+
+    private final InboxCountersDAO inboxCountersDAO;
+    private final Map<Integer, InboxCounters> cache = new ConcurrentHashMap<>();
+    // Set when messages of unknown receivers changed; every counter is recomputed on next use
+    private volatile boolean stale;
+
+    public InboxCounterService(InboxCountersDAO inboxCountersDAO) {
+        this.inboxCountersDAO = inboxCountersDAO;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Seed the counters from the messages table the first time they are used
+     * @throws SQLException If database error occurs
+     */
+    public void initialize() throws SQLException {
+        if (inboxCountersDAO.getCountersCount() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recount every user's unread messages and drop the cache
+     * Rows are overwritten in place and users with nothing unread removed afterwards, so lookups during the rebuild
+     * never find a badge missing. The flag is cleared first so a change during the rebuild marks it again, and
+     * restored if the rebuild fails.
+     * @throws SQLException If database error occurs
+     */
+    public synchronized void rebuild() throws SQLException {
+        stale = false;
+        try {
+            List<InboxCounters> computed = inboxCountersDAO.computeAllCounters();
+            inboxCountersDAO.saveAllCounters(computed);
+            inboxCountersDAO.deleteInactiveCounters();
+        } catch (SQLException | RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+        cache.clear();
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get a user's inbox counters
+     * @param userId The user ID
+     * @return The user's counters; empty counters if nothing is unread
+     * @throws SQLException If database error occurs
+     */
+    public InboxCounters getCounters(int userId) throws SQLException {
+        if (stale) {
+            synchronized (this) {
+                if (stale) {
+                    rebuild();
+                }
+            }
+        }
+        InboxCounters counters = cache.get(userId);
+        if (counters != null) {
+            return counters;
+        }
+        counters = inboxCountersDAO.findByUserId(userId);
+        if (counters == null) {
+            counters = new InboxCounters(userId);
+        }
+        InboxCounters existing = cache.putIfAbsent(userId, counters);
+        return existing != null ? existing : counters;
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public synchronized void onMessageCreated(Message message) {
+        if (message.isRead()) {
+            return;
+        }
+        try {
+            InboxCounters counters = getCounters(message.getReceiverId());
+            counters.recordUnread(message.getMessageType(), message.getDateSent());
+            inboxCountersDAO.saveCounters(counters);
+        } catch (SQLException e) {
+            // The cached row may now disagree with the table; recompute on next use
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    /**
+     * Count a fan-out of new messages with one lookup of the uncached receivers and one multi-row write
+     */
+    @Override
+    public synchronized void onMessagesCreated(List<Message> messages) {
+        try {
+            if (stale) {
+                rebuild();
+            }
+            Set<Integer> missing = new HashSet<>();
+            for (Message message : messages) {
+                if (!message.isRead() && !cache.containsKey(message.getReceiverId())) {
+                    missing.add(message.getReceiverId());
+                }
+            }
+            Map<Integer, InboxCounters> loaded = inboxCountersDAO.findByUserIds(missing);
+            Map<Integer, InboxCounters> changed = new LinkedHashMap<>();
+            for (Message message : messages) {
+                if (message.isRead()) {
+                    continue;
+                }
+                int receiverId = message.getReceiverId();
+                InboxCounters counters = cache.computeIfAbsent(receiverId,
+                        id -> loaded.getOrDefault(id, new InboxCounters(id)));
+                counters.recordUnread(message.getMessageType(), message.getDateSent());
+                changed.put(receiverId, counters);
+            }
+            inboxCountersDAO.saveAllCounters(changed.values());
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    @Override
+    public synchronized void onInboxChanged(int receiverId) {
+        try {
+            InboxCounters counters = inboxCountersDAO.computeCounters(receiverId);
+            inboxCountersDAO.saveCounters(counters);
+            cache.put(receiverId, counters);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onMessagesChanged() {
+        stale = true;
+    }
+
+    @Override
+    public synchronized void onUserDeleted(UserDAO.DeletedUser deleted) {
+        // The user's own row went with the account through ON DELETE CASCADE
+        cache.remove(deleted.getUserId());
+        for (int receiverId : deleted.getUnreadReceiverIds()) {
+            onInboxChanged(receiverId);
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package service;
+
+import dao.FriendshipDAO;
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import dao.UserDAO;
+import model.LeaderboardEntry;
+import model.Quiz;
+import model.QuizAttempt;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-quiz leaderboards
+ * Keeps each user's best graded attempt in an order-statistic tree per quiz, so rank-of-user and
+ * range-by-rank ("my rank and the people around me") are O(log n) instead of a full sort.
+ * Ordering matches the quiz summary page: score, then more questions, then faster, then more recent.
+ * Updates and deletes only rebuild the leaderboards of the quizzes they touched, one indexed query each.
+ */
+public class LeaderboardService implements QuizAttemptDAO.AttemptListener, QuizDAO.QuizListener, UserDAO.UserListener {
+
+    private final QuizAttemptDAO quizAttemptDAO;
+    private final QuizDAO quizDAO;
+    private final UserDAO userDAO;
+    private final FriendshipDAO friendshipDAO;
+    // Replaced as a whole by a full rebuild, so readers never see a half-built map
+    private volatile Map<Integer, RankIndex> indexes = new ConcurrentHashMap<>();
+    // False after an untargeted change: quizzes missing from the map are loaded on use instead of treated as empty
+    private volatile boolean complete = true;
+    // Quizzes whose attempts were updated or deleted; each is rebuilt on its next lookup
+    private final Set<Integer> staleQuizzes = ConcurrentHashMap.newKeySet();
+    // Attempts created while a quiz is being rebuilt, offered to the rebuilt index
+    private final Map<Integer, List<QuizAttempt>> pending = new ConcurrentHashMap<>();
+
+    public LeaderboardService(QuizAttemptDAO quizAttemptDAO, QuizDAO quizDAO, UserDAO userDAO, FriendshipDAO friendshipDAO) {
+        this.quizAttemptDAO = quizAttemptDAO;
+        this.quizDAO = quizDAO;
+        this.userDAO = userDAO;
+        this.friendshipDAO = friendshipDAO;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Build all leaderboards with one streaming scan of the graded attempts
+     * Called at startup before the service listens for attempts. The new map replaces the old one only once the
+     * scan has succeeded.
+     * @throws SQLException If database error occurs
+     */
+    public synchronized void initialize() throws SQLException {
+        Map<Integer, RankIndex> rebuilt = new ConcurrentHashMap<>();
+        quizAttemptDAO.forEachGradedAttempt(attempt ->
+                rebuilt.computeIfAbsent(attempt.getQuizId(), id -> new RankIndex()).offer(attempt));
+        indexes = rebuilt;
+        staleQuizzes.clear();
+        complete = true;
+    }
+
+    // ========================= EVENTS =========================
+
+    /**
+     * Offer a graded attempt; it replaces the user's entry only if it ranks higher
+     * @param attempt The attempt
+     */
+    public void recordAttempt(QuizAttempt attempt) {
+        if (complete) {
+            indexes.computeIfAbsent(attempt.getQuizId(), id -> new RankIndex()).offer(attempt);
+        } else {
+            // A quiz that is not loaded yet will read this attempt from the database
+            RankIndex index = indexes.get(attempt.getQuizId());
+            if (index != null) {
+                index.offer(attempt);
+            }
+        }
+    }
+
+    @Override
+    public void onAttemptCreated(QuizAttempt attempt) {
+        if (attempt.isPractice()) {
+            return;
+        }
+        List<QuizAttempt> waiting = pending.get(attempt.getQuizId());
+        if (waiting != null) {
+            synchronized (waiting) {
+                // Still loading: the rebuild offers it once its own query is done
+                if (pending.get(attempt.getQuizId()) == waiting) {
+                    waiting.add(attempt);
+                    return;
+                }
+            }
+        }
+        recordAttempt(attempt);
+    }
+
+    @Override
+    public void onAttemptsChanged() {
+        // Order matters: readers must not take the empty map as complete
+        complete = false;
+        indexes = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onAttemptsChanged(Set<Integer> quizIds, Set<Integer> userIds) {
+        staleQuizzes.addAll(quizIds);
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        staleQuizzes.remove(quizId);
+        indexes.remove(quizId);
+    }
+
+    @Override
+    public void onUserDeleted(UserDAO.DeletedUser deleted) {
+        // The user's attempts went with the account; their quizzes went with all of their attempts
+        staleQuizzes.addAll(deleted.getAttemptedQuizIds());
+        for (int quizId : deleted.getCreatedQuizIds()) {
+            onQuizDeleted(quizId);
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get the number of ranked users on a quiz
+     * @param quizId The quiz ID
+     * @return Number of users with a graded attempt
+     * @throws SQLException If the quiz's leaderboard had to be rebuilt and the database failed
+     */
+    public int getRankedCount(int quizId) throws SQLException {
+        RankIndex index = getIndex(quizId);
+        return index == null ? 0 : index.size();
+    }
+
+    /**
+     * Get a user's rank on a quiz
+     * @param quizId The quiz ID
+     * @param userId The user ID
+     * @return 1-based rank, or 0 if the user has no graded attempt on the quiz
+     * @throws SQLException If the quiz's leaderboard had to be rebuilt and the database failed
+     */
+    public int getRank(int quizId, int userId) throws SQLException {
+        RankIndex index = getIndex(quizId);
+        return index == null ? 0 : index.rankOf(userId);
+    }
+
+    /**
+     * Get the best attempts between two ranks
+     * @param quizId The quiz ID
+     * @param fromRank First rank to include (1-based)
+     * @param toRank Last rank to include
+     * @return Ranked leaderboard entries, empty if the range is outside the leaderboard
+     * @throws SQLException If database error occurs
+     */
+    public List<LeaderboardEntry> getRange(int quizId, int fromRank, int toRank) throws SQLException {
+        RankIndex index = getIndex(quizId);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        int from = Math.max(1, fromRank);
+        return toEntries(quizId, from, index.range(from - 1, toRank));
+    }
+
+    /**
+     * Get the top of a quiz leaderboard
+     * @param quizId The quiz ID
+     * @param limit Maximum number of entries
+     * @return Ranked leaderboard entries
+     * @throws SQLException If database error occurs
+     */
+    public List<LeaderboardEntry> getTop(int quizId, int limit) throws SQLException {
+        return getRange(quizId, 1, limit);
+    }
+
+    /**
+     * Get a user's entry together with the entries ranked just above and below it
+     * @param quizId The quiz ID
+     * @param userId The user ID
+     * @param radius Number of entries to include on each side
+     * @return Ranked leaderboard entries, empty if the user is not ranked on the quiz
+     * @throws SQLException If database error occurs
+     */
+    public List<LeaderboardEntry> getAroundUser(int quizId, int userId, int radius) throws SQLException {
+        int rank = getRank(quizId, userId);
+        if (rank == 0) {
+            return new ArrayList<>();
+        }
+        return getRange(quizId, rank - radius, rank + radius);
+    }
+
+    /**
+     * Get a quiz leaderboard restricted to a user and their friends
+     * Intersects the friend ID set with the in-memory best-per-user results, so the cost is one friend
+     * lookup plus one username lookup regardless of how many friends there are.
+     * @param quizId The quiz ID
+     * @param userId The user whose friends to rank
+     * @return Entries for the user and every friend with a graded attempt, ranked among themselves
+     * @throws SQLException If database error occurs
+     */
+    public List<LeaderboardEntry> getFriendsLeaderboard(int quizId, int userId) throws SQLException {
+        RankIndex index = getIndex(quizId);
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        Set<Integer> members = new HashSet<>(friendshipDAO.getFriendIds(userId));
+        members.add(userId);
+        return toEntries(quizId, 1, index.bestOf(members));
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    private RankIndex getIndex(int quizId) throws SQLException {
+        RankIndex index = indexes.get(quizId);
+        if (staleQuizzes.contains(quizId) || (index == null && !complete)) {
+            index = reloadQuiz(quizId);
+        }
+        return index;
+    }
+
+    /**
+     * Rebuild one quiz's leaderboard from its graded attempts
+     * The stale mark is cleared first so a change during the load marks it again, and restored if the load fails.
+     * Attempts created during the load are offered afterwards; offering one the load already read changes nothing.
+     */
+    private synchronized RankIndex reloadQuiz(int quizId) throws SQLException {
+        staleQuizzes.remove(quizId);
+        Map<Integer, RankIndex> target = indexes;
+        List<QuizAttempt> waiting = new ArrayList<>();
+        pending.put(quizId, waiting);
+        try {
+            RankIndex rebuilt = new RankIndex();
+            for (QuizAttempt attempt : quizAttemptDAO.getGradedAttemptsByQuiz(quizId)) {
+                rebuilt.offer(attempt);
+            }
+            synchronized (waiting) {
+                for (QuizAttempt attempt : waiting) {
+                    rebuilt.offer(attempt);
+                }
+                // An untargeted change during the load dropped every leaderboard; leave this one for the next lookup
+                if (indexes == target) {
+                    target.put(quizId, rebuilt);
+                }
+                pending.remove(quizId);
+            }
+            return rebuilt;
+        } catch (SQLException | RuntimeException e) {
+            synchronized (waiting) {
+                // Attempts that arrived meanwhile are in the database; the retry reads them
+                pending.remove(quizId);
+            }
+            staleQuizzes.add(quizId);
+            throw e;
+        }
+    }
+
+    // Attach quiz title and usernames to consecutive ranked attempts with one lookup each
+    private List<LeaderboardEntry> toEntries(int quizId, int firstRank, List<QuizAttempt> attempts) throws SQLException {
+        List<LeaderboardEntry> entries = new ArrayList<>();
+        if (attempts.isEmpty()) {
+            return entries;
+        }
+        Quiz quiz = quizDAO.findById(quizId);
+        String quizTitle = quiz != null ? quiz.getTitle() : null;
+        Set<Integer> userIds = new HashSet<>();
+        for (QuizAttempt attempt : attempts) {
+            userIds.add(attempt.getUserId());
+        }
+        Map<Integer, String> usernames = userDAO.getUsernamesByIds(userIds);
+        int rank = firstRank;
+        for (QuizAttempt attempt : attempts) {
+            int correct = (int) Math.round(attempt.getScore() * attempt.getTotalQuestions() / 100.0);
+            Timestamp taken = attempt.getDateTaken() != null ? new Timestamp(attempt.getDateTaken().getTime()) : null;
+            entries.add(new LeaderboardEntry(quizId, quizTitle, attempt.getUserId(), usernames.get(attempt.getUserId()),
+                    attempt.getScore(), correct, taken, rank++));
+        }
+        return entries;
+    }
+
+    // Leaderboard order: higher score, more questions, faster, more recent; user ID keeps it total
+    static int compare(QuizAttempt a, QuizAttempt b) {
+        int cmp = Double.compare(b.getScore(), a.getScore());
+        if (cmp != 0) return cmp;
+        cmp = Integer.compare(b.getTotalQuestions(), a.getTotalQuestions());
+        if (cmp != 0) return cmp;
+        cmp = Long.compare(a.getTimeTaken(), b.getTimeTaken());
+        if (cmp != 0) return cmp;
+        cmp = Long.compare(dateMillis(b), dateMillis(a));
+        if (cmp != 0) return cmp;
+        return Integer.compare(a.getUserId(), b.getUserId());
+    }
+
+    private static long dateMillis(QuizAttempt attempt) {
+        return attempt.getDateTaken() != null ? attempt.getDateTaken().getTime() : 0;
+    }
+
+    // ========================= RANK INDEX =========================
+
+    /**
+     * Best attempt per user of one quiz, kept in a size-augmented treap
+     * Each node stores its subtree size, so rank and select walk a single root-to-leaf path.
+     */
+    static final class RankIndex {
+        private final Map<Integer, QuizAttempt> bestByUser = new HashMap<>();
+        private final Random priorities = new Random(0x5EED);
+        private Node root;
+
+        private static final class Node {
+            final QuizAttempt attempt;
+            final int priority;
+            Node left;
+            Node right;
+            int size = 1;
+
+            Node(QuizAttempt attempt, int priority) {
+                this.attempt = attempt;
+                this.priority = priority;
+            }
+        }
+
+        synchronized int size() {
+            return size(root);
+        }
+
+        // Keep the attempt if it is the user's first or best one; returns true if the index changed
+        synchronized boolean offer(QuizAttempt attempt) {
+            QuizAttempt current = bestByUser.get(attempt.getUserId());
+            if (current != null) {
+                if (compare(attempt, current) >= 0) {
+                    return false;
+                }
+                root = remove(root, current);
+            }
+            bestByUser.put(attempt.getUserId(), attempt);
+            Node[] parts = split(root, attempt);
+            root = merge(merge(parts[0], new Node(attempt, priorities.nextInt())), parts[1]);
+            return true;
+        }
+
+        // 1-based rank of the user's best attempt, 0 if absent
+        synchronized int rankOf(int userId) {
+            QuizAttempt attempt = bestByUser.get(userId);
+            if (attempt == null) {
+                return 0;
+            }
+            int before = 0;
+            Node node = root;
+            while (node != null) {
+                int cmp = compare(attempt, node.attempt);
+                if (cmp == 0) {
+                    return before + size(node.left) + 1;
+                }
+                if (cmp < 0) {
+                    node = node.left;
+                } else {
+                    before += size(node.left) + 1;
+                    node = node.right;
+                }
+            }
+            return 0;
+        }
+
+        // Best attempts of the given users that are on the leaderboard, in leaderboard order
+        synchronized List<QuizAttempt> bestOf(Collection<Integer> userIds) {
+            List<QuizAttempt> result = new ArrayList<>();
+            for (Integer userId : userIds) {
+                QuizAttempt attempt = bestByUser.get(userId);
+                if (attempt != null) {
+                    result.add(attempt);
+                }
+            }
+            result.sort(LeaderboardService::compare);
+            return result;
+        }
+
+        // Attempts at 0-based positions [from, to), clipped to the index
+        synchronized List<QuizAttempt> range(int from, int to) {
+            List<QuizAttempt> result = new ArrayList<>();
+            int end = Math.min(to, size(root));
+            for (int i = Math.max(0, from); i < end; i++) {
+                result.add(select(i));
+            }
+            return result;
+        }
+
+        private QuizAttempt select(int position) {
+            Node node = root;
+            while (node != null) {
+                int leftSize = size(node.left);
+                if (position < leftSize) {
+                    node = node.left;
+                } else if (position == leftSize) {
+                    return node.attempt;
+                } else {
+                    position -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+            return null;
+        }
+
+        // Split into nodes ordered before the key and nodes at or after it
+        private static Node[] split(Node node, QuizAttempt key) {
+            if (node == null) {
+                return new Node[]{null, null};
+            }
+            if (compare(node.attempt, key) < 0) {
+                Node[] parts = split(node.right, key);
+                node.right = parts[0];
+                update(node);
+                return new Node[]{node, parts[1]};
+            }
+            Node[] parts = split(node.left, key);
+            node.left = parts[1];
+            update(node);
+            return new Node[]{parts[0], node};
+        }
+
+        private static Node merge(Node left, Node right) {
+            if (left == null) return right;
+            if (right == null) return left;
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                update(left);
+                return left;
+            }
+            right.left = merge(left, right.left);
+            update(right);
+            return right;
+        }
+
+        private static Node remove(Node node, QuizAttempt key) {
+            if (node == null) {
+                return null;
+            }
+            int cmp = compare(key, node.attempt);
+            if (cmp == 0) {
+                return merge(node.left, node.right);
+            }
+            if (cmp < 0) {
+                node.left = remove(node.left, key);
+            } else {
+                node.right = remove(node.right, key);
+            }
+            update(node);
+            return node;
+        }
+
+        private static void update(Node node) {
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+}
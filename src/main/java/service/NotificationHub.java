@@ -0,0 +1,241 @@
+package service;
+
+import com.google.gson.stream.JsonWriter;
+import dao.FriendshipDAO;
+import dao.MessageDAO;
+import dto.DtoJsonWriter;
+import dto.MessageDTO;
+import dto.QuizDTO;
+import dto.UserDTO;
+import model.Friendship;
+import model.Message;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process hub that pushes inbox and friendship events to connected users
+ * Each user has a registry of open subscribers, typically one Server-Sent Events stream per browser tab. DAO
+ * writes publish through the listener callbacks; delivery runs on a virtual thread per event so a write never
+ * waits on a slow client. Subscribers are expected not to block: the SSE endpoint queues the bytes and lets
+ * the container write them when the socket is ready.
+ */
+public class NotificationHub implements MessageDAO.MessageListener, FriendshipDAO.FriendshipListener {
+
+    public static final String EVENT_MESSAGE = "message";
+    public static final String EVENT_FRIEND_ACCEPTED = "friend-accepted";
+
+    /**
+     * One open connection of a user
+     */
+    public interface Subscriber {
+        /**
+         * Deliver an event
+         * @param event Event name
+         * @param data JSON payload
+         * @return false if the subscriber is gone and should be dropped
+         */
+        boolean send(String event, String data);
+
+        /**
+         * Send a keep-alive so idle proxies keep the connection and dead clients are noticed
+         * @return false if the subscriber is gone and should be dropped
+         */
+        boolean ping();
+    }
+
+    private final Map<Integer, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final UsernameIndex usernameIndex;
+    private final QuizTitleCache quizTitleCache;
+
+    /**
+     * Create a hub that delivers on virtual threads
+     * @param usernameIndex Used to name message senders in payloads; may be null
+     * @param quizTitleCache Used to name challenge quizzes in payloads; may be null
+     */
+    public NotificationHub(UsernameIndex usernameIndex, QuizTitleCache quizTitleCache) {
+        this(Executors.newVirtualThreadPerTaskExecutor(), usernameIndex, quizTitleCache);
+    }
+
+    /**
+     * Create a hub with its own delivery executor
+     * @param executor Runs event deliveries
+     * @param usernameIndex Used to name message senders in payloads; may be null
+     * @param quizTitleCache Used to name challenge quizzes in payloads; may be null
+     */
+    public NotificationHub(ExecutorService executor, UsernameIndex usernameIndex, QuizTitleCache quizTitleCache) {
+        this.executor = executor;
+        this.usernameIndex = usernameIndex;
+        this.quizTitleCache = quizTitleCache;
+    }
+
+    // ========================= SUBSCRIPTIONS =========================
+
+    /**
+     * Register an open connection for a user
+     * @param userId The user ID
+     * @param subscriber The connection
+     */
+    public void subscribe(int userId, Subscriber subscriber) {
+        subscribers.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+    }
+
+    /**
+     * Remove a connection; the user's registry is dropped with its last connection
+     * @param userId The user ID
+     * @param subscriber The connection
+     */
+    public void unsubscribe(int userId, Subscriber subscriber) {
+        subscribers.computeIfPresent(userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Check whether a user has an open connection
+     * @param userId The user ID
+     * @return true if at least one subscriber is registered
+     */
+    public boolean isConnected(int userId) {
+        return subscribers.containsKey(userId);
+    }
+
+    /**
+     * Get the number of open connections over all users
+     * @return Subscriber count
+     */
+    public int getSubscriberCount() {
+        int count = 0;
+        for (Set<Subscriber> set : subscribers.values()) {
+            count += set.size();
+        }
+        return count;
+    }
+
+    // ========================= PUBLISHING =========================
+
+    /**
+     * Deliver an event to every connection of a user, asynchronously
+     * Users without connections cost one map lookup.
+     * @param userId The user ID
+     * @param event Event name
+     * @param data JSON payload
+     */
+    public void publish(int userId, String event, String data) {
+        Set<Subscriber> set = subscribers.get(userId);
+        if (set == null) {
+            return;
+        }
+        executor.execute(() -> {
+            for (Subscriber subscriber : set) {
+                if (!subscriber.send(event, data)) {
+                    unsubscribe(userId, subscriber);
+                }
+            }
+        });
+    }
+
+    /**
+     * Ping every connection and drop the ones that are gone
+     */
+    public void heartbeat() {
+        for (Map.Entry<Integer, Set<Subscriber>> entry : subscribers.entrySet()) {
+            for (Subscriber subscriber : entry.getValue()) {
+                if (!subscriber.ping()) {
+                    unsubscribe(entry.getKey(), subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop delivering events
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        subscribers.clear();
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onMessageCreated(Message message) {
+        int receiverId = message.getReceiverId();
+        if (!isConnected(receiverId)) {
+            return;
+        }
+        publish(receiverId, EVENT_MESSAGE, json(out ->
+                DtoJsonWriter.write(out, MessageDTO.fromMessage(message, publicUser(message.getSenderId()), null,
+                        challengeQuiz(message.getQuizId())))));
+    }
+
+    @Override
+    public void onFriendshipChanged(int userId1, int userId2, Friendship friendship) {
+        if (friendship == null || !Friendship.STATUS_ACCEPTED.equals(friendship.getStatus())) {
+            return;
+        }
+        publishAccepted(userId1, userId2, friendship);
+        publishAccepted(userId2, userId1, friendship);
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    private void publishAccepted(int userId, int friendId, Friendship friendship) {
+        if (!isConnected(userId)) {
+            return;
+        }
+        publish(userId, EVENT_FRIEND_ACCEPTED, json(out -> {
+            out.beginObject();
+            out.name("friendshipId").value(friendship.getFriendshipId());
+            out.name("friend");
+            DtoJsonWriter.write(out, publicUser(friendId));
+            out.endObject();
+        }));
+    }
+
+    // Only the public fields of a user; the username comes from the in-memory index
+    private UserDTO publicUser(int userId) {
+        String username = usernameIndex != null ? usernameIndex.getUsername(userId) : null;
+        return new UserDTO(userId, username, null, null, false);
+    }
+
+    // Only the ID and title of a challenged quiz; the title comes from the shared cache
+    private QuizDTO challengeQuiz(Integer quizId) {
+        if (quizId == null) {
+            return null;
+        }
+        String title = null;
+        if (quizTitleCache != null) {
+            try {
+                title = quizTitleCache.getTitle(quizId);
+            } catch (SQLException e) {
+                // Push without the title rather than not at all
+                e.printStackTrace();
+            }
+        }
+        return new QuizDTO(quizId, title, null, null, false, false, false, false, null);
+    }
+
+    private interface JsonBody {
+        void write(JsonWriter out) throws IOException;
+    }
+
+    private static String json(JsonBody body) {
+        StringWriter buffer = new StringWriter();
+        try (JsonWriter out = new JsonWriter(buffer)) {
+            body.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,263 @@
+package service;
+
+import dao.QuizAttemptDAO;
+import dao.UserDAO;
+import model.QuizAttempt;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory percentile ranks for quiz results
+ * Keeps a fixed-bucket score histogram and time histogram per quiz, updated as graded attempts are written,
+ * so "better than X%" and "faster than Y%" are a prefix sum over at most 101 buckets instead of a COUNT query.
+ * Updates and deletes only reload the histograms of the quizzes they touched, one indexed query each.
+ */
+public class PercentileService implements QuizAttemptDAO.AttemptListener, UserDAO.UserListener {
+
+    // One bucket per whole percentage point, 0..100
+    public static final int SCORE_BUCKETS = 101;
+    // Log-spaced time buckets; everything at or above MAX_TIME_SECONDS shares the last bucket
+    public static final int TIME_BUCKETS = 101;
+    public static final long MAX_TIME_SECONDS = 3L * 60 * 60;
+
+    private static final double TIME_BUCKETS_PER_LOG = (TIME_BUCKETS - 1) / Math.log1p(MAX_TIME_SECONDS);
+
+    private final QuizAttemptDAO quizAttemptDAO;
+    // Replaced as a whole by a full rebuild, so readers never see a half-built map
+    private volatile Map<Integer, Histogram> histograms = new ConcurrentHashMap<>();
+    // False after an untargeted change: quizzes missing from the map are loaded on use instead of treated as empty
+    private volatile boolean complete = true;
+    // Quizzes whose attempts were updated or deleted; each is reloaded on its next lookup
+    private final Set<Integer> staleQuizzes = ConcurrentHashMap.newKeySet();
+    // Attempts created while a quiz is being reloaded, replayed onto the reloaded histogram
+    private final Map<Integer, List<QuizAttempt>> pending = new ConcurrentHashMap<>();
+
+    public PercentileService(QuizAttemptDAO quizAttemptDAO) {
+        this.quizAttemptDAO = quizAttemptDAO;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Build all histograms with one streaming scan of the graded attempts
+     * Called at startup before the service listens for attempts. The new map replaces the old one only once the
+     * scan has succeeded.
+     * @throws SQLException If database error occurs
+     */
+    public synchronized void initialize() throws SQLException {
+        Map<Integer, Histogram> rebuilt = new ConcurrentHashMap<>();
+        quizAttemptDAO.forEachGradedAttempt(attempt ->
+                rebuilt.computeIfAbsent(attempt.getQuizId(), id -> new Histogram())
+                        .add(attempt.getScore(), attempt.getTimeTaken()));
+        histograms = rebuilt;
+        staleQuizzes.clear();
+        complete = true;
+    }
+
+    // ========================= EVENTS =========================
+
+    /**
+     * Count one graded attempt
+     * @param quizId The quiz ID
+     * @param score Score as a percentage
+     * @param timeTaken Time taken in seconds
+     */
+    public void recordAttempt(int quizId, double score, long timeTaken) {
+        if (complete) {
+            histograms.computeIfAbsent(quizId, id -> new Histogram()).add(score, timeTaken);
+        } else {
+            // A quiz that is not loaded yet will read this attempt from the database
+            Histogram histogram = histograms.get(quizId);
+            if (histogram != null) {
+                histogram.add(score, timeTaken);
+            }
+        }
+    }
+
+    @Override
+    public void onAttemptCreated(QuizAttempt attempt) {
+        if (attempt.isPractice()) {
+            return;
+        }
+        List<QuizAttempt> waiting = pending.get(attempt.getQuizId());
+        if (waiting != null) {
+            synchronized (waiting) {
+                // Still loading: the reload counts it once its own query is done
+                if (pending.get(attempt.getQuizId()) == waiting) {
+                    waiting.add(attempt);
+                    return;
+                }
+            }
+        }
+        recordAttempt(attempt.getQuizId(), attempt.getScore(), attempt.getTimeTaken());
+    }
+
+    @Override
+    public void onAttemptsChanged() {
+        // Order matters: readers must not take the empty map as complete
+        complete = false;
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void onAttemptsChanged(Set<Integer> quizIds, Set<Integer> userIds) {
+        staleQuizzes.addAll(quizIds);
+    }
+
+    @Override
+    public void onUserDeleted(UserDAO.DeletedUser deleted) {
+        // The user's attempts went with the account; their quizzes went with all of their attempts
+        staleQuizzes.addAll(deleted.getAttemptedQuizIds());
+        for (int quizId : deleted.getCreatedQuizIds()) {
+            staleQuizzes.remove(quizId);
+            histograms.remove(quizId);
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get the share of graded attempts on a quiz that scored lower than the given score
+     * @param quizId The quiz ID
+     * @param score Score as a percentage
+     * @return Whole percentage 0-100, or null if the quiz has no graded attempts yet
+     * @throws SQLException If the quiz's histogram had to be reloaded and the database failed
+     */
+    public Integer getScorePercentile(int quizId, double score) throws SQLException {
+        Histogram histogram = getHistogram(quizId);
+        return histogram == null ? null : histogram.scorePercentile(score);
+    }
+
+    /**
+     * Get the share of graded attempts on a quiz that took longer than the given time
+     * @param quizId The quiz ID
+     * @param timeTaken Time taken in seconds
+     * @return Whole percentage 0-100, or null if the quiz has no graded attempts yet
+     * @throws SQLException If the quiz's histogram had to be reloaded and the database failed
+     */
+    public Integer getTimePercentile(int quizId, long timeTaken) throws SQLException {
+        Histogram histogram = getHistogram(quizId);
+        return histogram == null ? null : histogram.timePercentile(timeTaken);
+    }
+
+    /**
+     * Get the number of graded attempts counted for a quiz
+     * @param quizId The quiz ID
+     * @return Number of graded attempts
+     * @throws SQLException If the quiz's histogram had to be reloaded and the database failed
+     */
+    public int getAttemptCount(int quizId) throws SQLException {
+        Histogram histogram = getHistogram(quizId);
+        return histogram == null ? 0 : histogram.total();
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    private Histogram getHistogram(int quizId) throws SQLException {
+        Histogram histogram = histograms.get(quizId);
+        if (staleQuizzes.contains(quizId) || (histogram == null && !complete)) {
+            histogram = reloadQuiz(quizId);
+        }
+        return histogram;
+    }
+
+    /**
+     * Rebuild one quiz's histogram from its graded attempts
+     * The stale mark is cleared first so a change during the load marks it again, and restored if the load fails.
+     * Attempts created during the load are replayed unless the load already read them.
+     */
+    private synchronized Histogram reloadQuiz(int quizId) throws SQLException {
+        staleQuizzes.remove(quizId);
+        Map<Integer, Histogram> target = histograms;
+        List<QuizAttempt> waiting = new ArrayList<>();
+        pending.put(quizId, waiting);
+        try {
+            Histogram rebuilt = new Histogram();
+            Set<Integer> loaded = new HashSet<>();
+            for (QuizAttempt attempt : quizAttemptDAO.getGradedAttemptsByQuiz(quizId)) {
+                rebuilt.add(attempt.getScore(), attempt.getTimeTaken());
+                loaded.add(attempt.getAttemptId());
+            }
+            synchronized (waiting) {
+                for (QuizAttempt attempt : waiting) {
+                    if (!loaded.contains(attempt.getAttemptId())) {
+                        rebuilt.add(attempt.getScore(), attempt.getTimeTaken());
+                    }
+                }
+                // An untargeted change during the load dropped every histogram; leave this one for the next lookup
+                if (histograms == target) {
+                    target.put(quizId, rebuilt);
+                }
+                pending.remove(quizId);
+            }
+            return rebuilt;
+        } catch (SQLException | RuntimeException e) {
+            synchronized (waiting) {
+                // Attempts that arrived meanwhile are in the database; the retry reads them
+                pending.remove(quizId);
+            }
+            staleQuizzes.add(quizId);
+            throw e;
+        }
+    }
+
+    static int scoreBucket(double score) {
+        return (int) Math.max(0, Math.min(SCORE_BUCKETS - 1, Math.floor(score)));
+    }
+
+    static int timeBucket(long timeTaken) {
+        if (timeTaken <= 0) {
+            return 0;
+        }
+        return (int) Math.min(TIME_BUCKETS - 1, Math.floor(Math.log1p(timeTaken) * TIME_BUCKETS_PER_LOG));
+    }
+
+    /**
+     * Score and time counts of one quiz
+     */
+    static final class Histogram {
+        private final int[] scores = new int[SCORE_BUCKETS];
+        private final int[] times = new int[TIME_BUCKETS];
+        private int total;
+
+        synchronized void add(double score, long timeTaken) {
+            scores[scoreBucket(score)]++;
+            times[timeBucket(timeTaken)]++;
+            total++;
+        }
+
+        synchronized int total() {
+            return total;
+        }
+
+        // Attempts in strictly lower score buckets
+        synchronized Integer scorePercentile(double score) {
+            if (total == 0) {
+                return null;
+            }
+            int below = 0;
+            for (int i = scoreBucket(score) - 1; i >= 0; i--) {
+                below += scores[i];
+            }
+            return below * 100 / total;
+        }
+
+        // Attempts in strictly higher (slower) time buckets
+        synchronized Integer timePercentile(long timeTaken) {
+            if (total == 0) {
+                return null;
+            }
+            int slower = 0;
+            for (int i = timeBucket(timeTaken) + 1; i < TIME_BUCKETS; i++) {
+                slower += times[i];
+            }
+            return slower * 100 / total;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package service;
+
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import dao.QuizPopularityDAO;
+import dao.UserDAO;
+import model.QuizAttempt;
+import model.QuizPopularity;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory quiz popularity ranking
+ * Keeps an exponentially decayed attempt score per quiz for two horizons ("popular" and "trending now"),
+ * updates it on every attempt and serves both rankings from a pre-sorted top-N list.
+ * Scores are snapshotted to the quiz_popularity table periodically so they survive restarts.
+ * Quizzes deleted directly or with their creator's account are dropped from both rankings.
+ */
+public class PopularityService implements QuizAttemptDAO.AttemptListener, QuizDAO.QuizListener, UserDAO.UserListener {
+
+    // Half-lives of the two rankings
+    public static final long POPULAR_HALF_LIFE_MILLIS = 7L * 24 * 60 * 60 * 1000;
+    public static final long TRENDING_HALF_LIFE_MILLIS = 6L * 60 * 60 * 1000;
+
+    // Number of quizzes kept in each pre-sorted ranking
+    public static final int DEFAULT_CAPACITY = 20;
+
+    private final QuizPopularityDAO popularityDAO;
+    private final DecayedRanking popular;
+    private final DecayedRanking trending;
+
+    public PopularityService(QuizPopularityDAO popularityDAO) {
+        this(popularityDAO, DEFAULT_CAPACITY, System.currentTimeMillis());
+    }
+
+    // Constructor with explicit capacity and decay landmark
+    public PopularityService(QuizPopularityDAO popularityDAO, int capacity, long now) {
+        this.popularityDAO = popularityDAO;
+        this.popular = new DecayedRanking(POPULAR_HALF_LIFE_MILLIS, capacity, now);
+        this.trending = new DecayedRanking(TRENDING_HALF_LIFE_MILLIS, capacity, now);
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Load the last snapshot, or seed the scores from quiz_attempts when no snapshot exists yet
+     * @throws SQLException If database error occurs
+     */
+    public void initialize() throws SQLException {
+        List<QuizPopularity> snapshot = popularityDAO.getAllPopularity();
+        if (snapshot.isEmpty()) {
+            snapshot = popularityDAO.computePopularityFromAttempts(popular.lambda * 1000, trending.lambda * 1000);
+        }
+        load(snapshot);
+    }
+
+    /**
+     * Write the current decayed scores to the quiz_popularity table
+     * @return Number of rows written
+     * @throws SQLException If database error occurs
+     */
+    public int saveSnapshot() throws SQLException {
+        return popularityDAO.savePopularity(snapshot(System.currentTimeMillis()));
+    }
+
+    /**
+     * Replace all scores with the given snapshot rows
+     * @param snapshot Popularity rows, each decayed to its own updatedAt time
+     */
+    public void load(List<QuizPopularity> snapshot) {
+        Map<Integer, double[]> popularScores = new HashMap<>();
+        Map<Integer, double[]> trendingScores = new HashMap<>();
+        for (QuizPopularity row : snapshot) {
+            long at = row.getUpdatedAt() != null ? row.getUpdatedAt().getTime() : System.currentTimeMillis();
+            popularScores.put(row.getQuizId(), new double[]{row.getPopularScore(), at});
+            trendingScores.put(row.getQuizId(), new double[]{row.getTrendingScore(), at});
+        }
+        popular.load(popularScores);
+        trending.load(trendingScores);
+    }
+
+    /**
+     * Build snapshot rows with all scores decayed to the given time
+     * @param now Snapshot time in epoch milliseconds
+     * @return Popularity rows for every tracked quiz
+     */
+    public List<QuizPopularity> snapshot(long now) {
+        Map<Integer, Double> popularScores = popular.decayedScores(now);
+        Map<Integer, Double> trendingScores = trending.decayedScores(now);
+        List<QuizPopularity> rows = new ArrayList<>();
+        Date updatedAt = new Date(now);
+        for (Map.Entry<Integer, Double> entry : popularScores.entrySet()) {
+            double trendingScore = trendingScores.getOrDefault(entry.getKey(), 0.0);
+            rows.add(new QuizPopularity(entry.getKey(), entry.getValue(), trendingScore, updatedAt));
+        }
+        return rows;
+    }
+
+    // ========================= EVENTS =========================
+
+    /**
+     * Count one attempt of a quiz at the given time
+     * @param quizId The attempted quiz
+     * @param timestamp Attempt time in epoch milliseconds
+     */
+    public void recordAttempt(int quizId, long timestamp) {
+        popular.record(quizId, timestamp);
+        trending.record(quizId, timestamp);
+    }
+
+    /**
+     * Stop tracking a quiz
+     * @param quizId The quiz ID
+     */
+    public void removeQuiz(int quizId) {
+        popular.remove(quizId);
+        trending.remove(quizId);
+    }
+
+    /**
+     * Drop all scores
+     */
+    public void clear() {
+        popular.load(new HashMap<>());
+        trending.load(new HashMap<>());
+    }
+
+    @Override
+    public void onAttemptCreated(QuizAttempt attempt) {
+        long timestamp = attempt.getDateTaken() != null ? attempt.getDateTaken().getTime() : System.currentTimeMillis();
+        recordAttempt(attempt.getQuizId(), timestamp);
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        removeQuiz(quizId);
+    }
+
+    @Override
+    public void onUserDeleted(UserDAO.DeletedUser deleted) {
+        for (int quizId : deleted.getCreatedQuizIds()) {
+            removeQuiz(quizId);
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get the most popular quizzes over the long horizon
+     * @param limit Maximum number of quiz IDs to return
+     * @return Quiz IDs ordered by decreasing popularity
+     */
+    public List<Integer> getPopularQuizIds(int limit) {
+        return getPopularQuizIds(limit, System.currentTimeMillis());
+    }
+
+    /**
+     * Get the most popular quizzes over the long horizon as of a given time
+     * @param limit Maximum number of quiz IDs to return
+     * @param now Evaluation time in epoch milliseconds
+     * @return Quiz IDs ordered by decreasing popularity
+     */
+    public List<Integer> getPopularQuizIds(int limit, long now) {
+        return popular.top(limit, now);
+    }
+
+    /**
+     * Get the quizzes trending right now
+     * @param limit Maximum number of quiz IDs to return
+     * @return Quiz IDs ordered by decreasing short-term popularity
+     */
+    public List<Integer> getTrendingQuizIds(int limit) {
+        return getTrendingQuizIds(limit, System.currentTimeMillis());
+    }
+
+    /**
+     * Get the quizzes trending as of a given time
+     * @param limit Maximum number of quiz IDs to return
+     * @param now Evaluation time in epoch milliseconds
+     * @return Quiz IDs ordered by decreasing short-term popularity
+     */
+    public List<Integer> getTrendingQuizIds(int limit, long now) {
+        return trending.top(limit, now);
+    }
+
+    /**
+     * Get the long-term decayed attempt score of a quiz
+     * @param quizId The quiz ID
+     * @param now Evaluation time in epoch milliseconds
+     * @return Decayed score, 0 if the quiz has no attempts
+     */
+    public double getPopularScore(int quizId, long now) {
+        return popular.score(quizId, now);
+    }
+
+    /**
+     * Get the short-term decayed attempt score of a quiz
+     * @param quizId The quiz ID
+     * @param now Evaluation time in epoch milliseconds
+     * @return Decayed score, 0 if the quiz has no attempts
+     */
+    public double getTrendingScore(int quizId, long now) {
+        return trending.score(quizId, now);
+    }
+
+    // ========================= RANKING =========================
+
+    /**
+     * Exponentially decayed counter per quiz with a pre-sorted top-N
+     * Uses forward decay: each event adds exp(lambda * (t - landmark)), so all weights share the same
+     * decay factor and their relative order only changes when an event arrives.
+     */
+    static final class DecayedRanking {
+        // Rebase the landmark before exp() gets close to overflowing
+        private static final double MAX_EXPONENT = 300;
+        // Quizzes whose decayed score fell below this are no longer listed
+        private static final double MIN_SCORE = 0.01;
+
+        private final double lambda; // decay rate per millisecond
+        private final int capacity;
+        private final Map<Integer, Double> weights = new HashMap<>();
+        private long landmark;
+        private int[] top = new int[0];
+
+        DecayedRanking(long halfLifeMillis, int capacity, long landmark) {
+            this.lambda = Math.log(2) / halfLifeMillis;
+            this.capacity = capacity;
+            this.landmark = landmark;
+        }
+
+        synchronized void record(int quizId, long timestamp) {
+            if (lambda * (timestamp - landmark) > MAX_EXPONENT) {
+                rebase(timestamp);
+            }
+            double weight = weights.merge(quizId, Math.exp(lambda * (timestamp - landmark)), Double::sum);
+            promote(quizId, weight);
+        }
+
+        synchronized void remove(int quizId) {
+            if (weights.remove(quizId) == null) {
+                return;
+            }
+            for (int id : top) {
+                if (id == quizId) {
+                    rebuildTop();
+                    return;
+                }
+            }
+        }
+
+        synchronized void load(Map<Integer, double[]> scores) {
+            weights.clear();
+            for (Map.Entry<Integer, double[]> entry : scores.entrySet()) {
+                double score = entry.getValue()[0];
+                long at = (long) entry.getValue()[1];
+                if (score > 0) {
+                    weights.put(entry.getKey(), score * Math.exp(lambda * (at - landmark)));
+                }
+            }
+            rebuildTop();
+        }
+
+        synchronized Map<Integer, Double> decayedScores(long now) {
+            double factor = Math.exp(-lambda * (now - landmark));
+            Map<Integer, Double> scores = new HashMap<>();
+            for (Map.Entry<Integer, Double> entry : weights.entrySet()) {
+                scores.put(entry.getKey(), entry.getValue() * factor);
+            }
+            return scores;
+        }
+
+        synchronized double score(int quizId, long now) {
+            Double weight = weights.get(quizId);
+            return weight == null ? 0 : weight * Math.exp(-lambda * (now - landmark));
+        }
+
+        synchronized List<Integer> top(int limit, long now) {
+            double factor = Math.exp(-lambda * (now - landmark));
+            List<Integer> ids = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && ids.size() < limit; i++) {
+                if (weights.get(top[i]) * factor < MIN_SCORE) {
+                    break; // the list is sorted, everything after is smaller
+                }
+                ids.add(top[i]);
+            }
+            return ids;
+        }
+
+        // Move the landmark forward; scaling every weight by the same factor keeps the order intact
+        private void rebase(long newLandmark) {
+            double factor = Math.exp(-lambda * (newLandmark - landmark));
+            weights.replaceAll((id, weight) -> weight * factor);
+            landmark = newLandmark;
+        }
+
+        // Re-insert a quiz whose weight just increased into the sorted top list
+        private void promote(int quizId, double weight) {
+            int[] current = top;
+            int[] next = new int[Math.min(capacity, current.length + 1)];
+            int n = 0;
+            boolean inserted = false;
+            for (int id : current) {
+                if (id == quizId) {
+                    continue;
+                }
+                if (!inserted && ranksBefore(quizId, weight, id, weights.get(id))) {
+                    if (n < next.length) next[n++] = quizId;
+                    inserted = true;
+                }
+                if (n < next.length) next[n++] = id;
+            }
+            if (!inserted && n < next.length) {
+                next[n++] = quizId;
+            }
+            top = n == next.length ? next : Arrays.copyOf(next, n);
+        }
+
+        private void rebuildTop() {
+            top = weights.entrySet().stream()
+                .sorted((a, b) -> a.getKey().equals(b.getKey()) ? 0
+                        : ranksBefore(a.getKey(), a.getValue(), b.getKey(), b.getValue()) ? -1 : 1)
+                .limit(capacity)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+        }
+
+        // Higher weight first; on ties the newer (higher ID) quiz wins
+        private static boolean ranksBefore(int idA, double weightA, int idB, double weightB) {
+            if (weightA != weightB) {
+                return weightA > weightB;
+            }
+            return idA > idB;
+        }
+    }
+}
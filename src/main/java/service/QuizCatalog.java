@@ -0,0 +1,711 @@
+package service;
+
+import dao.QuestionDAO;
+import dao.QuizDAO;
+import dao.UserDAO;
+import model.Question;
+import model.Quiz;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Faceted, in-memory quiz catalog
+ * Every quiz gets a dense ordinal, and each facet value keeps a bitmap of the ordinals that have it. A filter is
+ * a handful of word-wise ANDs and ORs over those bitmaps, facet counts are cardinalities of the same operations,
+ * and paging walks a presorted ordinal order. Quiz and question writes update the bitmaps in place, and quizzes
+ * deleted along with their creator's account are dropped the same way.
+ */
+public class QuizCatalog implements QuizDAO.QuizListener, QuestionDAO.QuestionListener, UserDAO.UserListener {
+
+    public static final String FACET_PRACTICE = "practice";
+    public static final String FACET_ONE_PAGE = "onePage";
+    public static final String FACET_IMMEDIATE_CORRECTION = "immediateCorrection";
+    public static final String FACET_CREATOR = "creator";
+    public static final String FACET_TYPE = "type";
+    public static final String FACET_QUESTIONS = "questions";
+
+    public static final String SORT_NEWEST = "newest";
+    public static final String SORT_OLDEST = "oldest";
+    public static final String SORT_TITLE = "title";
+    public static final String SORT_QUESTIONS = "questions";
+
+    // Question count ranges offered as facet values, inclusive
+    private static final String[] SIZE_LABELS = {"0", "1-5", "6-10", "11-20", "21+"};
+    private static final int[][] SIZE_RANGES = {{0, 0}, {1, 5}, {6, 10}, {11, 20}, {21, Integer.MAX_VALUE}};
+
+    // Creators listed in the facet counts, busiest first
+    private static final int MAX_CREATOR_VALUES = 10;
+
+    private final QuizDAO quizDAO;
+    private final QuestionDAO questionDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ordinal assignment; ordinals of deleted quizzes are not reused until the next rebuild
+    private final Map<Integer, Integer> ordinals = new HashMap<>();
+    private final List<Quiz> quizzes = new ArrayList<>();
+    private final List<Map<Integer, String>> questionTypes = new ArrayList<>();
+    private final Map<Integer, Integer> questionQuizzes = new HashMap<>();
+
+    private final BitSet live = new BitSet();
+    private final BitSet practice = new BitSet();
+    private final BitSet onePage = new BitSet();
+    private final BitSet immediateCorrection = new BitSet();
+    private final Map<Integer, BitSet> creators = new HashMap<>();
+    private final Map<String, BitSet> types = new TreeMap<>();
+    private final BitSet[] sizes = new BitSet[SIZE_RANGES.length];
+
+    // Presorted live ordinals per sort key, rebuilt lazily after writes
+    private final Map<String, int[]> orders = new ConcurrentHashMap<>();
+    // Set when an incremental update failed; the catalog is rebuilt on next use
+    private volatile boolean stale;
+
+    public QuizCatalog(QuizDAO quizDAO, QuestionDAO questionDAO) {
+        this.quizDAO = quizDAO;
+        this.questionDAO = questionDAO;
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = new BitSet();
+        }
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Build the catalog from every quiz and question
+     * @throws SQLException If database error occurs
+     */
+    public void initialize() throws SQLException {
+        List<Quiz> allQuizzes = quizDAO.getAllQuizzes();
+        List<Question> allQuestions = questionDAO.getAllQuestions();
+
+        lock.writeLock().lock();
+        try {
+            stale = false;
+            ordinals.clear();
+            quizzes.clear();
+            questionTypes.clear();
+            questionQuizzes.clear();
+            live.clear();
+            practice.clear();
+            onePage.clear();
+            immediateCorrection.clear();
+            creators.clear();
+            types.clear();
+            for (BitSet size : sizes) {
+                size.clear();
+            }
+            orders.clear();
+            for (Quiz quiz : allQuizzes) {
+                addQuiz(quiz);
+            }
+            for (Question question : allQuestions) {
+                Integer ordinal = ordinals.get(question.getQuizId());
+                if (ordinal != null) {
+                    questionTypes.get(ordinal).put(question.getQuestionId(), question.getQuestionType());
+                    questionQuizzes.put(question.getQuestionId(), question.getQuizId());
+                }
+            }
+            for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+                refreshQuestionFacets(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Filter, count and page the catalog
+     * Facets are combined with AND; several creators are combined with OR, and several question types with OR or
+     * AND depending on the query.
+     * @param query The filters, sort order and page
+     * @return The requested page with the total match count and per-facet counts
+     * @throws SQLException If the catalog had to be rebuilt and the database failed
+     */
+    public Page query(Query query) throws SQLException {
+        refreshIfStale();
+        lock.readLock().lock();
+        try {
+            Map<String, BitSet> filters = new LinkedHashMap<>();
+            if (query.practice != null) {
+                filters.put(FACET_PRACTICE, flagFilter(practice, query.practice));
+            }
+            if (query.onePage != null) {
+                filters.put(FACET_ONE_PAGE, flagFilter(onePage, query.onePage));
+            }
+            if (query.immediateCorrection != null) {
+                filters.put(FACET_IMMEDIATE_CORRECTION, flagFilter(immediateCorrection, query.immediateCorrection));
+            }
+            if (!query.creatorIds.isEmpty()) {
+                BitSet filter = new BitSet();
+                for (Integer creatorId : query.creatorIds) {
+                    BitSet bits = creators.get(creatorId);
+                    if (bits != null) {
+                        filter.or(bits);
+                    }
+                }
+                filters.put(FACET_CREATOR, filter);
+            }
+            if (!query.types.isEmpty()) {
+                filters.put(FACET_TYPE, typeFilter(query.types, query.allTypes));
+            }
+            if (query.minQuestions != null || query.maxQuestions != null) {
+                filters.put(FACET_QUESTIONS, sizeFilter(query.minQuestions, query.maxQuestions));
+            }
+
+            BitSet matches = (BitSet) live.clone();
+            for (BitSet filter : filters.values()) {
+                matches.and(filter);
+            }
+
+            List<Quiz> page = new ArrayList<>();
+            int skipped = 0;
+            for (int ordinal : order(query.sort)) {
+                if (page.size() >= query.limit) {
+                    break;
+                }
+                if (matches.get(ordinal)) {
+                    if (skipped < query.offset) {
+                        skipped++;
+                    } else {
+                        page.add(quizzes.get(ordinal));
+                    }
+                }
+            }
+            return new Page(page, matches.cardinality(), query.offset, query.limit, facetCounts(filters));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the question count of a catalogued quiz
+     * @param quizId The quiz ID
+     * @return Number of questions, or 0 if the quiz is unknown
+     */
+    public int getQuestionCount(int quizId) {
+        lock.readLock().lock();
+        try {
+            Integer ordinal = ordinals.get(quizId);
+            return ordinal == null ? 0 : questionTypes.get(ordinal).size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of catalogued quizzes
+     * @return Number of quizzes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onQuizCreated(Quiz quiz) {
+        lock.writeLock().lock();
+        try {
+            int ordinal = addQuiz(quiz);
+            refreshQuestionFacets(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onQuizUpdated(int quizId) {
+        try {
+            Quiz quiz = quizDAO.findById(quizId);
+            lock.writeLock().lock();
+            try {
+                Integer ordinal = ordinals.get(quizId);
+                if (ordinal == null || quiz == null) {
+                    return;
+                }
+                clearQuizFacets(ordinal);
+                setQuizFacets(ordinal, quiz);
+                orders.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        lock.writeLock().lock();
+        try {
+            removeQuiz(quizId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUserDeleted(UserDAO.DeletedUser deleted) {
+        lock.writeLock().lock();
+        try {
+            deleted.getCreatedQuizIds().forEach(this::removeQuiz);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeQuiz(int quizId) {
+        Integer ordinal = ordinals.remove(quizId);
+        if (ordinal == null) {
+            return;
+        }
+        clearQuizFacets(ordinal);
+        clearQuestionFacets(ordinal);
+        // Questions go with their quiz through ON DELETE CASCADE
+        questionTypes.get(ordinal).keySet().forEach(questionQuizzes::remove);
+        questionTypes.get(ordinal).clear();
+        quizzes.set(ordinal, null);
+        live.clear(ordinal);
+        orders.clear();
+    }
+
+    @Override
+    public void onQuestionCreated(Question question) {
+        lock.writeLock().lock();
+        try {
+            putQuestion(question);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onQuestionUpdated(int questionId) {
+        try {
+            Question question = questionDAO.findById(questionId);
+            lock.writeLock().lock();
+            try {
+                removeQuestion(questionId);
+                if (question != null) {
+                    putQuestion(question);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(int questionId, int quizId) {
+        lock.writeLock().lock();
+        try {
+            removeQuestion(questionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    private void refreshIfStale() throws SQLException {
+        if (stale) {
+            initialize();
+        }
+    }
+
+    // Caller holds the write lock
+    private int addQuiz(Quiz quiz) {
+        Integer existing = ordinals.get(quiz.getQuizId());
+        if (existing != null) {
+            clearQuizFacets(existing);
+            setQuizFacets(existing, quiz);
+            orders.clear();
+            return existing;
+        }
+        int ordinal = quizzes.size();
+        ordinals.put(quiz.getQuizId(), ordinal);
+        quizzes.add(quiz);
+        questionTypes.add(new HashMap<>());
+        live.set(ordinal);
+        setQuizFacets(ordinal, quiz);
+        orders.clear();
+        return ordinal;
+    }
+
+    // Caller holds the write lock
+    private void setQuizFacets(int ordinal, Quiz quiz) {
+        quizzes.set(ordinal, quiz);
+        practice.set(ordinal, quiz.isPracticeMode());
+        onePage.set(ordinal, quiz.isOnePage());
+        immediateCorrection.set(ordinal, quiz.isImmediateCorrection());
+        creators.computeIfAbsent(quiz.getCreatorId(), id -> new BitSet()).set(ordinal);
+    }
+
+    // Caller holds the write lock
+    private void clearQuizFacets(int ordinal) {
+        Quiz quiz = quizzes.get(ordinal);
+        practice.clear(ordinal);
+        onePage.clear(ordinal);
+        immediateCorrection.clear(ordinal);
+        if (quiz != null) {
+            BitSet bits = creators.get(quiz.getCreatorId());
+            if (bits != null) {
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    creators.remove(quiz.getCreatorId());
+                }
+            }
+        }
+    }
+
+    // Caller holds the write lock
+    private void putQuestion(Question question) {
+        Integer ordinal = ordinals.get(question.getQuizId());
+        if (ordinal == null) {
+            return;
+        }
+        questionTypes.get(ordinal).put(question.getQuestionId(), question.getQuestionType());
+        questionQuizzes.put(question.getQuestionId(), question.getQuizId());
+        refreshQuestionFacets(ordinal);
+    }
+
+    // Caller holds the write lock
+    private void removeQuestion(int questionId) {
+        Integer quizId = questionQuizzes.remove(questionId);
+        Integer ordinal = quizId == null ? null : ordinals.get(quizId);
+        if (ordinal != null) {
+            questionTypes.get(ordinal).remove(questionId);
+            refreshQuestionFacets(ordinal);
+        }
+    }
+
+    // Caller holds the write lock; recomputes the type and size bits of one quiz from its question map
+    private void refreshQuestionFacets(int ordinal) {
+        clearQuestionFacets(ordinal);
+        Map<Integer, String> questions = questionTypes.get(ordinal);
+        for (String type : new HashSet<>(questions.values())) {
+            if (type != null) {
+                types.computeIfAbsent(type, t -> new BitSet()).set(ordinal);
+            }
+        }
+        sizes[sizeBucket(questions.size())].set(ordinal);
+        orders.remove(SORT_QUESTIONS);
+    }
+
+    // Caller holds the write lock
+    private void clearQuestionFacets(int ordinal) {
+        types.values().removeIf(bits -> {
+            bits.clear(ordinal);
+            return bits.isEmpty();
+        });
+        for (BitSet size : sizes) {
+            size.clear(ordinal);
+        }
+    }
+
+    private static int sizeBucket(int questionCount) {
+        for (int i = 0; i < SIZE_RANGES.length; i++) {
+            if (questionCount >= SIZE_RANGES[i][0] && questionCount <= SIZE_RANGES[i][1]) {
+                return i;
+            }
+        }
+        return SIZE_RANGES.length - 1;
+    }
+
+    // Caller holds a lock
+    private BitSet flagFilter(BitSet flag, boolean value) {
+        BitSet filter = (BitSet) flag.clone();
+        if (!value) {
+            filter.flip(0, Math.max(live.length(), flag.length()));
+        }
+        return filter;
+    }
+
+    // Caller holds a lock
+    private BitSet typeFilter(Set<String> wanted, boolean all) {
+        BitSet filter = all ? (BitSet) live.clone() : new BitSet();
+        for (String type : wanted) {
+            BitSet bits = types.getOrDefault(type, new BitSet());
+            if (all) {
+                filter.and(bits);
+            } else {
+                filter.or(bits);
+            }
+        }
+        return filter;
+    }
+
+    // Caller holds a lock; buckets fully inside the range are ORed whole, the rest are checked per quiz
+    private BitSet sizeFilter(Integer min, Integer max) {
+        int low = min == null ? 0 : min;
+        int high = max == null ? Integer.MAX_VALUE : max;
+        BitSet filter = new BitSet();
+        for (int i = 0; i < SIZE_RANGES.length; i++) {
+            if (SIZE_RANGES[i][1] < low || SIZE_RANGES[i][0] > high) {
+                continue;
+            }
+            if (SIZE_RANGES[i][0] >= low && SIZE_RANGES[i][1] <= high) {
+                filter.or(sizes[i]);
+                continue;
+            }
+            BitSet bucket = sizes[i];
+            for (int ordinal = bucket.nextSetBit(0); ordinal >= 0; ordinal = bucket.nextSetBit(ordinal + 1)) {
+                int count = questionTypes.get(ordinal).size();
+                if (count >= low && count <= high) {
+                    filter.set(ordinal);
+                }
+            }
+        }
+        return filter;
+    }
+
+    // Caller holds a lock; each facet is counted under every filter except its own
+    private Map<String, Map<String, Integer>> facetCounts(Map<String, BitSet> filters) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+
+        counts.put(FACET_PRACTICE, flagCounts(practice, base(filters, FACET_PRACTICE)));
+        counts.put(FACET_ONE_PAGE, flagCounts(onePage, base(filters, FACET_ONE_PAGE)));
+        counts.put(FACET_IMMEDIATE_CORRECTION,
+                flagCounts(immediateCorrection, base(filters, FACET_IMMEDIATE_CORRECTION)));
+
+        BitSet typeBase = base(filters, FACET_TYPE);
+        Map<String, Integer> typeCounts = new LinkedHashMap<>();
+        for (Map.Entry<String, BitSet> entry : types.entrySet()) {
+            typeCounts.put(entry.getKey(), intersectionSize(typeBase, entry.getValue()));
+        }
+        counts.put(FACET_TYPE, typeCounts);
+
+        BitSet sizeBase = base(filters, FACET_QUESTIONS);
+        Map<String, Integer> sizeCounts = new LinkedHashMap<>();
+        for (int i = 0; i < SIZE_LABELS.length; i++) {
+            sizeCounts.put(SIZE_LABELS[i], intersectionSize(sizeBase, sizes[i]));
+        }
+        counts.put(FACET_QUESTIONS, sizeCounts);
+
+        BitSet creatorBase = base(filters, FACET_CREATOR);
+        List<Map.Entry<Integer, Integer>> creatorCounts = new ArrayList<>();
+        for (Map.Entry<Integer, BitSet> entry : creators.entrySet()) {
+            int count = intersectionSize(creatorBase, entry.getValue());
+            if (count > 0) {
+                creatorCounts.add(Map.entry(entry.getKey(), count));
+            }
+        }
+        creatorCounts.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> topCreators = new LinkedHashMap<>();
+        for (int i = 0; i < creatorCounts.size() && i < MAX_CREATOR_VALUES; i++) {
+            topCreators.put(String.valueOf(creatorCounts.get(i).getKey()), creatorCounts.get(i).getValue());
+        }
+        counts.put(FACET_CREATOR, topCreators);
+        return counts;
+    }
+
+    private BitSet base(Map<String, BitSet> filters, String excluded) {
+        BitSet base = (BitSet) live.clone();
+        for (Map.Entry<String, BitSet> entry : filters.entrySet()) {
+            if (!entry.getKey().equals(excluded)) {
+                base.and(entry.getValue());
+            }
+        }
+        return base;
+    }
+
+    private static Map<String, Integer> flagCounts(BitSet flag, BitSet base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        int yes = intersectionSize(base, flag);
+        counts.put("yes", yes);
+        counts.put("no", base.cardinality() - yes);
+        return counts;
+    }
+
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet both = (BitSet) a.clone();
+        both.and(b);
+        return both.cardinality();
+    }
+
+    // Caller holds a lock; concurrent readers may both build the same order, which is harmless
+    private int[] order(String sort) {
+        String key = sort == null ? SORT_NEWEST : sort;
+        int[] order = orders.get(key);
+        if (order != null) {
+            return order;
+        }
+        Comparator<Integer> comparator;
+        switch (key) {
+            case SORT_OLDEST:
+                comparator = Comparator.comparing((Integer o) -> createdTime(quizzes.get(o)));
+                break;
+            case SORT_TITLE:
+                comparator = Comparator.comparing((Integer o) -> titleKey(quizzes.get(o)));
+                break;
+            case SORT_QUESTIONS:
+                comparator = Comparator.comparing((Integer o) -> questionTypes.get(o).size()).reversed();
+                break;
+            default:
+                key = SORT_NEWEST;
+                comparator = Comparator.comparing((Integer o) -> createdTime(quizzes.get(o))).reversed();
+                break;
+        }
+        List<Integer> ordered = new ArrayList<>(live.cardinality());
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            ordered.add(ordinal);
+        }
+        ordered.sort(comparator.thenComparing(o -> quizzes.get(o).getQuizId()));
+        order = ordered.stream().mapToInt(Integer::intValue).toArray();
+        orders.put(key, order);
+        return order;
+    }
+
+    private static long createdTime(Quiz quiz) {
+        return quiz.getCreatedDate() == null ? 0L : quiz.getCreatedDate().getTime();
+    }
+
+    private static String titleKey(Quiz quiz) {
+        return quiz.getTitle() == null ? "" : quiz.getTitle().toLowerCase();
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    /**
+     * Catalog filters, sort order and page; unset filters match everything
+     */
+    public static final class Query {
+        private Boolean practice;
+        private Boolean onePage;
+        private Boolean immediateCorrection;
+        private final Set<Integer> creatorIds = new HashSet<>();
+        private final Set<String> types = new HashSet<>();
+        private boolean allTypes;
+        private Integer minQuestions;
+        private Integer maxQuestions;
+        private String sort = SORT_NEWEST;
+        private int offset;
+        private int limit = 20;
+
+        public Query practice(Boolean practice) {
+            this.practice = practice;
+            return this;
+        }
+
+        public Query onePage(Boolean onePage) {
+            this.onePage = onePage;
+            return this;
+        }
+
+        public Query immediateCorrection(Boolean immediateCorrection) {
+            this.immediateCorrection = immediateCorrection;
+            return this;
+        }
+
+        public Query creator(int creatorId) {
+            creatorIds.add(creatorId);
+            return this;
+        }
+
+        public Query type(String type) {
+            types.add(type);
+            return this;
+        }
+
+        /**
+         * Require every selected question type instead of any of them
+         */
+        public Query allTypes(boolean allTypes) {
+            this.allTypes = allTypes;
+            return this;
+        }
+
+        public Query questions(Integer min, Integer max) {
+            this.minQuestions = min;
+            this.maxQuestions = max;
+            return this;
+        }
+
+        public Query sort(String sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public Query page(int offset, int limit) {
+            this.offset = Math.max(0, offset);
+            this.limit = Math.max(0, limit);
+            return this;
+        }
+    }
+
+    /**
+     * One page of catalog results
+     */
+    public static final class Page {
+        private final List<Quiz> quizzes;
+        private final int total;
+        private final int offset;
+        private final int limit;
+        private final Map<String, Map<String, Integer>> facets;
+
+        Page(List<Quiz> quizzes, int total, int offset, int limit, Map<String, Map<String, Integer>> facets) {
+            this.quizzes = quizzes;
+            this.total = total;
+            this.offset = offset;
+            this.limit = limit;
+            this.facets = facets;
+        }
+
+        public List<Quiz> getQuizzes() {
+            return quizzes;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getOffset() {
+            return offset;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public boolean hasNext() {
+            return offset + quizzes.size() < total;
+        }
+
+        public boolean hasPrevious() {
+            return offset > 0;
+        }
+
+        /**
+         * Count per facet value under all other active filters
+         * @return Facet name to value to count; creator values are user IDs
+         */
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+    }
+}
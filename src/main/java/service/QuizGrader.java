@@ -0,0 +1,107 @@
+package service;
+
+import dao.AchievementDAO;
+import dao.QuizAttemptDAO;
+import model.Achievement;
+import model.Question;
+import model.QuizAttempt;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Grades quiz answers and records finished attempts
+ * Shared by the HTML quiz flow and the JSON API so both grade, save and award achievements the same way.
+ */
+public class QuizGrader {
+
+    private final QuizAttemptDAO quizAttemptDAO;
+    private final AchievementDAO achievementDAO;
+
+    public QuizGrader(QuizAttemptDAO quizAttemptDAO, AchievementDAO achievementDAO) {
+        this.quizAttemptDAO = quizAttemptDAO;
+        this.achievementDAO = achievementDAO;
+    }
+
+    // ========================= GRADING =========================
+
+    /**
+     * Check an answer against a question's comma-separated correct answers, ignoring case and outer whitespace
+     * @param question The question
+     * @param answer The submitted answer, may be null
+     * @return true if the answer matches any correct answer
+     */
+    public static boolean isCorrect(Question question, String answer) {
+        if (answer == null || question.getCorrectAnswer() == null) {
+            return false;
+        }
+        for (String correctAnswer : question.getCorrectAnswer().split(",")) {
+            if (answer.trim().equalsIgnoreCase(correctAnswer.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Count correct answers given in question order
+     * @param questions The questions
+     * @param answers Answers by question index; missing or null answers are wrong
+     * @return Number of correct answers
+     */
+    public static int countCorrect(List<Question> questions, List<String> answers) {
+        int correct = 0;
+        for (int i = 0; i < questions.size(); i++) {
+            String answer = answers != null && i < answers.size() ? answers.get(i) : null;
+            if (isCorrect(questions.get(i), answer)) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    /**
+     * Score as a percentage of correct answers
+     * @param correct Number of correct answers
+     * @param totalQuestions Number of questions
+     * @return Score from 0 to 100
+     */
+    public static double score(int correct, int totalQuestions) {
+        return totalQuestions == 0 ? 0.0 : (double) correct / totalQuestions * 100.0;
+    }
+
+    // ========================= RECORDING =========================
+
+    /**
+     * Save a finished attempt and award the achievements it earns
+     * Practice attempts earn PRACTICE_MAKES_PERFECT; graded attempts count toward QUIZ_MACHINE and
+     * earn I_AM_THE_GREATEST when they top the quiz.
+     * @param userId The user ID
+     * @param quizId The quiz ID
+     * @param score Score from 0 to 100
+     * @param totalQuestions Number of questions
+     * @param timeTaken Time taken in seconds
+     * @param practice Whether the attempt was taken in practice mode
+     * @return The saved attempt
+     * @throws SQLException If database error occurs
+     */
+    public QuizAttempt recordAttempt(int userId, int quizId, double score, int totalQuestions, long timeTaken,
+                                     boolean practice) throws SQLException {
+        if (practice) {
+            QuizAttempt attempt = quizAttemptDAO.createPracticeAttempt(userId, quizId, score, totalQuestions, timeTaken);
+            achievementDAO.awardAchievement(userId, Achievement.PRACTICE_MAKES_PERFECT);
+            return attempt;
+        }
+        QuizAttempt attempt = quizAttemptDAO.createSimpleAttempt(userId, quizId, score, totalQuestions, timeTaken);
+        int nonPracticeAttempts = quizAttemptDAO.getAttemptCountByUser(userId)
+                - quizAttemptDAO.getPracticeAttemptCountByUser(userId);
+        if (nonPracticeAttempts >= 10) {
+            achievementDAO.awardAchievement(userId, Achievement.QUIZ_MACHINE);
+        }
+        List<QuizAttempt> topAttempts = quizAttemptDAO.getTopScoresForQuiz(quizId, 1, false);
+        if (!topAttempts.isEmpty() && topAttempts.get(0).getUserId() == userId) {
+            achievementDAO.awardAchievement(userId, Achievement.I_AM_THE_GREATEST);
+        }
+        return attempt;
+    }
+}
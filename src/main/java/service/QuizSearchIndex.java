@@ -0,0 +1,637 @@
+package service;
+
+import dao.QuestionDAO;
+import dao.QuizDAO;
+import dao.UserDAO;
+import model.Question;
+import model.Quiz;
+import util.TextAnalyzer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index for quiz search
+ * Indexes quiz titles, descriptions and question text with field weights and ranks matches with BM25.
+ * The last query word also matches as a prefix, so partial input finds results while typing.
+ * The index follows quiz and question writes, including quizzes deleted with their creator's account, and can be saved to a compact segment file for fast restarts.
+ * A segment is only trusted if the quiz and question counts and content checksums it was saved with still match.
+ */
+public class QuizSearchIndex implements QuizDAO.QuizListener, QuestionDAO.QuestionListener, UserDAO.UserListener {
+
+    // Term frequency multipliers per field
+    static final float TITLE_WEIGHT = 3.0f;
+    static final float DESCRIPTION_WEIGHT = 1.5f;
+    static final float QUESTION_WEIGHT = 1.0f;
+
+    // BM25 parameters
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // Prefix matches count less than exact ones and are limited to keep short prefixes cheap
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int SEGMENT_MAGIC = 0x51534732; // "QSG2"
+
+    private final QuizDAO quizDAO;
+    private final QuestionDAO questionDAO;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Term dictionary, sorted for prefix lookups
+    private final TreeMap<String, PostingList> postings = new TreeMap<>();
+    // Forward index so a quiz can be removed or extended without re-reading it
+    private final Map<Integer, Document> documents = new HashMap<>();
+    // Owning quiz of each indexed question
+    private final Map<Integer, Integer> questionQuizzes = new HashMap<>();
+    private double totalLength;
+    // Set when an incremental update failed; the index is rebuilt on next use
+    private volatile boolean stale;
+    private volatile boolean dirty;
+
+    public QuizSearchIndex(QuizDAO quizDAO, QuestionDAO questionDAO) {
+        this.quizDAO = quizDAO;
+        this.questionDAO = questionDAO;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Load the index from a segment file, or build it from the database if the file is missing or out of date
+     * @param segment Segment file location
+     * @throws SQLException If database error occurs
+     */
+    public void initialize(Path segment) throws SQLException {
+        try {
+            if (Files.exists(segment) && load(segment, Watermark.read(quizDAO, questionDAO))) {
+                return;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        rebuild();
+        save(segment);
+    }
+
+    /**
+     * Re-index every quiz with one query for quizzes and one for questions
+     * @throws SQLException If database error occurs
+     */
+    public void rebuild() throws SQLException {
+        List<Quiz> quizzes = quizDAO.getAllQuizzes();
+        Map<Integer, List<Question>> questionsByQuiz = new HashMap<>();
+        for (Question question : questionDAO.getAllQuestions()) {
+            questionsByQuiz.computeIfAbsent(question.getQuizId(), id -> new ArrayList<>()).add(question);
+        }
+        lock.writeLock().lock();
+        try {
+            stale = false;
+            postings.clear();
+            documents.clear();
+            questionQuizzes.clear();
+            totalLength = 0;
+            for (Quiz quiz : quizzes) {
+                indexQuiz(quiz, questionsByQuiz.getOrDefault(quiz.getQuizId(), new ArrayList<>()));
+            }
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write the index to a segment file if it changed since the last save
+     * The file is written next to the target and moved into place, so a crash never leaves a torn segment.
+     * @param segment Segment file location
+     * @return true if a segment was written
+     */
+    public boolean save(Path segment) {
+        if (!dirty) {
+            return false;
+        }
+        try {
+            // Read before the index so a write in between makes the segment look stale rather than current
+            Watermark watermark = Watermark.read(quizDAO, questionDAO);
+            Path parent = segment.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "search", ".tmp");
+            lock.readLock().lock();
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                dirty = false;
+                writeSegment(out, watermark);
+            } finally {
+                lock.readLock().unlock();
+            }
+            Files.move(temp, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+            dirty = true;
+            return false;
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Find quizzes matching a free-text query
+     * @param query Words to look for; the last word also matches as a prefix
+     * @param limit Maximum number of results
+     * @return Quiz IDs, best match first
+     * @throws SQLException If the index had to be rebuilt and the database failed
+     */
+    public List<Integer> search(String query, int limit) throws SQLException {
+        if (stale) {
+            rebuild();
+        }
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        List<Integer> result = new ArrayList<>();
+        if (tokens.isEmpty() || limit <= 0) {
+            return result;
+        }
+        boolean prefixLast = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return result;
+            }
+            float averageLength = (float) (totalLength / documents.size());
+            Map<Integer, float[]> scores = new HashMap<>();
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                boolean prefix = prefixLast && i == tokens.size() - 1 && token.length() >= MIN_PREFIX_LENGTH;
+                if (TextAnalyzer.isStopWord(token) && !prefix) {
+                    continue;
+                }
+                String term = TextAnalyzer.stem(token);
+                PostingList exact = postings.get(term);
+                if (exact != null) {
+                    accumulate(exact, 1.0f, averageLength, scores);
+                }
+                if (prefix) {
+                    int expansions = 0;
+                    for (Map.Entry<String, PostingList> entry : prefixRange(term).entrySet()) {
+                        if (!entry.getKey().equals(term)) {
+                            accumulate(entry.getValue(), PREFIX_WEIGHT, averageLength, scores);
+                            if (++expansions == MAX_PREFIX_EXPANSIONS) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+            return topK(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of indexed quizzes
+     * @return Number of quizzes
+     */
+    public int getDocumentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onQuizCreated(Quiz quiz) {
+        update(() -> indexQuiz(quiz, new ArrayList<>()));
+    }
+
+    @Override
+    public void onQuizUpdated(int quizId) {
+        reindexQuiz(quizId);
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        update(() -> removeQuiz(quizId));
+    }
+
+    @Override
+    public void onUserDeleted(UserDAO.DeletedUser deleted) {
+        update(() -> deleted.getCreatedQuizIds().forEach(this::removeQuiz));
+    }
+
+    @Override
+    public void onQuestionCreated(Question question) {
+        // Question text only adds terms, so the quiz does not need to be re-read
+        update(() -> {
+            Document document = documents.get(question.getQuizId());
+            if (document == null) {
+                return;
+            }
+            Map<String, Float> weights = document.weights();
+            addTerms(weights, question.getQuestionText(), QUESTION_WEIGHT);
+            removeQuiz(question.getQuizId());
+            putDocument(question.getQuizId(), weights);
+            List<Integer> questionIds = new ArrayList<>(document.questionIds);
+            questionIds.add(question.getQuestionId());
+            setQuestions(question.getQuizId(), questionIds);
+        });
+    }
+
+    @Override
+    public void onQuestionUpdated(int questionId) {
+        Integer previousQuizId;
+        lock.readLock().lock();
+        try {
+            previousQuizId = questionQuizzes.get(questionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        try {
+            Question question = questionDAO.findById(questionId);
+            if (question != null) {
+                reindexQuiz(question.getQuizId());
+            }
+            if (previousQuizId != null && (question == null || previousQuizId != question.getQuizId())) {
+                reindexQuiz(previousQuizId);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    @Override
+    public void onQuestionDeleted(int questionId, int quizId) {
+        reindexQuiz(quizId);
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    // Re-read one quiz and its questions and replace its postings
+    private void reindexQuiz(int quizId) {
+        try {
+            Quiz quiz = quizDAO.findById(quizId);
+            List<Question> questions = quiz != null ? questionDAO.getQuestionsByQuizId(quizId) : new ArrayList<>();
+            update(() -> {
+                removeQuiz(quizId);
+                if (quiz != null) {
+                    indexQuiz(quiz, questions);
+                }
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+            stale = true;
+        }
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void indexQuiz(Quiz quiz, List<Question> questions) {
+        Map<String, Float> weights = new HashMap<>();
+        addTerms(weights, quiz.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, quiz.getDescription(), DESCRIPTION_WEIGHT);
+        List<Integer> questionIds = new ArrayList<>();
+        for (Question question : questions) {
+            addTerms(weights, question.getQuestionText(), QUESTION_WEIGHT);
+            questionIds.add(question.getQuestionId());
+        }
+        removeQuiz(quiz.getQuizId());
+        putDocument(quiz.getQuizId(), weights);
+        setQuestions(quiz.getQuizId(), questionIds);
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            weights.merge(term, weight, Float::sum);
+        }
+    }
+
+    // Caller holds the write lock
+    private void putDocument(int quizId, Map<String, Float> weights) {
+        String[] terms = new String[weights.size()];
+        float[] frequencies = new float[weights.size()];
+        float length = 0;
+        int i = 0;
+        for (Map.Entry<String, Float> entry : weights.entrySet()) {
+            PostingList list = postings.get(entry.getKey());
+            if (list == null) {
+                list = new PostingList();
+                postings.put(entry.getKey(), list);
+            }
+            list.put(quizId, entry.getValue());
+            // Share the dictionary's string instance instead of keeping a copy per document
+            terms[i] = postings.ceilingKey(entry.getKey());
+            frequencies[i] = entry.getValue();
+            length += entry.getValue();
+            i++;
+        }
+        documents.put(quizId, new Document(terms, frequencies, length));
+        totalLength += length;
+    }
+
+    // Caller holds the write lock
+    private void setQuestions(int quizId, List<Integer> questionIds) {
+        Document document = documents.get(quizId);
+        document.questionIds = questionIds;
+        for (Integer questionId : questionIds) {
+            questionQuizzes.put(questionId, quizId);
+        }
+    }
+
+    // Caller holds the write lock
+    private void removeQuiz(int quizId) {
+        Document document = documents.remove(quizId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            PostingList list = postings.get(term);
+            if (list != null && list.remove(quizId) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        for (Integer questionId : document.questionIds) {
+            questionQuizzes.remove(questionId);
+        }
+        totalLength -= document.length;
+    }
+
+    private NavigableMap<String, PostingList> prefixRange(String prefix) {
+        return postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // Add one term's BM25 contribution to every document that contains it
+    private void accumulate(PostingList list, float boost, float averageLength, Map<Integer, float[]> scores) {
+        int n = documents.size();
+        float idf = (float) Math.log(1 + (n - list.size + 0.5) / (list.size + 0.5));
+        for (int i = 0; i < list.size; i++) {
+            int quizId = list.docs[i];
+            float tf = list.frequencies[i];
+            float length = documents.get(quizId).length;
+            float norm = K1 * (1 - B + B * length / averageLength);
+            float score = boost * idf * tf * (K1 + 1) / (tf + norm);
+            scores.computeIfAbsent(quizId, id -> new float[1])[0] += score;
+        }
+    }
+
+    private static List<Integer> topK(Map<Integer, float[]> scores, int limit) {
+        // Min-heap of the best candidates; ties go to the lower (older) quiz ID
+        PriorityQueue<Map.Entry<Integer, float[]>> heap = new PriorityQueue<>((a, b) -> {
+            int cmp = Float.compare(a.getValue()[0], b.getValue()[0]);
+            return cmp != 0 ? cmp : Integer.compare(b.getKey(), a.getKey());
+        });
+        for (Map.Entry<Integer, float[]> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Integer> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().getKey());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // ========================= SEGMENT FILE =========================
+
+    // Layout: header, question owners, then each term with delta-encoded quiz IDs and their frequencies.
+    // Documents are not stored; they are rebuilt from the postings on load.
+    private void writeSegment(DataOutputStream out, Watermark watermark) throws IOException {
+        out.writeInt(SEGMENT_MAGIC);
+        watermark.write(out);
+        writeVarInt(out, documents.size());
+        for (Map.Entry<Integer, Document> entry : documents.entrySet()) {
+            writeVarInt(out, entry.getKey());
+        }
+        writeVarInt(out, questionQuizzes.size());
+        for (Map.Entry<Integer, Integer> entry : questionQuizzes.entrySet()) {
+            writeVarInt(out, entry.getKey());
+            writeVarInt(out, entry.getValue());
+        }
+        writeVarInt(out, postings.size());
+        for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+            PostingList list = entry.getValue();
+            out.writeUTF(entry.getKey());
+            writeVarInt(out, list.size);
+            int previous = 0;
+            for (int i = 0; i < list.size; i++) {
+                writeVarInt(out, list.docs[i] - previous);
+                previous = list.docs[i];
+                out.writeFloat(list.frequencies[i]);
+            }
+        }
+    }
+
+    // Returns false if the segment was written for different quiz or question content
+    private boolean load(Path segment, Watermark current) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+            if (in.readInt() != SEGMENT_MAGIC || !current.equals(Watermark.read(in))) {
+                return false;
+            }
+            Map<Integer, Map<String, Float>> forward = new HashMap<>();
+            int documentCount = readVarInt(in);
+            for (int i = 0; i < documentCount; i++) {
+                forward.put(readVarInt(in), new HashMap<>());
+            }
+            Map<Integer, List<Integer>> questionsByQuiz = new HashMap<>();
+            int questionOwners = readVarInt(in);
+            for (int i = 0; i < questionOwners; i++) {
+                int questionId = readVarInt(in);
+                questionsByQuiz.computeIfAbsent(readVarInt(in), id -> new ArrayList<>()).add(questionId);
+            }
+            int termCount = readVarInt(in);
+            for (int t = 0; t < termCount; t++) {
+                String term = in.readUTF();
+                int size = readVarInt(in);
+                int quizId = 0;
+                for (int i = 0; i < size; i++) {
+                    quizId += readVarInt(in);
+                    forward.computeIfAbsent(quizId, id -> new HashMap<>()).put(term, in.readFloat());
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                stale = false;
+                postings.clear();
+                documents.clear();
+                questionQuizzes.clear();
+                totalLength = 0;
+                for (Map.Entry<Integer, Map<String, Float>> entry : forward.entrySet()) {
+                    putDocument(entry.getKey(), entry.getValue());
+                    setQuestions(entry.getKey(), questionsByQuiz.getOrDefault(entry.getKey(), new ArrayList<>()));
+                }
+                dirty = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    /**
+     * Indexed form of one quiz
+     */
+    private static final class Document {
+        final String[] terms;
+        final float[] frequencies;
+        final float length;
+        List<Integer> questionIds = new ArrayList<>();
+
+        Document(String[] terms, float[] frequencies, float length) {
+            this.terms = terms;
+            this.frequencies = frequencies;
+            this.length = length;
+        }
+
+        Map<String, Float> weights() {
+            Map<String, Float> weights = new HashMap<>();
+            for (int i = 0; i < terms.length; i++) {
+                weights.put(terms[i], frequencies[i]);
+            }
+            return weights;
+        }
+    }
+
+    /**
+     * Quiz IDs containing a term, sorted ascending, with the weighted term frequency in each
+     */
+    static final class PostingList {
+        int[] docs = new int[2];
+        float[] frequencies = new float[2];
+        int size;
+
+        void put(int doc, float frequency) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos >= 0) {
+                frequencies[pos] = frequency;
+                return;
+            }
+            pos = -pos - 1;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+            System.arraycopy(frequencies, pos, frequencies, pos + 1, size - pos);
+            docs[pos] = doc;
+            frequencies[pos] = frequency;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int pos = Arrays.binarySearch(docs, 0, size, doc);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+            System.arraycopy(frequencies, pos + 1, frequencies, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Counts and content checksums of the indexed tables, stored in the segment header
+     */
+    private static final class Watermark {
+        final int quizCount;
+        final int questionCount;
+        final long quizChecksum;
+        final long questionChecksum;
+
+        Watermark(int quizCount, int questionCount, long quizChecksum, long questionChecksum) {
+            this.quizCount = quizCount;
+            this.questionCount = questionCount;
+            this.quizChecksum = quizChecksum;
+            this.questionChecksum = questionChecksum;
+        }
+
+        static Watermark read(QuizDAO quizDAO, QuestionDAO questionDAO) throws SQLException {
+            return new Watermark(quizDAO.getTotalQuizCount(), questionDAO.getTotalQuestionCount(),
+                    quizDAO.getContentChecksum(), questionDAO.getContentChecksum());
+        }
+
+        static Watermark read(DataInputStream in) throws IOException {
+            return new Watermark(in.readInt(), in.readInt(), in.readLong(), in.readLong());
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(quizCount);
+            out.writeInt(questionCount);
+            out.writeLong(quizChecksum);
+            out.writeLong(questionChecksum);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Watermark)) {
+                return false;
+            }
+            Watermark other = (Watermark) o;
+            return quizCount == other.quizCount && questionCount == other.questionCount
+                    && quizChecksum == other.quizChecksum && questionChecksum == other.questionChecksum;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(quizCount, questionCount, quizChecksum, questionChecksum);
+        }
+    }
+}
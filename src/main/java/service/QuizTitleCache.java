@@ -0,0 +1,113 @@
+package service;
+
+import dao.QuizDAO;
+import model.Quiz;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared quiz ID to title cache
+ * Titles are filled lazily: pages that already join quizzes hand their titles over, and the rest are loaded with
+ * one IN query per batch of misses. Quiz updates and deletes drop their entries, which reload on next use.
+ */
+public class QuizTitleCache implements QuizDAO.QuizListener {
+
+    private final QuizDAO quizDAO;
+    private final Map<Integer, String> titles = new ConcurrentHashMap<>();
+
+    public QuizTitleCache(QuizDAO quizDAO) {
+        this.quizDAO = quizDAO;
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get a quiz title
+     * @param quizId The quiz ID
+     * @return The title, or null if the quiz does not exist
+     * @throws SQLException If the title had to be loaded and the load failed
+     */
+    public String getTitle(int quizId) throws SQLException {
+        String title = titles.get(quizId);
+        if (title != null) {
+            return title;
+        }
+        Quiz quiz = quizDAO.findById(quizId);
+        if (quiz == null) {
+            return null;
+        }
+        remember(quizId, quiz.getTitle());
+        return quiz.getTitle();
+    }
+
+    /**
+     * Get the titles of several quizzes, loading every miss in one query
+     * @param quizIds The quiz IDs
+     * @return Titles by quiz ID; quizzes that do not exist are absent
+     * @throws SQLException If database error occurs
+     */
+    public Map<Integer, String> getTitles(Collection<Integer> quizIds) throws SQLException {
+        Map<Integer, String> found = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer quizId : quizIds) {
+            if (quizId == null || found.containsKey(quizId)) {
+                continue;
+            }
+            String title = titles.get(quizId);
+            if (title != null) {
+                found.put(quizId, title);
+            } else if (!missing.contains(quizId)) {
+                missing.add(quizId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Quiz quiz : quizDAO.getQuizzesByIds(missing)) {
+                remember(quiz.getQuizId(), quiz.getTitle());
+                found.put(quiz.getQuizId(), quiz.getTitle());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Record a title read elsewhere, such as a joined query
+     * @param quizId The quiz ID
+     * @param title The title; null is ignored
+     */
+    public void remember(int quizId, String title) {
+        if (title != null) {
+            titles.put(quizId, title);
+        }
+    }
+
+    /**
+     * Get the number of cached titles
+     * @return Number of entries
+     */
+    public int size() {
+        return titles.size();
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onQuizCreated(Quiz quiz) {
+        remember(quiz.getQuizId(), quiz.getTitle());
+    }
+
+    @Override
+    public void onQuizUpdated(int quizId) {
+        titles.remove(quizId);
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId) {
+        titles.remove(quizId);
+    }
+}
@@ -0,0 +1,148 @@
+package service;
+
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import dao.QuizRecommendationDAO;
+import model.QuizRecommendation;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * "People who took this quiz also took" recommendations
+ * A batch job streams every user's attempted quizzes, counts co-attempts in a sparse matrix and keeps the top k
+ * similar quizzes per quiz. The result is stored in quiz_recommendations and served from an immutable in-memory
+ * map that the next job run replaces wholesale.
+ */
+public class RecommendationService implements QuizDAO.QuizListener {
+
+    // Similar quizzes kept per quiz
+    public static final int TOP_K = 10;
+
+    private final QuizRecommendationDAO recommendationDAO;
+    private final ForkJoinPool pool;
+    private volatile Map<Integer, List<QuizRecommendation>> similar = Collections.emptyMap();
+
+    public RecommendationService(QuizRecommendationDAO recommendationDAO) {
+        this(recommendationDAO, ForkJoinPool.commonPool());
+    }
+
+    // Constructor with an explicit pool for the batch job
+    public RecommendationService(QuizRecommendationDAO recommendationDAO, ForkJoinPool pool) {
+        this.recommendationDAO = recommendationDAO;
+        this.pool = pool;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Load the result of the last job run
+     * @return true if stored recommendations were found, false if the job has never run
+     * @throws SQLException If database error occurs
+     */
+    public boolean initialize() throws SQLException {
+        load(recommendationDAO.getAllRecommendations());
+        return !similar.isEmpty();
+    }
+
+    /**
+     * Recompute all recommendations from quiz_attempts, store them and start serving them
+     * @param scanDAO Attempt DAO used for the full-table scan, ideally on a dedicated connection
+     * @return Number of recommendation rows produced
+     * @throws SQLException If database error occurs
+     */
+    public int recompute(QuizAttemptDAO scanDAO) throws SQLException {
+        CoAttemptMatrix matrix = new CoAttemptMatrix(pool);
+        scanDAO.forEachUserQuizzes((userId, quizIds) -> matrix.addBasket(quizIds));
+        List<QuizRecommendation> recommendations = matrix.topK(TOP_K);
+        recommendationDAO.replaceAllRecommendations(recommendations);
+        load(recommendations);
+        return recommendations.size();
+    }
+
+    /**
+     * Replace the served recommendations
+     * @param recommendations Rows ordered by rank within each quiz
+     */
+    public synchronized void load(List<QuizRecommendation> recommendations) {
+        Map<Integer, List<QuizRecommendation>> byQuiz = new HashMap<>();
+        for (QuizRecommendation recommendation : recommendations) {
+            byQuiz.computeIfAbsent(recommendation.getQuizId(), id -> new ArrayList<>()).add(recommendation);
+        }
+        byQuiz.values().forEach(list -> list.sort((a, b) -> Integer.compare(a.getRank(), b.getRank())));
+        similar = byQuiz;
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get the quizzes most often taken by people who took a quiz
+     * @param quizId The quiz ID
+     * @param limit Maximum number of quizzes
+     * @return Similar quiz IDs, most similar first
+     */
+    public List<Integer> getSimilarQuizIds(int quizId, int limit) {
+        List<Integer> quizIds = new ArrayList<>();
+        for (QuizRecommendation recommendation : similar.getOrDefault(quizId, Collections.emptyList())) {
+            if (quizIds.size() >= limit) {
+                break;
+            }
+            quizIds.add(recommendation.getSimilarQuizId());
+        }
+        return quizIds;
+    }
+
+    /**
+     * Recommend quizzes for someone who took the given quizzes
+     * Similarity scores of every taken quiz are summed, so quizzes related to several of them rank first.
+     * @param takenQuizIds Quizzes the user has taken
+     * @param limit Maximum number of quizzes
+     * @return Recommended quiz IDs, excluding the taken ones
+     */
+    public List<Integer> recommendFor(Collection<Integer> takenQuizIds, int limit) {
+        Map<Integer, List<QuizRecommendation>> current = similar;
+        Set<Integer> taken = new HashSet<>(takenQuizIds);
+        Map<Integer, Double> scores = new LinkedHashMap<>();
+        for (Integer quizId : taken) {
+            for (QuizRecommendation recommendation : current.getOrDefault(quizId, Collections.emptyList())) {
+                if (!taken.contains(recommendation.getSimilarQuizId())) {
+                    scores.merge(recommendation.getSimilarQuizId(), recommendation.getScore(), Double::sum);
+                }
+            }
+        }
+        List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        List<Integer> quizIds = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            quizIds.add(ranked.get(i).getKey());
+        }
+        return quizIds;
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public synchronized void onQuizDeleted(int quizId) {
+        // Stored rows go through ON DELETE CASCADE; drop the quiz from the served copy as well
+        Map<Integer, List<QuizRecommendation>> updated = new HashMap<>();
+        for (Map.Entry<Integer, List<QuizRecommendation>> entry : similar.entrySet()) {
+            if (entry.getKey() == quizId) {
+                continue;
+            }
+            List<QuizRecommendation> kept = new ArrayList<>(entry.getValue());
+            kept.removeIf(recommendation -> recommendation.getSimilarQuizId() == quizId);
+            updated.put(entry.getKey(), kept);
+        }
+        similar = updated;
+    }
+}
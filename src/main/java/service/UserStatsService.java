@@ -0,0 +1,166 @@
+package service;
+
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import dao.UserStatsDAO;
+import model.Quiz;
+import model.QuizAttempt;
+import model.UserStats;
+
+import java.sql.SQLException;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-user statistics rollup for profile pages
+ * Counters are cached in memory and written through to the user_stats table on every attempt and created quiz,
+ * so rendering a profile costs at most one primary-key lookup on a cold cache.
+ * Edits and deletes recompute only the users they touched.
+ */
+public class UserStatsService implements QuizAttemptDAO.AttemptListener, QuizDAO.QuizListener {
+
+    private final UserStatsDAO userStatsDAO;
+    // Replaced as a whole by a full rebuild, so readers never mix rows from before and after it
+    private volatile Map<Integer, UserStats> cache = new ConcurrentHashMap<>();
+    // Set when every attempt was deleted; the whole rollup is recomputed on next use
+    private volatile boolean stale;
+    // Users whose attempts or quizzes were edited or deleted; recomputed together on the next lookup of any of them
+    private final Set<Integer> staleUsers = ConcurrentHashMap.newKeySet();
+
+    public UserStatsService(UserStatsDAO userStatsDAO) {
+        this.userStatsDAO = userStatsDAO;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Seed the rollup from quiz_attempts and quizzes the first time it is used
+     * @throws SQLException If database error occurs
+     */
+    public void initialize() throws SQLException {
+        if (userStatsDAO.getStatsCount() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recompute every user's statistics from the source tables and drop the cache
+     * Rows are overwritten in place and inactive users removed afterwards, so lookups during the rebuild never
+     * find a user missing. The flag is cleared first so a change during the rebuild marks it again, and restored
+     * if the rebuild fails.
+     * @throws SQLException If database error occurs
+     */
+    public synchronized void rebuild() throws SQLException {
+        stale = false;
+        Set<Integer> covered = new HashSet<>(staleUsers);
+        try {
+            List<UserStats> computed = userStatsDAO.computeAllStats();
+            userStatsDAO.saveAllStats(computed);
+            userStatsDAO.deleteInactiveStats();
+        } catch (SQLException | RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+        staleUsers.removeAll(covered);
+        cache = new ConcurrentHashMap<>();
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Get a user's statistics
+     * @param userId The user ID
+     * @return The user's statistics; an empty rollup if the user has no activity yet
+     * @throws SQLException If database error occurs
+     */
+    public UserStats getStats(int userId) throws SQLException {
+        if (stale) {
+            rebuild();
+        }
+        if (staleUsers.contains(userId)) {
+            refreshStaleUsers();
+        }
+        UserStats stats = cache.get(userId);
+        if (stats != null) {
+            return stats;
+        }
+        stats = userStatsDAO.findByUserId(userId);
+        if (stats == null) {
+            stats = new UserStats(userId);
+        }
+        UserStats existing = cache.putIfAbsent(userId, stats);
+        return existing != null ? existing : stats;
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public void onAttemptCreated(QuizAttempt attempt) {
+        Date when = attempt.getDateTaken() != null ? attempt.getDateTaken() : new Date();
+        update(attempt.getUserId(), stats -> stats.recordAttempt(attempt.getScore(), attempt.isPractice(), when));
+    }
+
+    @Override
+    public void onAttemptsChanged() {
+        stale = true;
+    }
+
+    @Override
+    public void onAttemptsChanged(Set<Integer> quizIds, Set<Integer> userIds) {
+        staleUsers.addAll(userIds);
+    }
+
+    @Override
+    public void onQuizCreated(Quiz quiz) {
+        Date when = quiz.getCreatedDate() != null ? quiz.getCreatedDate() : new Date();
+        update(quiz.getCreatorId(), stats -> stats.recordQuizCreated(when));
+    }
+
+    @Override
+    public void onQuizDeleted(int quizId, Set<Integer> userIds) {
+        staleUsers.addAll(userIds);
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    /**
+     * Recompute the stale users, write their rows and replace their cache entries
+     * The marks are cleared first so a change during the recompute marks a user again, and restored if it fails.
+     */
+    private synchronized void refreshStaleUsers() throws SQLException {
+        Set<Integer> userIds = new HashSet<>(staleUsers);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        staleUsers.removeAll(userIds);
+        try {
+            List<UserStats> computed = userStatsDAO.computeStats(userIds);
+            userStatsDAO.saveAllStats(computed);
+            for (UserStats stats : computed) {
+                cache.put(stats.getUserId(), stats);
+            }
+        } catch (SQLException | RuntimeException e) {
+            staleUsers.addAll(userIds);
+            throw e;
+        }
+    }
+
+    // Apply a change to the cached counters and write the row through
+    // Synchronized with the recomputes so a counter replaced by one is never written back over it
+    private synchronized void update(int userId, Consumer<UserStats> change) {
+        try {
+            UserStats stats = getStats(userId);
+            change.accept(stats);
+            userStatsDAO.saveStats(stats);
+        } catch (SQLException e) {
+            // The cached row may now disagree with the table; recompute it on next use
+            e.printStackTrace();
+            staleUsers.add(userId);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package service;
+
+import dao.UserDAO;
+import model.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory username index for typeahead
+ * Usernames are kept as a sorted array of lowercase keys, so the matches for a prefix are one contiguous range
+ * found with two binary searches. Account writes are rare compared to keystrokes, so each write publishes a new
+ * copy of the arrays and lookups read the current snapshot without locking.
+ */
+public class UsernameIndex implements UserDAO.UserListener {
+
+    /**
+     * One autocomplete suggestion
+     * @param userId The user ID
+     * @param username The username as stored
+     * @param friend Whether the user is a friend of the person typing
+     */
+    public record Match(int userId, String username, boolean friend) {
+    }
+
+    private final UserDAO userDAO;
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0], new int[0]);
+
+    public UsernameIndex(UserDAO userDAO) {
+        this.userDAO = userDAO;
+    }
+
+    // ========================= LIFECYCLE =========================
+
+    /**
+     * Load every username
+     * @throws SQLException If database error occurs
+     */
+    public void initialize() throws SQLException {
+        List<User> users = userDAO.getAllUsers();
+        Entry[] entries = new Entry[users.size()];
+        for (int i = 0; i < entries.length; i++) {
+            User user = users.get(i);
+            entries[i] = new Entry(key(user.getUsername()), user.getUsername(), user.getUserId());
+        }
+        Arrays.sort(entries);
+        String[] keys = new String[entries.length];
+        String[] usernames = new String[entries.length];
+        int[] userIds = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = entries[i].key;
+            usernames[i] = entries[i].username;
+            userIds[i] = entries[i].userId;
+        }
+        synchronized (this) {
+            snapshot = new Snapshot(keys, usernames, userIds);
+        }
+    }
+
+    // ========================= QUERIES =========================
+
+    /**
+     * Find usernames starting with a prefix, ignoring case
+     * Friends come first, then everyone else; each group is in alphabetical order.
+     * @param prefix What has been typed so far
+     * @param limit Maximum number of matches
+     * @param friendIds Friends of the person typing, may be empty
+     * @param excludeUserId A user to leave out, usually the person typing, or 0
+     * @return Up to limit matches
+     */
+    public List<Match> complete(String prefix, int limit, Set<Integer> friendIds, int excludeUserId) {
+        List<Match> matches = new ArrayList<>();
+        String keyPrefix = key(prefix);
+        if (keyPrefix.isEmpty() || limit <= 0) {
+            return matches;
+        }
+        Snapshot current = snapshot;
+        int from = current.lowerBound(keyPrefix);
+        int to = current.upperBound(keyPrefix, from);
+
+        // Friends are usually far fewer than the prefix range, so look them up directly
+        if (!friendIds.isEmpty()) {
+            List<Entry> friends = new ArrayList<>();
+            for (Integer friendId : friendIds) {
+                Integer position = current.positions.get(friendId);
+                if (position != null && position >= from && position < to && friendId != excludeUserId) {
+                    friends.add(new Entry(current.keys[position], current.usernames[position], friendId));
+                }
+            }
+            friends.sort(null);
+            for (int i = 0; i < friends.size() && matches.size() < limit; i++) {
+                matches.add(new Match(friends.get(i).userId, friends.get(i).username, true));
+            }
+        }
+        for (int i = from; i < to && matches.size() < limit; i++) {
+            int userId = current.userIds[i];
+            if (userId != excludeUserId && !friendIds.contains(userId)) {
+                matches.add(new Match(userId, current.usernames[i], false));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Look up a username without touching the database
+     * @param userId The user ID
+     * @return The username, or null if the user is unknown
+     */
+    public String getUsername(int userId) {
+        Snapshot current = snapshot;
+        Integer position = current.positions.get(userId);
+        return position == null ? null : current.usernames[position];
+    }
+
+    /**
+     * Get the number of indexed usernames
+     * @return Number of users
+     */
+    public int size() {
+        return snapshot.keys.length;
+    }
+
+    // ========================= EVENTS =========================
+
+    @Override
+    public synchronized void onUserCreated(User user) {
+        put(user.getUserId(), user.getUsername());
+    }
+
+    @Override
+    public synchronized void onUsernameChanged(int userId, String username) {
+        put(userId, username);
+    }
+
+    @Override
+    public synchronized void onUserDeleted(int userId) {
+        Snapshot current = snapshot;
+        Integer position = current.positions.get(userId);
+        if (position != null) {
+            snapshot = current.without(position);
+        }
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    // Caller holds the monitor so concurrent writes do not overwrite each other's snapshot
+    private void put(int userId, String username) {
+        Snapshot current = snapshot;
+        Integer position = current.positions.get(userId);
+        if (position != null) {
+            if (current.usernames[position].equals(username)) {
+                return;
+            }
+            current = current.without(position);
+        }
+        snapshot = current.with(key(username), username, userId);
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    private static final class Entry implements Comparable<Entry> {
+        final String key;
+        final String username;
+        final int userId;
+
+        Entry(String key, String username, int userId) {
+            this.key = key;
+            this.username = username;
+            this.userId = userId;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int cmp = key.compareTo(other.key);
+            return cmp != 0 ? cmp : Integer.compare(userId, other.userId);
+        }
+    }
+
+    /**
+     * Immutable sorted view of all usernames
+     */
+    private static final class Snapshot {
+        final String[] keys;
+        final String[] usernames;
+        final int[] userIds;
+        final Map<Integer, Integer> positions;
+
+        Snapshot(String[] keys, String[] usernames, int[] userIds) {
+            this.keys = keys;
+            this.usernames = usernames;
+            this.userIds = userIds;
+            this.positions = new HashMap<>(userIds.length * 2);
+            for (int i = 0; i < userIds.length; i++) {
+                positions.put(userIds[i], i);
+            }
+        }
+
+        // First position whose key is >= prefix
+        int lowerBound(String prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First position at or after from whose key does not start with prefix
+        int upperBound(String prefix, int from) {
+            int low = from;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        Snapshot with(String key, String username, int userId) {
+            Entry entry = new Entry(key, username, userId);
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (new Entry(keys[mid], usernames[mid], userIds[mid]).compareTo(entry) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            int n = keys.length;
+            String[] newKeys = new String[n + 1];
+            String[] newUsernames = new String[n + 1];
+            int[] newUserIds = new int[n + 1];
+            System.arraycopy(keys, 0, newKeys, 0, low);
+            System.arraycopy(usernames, 0, newUsernames, 0, low);
+            System.arraycopy(userIds, 0, newUserIds, 0, low);
+            newKeys[low] = key;
+            newUsernames[low] = username;
+            newUserIds[low] = userId;
+            System.arraycopy(keys, low, newKeys, low + 1, n - low);
+            System.arraycopy(usernames, low, newUsernames, low + 1, n - low);
+            System.arraycopy(userIds, low, newUserIds, low + 1, n - low);
+            return new Snapshot(newKeys, newUsernames, newUserIds);
+        }
+
+        Snapshot without(int position) {
+            int n = keys.length;
+            String[] newKeys = new String[n - 1];
+            String[] newUsernames = new String[n - 1];
+            int[] newUserIds = new int[n - 1];
+            System.arraycopy(keys, 0, newKeys, 0, position);
+            System.arraycopy(usernames, 0, newUsernames, 0, position);
+            System.arraycopy(userIds, 0, newUserIds, 0, position);
+            System.arraycopy(keys, position + 1, newKeys, position, n - position - 1);
+            System.arraycopy(usernames, position + 1, newUsernames, position, n - position - 1);
+            System.arraycopy(userIds, position + 1, newUserIds, position, n - position - 1);
+            return new Snapshot(newKeys, newUsernames, newUserIds);
+        }
+    }
+}
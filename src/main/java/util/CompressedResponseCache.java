@@ -0,0 +1,122 @@
+package util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of compressed response bodies
+ * Entries are keyed by request URI and ETag, so an entry is only ever served for the exact representation it
+ * was compressed from. The cache is bounded by total body bytes rather than entry count, since a handful of
+ * large pages would otherwise crowd out the heap.
+ */
+public class CompressedResponseCache {
+
+    /**
+     * A compressed body with the headers needed to replay it
+     */
+    public static final class Entry {
+        private final byte[] body;
+        private final String contentType;
+        private final String encoding;
+
+        public Entry(byte[] body, String contentType, String encoding) {
+            this.body = body;
+            this.contentType = contentType;
+            this.encoding = encoding;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getEncoding() {
+            return encoding;
+        }
+    }
+
+    private final long maxBytes;
+    private final int maxEntryBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    public CompressedResponseCache(long maxBytes, int maxEntryBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * Build the key of one representation
+     * @param uri Request URI including the query string
+     * @param etag The response's ETag
+     * @param encoding Content coding of the cached body
+     * @return Cache key
+     */
+    public static String key(String uri, String etag, String encoding) {
+        return encoding + " " + etag + " " + uri;
+    }
+
+    /**
+     * Look up a compressed body
+     * @param key Key from key()
+     * @return The entry, or null if it is not cached
+     */
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Store a compressed body, evicting the least recently used entries to stay within the byte budget
+     * @param key Key from key()
+     * @param entry The entry
+     * @return true if the entry was stored, false if it is larger than one entry may be
+     */
+    public synchronized boolean put(String key, Entry entry) {
+        if (entry.body.length > maxEntryBytes) {
+            return false;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.body.length;
+        }
+        bytes += entry.body.length;
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Entry> victim = eldest.next();
+            if (victim.getKey().equals(key)) {
+                continue;
+            }
+            bytes -= victim.getValue().body.length;
+            eldest.remove();
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,65 @@
+package util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Helpers for IN-list queries over batches of integer IDs
+ * Large ID sets are split into chunks of at most BATCH_SIZE so every statement stays well under
+ * max_allowed_packet and the server's placeholder limit.
+ */
+public final class IdBatches {
+
+    // IDs per IN list
+    public static final int BATCH_SIZE = 500;
+
+    private IdBatches() {
+    }
+
+    /**
+     * Split IDs into distinct chunks of at most BATCH_SIZE
+     * @param ids IDs, may be null or contain duplicates and nulls
+     * @return Chunks in iteration order, empty if there are no IDs
+     */
+    public static List<List<Integer>> chunk(Collection<Integer> ids) {
+        List<List<Integer>> chunks = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return chunks;
+        }
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        for (int from = 0; from < distinct.size(); from += BATCH_SIZE) {
+            chunks.add(distinct.subList(from, Math.min(from + BATCH_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * "?,?,?" for an IN list of the given size
+     * @param count Number of placeholders
+     * @return Comma-separated placeholders
+     */
+    public static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Bind IDs to consecutive parameters
+     * @param stmt The statement
+     * @param index Index of the first parameter
+     * @param ids The IDs
+     * @return Index of the next parameter
+     * @throws SQLException If database error occurs
+     */
+    public static int bindIds(PreparedStatement stmt, int index, List<Integer> ids) throws SQLException {
+        for (int id : ids) {
+            stmt.setInt(index++, id);
+        }
+        return index;
+    }
+}
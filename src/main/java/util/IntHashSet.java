@@ -0,0 +1,148 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash set of ints
+ * Keeps its members in one flat array with linear probing, so a set costs 4 bytes per slot instead of the ~40
+ * bytes of a boxed HashSet entry. Removal shifts later members of the probe run back instead of leaving
+ * tombstones, so lookups stay short however often members come and go. Integer.MIN_VALUE cannot be stored.
+ * Not thread-safe.
+ */
+public class IntHashSet {
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] slots;
+    private int size;
+    private int resizeAt;
+
+    public IntHashSet() {
+        this(4);
+    }
+
+    public IntHashSet(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Check whether a value is in the set
+     * @param value The value
+     * @return true if present
+     */
+    public boolean contains(int value) {
+        return slots[find(value)] != FREE;
+    }
+
+    /**
+     * Add a value
+     * @param value The value
+     * @return true if it was not already present
+     */
+    public boolean add(int value) {
+        int slot = find(value);
+        if (slots[slot] != FREE) {
+            return false;
+        }
+        slots[slot] = value;
+        if (++size > resizeAt) {
+            int[] old = slots;
+            allocate(slots.length * 2);
+            for (int member : old) {
+                if (member != FREE) {
+                    slots[find(member)] = member;
+                    size++;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove a value
+     * @param value The value
+     * @return true if it was present
+     */
+    public boolean remove(int value) {
+        int slot = find(value);
+        if (slots[slot] == FREE) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        // Pull back any later member of the run whose home slot is at or before the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (slots[next] != FREE) {
+            int home = mix(slots[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[gap] = FREE;
+        size--;
+        return true;
+    }
+
+    /**
+     * Copy the members into a new array in ascending order
+     * @return Sorted members
+     */
+    public int[] toSortedArray() {
+        int[] members = new int[size];
+        int n = 0;
+        for (int member : slots) {
+            if (member != FREE) {
+                members[n++] = member;
+            }
+        }
+        Arrays.sort(members);
+        return members;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    // Slot holding the value, or the free slot where it would go
+    private int find(int value) {
+        if (value == FREE) {
+            throw new IllegalArgumentException("Integer.MIN_VALUE is reserved");
+        }
+        int mask = slots.length - 1;
+        int slot = mix(value) & mask;
+        while (slots[slot] != FREE && slots[slot] != value) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocate(int capacity) {
+        slots = new int[capacity];
+        Arrays.fill(slots, FREE);
+        size = 0;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 8;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Spread sequential IDs across the table
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,178 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int to int
+ * Stores keys and values in two flat arrays, so a map with millions of entries costs 8 bytes per slot instead of
+ * the ~50 bytes of a boxed HashMap entry. Missing keys read as 0. Integer.MIN_VALUE cannot be used as a key.
+ * Not thread-safe.
+ */
+public class IntIntMap {
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    /**
+     * Receives the entries of a map
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int key, int value);
+    }
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    public IntIntMap() {
+        this(16);
+    }
+
+    public IntIntMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Get the value of a key
+     * @param key The key
+     * @return The value, or 0 if the key is absent
+     */
+    public int get(int key) {
+        int slot = find(key);
+        return keys[slot] == FREE ? 0 : values[slot];
+    }
+
+    /**
+     * Check whether a key is present
+     * @param key The key
+     * @return true if the key has a value
+     */
+    public boolean containsKey(int key) {
+        return keys[find(key)] != FREE;
+    }
+
+    /**
+     * Set the value of a key
+     * @param key The key
+     * @param value The new value
+     */
+    public void put(int key, int value) {
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            insert(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Add to the value of a key, treating a missing key as 0
+     * @param key The key
+     * @param delta Amount to add
+     * @return The new value
+     */
+    public int addTo(int key, int delta) {
+        int slot = find(key);
+        if (keys[slot] == FREE) {
+            insert(slot, key, delta);
+            return delta;
+        }
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    /**
+     * Remove every entry whose value is at most a threshold
+     * @param threshold Largest value to remove
+     * @return Number of entries removed
+     */
+    public int removeValuesAtMost(int threshold) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int before = size;
+        allocate(keys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE && oldValues[i] > threshold) {
+                insert(find(oldKeys[i]), oldKeys[i], oldValues[i]);
+            }
+        }
+        return before - size;
+    }
+
+    /**
+     * Visit every entry in no particular order
+     * @param consumer Receives each key and value
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ========================= HELPER METHODS =========================
+
+    // Slot holding the key, or the free slot where it would go
+    private int find(int key) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Integer.MIN_VALUE is reserved");
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > resizeAt) {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(keys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    int target = find(oldKeys[i]);
+                    keys[target] = oldKeys[i];
+                    values[target] = oldValues[i];
+                    size++;
+                }
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        size = 0;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Spread sequential keys such as ordinals across the table
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
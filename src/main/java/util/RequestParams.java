@@ -0,0 +1,27 @@
+package util;
+
+/**
+ * Lenient parsing of request parameters and path segments
+ * Missing or malformed values come back as null, so callers can fall back to a default or answer 400 themselves.
+ */
+public final class RequestParams {
+
+    private RequestParams() {
+    }
+
+    /**
+     * Parse an integer parameter
+     * @param value Raw parameter value, may be null
+     * @return The integer, or null if the value is missing, empty or not a number
+     */
+    public static Integer parseInt(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
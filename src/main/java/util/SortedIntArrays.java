@@ -0,0 +1,116 @@
+package util;
+
+import java.util.Arrays;
+
+/**
+ * Set operations on ascending int arrays without duplicates
+ * Arrays of similar length are intersected with a linear merge. When one side is much shorter, each of its values
+ * is located in the longer side with a galloping (exponential then binary) search that starts where the previous
+ * match left off, so the cost grows with the short side times the log of the gap instead of with the long side.
+ */
+public final class SortedIntArrays {
+
+    // Above this length ratio galloping beats the merge
+    static final int GALLOP_RATIO = 16;
+
+    private SortedIntArrays() {
+    }
+
+    /**
+     * Intersect two sorted arrays
+     * @param a Ascending values
+     * @param b Ascending values
+     * @return Values in both, ascending
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        int[] shorter = a.length <= b.length ? a : b;
+        int[] longer = shorter == a ? b : a;
+        int[] result = new int[shorter.length];
+        int n = intersect(shorter, longer, result);
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Count the values two sorted arrays have in common without building the intersection
+     * @param a Ascending values
+     * @param b Ascending values
+     * @return Size of the intersection
+     */
+    public static int intersectionSize(int[] a, int[] b) {
+        int[] shorter = a.length <= b.length ? a : b;
+        int[] longer = shorter == a ? b : a;
+        return intersect(shorter, longer, null);
+    }
+
+    // Write common values into out when it is not null; returns how many there are
+    private static int intersect(int[] shorter, int[] longer, int[] out) {
+        if (shorter.length == 0) {
+            return 0;
+        }
+        int n = 0;
+        if ((long) shorter.length * GALLOP_RATIO < longer.length) {
+            int from = 0;
+            for (int value : shorter) {
+                from = gallop(longer, from, value);
+                if (from == longer.length) {
+                    break;
+                }
+                if (longer[from] == value) {
+                    if (out != null) {
+                        out[n] = value;
+                    }
+                    n++;
+                    from++;
+                }
+            }
+            return n;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < shorter.length && j < longer.length) {
+            if (shorter[i] < longer[j]) {
+                i++;
+            } else if (shorter[i] > longer[j]) {
+                j++;
+            } else {
+                if (out != null) {
+                    out[n] = shorter[i];
+                }
+                n++;
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Find the first position at or after from whose value is at least target
+     * Probes from+1, from+2, from+4, from+8, ... until it passes the target, then binary searches the last step.
+     * @return The position, or values.length if every remaining value is smaller
+     */
+    static int gallop(int[] values, int from, int target) {
+        if (from >= values.length || values[from] >= target) {
+            return from;
+        }
+        int low = from;
+        int step = 1;
+        int high = from + step;
+        while (high < values.length && values[high] < target) {
+            low = high;
+            step <<= 1;
+            high = from + step;
+        }
+        high = Math.min(high, values.length);
+        // values[low] < target, and values[high] >= target or high is the end
+        while (low + 1 < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < target) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return high;
+    }
+}
@@ -0,0 +1,114 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Text normalization shared by the in-memory search and similarity indexes
+ * Splits text into lowercase letter/digit tokens and reduces English inflections with a few suffix rules,
+ * which is enough for quiz titles and questions without pulling in a full stemmer.
+ */
+public class TextAnalyzer {
+
+    // Words too common to help ranking
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "do", "does", "for", "from", "how", "in", "is",
+            "it", "of", "on", "or", "that", "the", "this", "to", "was", "what", "when", "where", "which",
+            "who", "why", "with");
+
+    /**
+     * Split text into lowercase tokens of letters and digits
+     * @param text The text, may be null
+     * @return Tokens in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokenize, drop stop words and stem
+     * @param text The text, may be null
+     * @return Index terms in order of appearance
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            if (!isStopWord(token)) {
+                terms.add(stem(token));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Check whether a token is ignored by analyze
+     * @param token A lowercase token
+     * @return true if the token is a stop word
+     */
+    public static boolean isStopWord(String token) {
+        return STOP_WORDS.contains(token);
+    }
+
+    /**
+     * Reduce a lowercase token to a crude stem: plurals, -ing, -ed and -ly are removed
+     * Stems are only used for matching, so "studies" and "study" both becoming "study" is all that matters.
+     * @param token A lowercase token
+     * @return The stem
+     */
+    public static String stem(String token) {
+        if (token.length() <= 3 || !Character.isLetter(token.charAt(0))) {
+            return token;
+        }
+        if (token.endsWith("ies") && token.length() > 4) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.endsWith("sses")) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("ches") || token.endsWith("shes") || token.endsWith("xes") || token.endsWith("zes")) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("ing") && token.length() > 5) {
+            return undouble(token.substring(0, token.length() - 3));
+        }
+        if (token.endsWith("ed") && token.length() > 4) {
+            return undouble(token.substring(0, token.length() - 2));
+        }
+        if (token.endsWith("ly") && token.length() > 4) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    // "running" -> "runn" -> "run"; keeps "ll", "ss" and "zz" which usually belong to the root
+    private static String undouble(String stem) {
+        int n = stem.length();
+        if (n >= 3 && stem.charAt(n - 1) == stem.charAt(n - 2)) {
+            char c = stem.charAt(n - 1);
+            if (c != 'l' && c != 's' && c != 'z' && Character.isLetter(c) && "aeiou".indexOf(c) < 0) {
+                return stem.substring(0, n - 1);
+            }
+        }
+        return stem;
+    }
+}
@@ -10,9 +10,11 @@
     User user = (User) session.getAttribute("user");
     List<Quiz> quizzes = (List<Quiz>) request.getAttribute("quizzes");
     List<Quiz> popularQuizzes = (List<Quiz>) request.getAttribute("popularQuizzes");
+    List<Quiz> trendingQuizzes = (List<Quiz>) request.getAttribute("trendingQuizzes");
     List<Quiz> recentQuizzes = (List<Quiz>) request.getAttribute("recentQuizzes");
     List<QuizAttempt> recentAttempts = (List<QuizAttempt>) request.getAttribute("recentAttempts");
     List<Quiz> userCreatedQuizzes = (List<Quiz>) request.getAttribute("userCreatedQuizzes");
+    List<Quiz> recommendedQuizzes = (List<Quiz>) request.getAttribute("recommendedQuizzes");
     List<Announcement> activeAnnouncements = (List<Announcement>) request.getAttribute("activeAnnouncements");
 %>
 <!DOCTYPE html>
@@ -435,7 +437,7 @@
         /* =========================== CONTENT GRID =========================== */
         .content-grid {
             display: grid;
-            grid-template-columns: repeat(auto-fit, minmax(500px, 1fr));
+            grid-template-columns: repeat(auto-fit, minmax(340px, 1fr));
             gap: 40px;
             margin-bottom: 50px;
         }
@@ -949,8 +951,8 @@
             <!-- Popular Quizzes -->
             <div class="content-card">
                 <div class="content-card-header">
-                    <div class="content-card-icon">🔥</div>
-                    <div class="content-card-title">Trending Quizzes</div>
+                    <div class="content-card-icon">🏆</div>
+                    <div class="content-card-title">Popular Quizzes</div>
                 </div>
                 <div class="content-card-body">
                     <% if (popularQuizzes != null && !popularQuizzes.isEmpty()) { %>
@@ -965,8 +967,8 @@
                     </ul>
                     <% } else { %>
                     <div class="empty-state">
-                        <div class="empty-icon">🔥</div>
-                        <div class="empty-title">No trending quizzes yet</div>
+                        <div class="empty-icon">🏆</div>
+                        <div class="empty-title">No popular quizzes yet</div>
                         <div class="empty-text">Be the first to create a popular quiz!</div>
                         <% if (user != null) { %>
                         <a href="quiz/create" class="empty-action">Create First Quiz</a>
@@ -976,6 +978,33 @@
                 </div>
             </div>
             
+            <!-- Trending Now -->
+            <div class="content-card">
+                <div class="content-card-header">
+                    <div class="content-card-icon">🔥</div>
+                    <div class="content-card-title">Trending Now</div>
+                </div>
+                <div class="content-card-body">
+                    <% if (trendingQuizzes != null && !trendingQuizzes.isEmpty()) { %>
+                    <ul class="quiz-list">
+                        <% for (Quiz quiz : trendingQuizzes) { %>
+                        <li class="quiz-item">
+                            <a href="quiz?id=<%= quiz.getQuizId() %>" class="quiz-link">
+                                <div class="quiz-title"><%= quiz.getTitle() %></div>
+                            </a>
+                        </li>
+                        <% } %>
+                    </ul>
+                    <% } else { %>
+                    <div class="empty-state">
+                        <div class="empty-icon">🔥</div>
+                        <div class="empty-title">Nothing trending right now</div>
+                        <div class="empty-text">Take a quiz and it will show up here!</div>
+                    </div>
+                    <% } %>
+                </div>
+            </div>
+            
             <!-- Recent Quizzes -->
             <div class="content-card">
                 <div class="content-card-header">
@@ -1028,7 +1057,7 @@
                         <span class="user-action-icon">👥</span>
                         <span>Manage Friends</span>
                     </a>
-                    <a href="${pageContext.request.contextPath}/messages" class="user-action-btn">
+                    <a href="${pageContext.request.contextPath}/messages" class="user-action-btn" id="messages-link">
                         <span class="user-action-icon">💬</span>
                         <span>View Messages</span>
                         <% Integer unreadCount = (Integer) request.getAttribute("unreadMessageCount"); %>
@@ -1041,6 +1070,23 @@
                         <% } %>
                     </a>
                 </div>
+                <script>
+                    // New messages arrive over the notification stream and bump the badge in place
+                    if (window.EventSource) {
+                        new EventSource("${pageContext.request.contextPath}/notifications/stream")
+                            .addEventListener("message", function () {
+                                var link = document.getElementById("messages-link");
+                                var badge = link.querySelector(".message-badge");
+                                if (!badge) {
+                                    badge = document.createElement("span");
+                                    badge.className = "message-badge";
+                                    badge.textContent = "0";
+                                    link.appendChild(badge);
+                                }
+                                badge.textContent = String(parseInt(badge.textContent, 10) + 1);
+                            });
+                    }
+                </script>
                 
                 <!-- User's Recent Attempts -->
                 <% if (recentAttempts != null && !recentAttempts.isEmpty()) { %>
@@ -1075,7 +1121,26 @@
                 </div>
                 <% } %>
                 
-                <!-- User's Created Quizzes -->
+                <!-- Recommended Quizzes -->
+                <% if (recommendedQuizzes != null && !recommendedQuizzes.isEmpty()) { %>
+                <div class="user-section">
+                    <h3 class="user-section-title">
+                        <span>💡</span>
+                        Recommended For You
+                    </h3>
+                    <ul class="quiz-list">
+                        <% for (Quiz quiz : recommendedQuizzes) { %>
+                        <li class="quiz-item">
+                            <a href="quiz?id=<%= quiz.getQuizId() %>" class="quiz-link">
+                                <div class="quiz-title"><%= quiz.getTitle() %></div>
+                            </a>
+                        </li>
+                        <% } %>
+                    </ul>
+                </div>
+                <% } %>
+                
+                                <!-- User's Created Quizzes -->
                 <% if (userCreatedQuizzes != null && !userCreatedQuizzes.isEmpty()) { %>
                 <div class="user-section">
                     <h3 class="user-section-title">
@@ -269,6 +269,12 @@
                 <p>View and delete quizzes from the system</p>
             </a>
             
+            <a href="${pageContext.request.contextPath}/admin/questions/duplicates" class="action-btn">
+                <i class="icon">🧬</i>
+                <h3>Duplicate Questions</h3>
+                <p>Find copied or near-identical questions</p>
+            </a>
+            
             <a href="${pageContext.request.contextPath}/admin/cleanup" class="action-btn">
                 <i class="icon">🧹</i>
                 <h3>Data Cleanup</h3>
@@ -0,0 +1,315 @@
+<%@ page language="java" contentType="text/html; charset=UTF-8" pageEncoding="UTF-8"%>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/functions" prefix="fn" %>
+<!DOCTYPE html>
+<html lang="en">
+<head>
+    <meta charset="UTF-8">
+    <meta name="viewport" content="width=device-width, initial-scale=1.0">
+    <title>Duplicate Questions - Admin Panel</title>
+    <style>
+        * {
+            margin: 0;
+            padding: 0;
+            box-sizing: border-box;
+        }
+
+        body {
+            font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;
+            background: linear-gradient(135deg, #c62828 0%, #b71c1c 100%);
+            min-height: 100vh;
+            color: #333;
+        }
+
+        .header {
+            background: linear-gradient(135deg, #c62828 0%, #b71c1c 100%);
+            color: white;
+            padding: 20px 0;
+            box-shadow: 0 4px 20px rgba(0, 0, 0, 0.2);
+            position: sticky;
+            top: 0;
+            z-index: 100;
+        }
+
+        .header-content {
+            max-width: 1400px;
+            margin: 0 auto;
+            padding: 0 20px;
+            display: flex;
+            justify-content: space-between;
+            align-items: center;
+        }
+
+        .header h1 {
+            font-size: 2.2em;
+            font-weight: 700;
+            margin: 0;
+        }
+
+        .nav-buttons {
+            display: flex;
+            gap: 15px;
+            align-items: center;
+        }
+
+        .nav-buttons span {
+            font-size: 1.1em;
+            font-weight: 500;
+        }
+
+        .nav-btn {
+            background: rgba(255, 255, 255, 0.2);
+            color: white;
+            border: none;
+            padding: 10px 20px;
+            border-radius: 8px;
+            text-decoration: none;
+            font-weight: 600;
+            transition: all 0.3s ease;
+            cursor: pointer;
+            font-size: 0.95em;
+        }
+
+        .nav-btn:hover {
+            background: rgba(255, 255, 255, 0.3);
+            transform: translateY(-2px);
+        }
+
+        .container {
+            max-width: 1400px;
+            margin: 0 auto;
+            padding: 30px 20px;
+        }
+
+        .breadcrumb {
+            background: rgba(255, 255, 255, 0.95);
+            border-radius: 10px;
+            padding: 15px 20px;
+            margin-bottom: 30px;
+            color: #666;
+            font-size: 0.95em;
+            box-shadow: 0 2px 10px rgba(0, 0, 0, 0.1);
+        }
+
+        .breadcrumb a {
+            color: #c62828;
+            text-decoration: none;
+            font-weight: 500;
+        }
+
+        .admin-actions {
+            background: rgba(255, 255, 255, 0.95);
+            border-radius: 15px;
+            padding: 20px;
+            margin-bottom: 30px;
+            display: flex;
+            justify-content: space-between;
+            align-items: center;
+            flex-wrap: wrap;
+            gap: 15px;
+            box-shadow: 0 5px 20px rgba(0, 0, 0, 0.1);
+        }
+
+        .filter-form {
+            display: flex;
+            align-items: center;
+            gap: 10px;
+        }
+
+        .filter-input {
+            padding: 12px 15px;
+            border: 2px solid #e2e8f0;
+            border-radius: 10px;
+            width: 100px;
+            font-size: 0.95em;
+        }
+
+        .btn {
+            padding: 12px 20px;
+            border: none;
+            border-radius: 10px;
+            cursor: pointer;
+            font-size: 0.95em;
+            font-weight: 600;
+            text-decoration: none;
+            display: inline-block;
+            text-align: center;
+            background: linear-gradient(135deg, #c62828 0%, #b71c1c 100%);
+            color: white;
+        }
+
+        .stat-label {
+            font-size: 0.9em;
+            color: #718096;
+            font-weight: 500;
+        }
+
+        .pairs-table-container {
+            background: rgba(255, 255, 255, 0.95);
+            border-radius: 15px;
+            padding: 30px;
+            box-shadow: 0 10px 30px rgba(0, 0, 0, 0.1);
+        }
+
+        .table-header {
+            display: flex;
+            justify-content: space-between;
+            align-items: center;
+            margin-bottom: 25px;
+        }
+
+        .table-title {
+            font-size: 1.4em;
+            font-weight: 600;
+            color: #4a5568;
+        }
+
+        .pairs-table {
+            width: 100%;
+            border-collapse: collapse;
+        }
+
+        .pairs-table th,
+        .pairs-table td {
+            padding: 15px 12px;
+            text-align: left;
+            border-bottom: 1px solid #e2e8f0;
+            vertical-align: top;
+        }
+
+        .pairs-table th {
+            background: linear-gradient(135deg, #f7fafc 0%, #edf2f7 100%);
+            font-weight: 600;
+            color: #4a5568;
+            text-transform: uppercase;
+            font-size: 0.85em;
+            letter-spacing: 0.5px;
+        }
+
+        .question-text {
+            color: #2d3748;
+            margin-bottom: 5px;
+        }
+
+        .question-meta {
+            font-size: 0.85em;
+            color: #718096;
+        }
+
+        .question-meta a {
+            color: #c62828;
+            text-decoration: none;
+        }
+
+        .similarity-badge {
+            display: inline-block;
+            padding: 4px 10px;
+            border-radius: 12px;
+            font-weight: 700;
+            background: rgba(198, 40, 40, 0.1);
+            color: #c62828;
+        }
+
+        .empty-state {
+            text-align: center;
+            padding: 60px 20px;
+            color: #718096;
+        }
+
+        .empty-state h3 {
+            margin-bottom: 10px;
+            font-size: 1.2em;
+        }
+    </style>
+</head>
+<body>
+    <!-- Header with Navigation -->
+    <div class="header">
+        <div class="header-content">
+            <h1>🧬 Duplicate Questions</h1>
+            <div class="nav-buttons">
+                <span>Welcome, ${sessionScope.admin.username}!</span>
+                <a href="${pageContext.request.contextPath}/admin/dashboard" class="nav-btn">Dashboard</a>
+                <a href="${pageContext.request.contextPath}/admin/logout" class="nav-btn">Logout</a>
+            </div>
+        </div>
+    </div>
+
+    <div class="container">
+        <!-- Breadcrumb -->
+        <div class="breadcrumb">
+            <a href="${pageContext.request.contextPath}/admin/dashboard">Admin Dashboard</a> /
+            <c:choose>
+                <c:when test="${not empty questionId}">
+                    <a href="${pageContext.request.contextPath}/admin/questions/duplicates">Duplicate Questions</a> / Question #${questionId}
+                </c:when>
+                <c:otherwise>Duplicate Questions</c:otherwise>
+            </c:choose>
+        </div>
+
+        <!-- Threshold Filter -->
+        <div class="admin-actions">
+            <form class="filter-form" method="get" action="${pageContext.request.contextPath}/admin/questions/duplicates">
+                <c:if test="${not empty questionId}">
+                    <input type="hidden" name="questionId" value="${questionId}">
+                </c:if>
+                <label for="min">Minimum similarity (%)</label>
+                <input class="filter-input" type="number" id="min" name="min" min="10" max="100" value="${minSimilarity}">
+                <button class="btn" type="submit">Apply</button>
+            </form>
+            <span class="stat-label">${indexedCount} questions indexed</span>
+        </div>
+
+        <!-- Pairs Table -->
+        <div class="pairs-table-container">
+            <div class="table-header">
+                <h2 class="table-title">Similar Question Pairs</h2>
+                <span class="stat-label">Showing ${fn:length(pairs)} pairs</span>
+            </div>
+
+            <c:choose>
+                <c:when test="${empty pairs}">
+                    <div class="empty-state">
+                        <h3>No Similar Questions Found</h3>
+                        <p>No question pairs reach ${minSimilarity}% similarity.</p>
+                    </div>
+                </c:when>
+                <c:otherwise>
+                    <table class="pairs-table">
+                        <thead>
+                            <tr>
+                                <th>Similarity</th>
+                                <th>Question</th>
+                                <th>Similar Question</th>
+                            </tr>
+                        </thead>
+                        <tbody>
+                            <c:forEach items="${pairs}" var="pair">
+                                <c:set var="first" value="${questions[pair.questionId]}"/>
+                                <c:set var="second" value="${questions[pair.similarQuestionId]}"/>
+                                <tr>
+                                    <td><span class="similarity-badge">${pair.similarityPercent}%</span></td>
+                                    <td>
+                                        <div class="question-text">${fn:escapeXml(first.questionText)}</div>
+                                        <div class="question-meta">
+                                            <a href="${pageContext.request.contextPath}/admin/questions/duplicates?questionId=${pair.questionId}">#${pair.questionId}</a>
+                                            in ${fn:escapeXml(quizTitles[first.quizId])}
+                                        </div>
+                                    </td>
+                                    <td>
+                                        <div class="question-text">${fn:escapeXml(second.questionText)}</div>
+                                        <div class="question-meta">
+                                            <a href="${pageContext.request.contextPath}/admin/questions/duplicates?questionId=${pair.similarQuestionId}">#${pair.similarQuestionId}</a>
+                                            in ${fn:escapeXml(quizTitles[second.quizId])}
+                                        </div>
+                                    </td>
+                                </tr>
+                            </c:forEach>
+                        </tbody>
+                    </table>
+                </c:otherwise>
+            </c:choose>
+        </div>
+    </div>
+</body>
+</html>
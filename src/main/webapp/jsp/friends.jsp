@@ -5,6 +5,7 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/fmt" prefix="fmt" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/functions" prefix="fn" %>
 <%@ page import="model.User" %>
 <!DOCTYPE html>
 <html>
@@ -232,7 +233,8 @@
     <div class="section">
         <h3>Send Friend Request</h3>
         <form action="${pageContext.request.contextPath}/friends/request" method="post" class="form-container">
-            <input type="text" name="friendUsername" placeholder="Enter username" required />
+            <input type="text" id="friendUsername" name="friendUsername" placeholder="Enter username" list="usernameSuggestions" autocomplete="off" required />
+            <datalist id="usernameSuggestions"></datalist>
             <button type="submit" class="btn-send">Send Request</button>
         </form>
     </div>
@@ -303,6 +305,30 @@
             </c:otherwise>
         </c:choose>
     </div>
+    <c:if test="${not empty suggestions}">
+    <div class="section">
+        <h3>People You May Know</h3>
+        <c:forEach var="suggestion" items="${suggestions}">
+            <div class="friend-item">
+                <div class="friend-info">
+                    <div class="friend-name">
+                        <c:url var="profileUrl" value="/user"><c:param name="username" value="${suggestion.username}"/></c:url>
+                        <a href="${profileUrl}"><c:out value="${suggestion.username}"/></a>
+                    </div>
+                    <div class="friend-date">
+                        ${suggestion.mutualCount} mutual friend${suggestion.mutualCount == 1 ? '' : 's'}
+                    </div>
+                </div>
+                <div class="action-buttons">
+                    <form action="${pageContext.request.contextPath}/friends/request" method="post" style="display: inline;">
+                        <input type="hidden" name="friendUsername" value="${fn:escapeXml(suggestion.username)}" />
+                        <button type="submit" class="btn-accept">Add Friend</button>
+                    </form>
+                </div>
+            </div>
+        </c:forEach>
+    </div>
+    </c:if>
     <div class="section">
         <h3>Quick Links</h3>
         <p>
@@ -312,5 +338,35 @@
         </p>
     </div>
 </div>
+    <script>
+        // Suggest usernames while typing; friends are listed first by the server
+        function attachUsernameSuggestions(input, list) {
+            let timer = null;
+            input.addEventListener('input', () => {
+                clearTimeout(timer);
+                const prefix = input.value.trim();
+                if (prefix.length === 0) {
+                    list.innerHTML = '';
+                    return;
+                }
+                timer = setTimeout(() => {
+                    fetch('${pageContext.request.contextPath}/api/users/autocomplete?q=' + encodeURIComponent(prefix))
+                        .then(resp => resp.ok ? resp.json() : { matches: [] })
+                        .then(body => {
+                            list.innerHTML = '';
+                            body.matches.forEach(match => {
+                                const option = document.createElement('option');
+                                option.value = match.username;
+                                if (match.friend) {
+                                    option.label = 'Friend';
+                                }
+                                list.appendChild(option);
+                            });
+                        });
+                }, 150);
+            });
+        }
+        attachUsernameSuggestions(document.getElementById('friendUsername'), document.getElementById('usernameSuggestions'));
+    </script>
 </body>
 </html> 
\ No newline at end of file
@@ -274,31 +274,15 @@
     <div class="stats">
         <div class="stat-item">
             <div class="stat-number">${messages.size()}</div>
-            <div class="stat-label">Total Messages</div>
+            <div class="stat-label">On This Page</div>
         </div>
         <div class="stat-item">
-            <div class="stat-number">
-                <c:set var="unreadCount" value="0" />
-                <c:forEach var="message" items="${messages}">
-                    <c:if test="${!message.read}">
-                        <c:set var="unreadCount" value="${unreadCount + 1}" />
-                    </c:if>
-                </c:forEach>
-                ${unreadCount}
-            </div>
+            <div class="stat-number">${unreadCount}</div>
             <div class="stat-label">Unread</div>
         </div>
         <div class="stat-item">
-            <div class="stat-number">
-                <c:set var="challengeCount" value="0" />
-                <c:forEach var="message" items="${messages}">
-                    <c:if test="${message.messageType == 'challenge'}">
-                        <c:set var="challengeCount" value="${challengeCount + 1}" />
-                    </c:if>
-                </c:forEach>
-                ${challengeCount}
-            </div>
-            <div class="stat-label">Challenges</div>
+            <div class="stat-number">${unreadChallengeCount}</div>
+            <div class="stat-label">Unread Challenges</div>
         </div>
     </div>
     <div class="section">
@@ -307,7 +291,8 @@
             <div class="form-row">
                 <div class="form-group">
                     <label for="recipient">Recipient Username:</label>
-                    <input type="text" id="recipient" name="recipient" required placeholder="Enter username" value="${param.friendUsername}" />
+                    <input type="text" id="recipient" name="recipient" required placeholder="Enter username" value="${param.friendUsername}" list="usernameSuggestions" autocomplete="off" />
+                    <datalist id="usernameSuggestions"></datalist>
                 </div>
                 <div class="form-group">
                     <label for="messageTypeSelect">Message Type:</label>
@@ -331,6 +316,16 @@
             <button type="submit" id="submitBtn" class="primary-btn">Send Note</button>
         </form>
     </div>
+    <div class="section">
+        <h3>Challenge All Friends</h3>
+        <form action="${pageContext.request.contextPath}/messages/challengeFriends" method="post">
+            <div class="form-group">
+                <label for="broadcastQuizName">Quiz Name:</label>
+                <input type="text" id="broadcastQuizName" name="quizName" required placeholder="Enter quiz name" />
+            </div>
+            <button type="submit" class="primary-btn">Challenge All Friends</button>
+        </form>
+    </div>
     <div class="section">
         <h3>Your Messages</h3>
         <div class="message-filter" style="margin-bottom: 1em;">
@@ -402,7 +397,48 @@
                 </c:forEach>
             </c:otherwise>
         </c:choose>
+        <c:if test="${currentPage > 1 || hasNextPage}">
+            <div class="message-actions" style="justify-content: center; margin-top: 1em;">
+                <c:if test="${currentPage > 1}">
+                    <a href="${pageContext.request.contextPath}/messages?page=${currentPage - 1}" class="btn btn-small btn-primary">&larr; Newer</a>
+                </c:if>
+                <span>Page ${currentPage}</span>
+                <c:if test="${hasNextPage}">
+                    <a href="${pageContext.request.contextPath}/messages?page=${currentPage + 1}" class="btn btn-small btn-primary">Older &rarr;</a>
+                </c:if>
+            </div>
+        </c:if>
     </div>
 </div>
+    <script>
+        // Suggest usernames while typing; friends are listed first by the server
+        function attachUsernameSuggestions(input, list) {
+            let timer = null;
+            input.addEventListener('input', () => {
+                clearTimeout(timer);
+                const prefix = input.value.trim();
+                if (prefix.length === 0) {
+                    list.innerHTML = '';
+                    return;
+                }
+                timer = setTimeout(() => {
+                    fetch('${pageContext.request.contextPath}/api/users/autocomplete?q=' + encodeURIComponent(prefix))
+                        .then(resp => resp.ok ? resp.json() : { matches: [] })
+                        .then(body => {
+                            list.innerHTML = '';
+                            body.matches.forEach(match => {
+                                const option = document.createElement('option');
+                                option.value = match.username;
+                                if (match.friend) {
+                                    option.label = 'Friend';
+                                }
+                                list.appendChild(option);
+                            });
+                        });
+                }, 150);
+            });
+        }
+        attachUsernameSuggestions(document.getElementById('recipient'), document.getElementById('usernameSuggestions'));
+    </script>
 </body>
 </html> 
\ No newline at end of file
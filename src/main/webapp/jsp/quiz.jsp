@@ -131,6 +131,31 @@
             color: #34495e;
             font-size: 15px;
         }
+        .similar-quizzes {
+            margin-top: 30px;
+            text-align: left;
+        }
+        .similar-quizzes h3 {
+            color: #34495e;
+            font-size: 16px;
+            margin-bottom: 10px;
+        }
+        .similar-quizzes ul {
+            list-style: none;
+        }
+        .similar-quizzes li {
+            padding: 8px 0;
+            border-bottom: 1px solid #ecf0f1;
+        }
+        .similar-quizzes a {
+            color: #667eea;
+            text-decoration: none;
+            font-weight: 500;
+        }
+        .similar-quizzes a:hover {
+            color: #764ba2;
+            text-decoration: underline;
+        }
         @media (max-width: 600px) {
             .main-container {
                 margin: 20px;
@@ -155,6 +180,7 @@
         <a href="${pageContext.request.contextPath}/quiz-summery?quizId=${quiz.quizId}">View Quiz Rankings & Summary</a>
         <c:if test="${not empty sessionScope.user}">
             | <a href="${pageContext.request.contextPath}/quizHistory?quizId=${quiz.quizId}">History</a>
+            | <a href="${pageContext.request.contextPath}/leaderboard/quiz?quizId=${quiz.quizId}">My Rank</a>
         </c:if>
     </div>
     <form action="${pageContext.request.contextPath}/takeQuiz" method="get">
@@ -165,6 +191,26 @@
         <button type="submit" class="primary-btn">Start Quiz</button>
     </form>
     <a href="${pageContext.request.contextPath}/" class="primary-btn" style="width:auto; background:rgba(102,126,234,0.12); color:#667eea; border:1px solid #667eea; margin-top:10px;">Back to Home</a>
+    <c:if test="${not empty similarQuizzes}">
+        <div class="similar-quizzes">
+            <h3>People who took this quiz also took</h3>
+            <ul>
+                <c:forEach var="similar" items="${similarQuizzes}">
+                    <li><a href="${pageContext.request.contextPath}/quiz?id=${similar.quizId}"><c:out value="${similar.title}"/></a></li>
+                </c:forEach>
+            </ul>
+        </div>
+    </c:if>
+    <c:if test="${not empty relatedQuizzes}">
+        <div class="similar-quizzes">
+            <h3>Quizzes on similar topics</h3>
+            <ul>
+                <c:forEach var="related" items="${relatedQuizzes}">
+                    <li><a href="${pageContext.request.contextPath}/quiz?id=${related.quizId}"><c:out value="${related.title}"/></a></li>
+                </c:forEach>
+            </ul>
+        </div>
+    </c:if>
 </div>
 </body>
 </html>
@@ -12,6 +12,8 @@
     Integer totalQuestions = (Integer) request.getAttribute("totalQuestions");
     Long timeTaken = (Long) request.getAttribute("timeTaken");
     Boolean practiceMode = (Boolean) request.getAttribute("practiceMode");
+    Integer scorePercentile = (Integer) request.getAttribute("scorePercentile");
+    Integer timePercentile = (Integer) request.getAttribute("timePercentile");
 %>
 <!DOCTYPE html>
 <html>
@@ -184,6 +186,10 @@
             border-left-color: #667eea;
         }
         
+        .stat-card.percentile {
+            border-left-color: #fdcb6e;
+        }
+        
         .stat-icon {
             font-size: 2rem;
             margin-bottom: 10px;
@@ -343,6 +349,22 @@
                     <div class="stat-value"><%= timeTaken %></div>
                     <div class="stat-label">Seconds</div>
                 </div>
+                
+                <% if (scorePercentile != null) { %>
+                <div class="stat-card percentile">
+                    <div class="stat-icon">📊</div>
+                    <div class="stat-value"><%= scorePercentile %>%</div>
+                    <div class="stat-label">You scored better than <%= scorePercentile %>% of takers</div>
+                </div>
+                <% } %>
+                
+                <% if (timePercentile != null) { %>
+                <div class="stat-card percentile">
+                    <div class="stat-icon">⚡</div>
+                    <div class="stat-value"><%= timePercentile %>%</div>
+                    <div class="stat-label">You were faster than <%= timePercentile %>% of takers</div>
+                </div>
+                <% } %>
             </div>
             
             <!-- Performance Indicator -->
@@ -8,9 +8,21 @@
 <%@ page contentType="text/html;charset=UTF-8" language="java" %>
 <%@ page import="model.Quiz" %>
 <%@ page import="java.util.List" %>
+<%@ page import="java.util.Map" %>
+<%@ page import="java.util.Arrays" %>
+<%@ page import="service.QuizCatalog" %>
 <%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
 <%
     List<Quiz> quizzes = (List<Quiz>) request.getAttribute("quizzes");
+    String searchQuery = (String) request.getAttribute("searchQuery");
+    String searchValue = searchQuery == null ? "" : searchQuery.replace("&", "&amp;").replace("\"", "&quot;").replace("<", "&lt;");
+    QuizCatalog.Page catalogPage = (QuizCatalog.Page) request.getAttribute("catalogPage");
+    Map<String, String> creatorNames = (Map<String, String>) request.getAttribute("creatorNames");
+    String filterQuery = (String) request.getAttribute("filterQuery");
+    Integer currentPage = (Integer) request.getAttribute("currentPage");
+    boolean filtered = filterQuery != null && !filterQuery.isEmpty();
+    List<String> selectedTypes = request.getParameterValues("type") == null ? List.of() : Arrays.asList(request.getParameterValues("type"));
+    List<String> selectedCreators = request.getParameterValues("creator") == null ? List.of() : Arrays.asList(request.getParameterValues("creator"));
 %>
 <!DOCTYPE html>
 <html>
@@ -127,6 +139,95 @@
             font-size: 1.1rem;
         }
         
+        /* =========================== SEARCH =========================== */
+        .search-form {
+            display: flex;
+            gap: 10px;
+            max-width: 600px;
+            margin: 0 auto 30px;
+        }
+        
+        .search-input {
+            flex: 1;
+            padding: 12px 18px;
+            border: 2px solid #e9ecef;
+            border-radius: 25px;
+            font-size: 1rem;
+            outline: none;
+        }
+        
+        .search-input:focus {
+            border-color: #667eea;
+        }
+        
+        .search-btn {
+            padding: 12px 24px;
+            background: linear-gradient(135deg, #667eea, #764ba2);
+            color: white;
+            border: none;
+            border-radius: 25px;
+            font-weight: 600;
+            cursor: pointer;
+        }
+        
+        /* =========================== FACETS =========================== */
+        .facet-form {
+            display: flex;
+            flex-wrap: wrap;
+            gap: 15px;
+            align-items: flex-end;
+            background: #f8f9fa;
+            border-radius: 16px;
+            padding: 20px;
+            margin-bottom: 25px;
+        }
+        
+        .facet-group {
+            display: flex;
+            flex-direction: column;
+            gap: 6px;
+            font-size: 0.9rem;
+            color: #495057;
+        }
+        
+        .facet-group label.facet-title {
+            font-weight: 600;
+            color: #343a40;
+        }
+        
+        .facet-group select,
+        .facet-group input[type="number"] {
+            padding: 8px 10px;
+            border: 2px solid #e9ecef;
+            border-radius: 10px;
+            font-size: 0.9rem;
+        }
+        
+        .facet-group input[type="number"] {
+            width: 80px;
+        }
+        
+        .facet-count {
+            color: #868e96;
+            font-size: 0.8rem;
+        }
+        
+        .facet-reset {
+            color: #667eea;
+            text-decoration: none;
+            font-weight: 600;
+            padding: 8px 0;
+        }
+        
+        .pagination {
+            display: flex;
+            justify-content: center;
+            align-items: center;
+            gap: 15px;
+            margin-top: 30px;
+            color: #6c757d;
+        }
+        
         /* =========================== QUIZ GRID =========================== */
         .quizzes-grid {
             display: grid;
@@ -363,9 +464,91 @@
         </div>
         
         <div class="content-area">
+            <form class="search-form" action="${pageContext.request.contextPath}/quizzes" method="get">
+                <input class="search-input" type="search" name="q" value="<%= searchValue %>" placeholder="Search quizzes and questions...">
+                <button class="search-btn" type="submit">🔍 Search</button>
+            </form>
+            
+            <% if (catalogPage != null) {
+                Map<String, Map<String, Integer>> facets = catalogPage.getFacets();
+                String sort = request.getParameter("sort") == null ? "newest" : request.getParameter("sort");
+            %>
+            <form class="facet-form" action="${pageContext.request.contextPath}/quizzes" method="get">
+                <% String[][] flagFacets = {{"practice", QuizCatalog.FACET_PRACTICE, "Practice mode"}, {"onePage", QuizCatalog.FACET_ONE_PAGE, "Single page"}, {"immediate", QuizCatalog.FACET_IMMEDIATE_CORRECTION, "Immediate correction"}};
+                   for (String[] flag : flagFacets) {
+                       String selected = request.getParameter(flag[0]);
+                       Map<String, Integer> counts = facets.get(flag[1]); %>
+                <div class="facet-group">
+                    <label class="facet-title" for="<%= flag[0] %>"><%= flag[2] %></label>
+                    <select id="<%= flag[0] %>" name="<%= flag[0] %>">
+                        <option value="">Any</option>
+                        <option value="yes" <%= "yes".equals(selected) ? "selected" : "" %>>Yes (<%= counts.get("yes") %>)</option>
+                        <option value="no" <%= "no".equals(selected) ? "selected" : "" %>>No (<%= counts.get("no") %>)</option>
+                    </select>
+                </div>
+                <% } %>
+                <div class="facet-group">
+                    <label class="facet-title">Question types</label>
+                    <% for (Map.Entry<String, Integer> type : facets.get(QuizCatalog.FACET_TYPE).entrySet()) { %>
+                    <label>
+                        <input type="checkbox" name="type" value="<%= type.getKey() %>" <%= selectedTypes.contains(type.getKey()) ? "checked" : "" %>>
+                        <%= type.getKey() %> <span class="facet-count">(<%= type.getValue() %>)</span>
+                    </label>
+                    <% } %>
+                    <label>
+                        <input type="checkbox" name="typeMatch" value="all" <%= "all".equals(request.getParameter("typeMatch")) ? "checked" : "" %>>
+                        Require all selected types
+                    </label>
+                </div>
+                <div class="facet-group">
+                    <label class="facet-title" for="creator">Creator</label>
+                    <select id="creator" name="creator">
+                        <option value="">Anyone</option>
+                        <% for (Map.Entry<String, Integer> creator : facets.get(QuizCatalog.FACET_CREATOR).entrySet()) { %>
+                        <option value="<%= creator.getKey() %>" <%= selectedCreators.contains(creator.getKey()) ? "selected" : "" %>>
+                            <%= creatorNames.get(creator.getKey()).replace("<", "&lt;") %> (<%= creator.getValue() %>)
+                        </option>
+                        <% } %>
+                    </select>
+                </div>
+                <div class="facet-group">
+                    <label class="facet-title">Questions</label>
+                    <div>
+                        <input type="number" name="minQuestions" min="0" placeholder="Min" value="<%= request.getParameter("minQuestions") != null ? request.getParameter("minQuestions").replace("\"", "") : "" %>">
+                        &ndash;
+                        <input type="number" name="maxQuestions" min="0" placeholder="Max" value="<%= request.getParameter("maxQuestions") != null ? request.getParameter("maxQuestions").replace("\"", "") : "" %>">
+                    </div>
+                    <span class="facet-count">
+                        <% for (Map.Entry<String, Integer> size : facets.get(QuizCatalog.FACET_QUESTIONS).entrySet()) { %>
+                        <%= size.getKey() %>: <%= size.getValue() %>&nbsp;
+                        <% } %>
+                    </span>
+                </div>
+                <div class="facet-group">
+                    <label class="facet-title" for="sort">Sort by</label>
+                    <select id="sort" name="sort">
+                        <option value="newest" <%= "newest".equals(sort) ? "selected" : "" %>>Newest</option>
+                        <option value="oldest" <%= "oldest".equals(sort) ? "selected" : "" %>>Oldest</option>
+                        <option value="title" <%= "title".equals(sort) ? "selected" : "" %>>Title</option>
+                        <option value="questions" <%= "questions".equals(sort) ? "selected" : "" %>>Most questions</option>
+                    </select>
+                </div>
+                <button class="search-btn" type="submit">Filter</button>
+                <% if (filtered) { %>
+                <a class="facet-reset" href="${pageContext.request.contextPath}/quizzes">Clear filters</a>
+                <% } %>
+            </form>
+            <% } %>
+            
             <% if (quizzes != null && !quizzes.isEmpty()) { %>
                 <div class="quiz-count">
+                    <% if (searchQuery != null) { %>
+                    <%= quizzes.size() %> quiz<%= quizzes.size() != 1 ? "zes" : "" %> matching "<%= searchValue %>"
+                    <% } else if (catalogPage != null) { %>
+                    Showing <%= catalogPage.getOffset() + 1 %>&ndash;<%= catalogPage.getOffset() + quizzes.size() %> of <%= catalogPage.getTotal() %> quiz<%= catalogPage.getTotal() != 1 ? "zes" : "" %>
+                    <% } else { %>
                     Showing <%= quizzes.size() %> quiz<%= quizzes.size() != 1 ? "es" : "" %> available
+                    <% } %>
                 </div>
                 
                 <div class="quizzes-grid">
@@ -391,6 +574,38 @@
                         </div>
                     <% } %>
                 </div>
+                
+                <% if (catalogPage != null && (catalogPage.hasPrevious() || catalogPage.hasNext())) {
+                    String pageBase = request.getContextPath() + "/quizzes?" + (filtered ? filterQuery + "&" : "") + "page="; %>
+                <div class="pagination">
+                    <% if (catalogPage.hasPrevious()) { %>
+                    <a href="<%= pageBase + (currentPage - 1) %>" class="quiz-btn btn-secondary">← Previous</a>
+                    <% } %>
+                    <span>Page <%= currentPage %></span>
+                    <% if (catalogPage.hasNext()) { %>
+                    <a href="<%= pageBase + (currentPage + 1) %>" class="quiz-btn btn-secondary">Next →</a>
+                    <% } %>
+                </div>
+                <% } %>
+            <% } else if (searchQuery != null) { %>
+                <div class="empty-state">
+                    <div class="empty-icon">🔍</div>
+                    <div class="empty-title">No Matching Quizzes</div>
+                    <div class="empty-text">
+                        Nothing matched "<%= searchValue %>". Try fewer or different words.
+                    </div>
+                </div>
+            <% } else if (filtered) { %>
+                <div class="empty-state">
+                    <div class="empty-icon">🔎</div>
+                    <div class="empty-title">No Quizzes Match These Filters</div>
+                    <div class="empty-text">
+                        Try removing a filter or widening the question range.
+                    </div>
+                    <a href="${pageContext.request.contextPath}/quizzes" class="empty-action">
+                        Clear filters
+                    </a>
+                </div>
             <% } else { %>
                 <div class="empty-state">
                     <div class="empty-icon">📚</div>
@@ -470,6 +470,12 @@
                         <span class="profile-label">Registered on:</span>
                         <span class="profile-value">${userInfo.createdDate}</span>
                     </div>
+                    <c:if test="${mutualFriendCount != null}">
+                    <div class="profile-info-item">
+                        <span class="profile-label">Mutual Friends:</span>
+                        <span class="profile-value">${mutualFriendCount}<c:if test="${not empty mutualFriendNames}"> (<c:forEach var="name" items="${mutualFriendNames}" varStatus="s"><c:out value="${name}"/>${s.last ? '' : ', '}</c:forEach>${mutualFriendCount > fn:length(mutualFriendNames) ? ', ...' : ''})</c:if></span>
+                    </div>
+                    </c:if>
                 </div>
             </div>
 
@@ -488,6 +494,24 @@
                         <span class="profile-label">Average Score:</span>
                         <span class="profile-value">${avgScore}</span>
                     </div>
+                    <c:if test="${userStats != null}">
+                    <div class="profile-info-item">
+                        <span class="profile-label">Graded Attempts:</span>
+                        <span class="profile-value">${userStats.gradedAttempts}</span>
+                    </div>
+                    <div class="profile-info-item">
+                        <span class="profile-label">Best Streak:</span>
+                        <span class="profile-value">${userStats.bestStreak} ${userStats.bestStreak == 1 ? 'day' : 'days'}</span>
+                    </div>
+                    <div class="profile-info-item">
+                        <span class="profile-label">Quizzes Created:</span>
+                        <span class="profile-value">${userStats.quizzesCreated}</span>
+                    </div>
+                    <div class="profile-info-item">
+                        <span class="profile-label">Last Active:</span>
+                        <span class="profile-value">${userStats.lastActive != null ? userStats.lastActive : 'Never'}</span>
+                    </div>
+                    </c:if>
                 </div>
             </div>
 
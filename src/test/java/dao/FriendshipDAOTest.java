@@ -6,6 +6,8 @@ import org.junit.jupiter.api.*;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -891,4 +893,61 @@ class FriendshipDAOTest {
         assertEquals(0, friendshipDAO.getFriendCount(TEST_REQUESTER_ID));
         assertEquals(0, friendshipDAO.getFriendCount(TEST_RECEIVER_ID));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @Order(37)
+    @DisplayName("Test friendship edges are backfilled and serve lookups")
+    void testMigrateEdges_Success() throws SQLException {
+        // Arrange - a friendship written as an older deployment would have, without edges
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO friendships (requester_id, receiver_id, status, date_accepted) " +
+                "VALUES (" + TEST_REQUESTER_ID + ", " + TEST_RECEIVER_ID + ", 'accepted', NOW())");
+            stmt.executeUpdate("DELETE FROM friend_edges WHERE user_id IN (1, 2, 3, 4)");
+        }
+
+        // Act
+        int inserted = friendshipDAO.migrateEdges();
+
+        // Assert
+        assertTrue(inserted >= 2, "Both directions should be backfilled");
+        assertTrue(friendshipDAO.isEdgesReady());
+        assertTrue(friendshipDAO.areFriends(TEST_RECEIVER_ID, TEST_REQUESTER_ID));
+        assertEquals(1, friendshipDAO.getFriendCount(TEST_REQUESTER_ID));
+        assertEquals(List.of(TEST_REQUESTER_ID), friendshipDAO.getFriendIds(TEST_RECEIVER_ID));
+
+        // New writes maintain their own edges
+        Friendship request = friendshipDAO.sendFriendRequest(TEST_USER3_ID, TEST_REQUESTER_ID);
+        assertTrue(friendshipDAO.friendshipExists(TEST_REQUESTER_ID, TEST_USER3_ID));
+        assertEquals(0, friendshipDAO.getFriendCount(TEST_USER3_ID));
+        friendshipDAO.acceptFriendRequest(request.getFriendshipId());
+        assertEquals(2, friendshipDAO.getFriendCount(TEST_REQUESTER_ID));
+        assertEquals(2, friendshipDAO.getFriends(TEST_REQUESTER_ID).size());
+
+        // Removal cascades to both edges
+        assertTrue(friendshipDAO.removeFriendship(TEST_USER3_ID, TEST_REQUESTER_ID));
+        assertFalse(friendshipDAO.friendshipExists(TEST_REQUESTER_ID, TEST_USER3_ID));
+        assertEquals(1, friendshipDAO.deleteAllFriendships(TEST_RECEIVER_ID));
+        assertEquals(0, friendshipDAO.getFriendCount(TEST_REQUESTER_ID));
+    }
+
+    @Test
+    @Order(38)
+    @DisplayName("Test every friendship is visited once in ID order")
+    void testForEachFriendship_Success() throws SQLException {
+        // Arrange
+        Friendship first = friendshipDAO.sendFriendRequest(TEST_REQUESTER_ID, TEST_RECEIVER_ID);
+        Friendship second = friendshipDAO.sendFriendRequest(TEST_USER3_ID, TEST_REQUESTER_ID);
+        Friendship third = friendshipDAO.sendFriendRequest(TEST_USER4_ID, TEST_RECEIVER_ID);
+
+        // Act
+        List<Integer> ids = new ArrayList<>();
+        int visited = friendshipDAO.forEachFriendship(friendship -> ids.add(friendship.getFriendshipId()));
+
+        // Assert
+        assertEquals(ids.size(), visited, "Every visited row should be counted");
+        assertTrue(ids.containsAll(List.of(first.getFriendshipId(), second.getFriendshipId(), third.getFriendshipId())));
+        List<Integer> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        assertEquals(sorted, ids, "Rows should arrive in ID order");
+    }
+}
@@ -1,11 +1,13 @@
 package dao;
 
+import model.Conversation;
 import model.Message;
 import org.junit.jupiter.api.*;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -64,6 +66,7 @@ class MessageDAOTest {
         try (Statement stmt = connection.createStatement()) {
             // Delete messages from test users first
             stmt.executeUpdate("DELETE FROM messages WHERE sender_id IN (1, 2) OR receiver_id IN (1, 2)");
+            stmt.executeUpdate("DELETE FROM conversations WHERE user_low_id IN (1, 2) OR user_high_id IN (1, 2)");
             // Note: We don't delete test users as they might be used by other tests
         }
     }
@@ -72,6 +75,7 @@ class MessageDAOTest {
         try (Statement stmt = connection.createStatement()) {
             // Delete ALL messages from test users to ensure clean state
             stmt.executeUpdate("DELETE FROM messages WHERE sender_id IN (1, 2) OR receiver_id IN (1, 2)");
+            stmt.executeUpdate("DELETE FROM conversations WHERE user_low_id IN (1, 2) OR user_high_id IN (1, 2)");
         }
     }
 
@@ -773,4 +777,117 @@ class MessageDAOTest {
         assertFalse(messageDAO.hasPendingFriendRequest(TEST_SENDER_ID, TEST_RECEIVER_ID), 
             "Should no longer have pending friend request");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @Order(34)
+    @DisplayName("Test sending one challenge to several receivers in one insert")
+    void testSendChallenges_Success() throws SQLException {
+        List<List<Message>> notified = new ArrayList<>();
+        MessageDAO dao = new MessageDAO(connection);
+        dao.addMessageListener(new MessageDAO.MessageListener() {
+            @Override
+            public void onMessagesCreated(List<Message> messages) {
+                notified.add(messages);
+            }
+        });
+
+        List<Message> sent = dao.sendChallenges(TEST_SENDER_ID, Arrays.asList(TEST_RECEIVER_ID, TEST_SENDER_ID),
+                TEST_CHALLENGE_CONTENT, TEST_QUIZ_ID);
+
+        assertEquals(2, sent.size(), "Should create one challenge per receiver");
+        assertNotEquals(sent.get(0).getMessageId(), sent.get(1).getMessageId(), "Each row should get its own ID");
+        Message stored = messageDAO.findById(sent.get(0).getMessageId());
+        assertEquals(TEST_RECEIVER_ID, stored.getReceiverId(), "Generated keys should follow input order");
+        assertEquals(TEST_QUIZ_ID, stored.getQuizId().intValue(), "Challenge should have quiz ID");
+        assertEquals(1, notified.size(), "Listeners should be notified once for the whole batch");
+        assertEquals(0, dao.sendChallenges(TEST_SENDER_ID, Arrays.asList(), TEST_CHALLENGE_CONTENT, TEST_QUIZ_ID).size(),
+                "Should return empty list for no receivers");
+    }
+
+    @Test
+    @Order(35)
+    @DisplayName("Test inbox page with joined sender names and challenge titles")
+    void testGetInboxPage_Success() throws SQLException {
+        messageDAO.sendNote(TEST_SENDER_ID, TEST_RECEIVER_ID, "First note");
+        try { Thread.sleep(100); } catch (InterruptedException e) {}
+        messageDAO.sendChallenge(TEST_SENDER_ID, TEST_RECEIVER_ID, TEST_CHALLENGE_CONTENT, TEST_QUIZ_ID);
+
+        List<Message> page = messageDAO.getInboxPage(TEST_RECEIVER_ID, 0, 1);
+        assertEquals(1, page.size(), "Should respect the page size");
+        Message challenge = page.get(0);
+        assertEquals(Message.TYPE_CHALLENGE, challenge.getMessageType(), "Newest message should come first");
+        assertEquals("Test Quiz", challenge.getQuizName(), "Challenge should carry the quiz title");
+        assertEquals("testuser1", challenge.getSenderUsername(), "Should carry the sender's username");
+
+        List<Message> next = messageDAO.getInboxPage(TEST_RECEIVER_ID, 1, 1);
+        assertEquals(1, next.size(), "Second page should hold the older message");
+        assertNull(next.get(0).getQuizName(), "Notes should have no quiz title");
+    }
+
+    @Test
+    @Order(36)
+    @DisplayName("Test messages between two users share one conversation with a last-message pointer")
+    void testConversationAssignment_Success() throws SQLException {
+        Message first = messageDAO.sendNote(TEST_SENDER_ID, TEST_RECEIVER_ID, "First note");
+        try { Thread.sleep(1000); } catch (InterruptedException e) {}
+        Message reply = messageDAO.sendNote(TEST_RECEIVER_ID, TEST_SENDER_ID, "Reply");
+
+        assertNotNull(first.getConversationId(), "Message should be assigned a conversation");
+        assertEquals(first.getConversationId(), reply.getConversationId(), "Both directions should share the conversation");
+        assertEquals(reply.getMessageId(), messageDAO.getLatestMessage(TEST_SENDER_ID, TEST_RECEIVER_ID).getMessageId(),
+            "Latest message should be the reply");
+
+        ConversationDAO conversationDAO = new ConversationDAO(connection);
+        List<Conversation> conversations = conversationDAO.getConversations(TEST_RECEIVER_ID, null, 0, 10);
+        assertEquals(1, conversations.size(), "Receiver should see one conversation");
+        assertEquals(TEST_SENDER_ID, conversations.get(0).getOtherUserId(), "Should name the other participant");
+        assertEquals(1, conversations.get(0).getUnreadCount(), "Receiver should have one unread message");
+        assertEquals(reply.getMessageId(), conversations.get(0).getLastMessage().getMessageId(),
+            "Should carry the last message");
+    }
+
+    @Test
+    @Order(37)
+    @DisplayName("Test unread counts follow reads and deletes")
+    void testConversationUnreadCounts_Success() throws SQLException {
+        Message first = messageDAO.sendNote(TEST_SENDER_ID, TEST_RECEIVER_ID, "First note");
+        messageDAO.sendNote(TEST_SENDER_ID, TEST_RECEIVER_ID, "Second note");
+        Message third = messageDAO.sendNote(TEST_SENDER_ID, TEST_RECEIVER_ID, "Third note");
+        ConversationDAO conversationDAO = new ConversationDAO(connection);
+        int conversationId = first.getConversationId();
+
+        assertEquals(3, conversationDAO.findConversation(conversationId, TEST_RECEIVER_ID).getUnreadCount(),
+            "Each new message should count as unread");
+        messageDAO.markAsRead(first.getMessageId());
+        assertEquals(2, conversationDAO.findConversation(conversationId, TEST_RECEIVER_ID).getUnreadCount(),
+            "Reading a message should release it");
+        messageDAO.deleteMessage(third.getMessageId());
+        assertEquals(1, conversationDAO.findConversation(conversationId, TEST_RECEIVER_ID).getUnreadCount(),
+            "Deleting an unread message should release it");
+        assertEquals(1, messageDAO.markConversationRead(conversationId, TEST_RECEIVER_ID),
+            "Should mark the remaining message read");
+        assertEquals(0, conversationDAO.findConversation(conversationId, TEST_RECEIVER_ID).getUnreadCount(),
+            "Conversation should have no unread messages");
+        assertNull(conversationDAO.findConversation(conversationId, 999), "Non-participants should not see it");
+    }
+
+    @Test
+    @Order(38)
+    @DisplayName("Test conversation history pages with a keyset cursor")
+    void testGetConversationPage_Success() throws SQLException {
+        List<Message> sent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sent.add(messageDAO.sendNote(TEST_SENDER_ID, TEST_RECEIVER_ID, "Note " + i));
+        }
+        int conversationId = sent.get(0).getConversationId();
+
+        List<Message> page = messageDAO.getConversationPage(conversationId, null, 0, 3);
+        assertEquals(3, page.size(), "Should respect the page size");
+        assertEquals(sent.get(4).getMessageId(), page.get(0).getMessageId(), "Newest message should come first");
+
+        Message last = page.get(2);
+        List<Message> next = messageDAO.getConversationPage(conversationId, last.getDateSent(), last.getMessageId(), 3);
+        assertEquals(2, next.size(), "Second page should hold the remaining messages");
+        assertEquals(sent.get(0).getMessageId(), next.get(1).getMessageId(), "Oldest message should come last");
+    }
+}
@@ -315,6 +315,25 @@ class QuizAttemptDAOTest {
         assertTrue(gradedAttempts.stream().noneMatch(QuizAttempt::isPractice));
     }
 
+    @Test
+    @Order(12)
+    @DisplayName("Test streaming scan of graded attempts")
+    void testForEachGradedAttempt_Success() throws SQLException {
+        // Arrange
+        quizAttemptDAO.createSimpleAttempt(TEST_USER_ID, TEST_QUIZ_ID, 80.0, 10, 250);
+        quizAttemptDAO.createSimpleAttempt(TEST_USER_ID_2, TEST_QUIZ_ID_2, 85.0, 8, 240);
+        quizAttemptDAO.createPracticeAttempt(TEST_USER_ID, TEST_QUIZ_ID_2, 90.0, 10, 200);
+        List<QuizAttempt> visited = new java.util.ArrayList<>();
+
+        // Act
+        int count = quizAttemptDAO.forEachGradedAttempt(visited::add);
+
+        // Assert
+        assertEquals(2, count, "Should visit 2 graded attempts");
+        assertEquals(2, visited.size());
+        assertTrue(visited.stream().noneMatch(QuizAttempt::isPractice));
+    }
+
     @Test
     @Order(13)
     @DisplayName("Test get top scores for quiz")
@@ -714,4 +733,24 @@ class QuizAttemptDAOTest {
         assertTrue(foundUser2Quiz1, "User 2, Quiz 1 should be present");
         assertTrue(foundUser1Quiz2, "User 1, Quiz 2 should be present");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @Order(33)
+    @DisplayName("Test practice attempt count is per user")
+    void testGetPracticeAttemptCountByUser() throws SQLException {
+        // Clean up before test
+        cleanUpTestAttempts();
+
+        // Arrange
+        quizAttemptDAO.createPracticeAttempt(TEST_USER_ID, TEST_QUIZ_ID, 70.0, 10, 200);
+        quizAttemptDAO.createSimpleAttempt(TEST_USER_ID, TEST_QUIZ_ID, 80.0, 10, 250);
+        quizAttemptDAO.createPracticeAttempt(TEST_USER_ID_2, TEST_QUIZ_ID, 85.0, 10, 240);
+        quizAttemptDAO.createPracticeAttempt(TEST_USER_ID_2, TEST_QUIZ_ID_2, 90.0, 8, 230);
+
+        // Act & Assert
+        assertEquals(1, quizAttemptDAO.getPracticeAttemptCountByUser(TEST_USER_ID),
+                "Only the user's own practice attempts should be counted");
+        assertEquals(2, quizAttemptDAO.getPracticeAttemptCountByUser(TEST_USER_ID_2),
+                "Only the user's own practice attempts should be counted");
+    }
+}
@@ -0,0 +1,173 @@
+package dao;
+
+import model.QuizPopularity;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for QuizPopularityDAO class
+ * Tests snapshot upserts, reads, seeding from attempts and deletes
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class QuizPopularityDAOTest {
+
+    private static Connection connection;
+    private static QuizPopularityDAO popularityDAO;
+    private static final int TEST_USER_ID = 9997;
+    private static final int TEST_QUIZ_ID = 9997;
+    private static final int TEST_QUIZ_ID_2 = 9996;
+
+    @BeforeAll
+    static void setUpClass() throws SQLException {
+        connection = DatabaseConnection.getConnection();
+        popularityDAO = new QuizPopularityDAO(connection);
+        cleanUpTestData();
+        createTestData();
+    }
+
+    @AfterAll
+    static void tearDownClass() throws SQLException {
+        cleanUpTestData();
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        popularityDAO.deleteAllPopularity();
+    }
+
+    private static void cleanUpTestData() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM quiz_popularity WHERE quiz_id IN (" + TEST_QUIZ_ID + ", " + TEST_QUIZ_ID_2 + ")");
+            stmt.executeUpdate("DELETE FROM quiz_attempts WHERE quiz_id IN (" + TEST_QUIZ_ID + ", " + TEST_QUIZ_ID_2 + ")");
+            stmt.executeUpdate("DELETE FROM quizzes WHERE id IN (" + TEST_QUIZ_ID + ", " + TEST_QUIZ_ID_2 + ")");
+            stmt.executeUpdate("DELETE FROM users WHERE id = " + TEST_USER_ID);
+        }
+    }
+
+    private static void createTestData() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT IGNORE INTO users (id, username, password_hash, email, is_admin) VALUES " +
+                "(" + TEST_USER_ID + ", 'testuser9997', 'hashedpassword', 'test9997@example.com', FALSE)");
+            stmt.executeUpdate("INSERT IGNORE INTO quizzes (id, title, description, creator_id) VALUES " +
+                "(" + TEST_QUIZ_ID + ", 'Popularity Quiz 1', 'Test', " + TEST_USER_ID + "), " +
+                "(" + TEST_QUIZ_ID_2 + ", 'Popularity Quiz 2', 'Test', " + TEST_USER_ID + ")");
+        }
+    }
+
+    // ========================= CREATE / UPDATE OPERATION TESTS =========================
+
+    @Test
+    @Order(1)
+    @DisplayName("Test save and read back a popularity snapshot")
+    void testSavePopularity_NewRows_Success() throws SQLException {
+        // Arrange
+        Date now = new Date();
+        List<QuizPopularity> snapshot = Arrays.asList(
+            new QuizPopularity(TEST_QUIZ_ID, 10.0, 2.0, now),
+            new QuizPopularity(TEST_QUIZ_ID_2, 5.0, 1.0, now));
+
+        // Act
+        int written = popularityDAO.savePopularity(snapshot);
+        List<QuizPopularity> stored = popularityDAO.getAllPopularity();
+
+        // Assert
+        assertEquals(2, written);
+        assertEquals(2, stored.size());
+        QuizPopularity first = stored.stream().filter(p -> p.getQuizId() == TEST_QUIZ_ID).findFirst().orElseThrow();
+        assertEquals(10.0, first.getPopularScore(), 0.0001);
+        assertEquals(2.0, first.getTrendingScore(), 0.0001);
+        assertNotNull(first.getUpdatedAt());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test saving again overwrites existing rows")
+    void testSavePopularity_ExistingRow_Updates() throws SQLException {
+        // Arrange
+        popularityDAO.savePopularity(Collections.singletonList(new QuizPopularity(TEST_QUIZ_ID, 10.0, 2.0, new Date())));
+
+        // Act
+        popularityDAO.savePopularity(Collections.singletonList(new QuizPopularity(TEST_QUIZ_ID, 3.0, 0.5, new Date())));
+        List<QuizPopularity> stored = popularityDAO.getAllPopularity();
+
+        // Assert
+        assertEquals(1, stored.size());
+        assertEquals(3.0, stored.get(0).getPopularScore(), 0.0001);
+        assertEquals(0.5, stored.get(0).getTrendingScore(), 0.0001);
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Test saving an empty snapshot writes nothing")
+    void testSavePopularity_Empty_ReturnsZero() throws SQLException {
+        assertEquals(0, popularityDAO.savePopularity(Collections.emptyList()));
+        assertEquals(0, popularityDAO.savePopularity(null));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test saving skips quizzes that no longer exist")
+    void testSavePopularity_DeletedQuiz_Skipped() throws SQLException {
+        // Arrange
+        List<QuizPopularity> snapshot = Arrays.asList(
+            new QuizPopularity(TEST_QUIZ_ID, 10.0, 2.0, new Date()),
+            new QuizPopularity(-1, 5.0, 1.0, new Date()));
+
+        // Act
+        popularityDAO.savePopularity(snapshot);
+        List<QuizPopularity> stored = popularityDAO.getAllPopularity();
+
+        // Assert
+        assertEquals(1, stored.size());
+        assertEquals(TEST_QUIZ_ID, stored.get(0).getQuizId());
+    }
+
+    // ========================= READ OPERATION TESTS =========================
+
+    @Test
+    @Order(5)
+    @DisplayName("Test seeding scores from quiz attempts")
+    void testComputePopularityFromAttempts_CountsAttempts() throws SQLException {
+        // Arrange
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO quiz_attempts (user_id, quiz_id, score, total_questions, time_taken) VALUES " +
+                "(" + TEST_USER_ID + ", " + TEST_QUIZ_ID + ", 80, 10, 60), " +
+                "(" + TEST_USER_ID + ", " + TEST_QUIZ_ID + ", 90, 10, 60)");
+        }
+
+        // Act
+        List<QuizPopularity> seeded = popularityDAO.computePopularityFromAttempts(0.0, 0.0);
+
+        // Assert
+        QuizPopularity row = seeded.stream().filter(p -> p.getQuizId() == TEST_QUIZ_ID).findFirst().orElseThrow();
+        assertEquals(2.0, row.getPopularScore(), 0.0001);
+        assertEquals(2.0, row.getTrendingScore(), 0.0001);
+    }
+
+    // ========================= DELETE OPERATION TESTS =========================
+
+    @Test
+    @Order(6)
+    @DisplayName("Test delete popularity of one quiz")
+    void testDeletePopularity_ExistingRow_Success() throws SQLException {
+        // Arrange
+        popularityDAO.savePopularity(Collections.singletonList(new QuizPopularity(TEST_QUIZ_ID, 1.0, 1.0, new Date())));
+
+        // Act & Assert
+        assertTrue(popularityDAO.deletePopularity(TEST_QUIZ_ID));
+        assertFalse(popularityDAO.deletePopularity(TEST_QUIZ_ID));
+        assertTrue(popularityDAO.getAllPopularity().isEmpty());
+    }
+}
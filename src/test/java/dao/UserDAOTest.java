@@ -9,6 +9,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -254,6 +255,42 @@ class UserDAOTest {
         assertTrue(secondPage.size() >= 1, "Second page should have at least 1 user");
     }
 
+    @Test
+    @Order(11)
+    @DisplayName("Test get usernames for a set of user IDs")
+    void testGetUsernamesByIds_Success() throws SQLException {
+        // Arrange
+        User first = userDAO.registerUser("testuser1", TEST_PASSWORD, "test1@example.com");
+        User second = userDAO.registerUser("testuser2", TEST_PASSWORD, "test2@example.com");
+
+        // Act
+        Map<Integer, String> usernames = userDAO.getUsernamesByIds(List.of(first.getUserId(), second.getUserId(), 99999));
+
+        // Assert
+        assertEquals(2, usernames.size());
+        assertEquals("testuser1", usernames.get(first.getUserId()));
+        assertEquals("testuser2", usernames.get(second.getUserId()));
+        assertTrue(userDAO.getUsernamesByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Test find users for a set of user IDs")
+    void testFindByIds_Success() throws SQLException {
+        // Arrange
+        User first = userDAO.registerUser("testuser1", TEST_PASSWORD, "test1@example.com");
+        User second = userDAO.registerUser("testuser2", TEST_PASSWORD, "test2@example.com");
+
+        // Act
+        Map<Integer, User> users = userDAO.findByIds(List.of(first.getUserId(), second.getUserId(), first.getUserId(), 99999));
+
+        // Assert
+        assertEquals(2, users.size());
+        assertEquals("testuser1", users.get(first.getUserId()).getUsername());
+        assertEquals("test2@example.com", users.get(second.getUserId()).getEmail());
+        assertTrue(userDAO.findByIds(List.of()).isEmpty());
+    }
+
     @Test
     @Order(12)
     @DisplayName("Test search users by username pattern")
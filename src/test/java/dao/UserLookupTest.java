@@ -0,0 +1,102 @@
+package dao;
+
+import model.User;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserLookup class
+ * Uses a stub UserDAO that counts batch calls, so no database is needed
+ */
+class UserLookupTest {
+
+    private StubUserDAO userDAO;
+    private UserLookup lookup;
+
+    @BeforeEach
+    void setUp() {
+        userDAO = new StubUserDAO(List.of(1, 2, 3));
+        lookup = new UserLookup(userDAO);
+    }
+
+    @Test
+    @DisplayName("Test usernames for many IDs are resolved with one call")
+    void testGetUsernames_OneBatch() throws Exception {
+        Map<Integer, String> usernames = lookup.getUsernames(List.of(1, 2, 3, 4));
+
+        assertEquals(Map.of(1, "user1", 2, "user2", 3, "user3"), usernames);
+        assertEquals(1, userDAO.usernameCalls);
+        assertEquals(List.of(1, 2, 3, 4), userDAO.requested.get(0));
+    }
+
+    @Test
+    @DisplayName("Test known and missing IDs are not queried again")
+    void testGetUsername_IdentityMap() throws Exception {
+        lookup.loadUsernames(List.of(1, 4));
+
+        assertEquals("user1", lookup.getUsername(1));
+        assertNull(lookup.getUsername(4));
+        assertEquals(1, userDAO.usernameCalls);
+
+        assertEquals("user2", lookup.getUsername(2));
+        assertEquals(2, userDAO.usernameCalls);
+    }
+
+    @Test
+    @DisplayName("Test loaded users also answer username reads")
+    void testLoadUsers_ReusedForUsernames() throws Exception {
+        lookup.loadUsers(List.of(1, 2));
+
+        assertEquals("user1", lookup.getUser(1).getUsername());
+        assertEquals(Map.of(1, "user1", 2, "user2"), lookup.getUsernames(List.of(1, 2)));
+        assertEquals(1, userDAO.userCalls);
+        assertEquals(0, userDAO.usernameCalls);
+    }
+
+    private static class StubUserDAO extends UserDAO {
+        final List<Integer> existing;
+        final List<Collection<Integer>> requested = new ArrayList<>();
+        int userCalls;
+        int usernameCalls;
+
+        StubUserDAO(List<Integer> existing) {
+            super(null);
+            this.existing = existing;
+        }
+
+        @Override
+        public Map<Integer, User> findByIds(Collection<Integer> userIds) {
+            userCalls++;
+            requested.add(new ArrayList<>(userIds));
+            Map<Integer, User> users = new HashMap<>();
+            for (Integer id : userIds) {
+                if (existing.contains(id)) {
+                    User user = new User("user" + id, "hash", id + "@example.com");
+                    user.setUserId(id);
+                    users.put(id, user);
+                }
+            }
+            return users;
+        }
+
+        @Override
+        public Map<Integer, String> getUsernamesByIds(Collection<Integer> userIds) {
+            usernameCalls++;
+            requested.add(new ArrayList<>(userIds));
+            Map<Integer, String> usernames = new HashMap<>();
+            for (Integer id : userIds) {
+                if (existing.contains(id)) {
+                    usernames.put(id, "user" + id);
+                }
+            }
+            return usernames;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package dao;
+
+import model.UserStats;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserStatsDAO class
+ * Tests primary-key lookups, upserts and recomputation from the source tables
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class UserStatsDAOTest {
+
+    private static Connection connection;
+    private static UserStatsDAO userStatsDAO;
+    private static final int TEST_USER_ID = 9995;
+    private static final int TEST_QUIZ_ID = 9995;
+
+    @BeforeAll
+    static void setUpClass() throws SQLException {
+        connection = DatabaseConnection.getConnection();
+        userStatsDAO = new UserStatsDAO(connection);
+        cleanUpTestData();
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT IGNORE INTO users (id, username, password_hash, email, is_admin) VALUES " +
+                "(" + TEST_USER_ID + ", 'testuser9995', 'hashedpassword', 'test9995@example.com', FALSE)");
+        }
+    }
+
+    @AfterAll
+    static void tearDownClass() throws SQLException {
+        cleanUpTestData();
+        if (connection != null && !connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM user_stats WHERE user_id = " + TEST_USER_ID);
+            stmt.executeUpdate("DELETE FROM quiz_attempts WHERE user_id = " + TEST_USER_ID);
+            stmt.executeUpdate("DELETE FROM quizzes WHERE id = " + TEST_QUIZ_ID);
+        }
+    }
+
+    private static void cleanUpTestData() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM user_stats WHERE user_id = " + TEST_USER_ID);
+            stmt.executeUpdate("DELETE FROM quiz_attempts WHERE user_id = " + TEST_USER_ID);
+            stmt.executeUpdate("DELETE FROM quizzes WHERE id = " + TEST_QUIZ_ID);
+            stmt.executeUpdate("DELETE FROM users WHERE id = " + TEST_USER_ID);
+        }
+    }
+
+    // ========================= CREATE / UPDATE OPERATION TESTS =========================
+
+    @Test
+    @Order(1)
+    @DisplayName("Test save and find stats by user ID")
+    void testSaveStats_NewRow_Success() throws SQLException {
+        // Arrange
+        Date now = new Date();
+        UserStats stats = new UserStats(TEST_USER_ID, 5, 4, 320.0, 2, 3, 1, now);
+
+        // Act
+        boolean saved = userStatsDAO.saveStats(stats);
+        UserStats found = userStatsDAO.findByUserId(TEST_USER_ID);
+
+        // Assert
+        assertTrue(saved);
+        assertNotNull(found);
+        assertEquals(5, found.getAttempts());
+        assertEquals(4, found.getGradedAttempts());
+        assertEquals(80.0, found.getAverageScore(), 0.0001);
+        assertEquals(2, found.getCurrentStreak());
+        assertEquals(3, found.getBestStreak());
+        assertEquals(1, found.getQuizzesCreated());
+        assertNotNull(found.getLastActive());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Test saving again overwrites the row")
+    void testSaveStats_ExistingRow_Updates() throws SQLException {
+        // Arrange
+        userStatsDAO.saveStats(new UserStats(TEST_USER_ID, 1, 1, 50.0, 1, 1, 0, null));
+
+        // Act
+        userStatsDAO.saveStats(new UserStats(TEST_USER_ID, 2, 2, 150.0, 1, 1, 0, null));
+        UserStats found = userStatsDAO.findByUserId(TEST_USER_ID);
+
+        // Assert
+        assertEquals(2, found.getAttempts());
+        assertEquals(75.0, found.getAverageScore(), 0.0001);
+        assertNull(found.getLastActive());
+    }
+
+    // ========================= READ OPERATION TESTS =========================
+
+    @Test
+    @Order(3)
+    @DisplayName("Test find stats of a user without a row")
+    void testFindByUserId_Missing_ReturnsNull() throws SQLException {
+        assertNull(userStatsDAO.findByUserId(TEST_USER_ID));
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Test recompute stats from attempts and quizzes")
+    void testComputeAllStats_FromSourceTables() throws SQLException {
+        // Arrange
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO quizzes (id, title, description, creator_id) VALUES " +
+                "(" + TEST_QUIZ_ID + ", 'Stats Quiz', 'Test', " + TEST_USER_ID + ")");
+            stmt.executeUpdate("INSERT INTO quiz_attempts (user_id, quiz_id, score, total_questions, time_taken, is_practice) VALUES " +
+                "(" + TEST_USER_ID + ", " + TEST_QUIZ_ID + ", 80, 10, 60, FALSE), " +
+                "(" + TEST_USER_ID + ", " + TEST_QUIZ_ID + ", 60, 10, 60, FALSE), " +
+                "(" + TEST_USER_ID + ", " + TEST_QUIZ_ID + ", 10, 10, 60, TRUE)");
+        }
+
+        // Act
+        List<UserStats> computed = userStatsDAO.computeAllStats();
+
+        // Assert
+        UserStats stats = computed.stream().filter(s -> s.getUserId() == TEST_USER_ID).findFirst().orElseThrow();
+        assertEquals(3, stats.getAttempts());
+        assertEquals(2, stats.getGradedAttempts());
+        assertEquals(70.0, stats.getAverageScore(), 0.0001);
+        assertEquals(1, stats.getQuizzesCreated());
+        assertEquals(1, stats.getBestStreak());
+        assertNotNull(stats.getLastActive());
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Test recompute stats of selected users")
+    void testComputeStats_SelectedUsers() throws SQLException {
+        // Arrange
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("INSERT INTO quizzes (id, title, description, creator_id) VALUES " +
+                "(" + TEST_QUIZ_ID + ", 'Stats Quiz', 'Test', " + TEST_USER_ID + ")");
+            stmt.executeUpdate("INSERT INTO quiz_attempts (user_id, quiz_id, score, total_questions, time_taken, is_practice) VALUES " +
+                "(" + TEST_USER_ID + ", " + TEST_QUIZ_ID + ", 50, 10, 60, FALSE)");
+        }
+
+        // Act
+        List<UserStats> computed = userStatsDAO.computeStats(List.of(TEST_USER_ID, TEST_USER_ID + 1));
+
+        // Assert
+        assertEquals(2, computed.size());
+        UserStats stats = computed.stream().filter(s -> s.getUserId() == TEST_USER_ID).findFirst().orElseThrow();
+        assertEquals(1, stats.getAttempts());
+        assertEquals(50.0, stats.getAverageScore(), 0.0001);
+        assertEquals(1, stats.getQuizzesCreated());
+        UserStats inactive = computed.stream().filter(s -> s.getUserId() == TEST_USER_ID + 1).findFirst().orElseThrow();
+        assertEquals(0, inactive.getAttempts());
+    }
+
+    // ========================= DELETE OPERATION TESTS =========================
+
+    @Test
+    @Order(6)
+    @DisplayName("Test delete stats of a user")
+    void testDeleteStats_ExistingRow_Success() throws SQLException {
+        // Arrange
+        userStatsDAO.saveStats(new UserStats(TEST_USER_ID));
+
+        // Act & Assert
+        assertTrue(userStatsDAO.deleteStats(TEST_USER_ID));
+        assertFalse(userStatsDAO.deleteStats(TEST_USER_ID));
+    }
+}
@@ -0,0 +1,153 @@
+package dto;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import model.LeaderboardEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for DtoJsonWriter.
+ * Output is parsed back with Gson to check field names, nesting and null handling.
+ */
+class DtoJsonWriterTest {
+
+    private static final Date DATE = new Date(1714564800000L); // 2024-05-01T12:00:00Z
+
+    private interface Body {
+        void write(JsonWriter out) throws IOException;
+    }
+
+    // Write with nulls dropped, as the API does
+    private String write(Body body) throws IOException {
+        StringWriter buffer = new StringWriter();
+        JsonWriter out = new JsonWriter(buffer);
+        out.setSerializeNulls(false);
+        body.write(out);
+        out.flush();
+        return buffer.toString();
+    }
+
+    private JsonObject parse(String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+
+    @Test
+    @DisplayName("Test user fields and dropped email")
+    void testUser() throws IOException {
+        JsonObject full = parse(write(out -> DtoJsonWriter.write(out, new UserDTO(1, "john", "john@email.com", DATE, true))));
+        assertEquals(1, full.get("userId").getAsInt());
+        assertEquals("john", full.get("username").getAsString());
+        assertEquals("john@email.com", full.get("email").getAsString());
+        assertEquals("2024-05-01T12:00:00Z", full.get("createdDate").getAsString());
+        assertTrue(full.get("isAdmin").getAsBoolean());
+
+        JsonObject publicUser = parse(write(out -> DtoJsonWriter.write(out, new UserDTO(2, "jane", null, null, false))));
+        assertFalse(publicUser.has("email"));
+        assertFalse(publicUser.has("createdDate"));
+        assertEquals("jane", publicUser.get("username").getAsString());
+    }
+
+    @Test
+    @DisplayName("Test null records are written as JSON null")
+    void testNullRecords() throws IOException {
+        assertEquals("null", write(out -> DtoJsonWriter.write(out, (UserDTO) null)));
+        assertEquals("null", write(out -> DtoJsonWriter.write(out, (QuizDTO) null)));
+        assertEquals("null", write(out -> DtoJsonWriter.write(out, (QuestionDTO) null)));
+        assertEquals("null", write(out -> DtoJsonWriter.write(out, (QuizAttemptDTO) null)));
+        assertEquals("null", write(out -> DtoJsonWriter.write(out, (MessageDTO) null)));
+        assertEquals("null", write(out -> DtoJsonWriter.write(out, (LeaderboardEntry) null)));
+    }
+
+    @Test
+    @DisplayName("Test quiz with nested creator")
+    void testQuiz() throws IOException {
+        UserDTO creator = new UserDTO(1, "john", null, null, false);
+        QuizDTO quiz = new QuizDTO(7, "Math", "Numbers", creator, true, false, true, false, DATE);
+        JsonObject json = parse(write(out -> DtoJsonWriter.write(out, quiz)));
+        assertEquals(7, json.get("quizId").getAsInt());
+        assertEquals("Math", json.get("title").getAsString());
+        assertEquals("Numbers", json.get("description").getAsString());
+        assertEquals("john", json.getAsJsonObject("creator").get("username").getAsString());
+        assertTrue(json.get("randomOrder").getAsBoolean());
+        assertFalse(json.get("onePage").getAsBoolean());
+        assertTrue(json.get("immediateCorrection").getAsBoolean());
+        assertFalse(json.get("practiceMode").getAsBoolean());
+        assertEquals("2024-05-01T12:00:00Z", json.get("createdDate").getAsString());
+    }
+
+    @Test
+    @DisplayName("Test question choices are written as an array")
+    void testQuestionChoices() throws IOException {
+        QuestionDTO question = new QuestionDTO(3, 7, QuestionDTO.TYPE_MULTIPLE_CHOICE, "2+2?", "[\"3\",\"4\",\"a \\\"quoted\\\" one\"]", null, 1);
+        JsonObject json = parse(write(out -> DtoJsonWriter.write(out, question)));
+        JsonArray choices = json.getAsJsonArray("choices");
+        assertEquals(3, choices.size());
+        assertEquals("4", choices.get(1).getAsString());
+        assertEquals("a \"quoted\" one", choices.get(2).getAsString());
+        assertFalse(json.has("imageUrl"));
+        assertFalse(json.has("correctAnswer"));
+    }
+
+    @Test
+    @DisplayName("Test question without or with malformed choices")
+    void testQuestionBadChoices() throws IOException {
+        QuestionDTO none = new QuestionDTO(3, 7, QuestionDTO.TYPE_QUESTION_RESPONSE, "Capital?", null, null, 1);
+        assertFalse(parse(write(out -> DtoJsonWriter.write(out, none))).has("choices"));
+
+        QuestionDTO malformed = new QuestionDTO(3, 7, QuestionDTO.TYPE_MULTIPLE_CHOICE, "Q", "[\"a\", {", null, 1);
+        JsonObject json = parse(write(out -> DtoJsonWriter.write(out, malformed)));
+        assertFalse(json.has("choices"));
+        assertEquals("Q", json.get("questionText").getAsString());
+    }
+
+    @Test
+    @DisplayName("Test attempt and message nest their records")
+    void testAttemptAndMessage() throws IOException {
+        UserDTO user = new UserDTO(1, "john", null, null, false);
+        QuizDTO quiz = new QuizDTO(7, "Math", null, user, false, false, false, false, null);
+        QuizAttemptDTO attempt = new QuizAttemptDTO(5, user, quiz, 80.0, 5, 42, DATE, false);
+        JsonObject attemptJson = parse(write(out -> DtoJsonWriter.write(out, attempt)));
+        assertEquals(80.0, attemptJson.get("score").getAsDouble());
+        assertEquals(42, attemptJson.get("timeTaken").getAsLong());
+        assertEquals(7, attemptJson.getAsJsonObject("quiz").get("quizId").getAsInt());
+        assertFalse(attemptJson.getAsJsonObject("quiz").has("description"));
+
+        MessageDTO note = new MessageDTO(9, user, new UserDTO(2, "jane", null, null, false), MessageDTO.TYPE_NOTE, "hi", null, DATE, false);
+        JsonObject messageJson = parse(write(out -> DtoJsonWriter.write(out, note)));
+        assertEquals("john", messageJson.getAsJsonObject("sender").get("username").getAsString());
+        assertEquals("jane", messageJson.getAsJsonObject("receiver").get("username").getAsString());
+        assertFalse(messageJson.has("quiz"));
+        assertEquals("2024-05-01T12:00:00Z", messageJson.get("dateSent").getAsString());
+    }
+
+    @Test
+    @DisplayName("Test leaderboard entry with and without rank")
+    void testLeaderboardEntry() throws IOException {
+        Timestamp when = new Timestamp(DATE.getTime());
+        JsonObject ranked = parse(write(out -> DtoJsonWriter.write(out, new LeaderboardEntry(7, "Math", 1, "john", 90.0, 9, when, 3))));
+        assertEquals(3, ranked.get("rank").getAsInt());
+        assertEquals(90.0, ranked.get("bestScore").getAsDouble());
+        assertEquals("2024-05-01T12:00:00Z", ranked.get("mostRecent").getAsString());
+
+        JsonObject unranked = parse(write(out -> DtoJsonWriter.write(out, new LeaderboardEntry(7, "Math", 1, "john", 90.0, 9, when))));
+        assertFalse(unranked.has("rank"));
+    }
+
+    @Test
+    @DisplayName("Test formatDate with java.sql subtypes and null")
+    void testFormatDate() {
+        assertNull(DtoJsonWriter.formatDate(null));
+        assertEquals("2024-05-01T12:00:00Z", DtoJsonWriter.formatDate(new java.sql.Date(DATE.getTime())));
+        assertEquals("2024-05-01T12:00:00Z", DtoJsonWriter.formatDate(new Timestamp(DATE.getTime())));
+    }
+}
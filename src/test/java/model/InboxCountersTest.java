@@ -0,0 +1,65 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the InboxCounters model class
+ * Tests per-type counts and tracking of the latest unread type
+ */
+public class InboxCountersTest {
+
+    private InboxCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new InboxCounters(5);
+    }
+
+    @Test
+    @DisplayName("New counters start empty")
+    void testEmptyCounters() {
+        assertEquals(5, counters.getUserId());
+        assertEquals(0, counters.getUnreadTotal());
+        assertNull(counters.getLatestUnreadType());
+        assertNull(counters.getLatestUnreadAt());
+    }
+
+    @Test
+    @DisplayName("Unread messages are counted per type")
+    void testRecordUnread() {
+        counters.recordUnread(Message.TYPE_NOTE, new Date(1000));
+        counters.recordUnread(Message.TYPE_NOTE, new Date(2000));
+        counters.recordUnread(Message.TYPE_CHALLENGE, new Date(3000));
+
+        assertEquals(2, counters.getUnreadCount(Message.TYPE_NOTE));
+        assertEquals(1, counters.getUnreadCount(Message.TYPE_CHALLENGE));
+        assertEquals(0, counters.getUnreadCount(Message.TYPE_FRIEND_REQUEST));
+        assertEquals(3, counters.getUnreadTotal());
+        assertEquals(Message.TYPE_CHALLENGE, counters.getLatestUnreadType());
+    }
+
+    @Test
+    @DisplayName("An older message does not replace the latest unread type")
+    void testOlderMessageKeepsLatestType() {
+        counters.recordUnread(Message.TYPE_FRIEND_REQUEST, new Date(5000));
+        counters.recordUnread(Message.TYPE_NOTE, new Date(1000));
+
+        assertEquals(Message.TYPE_FRIEND_REQUEST, counters.getLatestUnreadType());
+        assertEquals(new Date(5000), counters.getLatestUnreadAt());
+    }
+
+    @Test
+    @DisplayName("Unknown types are ignored")
+    void testUnknownType() {
+        counters.setUnreadCount("other", 4);
+
+        assertEquals(0, counters.getUnreadCount("other"));
+        assertEquals(0, counters.getUnreadTotal());
+    }
+}
@@ -232,4 +232,16 @@ class LeaderboardEntryTest {
         assertEquals("\t\n", entry.getQuizTitle());
         assertEquals("\t\n", entry.getUsername());
     }
-} 
\ No newline at end of file
+    @Test void testRankDefaultsToZero() {
+        LeaderboardEntry entry = new LeaderboardEntry(1, "Quiz", 2, "user", 99.0, 0, null);
+        assertEquals(0, entry.getRank());
+    }
+    @Test void testConstructorWithRank() {
+        java.sql.Timestamp now = new java.sql.Timestamp(System.currentTimeMillis());
+        LeaderboardEntry entry = new LeaderboardEntry(1, "Quiz", 2, "user", 99.0, 9, now, 4);
+        assertEquals(4, entry.getRank());
+        assertEquals(9, entry.getMostCorrect());
+        assertEquals(now, entry.getMostRecent());
+        assertTrue(entry.toString().contains("rank=4"));
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the QuestionSimilarity model class
+ */
+public class QuestionSimilarityTest {
+
+    @Test
+    @DisplayName("Constructor sets every field")
+    void testConstructor() {
+        QuestionSimilarity similarity = new QuestionSimilarity(3, 8, 0.875);
+
+        assertEquals(3, similarity.getQuestionId());
+        assertEquals(8, similarity.getSimilarQuestionId());
+        assertEquals(0.875, similarity.getSimilarity(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Similarity is rounded to a whole percentage")
+    void testSimilarityPercent() {
+        assertEquals(88, new QuestionSimilarity(1, 2, 0.875).getSimilarityPercent());
+        assertEquals(100, new QuestionSimilarity(1, 2, 1.0).getSimilarityPercent());
+        assertEquals(0, new QuestionSimilarity(1, 2, 0.0).getSimilarityPercent());
+    }
+
+    @Test
+    @DisplayName("toString includes both question IDs")
+    void testToString() {
+        String text = new QuestionSimilarity(3, 8, 0.5).toString();
+
+        assertTrue(text.contains("questionId=3"));
+        assertTrue(text.contains("similarQuestionId=8"));
+    }
+}
@@ -0,0 +1,56 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import java.util.Date;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizPopularityTest {
+    @Test
+    void testDefaultConstructor() {
+        QuizPopularity p = new QuizPopularity();
+        assertEquals(0, p.getQuizId());
+        assertEquals(0.0, p.getPopularScore(), 0.0001);
+        assertEquals(0.0, p.getTrendingScore(), 0.0001);
+        assertNotNull(p.getUpdatedAt());
+    }
+
+    @Test
+    void testFullConstructorAndGettersSetters() {
+        Date now = new Date();
+        QuizPopularity p = new QuizPopularity(7, 12.5, 3.25, now);
+        assertEquals(7, p.getQuizId());
+        assertEquals(12.5, p.getPopularScore(), 0.0001);
+        assertEquals(3.25, p.getTrendingScore(), 0.0001);
+        assertEquals(now, p.getUpdatedAt());
+
+        Date later = new Date(now.getTime() + 1000);
+        p.setQuizId(8);
+        p.setPopularScore(1.5);
+        p.setTrendingScore(0.5);
+        p.setUpdatedAt(later);
+        assertEquals(8, p.getQuizId());
+        assertEquals(1.5, p.getPopularScore(), 0.0001);
+        assertEquals(0.5, p.getTrendingScore(), 0.0001);
+        assertEquals(later, p.getUpdatedAt());
+    }
+
+    @Test
+    void testEqualsAndHashCodeByQuizId() {
+        QuizPopularity a = new QuizPopularity(1, 10.0, 2.0, new Date());
+        QuizPopularity b = new QuizPopularity(1, 20.0, 4.0, new Date());
+        QuizPopularity c = new QuizPopularity(2, 10.0, 2.0, new Date());
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+        assertNotEquals(a, null);
+        assertNotEquals(a, "string");
+    }
+
+    @Test
+    void testToString() {
+        QuizPopularity p = new QuizPopularity(3, 1.0, 0.5, new Date());
+        String str = p.toString();
+        assertNotNull(str);
+        assertTrue(str.contains("quizId=3"));
+    }
+}
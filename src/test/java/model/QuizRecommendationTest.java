@@ -0,0 +1,52 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizRecommendationTest {
+    @Test
+    void testDefaultConstructor() {
+        QuizRecommendation r = new QuizRecommendation();
+        assertEquals(0, r.getQuizId());
+        assertEquals(0, r.getRank());
+        assertEquals(0, r.getSimilarQuizId());
+        assertEquals(0.0, r.getScore(), 0.0001);
+    }
+
+    @Test
+    void testFullConstructorAndGettersSetters() {
+        QuizRecommendation r = new QuizRecommendation(4, 1, 9, 0.75);
+        assertEquals(4, r.getQuizId());
+        assertEquals(1, r.getRank());
+        assertEquals(9, r.getSimilarQuizId());
+        assertEquals(0.75, r.getScore(), 0.0001);
+
+        r.setQuizId(5);
+        r.setRank(2);
+        r.setSimilarQuizId(10);
+        r.setScore(0.5);
+        assertEquals(5, r.getQuizId());
+        assertEquals(2, r.getRank());
+        assertEquals(10, r.getSimilarQuizId());
+        assertEquals(0.5, r.getScore(), 0.0001);
+    }
+
+    @Test
+    void testEqualsAndHashCodeByQuizAndRank() {
+        QuizRecommendation a = new QuizRecommendation(1, 1, 2, 0.9);
+        QuizRecommendation b = new QuizRecommendation(1, 1, 3, 0.4);
+        QuizRecommendation c = new QuizRecommendation(1, 2, 2, 0.9);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertNotEquals(a, c);
+        assertNotEquals(a, null);
+        assertNotEquals(a, "string");
+    }
+
+    @Test
+    void testToString() {
+        String str = new QuizRecommendation(3, 1, 8, 0.2).toString();
+        assertTrue(str.contains("quizId=3"));
+        assertTrue(str.contains("similarQuizId=8"));
+    }
+}
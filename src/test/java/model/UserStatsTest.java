@@ -0,0 +1,153 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the UserStats model class
+ * Tests constructors, the running average and the day streak logic
+ */
+public class UserStatsTest {
+
+    private UserStats stats;
+
+    @BeforeEach
+    void setUp() {
+        stats = new UserStats(5);
+    }
+
+    // Noon of a day relative to a fixed date, in the JVM's zone
+    private static Date day(int offset) {
+        return Date.from(LocalDate.of(2025, 3, 1).plusDays(offset).atTime(12, 0)
+                .atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    @Nested
+    @DisplayName("Constructor Tests")
+    class ConstructorTests {
+
+        @Test
+        @DisplayName("New user stats start empty")
+        void testEmptyStats() {
+            assertEquals(5, stats.getUserId());
+            assertEquals(0, stats.getAttempts());
+            assertEquals(0, stats.getGradedAttempts());
+            assertEquals(-1, stats.getAverageScore(), 0.0001);
+            assertEquals(0, stats.getBestStreak());
+            assertNull(stats.getLastActive());
+        }
+
+        @Test
+        @DisplayName("Full constructor sets every field")
+        void testFullConstructor() {
+            Date now = new Date();
+            UserStats full = new UserStats(1, 10, 8, 640.0, 2, 4, 3, now);
+
+            assertEquals(1, full.getUserId());
+            assertEquals(10, full.getAttempts());
+            assertEquals(8, full.getGradedAttempts());
+            assertEquals(640.0, full.getScoreSum(), 0.0001);
+            assertEquals(80.0, full.getAverageScore(), 0.0001);
+            assertEquals(2, full.getCurrentStreak());
+            assertEquals(4, full.getBestStreak());
+            assertEquals(3, full.getQuizzesCreated());
+            assertEquals(now, full.getLastActive());
+        }
+    }
+
+    @Nested
+    @DisplayName("Counter Tests")
+    class CounterTests {
+
+        @Test
+        @DisplayName("Practice attempts count as attempts but not toward the average")
+        void testPracticeExcludedFromAverage() {
+            stats.recordAttempt(80, false, day(0));
+            stats.recordAttempt(60, false, day(0));
+            stats.recordAttempt(10, true, day(0));
+
+            assertEquals(3, stats.getAttempts());
+            assertEquals(2, stats.getGradedAttempts());
+            assertEquals(70.0, stats.getAverageScore(), 0.0001);
+        }
+
+        @Test
+        @DisplayName("Created quizzes are counted")
+        void testQuizCreated() {
+            stats.recordQuizCreated(day(0));
+            stats.recordQuizCreated(day(0));
+
+            assertEquals(2, stats.getQuizzesCreated());
+            assertEquals(day(0), stats.getLastActive());
+        }
+    }
+
+    @Nested
+    @DisplayName("Streak Tests")
+    class StreakTests {
+
+        @Test
+        @DisplayName("Consecutive days extend the streak")
+        void testConsecutiveDays() {
+            stats.recordActivity(day(0));
+            stats.recordActivity(day(0));
+            stats.recordActivity(day(1));
+            stats.recordActivity(day(2));
+
+            assertEquals(3, stats.getCurrentStreak());
+            assertEquals(3, stats.getBestStreak());
+            assertEquals(day(2), stats.getLastActive());
+        }
+
+        @Test
+        @DisplayName("A gap resets the current streak but keeps the best one")
+        void testGapResets() {
+            stats.recordActivity(day(0));
+            stats.recordActivity(day(1));
+            stats.recordActivity(day(5));
+
+            assertEquals(1, stats.getCurrentStreak());
+            assertEquals(2, stats.getBestStreak());
+        }
+
+        @Test
+        @DisplayName("Older activities do not change the streak or last active time")
+        void testOutOfOrderActivity() {
+            stats.recordActivity(day(3));
+            stats.recordActivity(day(1));
+
+            assertEquals(1, stats.getCurrentStreak());
+            assertEquals(day(3), stats.getLastActive());
+        }
+
+        @Test
+        @DisplayName("Null dates are ignored")
+        void testNullDate() {
+            stats.recordActivity(null);
+
+            assertEquals(0, stats.getCurrentStreak());
+            assertNull(stats.getLastActive());
+        }
+    }
+
+    @Test
+    @DisplayName("Equality is by user ID")
+    void testEqualsAndHashCode() {
+        UserStats same = new UserStats(5, 1, 1, 50, 1, 1, 0, null);
+        UserStats other = new UserStats(6);
+
+        assertEquals(stats, same);
+        assertEquals(stats.hashCode(), same.hashCode());
+        assertNotEquals(stats, other);
+        assertNotEquals(stats, null);
+        assertTrue(stats.toString().contains("userId=5"));
+    }
+}
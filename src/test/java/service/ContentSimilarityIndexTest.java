@@ -0,0 +1,236 @@
+package service;
+
+import dao.QuestionDAO;
+import dao.QuizDAO;
+import model.Question;
+import model.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for TF-IDF content similarity between quizzes
+ * DAOs are replaced by in-memory tables so no database is needed
+ */
+public class ContentSimilarityIndexTest {
+
+    private StubQuizDAO quizDAO;
+    private StubQuestionDAO questionDAO;
+    private ContentSimilarityIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        quizDAO = new StubQuizDAO();
+        questionDAO = new StubQuestionDAO();
+        quizDAO.add(1, "World Capitals", "Capital cities of Europe");
+        quizDAO.add(2, "Asian Capitals", "Capital cities across Asia");
+        quizDAO.add(3, "Algebra Basics", "Linear equations");
+        quizDAO.add(4, "Solving Equations", "Algebra practice");
+        questionDAO.add(10, 1, "What is the capital of France?");
+        questionDAO.add(11, 3, "Solve x + 2 = 5");
+        index = new ContentSimilarityIndex(quizDAO, questionDAO);
+        index.initialize();
+    }
+
+    @Nested
+    @DisplayName("Similarity Tests")
+    class SimilarityTests {
+
+        @Test
+        @DisplayName("Quizzes sharing terms are neighbours and unrelated ones are not")
+        void testNeighbours() throws SQLException {
+            assertEquals(List.of(2), index.getSimilarQuizIds(1, 10));
+            assertEquals(List.of(4), index.getSimilarQuizIds(3, 10));
+            assertEquals(4, index.size());
+        }
+
+        @Test
+        @DisplayName("Similarity is a symmetric cosine between 0 and 1")
+        void testCosine() {
+            double similarity = index.getSimilarity(1, 2);
+            assertTrue(similarity > 0 && similarity <= 1.0001);
+            assertEquals(similarity, index.getSimilarity(2, 1), 1e-6);
+            assertEquals(1.0, index.getSimilarity(1, 1), 1e-4);
+            assertEquals(0.0, index.getSimilarity(1, 3), 1e-9);
+            assertEquals(0.0, index.getSimilarity(1, 99), 1e-9);
+        }
+
+        @Test
+        @DisplayName("The parallel pass ranks each quiz's best match first")
+        void testParallelPassMatchesBruteForce() throws SQLException {
+            StubQuizDAO manyQuizzes = new StubQuizDAO();
+            String[] words = {"river", "mountain", "ocean", "planet", "atom", "cell", "poem", "novel", "war", "king",
+                    "queen", "rock", "jazz", "film", "goal", "match", "code", "bird", "tree", "star"};
+            Random random = new Random(7);
+            for (int id = 1; id <= 300; id++) {
+                StringBuilder title = new StringBuilder();
+                for (int w = 0; w < 3; w++) {
+                    title.append(words[random.nextInt(words.length)]).append(' ');
+                }
+                manyQuizzes.add(id, title.toString(), "");
+            }
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                ContentSimilarityIndex large = new ContentSimilarityIndex(manyQuizzes, new StubQuestionDAO(), pool);
+                large.initialize();
+                for (int id = 1; id <= 300; id += 37) {
+                    List<Integer> row = large.getSimilarQuizIds(id, 1);
+                    double best = 0;
+                    for (int other = 1; other <= 300; other++) {
+                        if (other != id) {
+                            best = Math.max(best, large.getSimilarity(id, other));
+                        }
+                    }
+                    assertEquals(best, large.getSimilarity(id, row.get(0)), 1e-5);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Questions added to a new quiz make it a neighbour both ways")
+        void testQuestionCreated() throws SQLException {
+            index.onQuizCreated(quizDAO.add(5, "Geography Night", ""));
+            assertTrue(index.getSimilarQuizIds(5, 10).isEmpty());
+
+            index.onQuestionCreated(questionDAO.add(12, 5, "Name the capital city of Spain"));
+
+            assertTrue(index.getSimilarQuizIds(5, 10).containsAll(List.of(1, 2)));
+            assertTrue(index.getSimilarQuizIds(1, 10).contains(5));
+        }
+
+        @Test
+        @DisplayName("Edited quizzes move to their new neighbours")
+        void testQuizUpdated() throws SQLException {
+            quizDAO.quizzes.get(3).setTitle("European Capitals");
+            quizDAO.quizzes.get(3).setDescription("Capital cities");
+            index.onQuizUpdated(3);
+
+            assertTrue(index.getSimilarQuizIds(1, 10).contains(3));
+            assertFalse(index.getSimilarQuizIds(4, 10).contains(3));
+        }
+
+        @Test
+        @DisplayName("Deleted quizzes leave every row")
+        void testQuizDeleted() throws SQLException {
+            index.onQuizDeleted(2);
+
+            assertTrue(index.getSimilarQuizIds(1, 10).isEmpty());
+            assertTrue(index.getSimilarQuizIds(2, 10).isEmpty());
+            assertEquals(3, index.size());
+        }
+
+        @Test
+        @DisplayName("Deleted questions are re-read from the database")
+        void testQuestionDeleted() throws SQLException {
+            index.onQuizCreated(quizDAO.add(5, "Mixed Bag", ""));
+            index.onQuestionCreated(questionDAO.add(12, 5, "Linear equations with algebra"));
+            assertTrue(index.getSimilarQuizIds(5, 10).contains(4));
+
+            questionDAO.questions.remove(12);
+            index.onQuestionDeleted(12, 5);
+
+            assertTrue(index.getSimilarQuizIds(5, 10).isEmpty());
+            assertFalse(index.getSimilarQuizIds(4, 10).contains(5));
+        }
+
+        @Test
+        @DisplayName("Changes made while a rebuild is running survive the swap")
+        void testChangeDuringRebuild() throws SQLException {
+            quizDAO.duringScan = () -> index.onQuizCreated(quizDAO.add(5, "Capital Cities", "Capitals of Europe"));
+
+            index.rebuild();
+
+            assertEquals(5, index.size());
+            assertTrue(index.getSimilarQuizIds(5, 10).containsAll(List.of(1, 2)));
+            assertTrue(index.getSimilarQuizIds(1, 10).contains(5));
+        }
+    }
+
+    /**
+     * QuizDAO stand-in backed by a map
+     */
+    private static class StubQuizDAO extends QuizDAO {
+        final Map<Integer, Quiz> quizzes = new LinkedHashMap<>();
+        // Runs after the full scan has been read, standing in for a write that lands mid-rebuild
+        Runnable duringScan;
+
+        StubQuizDAO() {
+            super(null);
+        }
+
+        Quiz add(int id, String title, String description) {
+            Quiz quiz = new Quiz(id, title, description, 1, false, false, false, false, new Date());
+            quizzes.put(id, quiz);
+            return quiz;
+        }
+
+        @Override
+        public List<Quiz> getAllQuizzes() {
+            List<Quiz> all = new ArrayList<>(quizzes.values());
+            if (duringScan != null) {
+                Runnable change = duringScan;
+                duringScan = null;
+                change.run();
+            }
+            return all;
+        }
+
+        @Override
+        public Quiz findById(int quizId) {
+            return quizzes.get(quizId);
+        }
+    }
+
+    /**
+     * QuestionDAO stand-in backed by a map
+     */
+    private static class StubQuestionDAO extends QuestionDAO {
+        final Map<Integer, Question> questions = new LinkedHashMap<>();
+
+        StubQuestionDAO() {
+            super(null);
+        }
+
+        Question add(int id, int quizId, String text) {
+            Question question = new Question(quizId, Question.TYPE_QUESTION_RESPONSE, text, "answer", 1);
+            question.setQuestionId(id);
+            questions.put(id, question);
+            return question;
+        }
+
+        @Override
+        public List<Question> getAllQuestions() {
+            return new ArrayList<>(questions.values());
+        }
+
+        @Override
+        public List<Question> getQuestionsByQuizId(int quizId) {
+            return questions.values().stream().filter(q -> q.getQuizId() == quizId).collect(Collectors.toList());
+        }
+
+        @Override
+        public Question findById(int questionId) {
+            return questions.get(questionId);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package service;
+
+import model.Friendship;
+import model.Message;
+import model.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the page version counters behind conditional GET
+ */
+public class ContentVersionsTest {
+
+    private static final long BOOT = 1_000L;
+
+    private ContentVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new ContentVersions(BOOT);
+    }
+
+    @Test
+    @DisplayName("Untouched keys report the boot version")
+    void testBootVersion() {
+        assertEquals(BOOT, versions.getVersion(ContentVersions.CATALOG));
+        assertEquals(BOOT, versions.getVersion(ContentVersions.quiz(3)));
+    }
+
+    @Test
+    @DisplayName("Bumps only move the named keys and never go backwards")
+    void testBump() {
+        versions.bump(ContentVersions.quiz(3));
+        long first = versions.getVersion(ContentVersions.quiz(3));
+        versions.bump(ContentVersions.quiz(3));
+
+        assertTrue(first > BOOT);
+        assertTrue(versions.getVersion(ContentVersions.quiz(3)) > first);
+        assertEquals(BOOT, versions.getVersion(ContentVersions.quiz(4)));
+    }
+
+    @Test
+    @DisplayName("Attempts move the global and the per-quiz key")
+    void testAttemptCreated() {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setQuizId(5);
+        versions.onAttemptCreated(attempt);
+
+        assertTrue(versions.getVersion(ContentVersions.ATTEMPTS) > BOOT);
+        assertTrue(versions.getVersion(ContentVersions.quizAttempts(5)) > BOOT);
+        assertEquals(BOOT, versions.getVersion(ContentVersions.quizAttempts(6)));
+    }
+
+    @Test
+    @DisplayName("Writes that cannot name the entity move the whole family")
+    void testFamilyBump() {
+        versions.onAttemptsChanged();
+        versions.onMessagesChanged();
+
+        assertTrue(versions.getVersion(ContentVersions.quizAttempts(42)) > BOOT);
+        assertTrue(versions.getVersion(ContentVersions.inbox(7)) > BOOT);
+        assertEquals(BOOT, versions.getVersion(ContentVersions.friends(7)));
+    }
+
+    @Test
+    @DisplayName("Messages and friendships move the affected users' keys")
+    void testUserScopedKeys() {
+        Message message = new Message();
+        message.setReceiverId(8);
+        versions.onMessageCreated(message);
+        versions.onFriendshipChanged(1, 2, new Friendship(1, 2));
+
+        assertTrue(versions.getVersion(ContentVersions.inbox(8)) > BOOT);
+        assertEquals(BOOT, versions.getVersion(ContentVersions.inbox(9)));
+        assertTrue(versions.getVersion(ContentVersions.friends(1)) > BOOT);
+        assertTrue(versions.getVersion(ContentVersions.friends(2)) > BOOT);
+        assertEquals(BOOT, versions.getVersion(ContentVersions.friends(3)));
+    }
+
+    @Test
+    @DisplayName("Quiz deletion moves the catalog, the quiz and its attempts")
+    void testQuizDeleted() {
+        versions.onQuizDeleted(9);
+
+        assertTrue(versions.getVersion(ContentVersions.CATALOG) > BOOT);
+        assertTrue(versions.getVersion(ContentVersions.quiz(9)) > BOOT);
+        assertTrue(versions.getVersion(ContentVersions.quizAttempts(9)) > BOOT);
+        assertEquals(BOOT, versions.getVersion(ContentVersions.ANNOUNCEMENTS));
+    }
+}
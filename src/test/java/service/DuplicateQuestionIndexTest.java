@@ -0,0 +1,171 @@
+package service;
+
+import dao.QuestionDAO;
+import model.Question;
+import model.QuestionSimilarity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the MinHash near-duplicate question index
+ * The DAO is replaced by an in-memory table so no database is needed
+ */
+public class DuplicateQuestionIndexTest {
+
+    private StubQuestionDAO questionDAO;
+    private DuplicateQuestionIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        questionDAO = new StubQuestionDAO();
+        questionDAO.add(1, 1, "What is the capital city of France?");
+        questionDAO.add(2, 2, "What is the capital city of France ?!");
+        questionDAO.add(3, 2, "Which is the capital city of France?");
+        questionDAO.add(4, 3, "How many legs does a spider have?");
+        questionDAO.add(5, 3, "Name the largest planet in the solar system.");
+        index = new DuplicateQuestionIndex(questionDAO);
+        index.initialize();
+    }
+
+    @Nested
+    @DisplayName("Signature Tests")
+    class SignatureTests {
+
+        @Test
+        @DisplayName("Texts differing only in case and punctuation have identical signatures")
+        void testNormalizedTextsMatch() {
+            int[] a = DuplicateQuestionIndex.signature("What is the capital city of France?");
+            int[] b = DuplicateQuestionIndex.signature("what IS the capital city of france");
+
+            assertEquals(1.0, DuplicateQuestionIndex.estimate(a, b), 0.0001);
+        }
+
+        @Test
+        @DisplayName("Unrelated texts have low estimated similarity")
+        void testUnrelatedTexts() {
+            int[] a = DuplicateQuestionIndex.signature("What is the capital city of France?");
+            int[] b = DuplicateQuestionIndex.signature("How many legs does a spider have?");
+
+            assertTrue(DuplicateQuestionIndex.estimate(a, b) < 0.3);
+        }
+
+        @Test
+        @DisplayName("Text without letters or digits has no signature")
+        void testEmptyText() {
+            assertNull(DuplicateQuestionIndex.signature(" ?! "));
+            assertNull(DuplicateQuestionIndex.signature(null));
+            assertNotNull(DuplicateQuestionIndex.signature("Hi"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Query Tests")
+    class QueryTests {
+
+        @Test
+        @DisplayName("Near-identical questions are found, unrelated ones are not")
+        void testFindSimilar() throws SQLException {
+            List<QuestionSimilarity> similar = index.findSimilar(1, 0.6, 10);
+
+            assertEquals(2, similar.get(0).getSimilarQuestionId());
+            assertEquals(1.0, similar.get(0).getSimilarity(), 0.0001);
+            assertTrue(similar.stream().anyMatch(s -> s.getSimilarQuestionId() == 3));
+            assertTrue(similar.stream().noneMatch(s -> s.getSimilarQuestionId() == 4 || s.getSimilarQuestionId() == 1));
+        }
+
+        @Test
+        @DisplayName("Unsaved text can be checked before creating a question")
+        void testFindSimilarText() throws SQLException {
+            List<QuestionSimilarity> similar = index.findSimilar("how many legs does a spider have", 0.8, 10);
+
+            assertEquals(1, similar.size());
+            assertEquals(4, similar.get(0).getSimilarQuestionId());
+            assertEquals(0, similar.get(0).getQuestionId());
+        }
+
+        @Test
+        @DisplayName("Duplicate pairs are reported once with the lower ID first")
+        void testDuplicatePairs() throws SQLException {
+            List<QuestionSimilarity> pairs = index.findDuplicatePairs(0.6, 10);
+
+            assertEquals(3, pairs.size());
+            assertEquals(1, pairs.get(0).getQuestionId());
+            assertEquals(2, pairs.get(0).getSimilarQuestionId());
+            assertTrue(pairs.stream().allMatch(p -> p.getQuestionId() < p.getSimilarQuestionId()));
+            assertEquals(1, index.findDuplicatePairs(0.6, 1).size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Created questions are indexed immediately")
+        void testCreated() throws SQLException {
+            index.onQuestionCreated(questionDAO.add(6, 4, "How many legs does a spider have??"));
+
+            assertEquals(6, index.size());
+            assertEquals(6, index.findSimilar(4, 0.9, 10).get(0).getSimilarQuestionId());
+        }
+
+        @Test
+        @DisplayName("Edited question text moves the question to new buckets")
+        void testUpdated() throws SQLException {
+            questionDAO.add(2, 2, "Name the largest planet in the solar system!");
+            index.onQuestionUpdated(2);
+
+            assertTrue(index.findSimilar(1, 0.9, 10).isEmpty());
+            assertEquals(5, index.findSimilar(2, 0.9, 10).get(0).getSimilarQuestionId());
+        }
+
+        @Test
+        @DisplayName("Deleted questions and questions of deleted quizzes are dropped")
+        void testDeleted() throws SQLException {
+            index.onQuestionDeleted(2, 2);
+            assertTrue(index.findSimilar(1, 0.6, 10).stream().noneMatch(s -> s.getSimilarQuestionId() == 2));
+
+            index.onQuizDeleted(3);
+            assertEquals(2, index.size());
+            assertTrue(index.findSimilar(4, 0.1, 10).isEmpty());
+        }
+    }
+
+    /**
+     * QuestionDAO stand-in backed by a map
+     */
+    private static class StubQuestionDAO extends QuestionDAO {
+        final Map<Integer, Question> questions = new LinkedHashMap<>();
+
+        StubQuestionDAO() {
+            super(null);
+        }
+
+        Question add(int id, int quizId, String text) {
+            Question question = new Question(quizId, "question_response", text, "answer", 1);
+            question.setQuestionId(id);
+            questions.put(id, question);
+            return question;
+        }
+
+        @Override
+        public List<Question> getAllQuestions() {
+            return new ArrayList<>(questions.values());
+        }
+
+        @Override
+        public Question findById(int questionId) {
+            return questions.get(questionId);
+        }
+    }
+}
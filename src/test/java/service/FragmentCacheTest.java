@@ -0,0 +1,149 @@
+package service;
+
+import model.Message;
+import model.Quiz;
+import model.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the page fragment cache
+ * Uses a manual clock so TTLs can be tested without sleeping
+ */
+public class FragmentCacheTest {
+
+    private static final long USER_TTL = 1000;
+
+    private long now;
+    private int loads;
+    private FragmentCache cache;
+
+    @BeforeEach
+    void setUp() {
+        now = 10_000;
+        loads = 0;
+        cache = new FragmentCache(USER_TTL, () -> now);
+    }
+
+    private String load() {
+        loads++;
+        return "value" + loads;
+    }
+
+    @Nested
+    @DisplayName("Global Fragment Tests")
+    class GlobalTests {
+
+        @Test
+        @DisplayName("A warm fragment is served without calling the loader")
+        void testWarmHit() throws SQLException {
+            assertEquals("value1", cache.get(FragmentCache.CATALOG, 500, FragmentCacheTest.this::load));
+            assertEquals("value1", cache.get(FragmentCache.CATALOG, 500, FragmentCacheTest.this::load));
+
+            assertEquals(1, loads);
+        }
+
+        @Test
+        @DisplayName("Fragments are reloaded after their TTL")
+        void testExpiry() throws SQLException {
+            cache.get(FragmentCache.CATALOG, 500, FragmentCacheTest.this::load);
+            now += 500;
+
+            assertEquals("value2", cache.get(FragmentCache.CATALOG, 500, FragmentCacheTest.this::load));
+        }
+
+        @Test
+        @DisplayName("Quiz writes drop the catalog and announcement writes drop announcements")
+        void testEventInvalidation() throws SQLException {
+            cache.get(FragmentCache.CATALOG, 500, FragmentCacheTest.this::load);
+            cache.get(FragmentCache.ANNOUNCEMENTS, 500, FragmentCacheTest.this::load);
+
+            cache.onQuizUpdated(3);
+            cache.get(FragmentCache.CATALOG, 500, FragmentCacheTest.this::load);
+            cache.get(FragmentCache.ANNOUNCEMENTS, 500, FragmentCacheTest.this::load);
+            assertEquals(3, loads);
+
+            cache.onAnnouncementsChanged();
+            cache.get(FragmentCache.ANNOUNCEMENTS, 500, FragmentCacheTest.this::load);
+            assertEquals(4, loads);
+        }
+
+        @Test
+        @DisplayName("A load that races with a write is returned but not stored")
+        void testRacingLoadNotStored() throws SQLException {
+            String value = cache.get(FragmentCache.RECENT, 500, () -> {
+                cache.invalidate(FragmentCache.RECENT);
+                return load();
+            });
+
+            assertEquals("value1", value);
+            assertEquals("value2", cache.get(FragmentCache.RECENT, 500, FragmentCacheTest.this::load));
+        }
+    }
+
+    @Nested
+    @DisplayName("Per-User Fragment Tests")
+    class UserTests {
+
+        @Test
+        @DisplayName("Fragments stay fresh until the TTL passes")
+        void testUserTtl() {
+            FragmentCache.UserFragments fragments = cache.newUserFragments(7);
+
+            assertTrue(cache.isFresh(fragments, 7));
+            assertFalse(cache.isFresh(fragments, 8));
+            assertFalse(cache.isFresh(null, 7));
+            now += USER_TTL;
+            assertFalse(cache.isFresh(fragments, 7));
+        }
+
+        @Test
+        @DisplayName("Writes for a user invalidate only that user's fragments")
+        void testUserEvents() {
+            FragmentCache.UserFragments mine = cache.newUserFragments(7);
+            FragmentCache.UserFragments other = cache.newUserFragments(8);
+
+            cache.onMessageCreated(new Message(8, 7, Message.TYPE_NOTE, "hi"));
+
+            assertFalse(cache.isFresh(mine, 7));
+            assertTrue(cache.isFresh(other, 8));
+
+            FragmentCache.UserFragments reloaded = cache.newUserFragments(7);
+            cache.onAttemptCreated(new QuizAttempt(7, 1, 90, 10, 60, false));
+            assertFalse(cache.isFresh(reloaded, 7));
+
+            reloaded = cache.newUserFragments(7);
+            cache.onQuizCreated(new Quiz("Title", "Description", 7));
+            assertFalse(cache.isFresh(reloaded, 7));
+        }
+
+        @Test
+        @DisplayName("Writes without a known user invalidate every user")
+        void testEpochEvents() {
+            FragmentCache.UserFragments mine = cache.newUserFragments(7);
+            FragmentCache.UserFragments other = cache.newUserFragments(8);
+
+            cache.onMessagesChanged();
+
+            assertFalse(cache.isFresh(mine, 7));
+            assertFalse(cache.isFresh(other, 8));
+        }
+
+        @Test
+        @DisplayName("Stored values are returned as put")
+        void testValues() {
+            FragmentCache.UserFragments fragments = cache.newUserFragments(7);
+            fragments.put("unreadMessageCount", 3);
+            fragments.put("recentUnreadTypeEmoji", null);
+
+            assertEquals(3, (int) fragments.get("unreadMessageCount"));
+            assertNull(fragments.get("recentUnreadTypeEmoji"));
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package service;
+
+import dao.FriendshipDAO;
+import model.Friendship;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the in-memory friendship graph
+ * The DAO is replaced by an in-memory list of rows so no database is needed
+ */
+public class FriendGraphTest {
+
+    private StubFriendshipDAO friendshipDAO;
+    private FriendGraph graph;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        friendshipDAO = new StubFriendshipDAO();
+        friendshipDAO.add(1, 2, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(3, 1, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(1, 4, Friendship.STATUS_PENDING);
+        friendshipDAO.add(5, 1, Friendship.STATUS_BLOCKED);
+        friendshipDAO.add(6, 1, Friendship.STATUS_DECLINED);
+        graph = new FriendGraph(friendshipDAO);
+        graph.initialize();
+    }
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Accepted friendships are symmetric")
+        void testAreFriends() throws SQLException {
+            assertTrue(graph.areFriends(1, 2));
+            assertTrue(graph.areFriends(2, 1));
+            assertTrue(graph.areFriends(1, 3));
+            assertFalse(graph.areFriends(2, 3));
+            assertFalse(graph.areFriends(1, 4));
+        }
+
+        @Test
+        @DisplayName("Pending requests keep their direction")
+        void testPending() throws SQLException {
+            assertTrue(graph.hasPendingRequest(1, 4));
+            assertFalse(graph.hasPendingRequest(4, 1));
+            assertEquals(Friendship.STATUS_PENDING, graph.getStatus(4, 1));
+            assertEquals(1, graph.getPendingInCount(4));
+            assertEquals(0, graph.getPendingInCount(1));
+        }
+
+        @Test
+        @DisplayName("Blocked pairs are blocked both ways and declined rows carry no edge")
+        void testBlockedAndDeclined() throws SQLException {
+            assertTrue(graph.isBlocked(1, 5));
+            assertTrue(graph.isBlocked(5, 1));
+            assertEquals(Friendship.STATUS_BLOCKED, graph.getStatus(1, 5));
+            assertNull(graph.getStatus(1, 6));
+            assertNull(graph.getStatus(99, 1));
+        }
+
+        @Test
+        @DisplayName("Friend IDs come back sorted")
+        void testFriendIds() throws SQLException {
+            assertArrayEquals(new int[] {2, 3}, graph.getFriendIds(1));
+            assertArrayEquals(new int[] {1}, graph.getFriendIds(2));
+            assertArrayEquals(new int[0], graph.getFriendIds(99));
+            assertEquals(2, graph.getFriendCount(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Mutual Friend Tests")
+    class MutualTests {
+
+        @Test
+        @DisplayName("Mutual friends are the intersection of both friend lists")
+        void testMutualFriends() throws SQLException {
+            graph.onFriendshipChanged(2, 3, row(2, 3, Friendship.STATUS_ACCEPTED));
+            graph.onFriendshipChanged(2, 7, row(2, 7, Friendship.STATUS_ACCEPTED));
+            graph.onFriendshipChanged(7, 1, row(7, 1, Friendship.STATUS_ACCEPTED));
+
+            assertArrayEquals(new int[] {3, 7}, graph.getMutualFriendIds(1, 2));
+            assertArrayEquals(new int[] {3, 7}, graph.getMutualFriendIds(2, 1));
+            assertEquals(2, graph.getMutualFriendCount(1, 2));
+        }
+
+        @Test
+        @DisplayName("Pending and declined relationships do not make mutual friends")
+        void testPendingNotMutual() throws SQLException {
+            graph.onFriendshipChanged(4, 6, row(4, 6, Friendship.STATUS_ACCEPTED));
+
+            assertEquals(0, graph.getMutualFriendCount(1, 4));
+            assertArrayEquals(new int[0], graph.getMutualFriendIds(1, 99));
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("An accepted request turns into a friendship")
+        void testAccepted() throws SQLException {
+            graph.onFriendshipChanged(1, 4, row(1, 4, Friendship.STATUS_ACCEPTED));
+
+            assertTrue(graph.areFriends(4, 1));
+            assertFalse(graph.hasPendingRequest(1, 4));
+            assertArrayEquals(new int[] {2, 3, 4}, graph.getFriendIds(1));
+        }
+
+        @Test
+        @DisplayName("A request sent back the other way replaces the old edge")
+        void testReversed() throws SQLException {
+            graph.onFriendshipChanged(4, 1, row(4, 1, Friendship.STATUS_PENDING));
+
+            assertTrue(graph.hasPendingRequest(4, 1));
+            assertFalse(graph.hasPendingRequest(1, 4));
+        }
+
+        @Test
+        @DisplayName("Removed friendships disappear from both sides")
+        void testRemoved() throws SQLException {
+            graph.onFriendshipChanged(2, 1, null);
+
+            assertFalse(graph.areFriends(1, 2));
+            assertArrayEquals(new int[] {3}, graph.getFriendIds(1));
+            assertArrayEquals(new int[0], graph.getFriendIds(2));
+        }
+
+        @Test
+        @DisplayName("Bulk deletes for a user reload that user's rows")
+        void testUserBulkDelete() throws SQLException {
+            friendshipDAO.rows.removeIf(f -> f.getStatus().equals(Friendship.STATUS_ACCEPTED)
+                    && (f.getRequesterId() == 1 || f.getReceiverId() == 1));
+            graph.onFriendshipsChanged(1);
+
+            assertEquals(0, graph.getFriendCount(1));
+            assertFalse(graph.areFriends(2, 1));
+            assertTrue(graph.hasPendingRequest(1, 4));
+            assertTrue(graph.isBlocked(5, 1));
+        }
+
+        @Test
+        @DisplayName("Deletes of unknown rows reload the whole graph on next use")
+        void testReloadWhenStale() throws SQLException {
+            friendshipDAO.rows.removeIf(f -> f.getStatus().equals(Friendship.STATUS_BLOCKED));
+            graph.onAllFriendshipsChanged();
+
+            assertFalse(graph.isBlocked(1, 5));
+            assertTrue(graph.areFriends(1, 2));
+        }
+
+        @Test
+        @DisplayName("Changes made during a reload are replayed onto the reloaded graph")
+        void testChangeDuringReload() throws SQLException {
+            friendshipDAO.duringScan = () -> {
+                Friendship accepted = row(1, 4, Friendship.STATUS_ACCEPTED);
+                friendshipDAO.rows.add(accepted);
+                graph.onFriendshipChanged(1, 4, accepted);
+            };
+            graph.onAllFriendshipsChanged();
+
+            assertTrue(graph.areFriends(4, 1));
+            assertFalse(graph.hasPendingRequest(1, 4));
+        }
+
+        @Test
+        @DisplayName("A failed reload leaves the graph stale")
+        void testFailedReloadStaysStale() throws SQLException {
+            friendshipDAO.failNext = true;
+            graph.onAllFriendshipsChanged();
+
+            assertThrows(SQLException.class, () -> graph.areFriends(1, 2));
+
+            assertTrue(graph.areFriends(1, 2));
+        }
+
+        @Test
+        @DisplayName("Deleted users leave no edges behind")
+        void testUserDeleted() throws SQLException {
+            graph.onUserDeleted(1);
+
+            assertArrayEquals(new int[0], graph.getFriendIds(2));
+            assertEquals(0, graph.getPendingInCount(4));
+            assertFalse(graph.isBlocked(5, 1));
+        }
+    }
+
+    private static Friendship row(int requesterId, int receiverId, String status) {
+        return new Friendship(0, requesterId, receiverId, status, null, null);
+    }
+
+    /**
+     * FriendshipDAO stand-in backed by a list
+     */
+    private static class StubFriendshipDAO extends FriendshipDAO {
+        final List<Friendship> rows = new ArrayList<>();
+        // Runs once, midway through the next scan
+        Runnable duringScan;
+        boolean failNext;
+
+        StubFriendshipDAO() {
+            super(null);
+        }
+
+        void add(int requesterId, int receiverId, String status) {
+            rows.add(row(requesterId, receiverId, status));
+        }
+
+        @Override
+        public int forEachFriendship(Consumer<Friendship> consumer) throws SQLException {
+            if (failNext) {
+                failNext = false;
+                throw new SQLException("Connection lost");
+            }
+            List<Friendship> snapshot = new ArrayList<>(rows);
+            if (duringScan != null) {
+                Runnable change = duringScan;
+                duringScan = null;
+                change.run();
+            }
+            snapshot.forEach(consumer);
+            return snapshot.size();
+        }
+
+        @Override
+        public List<Friendship> getAllFriendships(int userId) {
+            List<Friendship> result = new ArrayList<>();
+            for (Friendship row : rows) {
+                if (row.getRequesterId() == userId || row.getReceiverId() == userId) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package service;
+
+import dao.FriendshipDAO;
+import model.Friendship;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for friends-of-friends suggestions
+ * The graph is loaded from an in-memory list of rows so no database is needed
+ */
+public class FriendSuggestionServiceTest {
+
+    private StubFriendshipDAO friendshipDAO;
+    private FriendGraph graph;
+    private FriendSuggestionService service;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // 1 is friends with 2, 3 and 4; 5 knows 2, 3 and 4; 6 knows 2; 7 knows 3 and 4
+        friendshipDAO = new StubFriendshipDAO();
+        friendshipDAO.add(1, 2, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(1, 3, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(4, 1, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(5, 2, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(5, 3, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(5, 4, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(6, 2, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(7, 3, Friendship.STATUS_ACCEPTED);
+        friendshipDAO.add(7, 4, Friendship.STATUS_ACCEPTED);
+        graph = new FriendGraph(friendshipDAO);
+        graph.initialize();
+        // No username index: suggestions carry IDs only
+        service = new FriendSuggestionService(graph, null);
+    }
+
+    private List<Integer> ids(List<FriendSuggestionService.Suggestion> suggestions) {
+        return suggestions.stream().map(FriendSuggestionService.Suggestion::getUserId).collect(Collectors.toList());
+    }
+
+    private void change(int requesterId, int receiverId, String status) {
+        Friendship row = status == null ? null : new Friendship(0, requesterId, receiverId, status, null, null);
+        graph.onFriendshipChanged(requesterId, receiverId, row);
+        service.onFriendshipChanged(requesterId, receiverId, row);
+    }
+
+    @Nested
+    @DisplayName("Ranking Tests")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Candidates are ranked by mutual friends, then by ID")
+        void testRanking() throws SQLException {
+            List<FriendSuggestionService.Suggestion> suggestions = service.getSuggestions(1, 10);
+            assertEquals(List.of(5, 7, 6), ids(suggestions));
+            assertEquals(3, suggestions.get(0).getMutualCount());
+            assertEquals(2, suggestions.get(1).getMutualCount());
+            assertEquals(1, suggestions.get(2).getMutualCount());
+        }
+
+        @Test
+        @DisplayName("The limit trims the ranked list")
+        void testLimit() throws SQLException {
+            assertEquals(List.of(5), ids(service.getSuggestions(1, 1)));
+        }
+
+        @Test
+        @DisplayName("Users without friends get no suggestions")
+        void testNoFriends() throws SQLException {
+            assertTrue(service.getSuggestions(99, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Exclusion Tests")
+    class ExclusionTests {
+
+        @Test
+        @DisplayName("Pending requests either way are excluded")
+        void testPendingExcluded() throws SQLException {
+            change(7, 1, Friendship.STATUS_PENDING);
+            assertEquals(List.of(5, 6), ids(service.getSuggestions(1, 10)));
+        }
+
+        @Test
+        @DisplayName("Blocked users are excluded")
+        void testBlockedExcluded() throws SQLException {
+            change(1, 5, Friendship.STATUS_BLOCKED);
+            assertEquals(List.of(7, 6), ids(service.getSuggestions(1, 10)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("A new friendship refreshes only the cached users whose neighbourhood moved")
+        void testNewFriendshipMarksNeighboursDirty() throws SQLException {
+            assertEquals(List.of(5, 7, 6), ids(service.getSuggestions(1, 10)));
+            assertEquals(List.of(1, 5), ids(service.getSuggestions(6, 10)));
+
+            change(6, 7, Friendship.STATUS_ACCEPTED);
+
+            // 1 is not a friend of 6 or 7, so only 6 is recomputed
+            assertEquals(1, service.refreshDirty());
+            assertEquals(List.of(1, 3, 4, 5), ids(service.getSuggestions(6, 10)));
+            assertEquals(List.of(5, 7, 6), ids(service.getSuggestions(1, 10)));
+        }
+
+        @Test
+        @DisplayName("Becoming friends removes the suggestion")
+        void testAcceptedRemovesSuggestion() throws SQLException {
+            service.getSuggestions(1, 10);
+            change(1, 5, Friendship.STATUS_ACCEPTED);
+            assertEquals(List.of(7, 6), ids(service.getSuggestions(1, 10)));
+        }
+
+        @Test
+        @DisplayName("Bulk changes drop every cached result")
+        void testBulkChangeClears() throws SQLException {
+            service.getSuggestions(1, 10);
+            friendshipDAO.rows.removeIf(f -> f.getRequesterId() == 5 || f.getReceiverId() == 5);
+            graph.onFriendshipsChanged(5);
+            service.onFriendshipsChanged(5);
+            assertEquals(List.of(7, 6), ids(service.getSuggestions(1, 10)));
+        }
+
+        @Test
+        @DisplayName("A change while a user's first suggestions are computing marks that user dirty")
+        void testChangeDuringFirstCompute() throws SQLException {
+            Runnable[] duringCompute = {() -> change(1, 5, Friendship.STATUS_ACCEPTED)};
+            graph = new FriendGraph(friendshipDAO) {
+                @Override
+                public int[] getFriendIds(int userId) throws SQLException {
+                    int[] friendIds = super.getFriendIds(userId);
+                    Runnable hook = duringCompute[0];
+                    duringCompute[0] = null;
+                    if (hook != null) {
+                        hook.run();
+                    }
+                    return friendIds;
+                }
+            };
+            graph.initialize();
+            service = new FriendSuggestionService(graph, null);
+
+            service.getSuggestions(1, 10);
+
+            assertEquals(1, service.refreshDirty());
+            assertEquals(List.of(7, 6), ids(service.getSuggestions(1, 10)));
+        }
+    }
+
+    /**
+     * FriendshipDAO stand-in backed by a list
+     */
+    private static class StubFriendshipDAO extends FriendshipDAO {
+        final List<Friendship> rows = new ArrayList<>();
+
+        StubFriendshipDAO() {
+            super(null);
+        }
+
+        void add(int requesterId, int receiverId, String status) {
+            rows.add(new Friendship(0, requesterId, receiverId, status, null, null));
+        }
+
+        @Override
+        public int forEachFriendship(Consumer<Friendship> consumer) {
+            rows.forEach(consumer);
+            return rows.size();
+        }
+
+        @Override
+        public List<Friendship> getAllFriendships(int userId) {
+            List<Friendship> result = new ArrayList<>();
+            for (Friendship row : rows) {
+                if (row.getRequesterId() == userId || row.getReceiverId() == userId) {
+                    result.add(row);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package service;
+
+import dao.InboxCountersDAO;
+import dao.UserDAO;
+import model.InboxCounters;
+import model.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the cached inbox counters
+ * The DAO is replaced by an in-memory table so no database is needed
+ */
+public class InboxCounterServiceTest {
+
+    private StubCountersDAO countersDAO;
+    private InboxCounterService service;
+
+    @BeforeEach
+    void setUp() {
+        countersDAO = new StubCountersDAO();
+        service = new InboxCounterService(countersDAO);
+    }
+
+    @Test
+    @DisplayName("New messages increment the cached counters and write through")
+    void testMessageWriteThrough() throws SQLException {
+        service.onMessageCreated(new Message(1, 7, Message.TYPE_NOTE, "hi"));
+        service.onMessageCreated(new Message(2, 7, "beat this", 3));
+
+        InboxCounters counters = service.getCounters(7);
+        assertEquals(2, counters.getUnreadTotal());
+        assertEquals(1, counters.getUnreadChallenges());
+        assertEquals(Message.TYPE_CHALLENGE, counters.getLatestUnreadType());
+        assertEquals(2, countersDAO.table.get(7).getUnreadTotal());
+        assertEquals(0, countersDAO.recounts);
+    }
+
+    @Test
+    @DisplayName("Stored rows are looked up once and then served from the cache")
+    void testCachedLookup() throws SQLException {
+        countersDAO.table.put(7, new InboxCounters(7, 1, 0, 2, Message.TYPE_FRIEND_REQUEST, null));
+
+        service.getCounters(7);
+        service.getCounters(7);
+
+        assertEquals(3, service.getCounters(7).getUnreadTotal());
+        assertEquals(1, countersDAO.lookups);
+    }
+
+    @Test
+    @DisplayName("Read or deleted messages recount only the affected receiver")
+    void testInboxChangedRecounts() throws SQLException {
+        service.onMessageCreated(new Message(1, 7, Message.TYPE_NOTE, "hi"));
+        countersDAO.recounted.put(7, new InboxCounters(7));
+
+        service.onInboxChanged(7);
+
+        assertEquals(0, service.getCounters(7).getUnreadTotal());
+        assertNull(service.getCounters(7).getLatestUnreadType());
+        assertEquals(0, countersDAO.table.get(7).getUnreadTotal());
+        assertEquals(1, countersDAO.recounts);
+    }
+
+    @Test
+    @DisplayName("Changes to unknown receivers trigger a rebuild on next use")
+    void testRebuildAfterChange() throws SQLException {
+        service.onMessageCreated(new Message(1, 7, Message.TYPE_NOTE, "hi"));
+        countersDAO.computed.add(new InboxCounters(7, 0, 4, 0, Message.TYPE_CHALLENGE, null));
+
+        service.onMessagesChanged();
+
+        assertEquals(4, service.getCounters(7).getUnreadTotal());
+    }
+
+    @Test
+    @DisplayName("A rebuild overwrites rows in place and prunes users with nothing unread")
+    void testRebuildUpsertsAndPrunes() throws SQLException {
+        countersDAO.table.put(7, new InboxCounters(7, 1, 0, 0, Message.TYPE_NOTE, null));
+        countersDAO.table.put(9, new InboxCounters(9, 2, 0, 0, Message.TYPE_NOTE, null));
+        countersDAO.computed.add(new InboxCounters(7, 0, 4, 0, Message.TYPE_CHALLENGE, null));
+
+        service.rebuild();
+
+        assertEquals(4, countersDAO.table.get(7).getUnreadTotal());
+        assertFalse(countersDAO.table.containsKey(9));
+        assertEquals(0, service.getCounters(9).getUnreadTotal());
+    }
+
+    @Test
+    @DisplayName("Deleting a user recounts the receivers of their unread messages")
+    void testUserDeleted() throws SQLException {
+        service.onMessageCreated(new Message(5, 7, Message.TYPE_NOTE, "hi"));
+        service.onMessageCreated(new Message(7, 5, Message.TYPE_NOTE, "hello"));
+        UserDAO.DeletedUser deleted = new UserDAO.DeletedUser(5);
+        deleted.getUnreadReceiverIds().add(7);
+        countersDAO.table.remove(5);
+
+        service.onUserDeleted(deleted);
+
+        assertEquals(0, service.getCounters(7).getUnreadTotal());
+        assertEquals(0, countersDAO.table.get(7).getUnreadTotal());
+        assertEquals(0, service.getCounters(5).getUnreadTotal());
+        assertEquals(1, countersDAO.recounts);
+    }
+
+    @Test
+    @DisplayName("A fan-out of messages is counted with one lookup and one write")
+    void testMessagesCreatedBatch() throws SQLException {
+        countersDAO.table.put(8, new InboxCounters(8, 1, 0, 0, Message.TYPE_NOTE, null));
+
+        service.onMessagesCreated(List.of(new Message(1, 7, "beat this", 3), new Message(1, 8, "beat this", 3)));
+
+        assertEquals(1, service.getCounters(7).getUnreadChallenges());
+        assertEquals(2, service.getCounters(8).getUnreadTotal());
+        assertEquals(2, countersDAO.table.get(8).getUnreadTotal());
+        assertEquals(0, countersDAO.lookups);
+        assertEquals(1, countersDAO.batchLookups);
+        assertEquals(1, countersDAO.batchSaves);
+    }
+
+    /**
+     * InboxCountersDAO stand-in backed by a map
+     */
+    private static class StubCountersDAO extends InboxCountersDAO {
+        final Map<Integer, InboxCounters> table = new HashMap<>();
+        final Map<Integer, InboxCounters> recounted = new HashMap<>();
+        final List<InboxCounters> computed = new ArrayList<>();
+        int lookups;
+        int batchLookups;
+        int batchSaves;
+        int recounts;
+
+        StubCountersDAO() {
+            super(null);
+        }
+
+        @Override
+        public boolean saveCounters(InboxCounters counters) {
+            table.put(counters.getUserId(), copy(counters));
+            return true;
+        }
+
+        @Override
+        public int saveAllCounters(Collection<InboxCounters> countersList) {
+            batchSaves++;
+            countersList.forEach(this::saveCounters);
+            return countersList.size();
+        }
+
+        @Override
+        public InboxCounters findByUserId(int userId) {
+            lookups++;
+            InboxCounters counters = table.get(userId);
+            return counters == null ? null : copy(counters);
+        }
+
+        @Override
+        public Map<Integer, InboxCounters> findByUserIds(Collection<Integer> userIds) {
+            batchLookups++;
+            Map<Integer, InboxCounters> found = new HashMap<>();
+            for (int userId : userIds) {
+                InboxCounters counters = table.get(userId);
+                if (counters != null) {
+                    found.put(userId, copy(counters));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public int getCountersCount() {
+            return table.size();
+        }
+
+        @Override
+        public InboxCounters computeCounters(int userId) {
+            recounts++;
+            return copy(recounted.getOrDefault(userId, new InboxCounters(userId)));
+        }
+
+        @Override
+        public List<InboxCounters> computeAllCounters() {
+            return computed;
+        }
+
+        @Override
+        public int deleteInactiveCounters() {
+            // computed stands in for the messages table: only its users have unread messages
+            int size = table.size();
+            table.keySet().removeIf(userId -> computed.stream().noneMatch(c -> c.getUserId() == userId));
+            return size - table.size();
+        }
+
+        private static InboxCounters copy(InboxCounters c) {
+            return new InboxCounters(c.getUserId(), c.getUnreadNotes(), c.getUnreadChallenges(),
+                    c.getUnreadFriendRequests(), c.getLatestUnreadType(), c.getLatestUnreadAt());
+        }
+    }
+}
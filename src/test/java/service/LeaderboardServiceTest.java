@@ -0,0 +1,356 @@
+package service;
+
+import dao.FriendshipDAO;
+import dao.QuizAttemptDAO;
+import dao.QuizDAO;
+import dao.UserDAO;
+import model.LeaderboardEntry;
+import model.Quiz;
+import model.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the order-statistic quiz leaderboards
+ * DAOs are replaced by in-memory stubs so no database is needed
+ */
+public class LeaderboardServiceTest {
+
+    private static final int QUIZ_ID = 1;
+
+    private StubAttemptDAO attemptDAO;
+    private StubUserDAO userDAO;
+    private StubFriendshipDAO friendshipDAO;
+    private LeaderboardService service;
+
+    @BeforeEach
+    void setUp() {
+        attemptDAO = new StubAttemptDAO();
+        userDAO = new StubUserDAO();
+        friendshipDAO = new StubFriendshipDAO();
+        service = new LeaderboardService(attemptDAO, new StubQuizDAO(), userDAO, friendshipDAO);
+    }
+
+    private static QuizAttempt attempt(int userId, double score, long timeTaken) {
+        return new QuizAttempt(0, userId, QUIZ_ID, score, 10, timeTaken, new Date(1_000_000L), false);
+    }
+
+    @Nested
+    @DisplayName("Rank Tests")
+    class RankTests {
+
+        @Test
+        @DisplayName("Users are ranked by score, then by time")
+        void testRankOrder() throws SQLException {
+            service.recordAttempt(attempt(1, 70, 100));
+            service.recordAttempt(attempt(2, 90, 300));
+            service.recordAttempt(attempt(3, 90, 200));
+
+            assertEquals(1, service.getRank(QUIZ_ID, 3));
+            assertEquals(2, service.getRank(QUIZ_ID, 2));
+            assertEquals(3, service.getRank(QUIZ_ID, 1));
+            assertEquals(0, service.getRank(QUIZ_ID, 99));
+            assertEquals(0, service.getRank(42, 1));
+        }
+
+        @Test
+        @DisplayName("Only a user's best attempt counts")
+        void testBestAttemptPerUser() throws SQLException {
+            service.recordAttempt(attempt(1, 50, 100));
+            service.recordAttempt(attempt(2, 60, 100));
+            service.recordAttempt(attempt(1, 80, 100));
+            service.recordAttempt(attempt(1, 40, 100));
+
+            assertEquals(2, service.getRankedCount(QUIZ_ID));
+            assertEquals(1, service.getRank(QUIZ_ID, 1));
+            assertEquals(80.0, service.getTop(QUIZ_ID, 1).get(0).getBestScore(), 0.001);
+        }
+
+        @Test
+        @DisplayName("Practice attempts are not ranked")
+        void testPracticeIgnored() throws SQLException {
+            service.onAttemptCreated(new QuizAttempt(1, QUIZ_ID, 100, 10, 10, true));
+
+            assertEquals(0, service.getRankedCount(QUIZ_ID));
+        }
+
+        @Test
+        @DisplayName("Rank and select agree with a full sort")
+        void testMatchesFullSort() throws SQLException {
+            Random random = new Random(7);
+            Map<Integer, QuizAttempt> best = new HashMap<>();
+            for (int i = 0; i < 2000; i++) {
+                QuizAttempt a = attempt(random.nextInt(300), random.nextInt(101), random.nextInt(50));
+                service.recordAttempt(a);
+                QuizAttempt current = best.get(a.getUserId());
+                if (current == null || LeaderboardService.compare(a, current) < 0) {
+                    best.put(a.getUserId(), a);
+                }
+            }
+            List<QuizAttempt> sorted = new ArrayList<>(best.values());
+            sorted.sort(LeaderboardService::compare);
+
+            assertEquals(sorted.size(), service.getRankedCount(QUIZ_ID));
+            for (int i = 0; i < sorted.size(); i++) {
+                assertEquals(i + 1, service.getRank(QUIZ_ID, sorted.get(i).getUserId()));
+            }
+            List<LeaderboardEntry> window = service.getRange(QUIZ_ID, 50, 60);
+            for (int i = 0; i < window.size(); i++) {
+                assertEquals(sorted.get(49 + i).getUserId(), window.get(i).getUserId());
+                assertEquals(50 + i, window.get(i).getRank());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Window Tests")
+    class WindowTests {
+
+        @BeforeEach
+        void fill() {
+            for (int userId = 1; userId <= 30; userId++) {
+                service.recordAttempt(attempt(userId, userId, 100)); // user 30 ranks first
+            }
+        }
+
+        @Test
+        @DisplayName("Window around a user includes the radius on both sides")
+        void testAroundUser() throws SQLException {
+            List<LeaderboardEntry> window = service.getAroundUser(QUIZ_ID, 15, 3);
+
+            assertEquals(7, window.size());
+            assertEquals(13, window.get(0).getRank());
+            assertEquals(15, window.get(3).getUserId());
+            assertEquals(16, window.get(3).getRank());
+            assertEquals("user15", window.get(3).getUsername());
+            assertEquals("Quiz 1", window.get(3).getQuizTitle());
+        }
+
+        @Test
+        @DisplayName("Windows are clipped at the ends of the leaderboard")
+        void testClipping() throws SQLException {
+            List<LeaderboardEntry> top = service.getAroundUser(QUIZ_ID, 30, 5);
+            List<LeaderboardEntry> bottom = service.getAroundUser(QUIZ_ID, 1, 5);
+
+            assertEquals(6, top.size());
+            assertEquals(1, top.get(0).getRank());
+            assertEquals(6, bottom.size());
+            assertEquals(30, bottom.get(5).getRank());
+        }
+
+        @Test
+        @DisplayName("Unranked users get an empty window")
+        void testUnrankedUser() throws SQLException {
+            assertTrue(service.getAroundUser(QUIZ_ID, 99, 5).isEmpty());
+            assertTrue(service.getRange(QUIZ_ID, 40, 50).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Deleted quizzes lose their leaderboard")
+        void testQuizDeleted() throws SQLException {
+            service.onQuizDeleted(QUIZ_ID);
+
+            assertEquals(0, service.getRankedCount(QUIZ_ID));
+        }
+    }
+
+    @Nested
+    @DisplayName("Friends Leaderboard Tests")
+    class FriendsTests {
+
+        @BeforeEach
+        void fill() {
+            for (int userId = 1; userId <= 30; userId++) {
+                service.recordAttempt(attempt(userId, userId, 100));
+            }
+            friendshipDAO.friendIds.addAll(List.of(4, 20, 12, 99));
+        }
+
+        @Test
+        @DisplayName("Friends and the user are ranked among themselves")
+        void testFriendsRanked() throws SQLException {
+            List<LeaderboardEntry> friends = service.getFriendsLeaderboard(QUIZ_ID, 7);
+
+            assertEquals(4, friends.size());
+            assertEquals(20, friends.get(0).getUserId());
+            assertEquals(1, friends.get(0).getRank());
+            assertEquals(7, friends.get(2).getUserId());
+            assertEquals(3, friends.get(2).getRank());
+            assertEquals(4, friends.get(3).getRank());
+            assertEquals("user12", friends.get(1).getUsername());
+        }
+
+        @Test
+        @DisplayName("Usernames are resolved with one batched lookup")
+        void testSingleUsernameLookup() throws SQLException {
+            service.getFriendsLeaderboard(QUIZ_ID, 7);
+            service.getTop(QUIZ_ID, 10);
+
+            assertEquals(2, userDAO.lookups);
+        }
+
+        @Test
+        @DisplayName("A user without friends sees only themselves")
+        void testNoFriends() throws SQLException {
+            friendshipDAO.friendIds.clear();
+
+            List<LeaderboardEntry> friends = service.getFriendsLeaderboard(QUIZ_ID, 7);
+
+            assertEquals(1, friends.size());
+            assertEquals(7, friends.get(0).getUserId());
+            assertTrue(service.getFriendsLeaderboard(42, 7).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Untargeted changes rebuild each quiz on its next lookup")
+    void testRebuildAfterChange() throws SQLException {
+        service.recordAttempt(attempt(1, 50, 100));
+        attemptDAO.attempts.add(attempt(2, 60, 100));
+
+        service.onAttemptsChanged();
+
+        assertEquals(0, service.getRank(QUIZ_ID, 1));
+        assertEquals(1, service.getRank(QUIZ_ID, 2));
+        assertEquals(List.of(QUIZ_ID), attemptDAO.quizLoads);
+    }
+
+    @Test
+    @DisplayName("Targeted changes rebuild only the affected quizzes")
+    void testTargetedRebuild() throws SQLException {
+        service.recordAttempt(attempt(1, 50, 100));
+        service.recordAttempt(new QuizAttempt(0, 1, 42, 50, 10, 100, new Date(1_000_000L), false));
+        attemptDAO.attempts.add(attempt(2, 60, 100));
+
+        service.onAttemptsChanged(Set.of(QUIZ_ID), Set.of(1));
+
+        assertEquals(1, service.getRank(QUIZ_ID, 2));
+        assertEquals(0, service.getRank(QUIZ_ID, 1));
+        assertEquals(1, service.getRank(42, 1));
+        assertEquals(List.of(QUIZ_ID), attemptDAO.quizLoads);
+    }
+
+    @Test
+    @DisplayName("A failed rebuild leaves the quiz stale")
+    void testFailedRebuildStaysStale() throws SQLException {
+        service.recordAttempt(attempt(1, 50, 100));
+        attemptDAO.attempts.add(attempt(2, 60, 100));
+        service.onAttemptsChanged(Set.of(QUIZ_ID), Set.of(1));
+
+        attemptDAO.failNext = true;
+        assertThrows(SQLException.class, () -> service.getRank(QUIZ_ID, 2));
+
+        assertEquals(1, service.getRank(QUIZ_ID, 2));
+    }
+
+    @Test
+    @DisplayName("Deleted users leave the boards they were on and take their own quizzes' boards with them")
+    void testUserDeleted() throws SQLException {
+        service.recordAttempt(attempt(1, 90, 100));
+        service.recordAttempt(attempt(2, 60, 100));
+        service.recordAttempt(new QuizAttempt(0, 2, 42, 50, 10, 100, new Date(1_000_000L), false));
+        attemptDAO.attempts.add(attempt(2, 60, 100));
+        UserDAO.DeletedUser deleted = new UserDAO.DeletedUser(1);
+        deleted.getAttemptedQuizIds().add(QUIZ_ID);
+        deleted.getCreatedQuizIds().add(42);
+
+        service.onUserDeleted(deleted);
+
+        assertEquals(0, service.getRank(QUIZ_ID, 1));
+        assertEquals(1, service.getRank(QUIZ_ID, 2));
+        assertEquals(0, service.getRankedCount(42));
+        assertEquals(List.of(QUIZ_ID), attemptDAO.quizLoads);
+    }
+
+    /**
+     * QuizAttemptDAO stand-in that serves attempts from a list
+     */
+    private static class StubAttemptDAO extends QuizAttemptDAO {
+        final List<QuizAttempt> attempts = new ArrayList<>();
+        final List<Integer> quizLoads = new ArrayList<>();
+        boolean failNext;
+
+        StubAttemptDAO() {
+            super(null);
+        }
+
+        @Override
+        public int forEachGradedAttempt(Consumer<QuizAttempt> consumer) {
+            attempts.forEach(consumer);
+            return attempts.size();
+        }
+
+        @Override
+        public List<QuizAttempt> getGradedAttemptsByQuiz(int quizId) throws SQLException {
+            if (failNext) {
+                failNext = false;
+                throw new SQLException("Connection lost");
+            }
+            quizLoads.add(quizId);
+            List<QuizAttempt> found = new ArrayList<>();
+            for (QuizAttempt attempt : attempts) {
+                if (attempt.getQuizId() == quizId && !attempt.isPractice()) {
+                    found.add(attempt);
+                }
+            }
+            return found;
+        }
+    }
+
+    private static class StubQuizDAO extends QuizDAO {
+        StubQuizDAO() {
+            super(null);
+        }
+
+        @Override
+        public Quiz findById(int quizId) {
+            Quiz quiz = new Quiz("Quiz " + quizId, "", 1);
+            quiz.setQuizId(quizId);
+            return quiz;
+        }
+    }
+
+    private static class StubUserDAO extends UserDAO {
+        int lookups;
+
+        StubUserDAO() {
+            super(null);
+        }
+
+        @Override
+        public Map<Integer, String> getUsernamesByIds(Collection<Integer> userIds) {
+            lookups++;
+            Map<Integer, String> usernames = new HashMap<>();
+            userIds.forEach(id -> usernames.put(id, "user" + id));
+            return usernames;
+        }
+    }
+
+    private static class StubFriendshipDAO extends FriendshipDAO {
+        final List<Integer> friendIds = new ArrayList<>();
+
+        StubFriendshipDAO() {
+            super(null);
+        }
+
+        @Override
+        public List<Integer> getFriendIds(int userId) {
+            return new ArrayList<>(friendIds);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package service;
+
+import model.Friendship;
+import model.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the notification hub
+ * Deliveries run on the calling thread and subscribers record what they receive
+ */
+public class NotificationHubTest {
+
+    private NotificationHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new NotificationHub(new DirectExecutor(), null, null);
+    }
+
+    @Test
+    @DisplayName("A new message is pushed to every connection of the receiver only")
+    void testMessagePushedToReceiver() {
+        RecordingSubscriber tab1 = new RecordingSubscriber();
+        RecordingSubscriber tab2 = new RecordingSubscriber();
+        RecordingSubscriber other = new RecordingSubscriber();
+        hub.subscribe(7, tab1);
+        hub.subscribe(7, tab2);
+        hub.subscribe(8, other);
+
+        hub.onMessageCreated(new Message(1, 7, Message.TYPE_NOTE, "hi"));
+
+        assertEquals(List.of(NotificationHub.EVENT_MESSAGE), tab1.events);
+        assertEquals(List.of(NotificationHub.EVENT_MESSAGE), tab2.events);
+        assertTrue(tab1.data.get(0).contains("\"hi\""));
+        assertTrue(other.events.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Accepted friendships notify both users; pending ones are not pushed")
+    void testFriendAccepted() {
+        RecordingSubscriber requester = new RecordingSubscriber();
+        RecordingSubscriber receiver = new RecordingSubscriber();
+        hub.subscribe(1, requester);
+        hub.subscribe(2, receiver);
+
+        hub.onFriendshipChanged(1, 2, new Friendship(1, 2));
+        assertTrue(requester.events.isEmpty());
+
+        hub.onFriendshipChanged(1, 2, new Friendship(5, 1, 2, Friendship.STATUS_ACCEPTED, new Date(), new Date()));
+        assertEquals(List.of(NotificationHub.EVENT_FRIEND_ACCEPTED), requester.events);
+        assertEquals(List.of(NotificationHub.EVENT_FRIEND_ACCEPTED), receiver.events);
+        assertTrue(requester.data.get(0).contains("\"friendshipId\":5"));
+    }
+
+    @Test
+    @DisplayName("Closed subscribers are dropped on delivery and on heartbeat")
+    void testClosedSubscribersDropped() {
+        RecordingSubscriber open = new RecordingSubscriber();
+        RecordingSubscriber closed = new RecordingSubscriber();
+        closed.open = false;
+        hub.subscribe(7, open);
+        hub.subscribe(7, closed);
+
+        hub.publish(7, "test", "{}");
+        assertEquals(1, hub.getSubscriberCount());
+
+        open.open = false;
+        hub.heartbeat();
+        assertEquals(0, hub.getSubscriberCount());
+        assertFalse(hub.isConnected(7));
+    }
+
+    @Test
+    @DisplayName("Unsubscribing the last connection removes the user")
+    void testUnsubscribe() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        hub.subscribe(7, subscriber);
+        assertTrue(hub.isConnected(7));
+
+        hub.unsubscribe(7, subscriber);
+        hub.publish(7, "test", "{}");
+
+        assertFalse(hub.isConnected(7));
+        assertTrue(subscriber.events.isEmpty());
+    }
+
+    // ========================= HELPER CLASSES =========================
+
+    private static class RecordingSubscriber implements NotificationHub.Subscriber {
+        final List<String> events = new ArrayList<>();
+        final List<String> data = new ArrayList<>();
+        boolean open = true;
+
+        @Override
+        public boolean send(String event, String payload) {
+            if (open) {
+                events.add(event);
+                data.add(payload);
+            }
+            return open;
+        }
+
+        @Override
+        public boolean ping() {
+            return open;
+        }
+    }
+
+    private static class DirectExecutor extends AbstractExecutorService {
+        private boolean shutdown;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package service;
+
+import dao.QuizAttemptDAO;
+import dao.UserDAO;
+import model.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the histogram-backed percentile ranks
+ * The DAO is replaced by an in-memory stub so no database is needed
+ */
+public class PercentileServiceTest {
+
+    private static final int QUIZ_ID = 1;
+
+    private StubAttemptDAO attemptDAO;
+    private PercentileService service;
+
+    @BeforeEach
+    void setUp() {
+        attemptDAO = new StubAttemptDAO();
+        service = new PercentileService(attemptDAO);
+    }
+
+    @Nested
+    @DisplayName("Score Percentile Tests")
+    class ScorePercentileTests {
+
+        @Test
+        @DisplayName("Quizzes without attempts have no percentile")
+        void testNoAttempts() throws SQLException {
+            assertNull(service.getScorePercentile(QUIZ_ID, 50));
+            assertNull(service.getTimePercentile(QUIZ_ID, 30));
+            assertEquals(0, service.getAttemptCount(QUIZ_ID));
+        }
+
+        @Test
+        @DisplayName("Percentile counts strictly lower scores")
+        void testStrictlyLower() throws SQLException {
+            service.recordAttempt(QUIZ_ID, 20, 60);
+            service.recordAttempt(QUIZ_ID, 40, 60);
+            service.recordAttempt(QUIZ_ID, 60, 60);
+            service.recordAttempt(QUIZ_ID, 80, 60);
+
+            assertEquals(0, service.getScorePercentile(QUIZ_ID, 20));
+            assertEquals(75, service.getScorePercentile(QUIZ_ID, 70));
+            assertEquals(50, service.getScorePercentile(QUIZ_ID, 60));
+            assertEquals(100, service.getScorePercentile(QUIZ_ID, 100));
+        }
+
+        @Test
+        @DisplayName("Fractional scores share the whole-percent bucket")
+        void testFractionalScores() throws SQLException {
+            service.recordAttempt(QUIZ_ID, 66.67, 60);
+
+            assertEquals(0, service.getScorePercentile(QUIZ_ID, 66.1));
+            assertEquals(100, service.getScorePercentile(QUIZ_ID, 67));
+        }
+
+        @Test
+        @DisplayName("Out of range scores are clamped")
+        void testClamping() {
+            assertEquals(0, PercentileService.scoreBucket(-5));
+            assertEquals(100, PercentileService.scoreBucket(150));
+        }
+    }
+
+    @Nested
+    @DisplayName("Time Percentile Tests")
+    class TimePercentileTests {
+
+        @Test
+        @DisplayName("Percentile counts strictly slower attempts")
+        void testStrictlySlower() throws SQLException {
+            service.recordAttempt(QUIZ_ID, 50, 30);
+            service.recordAttempt(QUIZ_ID, 50, 60);
+            service.recordAttempt(QUIZ_ID, 50, 120);
+            service.recordAttempt(QUIZ_ID, 50, 600);
+
+            assertEquals(100, service.getTimePercentile(QUIZ_ID, 10));
+            assertEquals(75, service.getTimePercentile(QUIZ_ID, 30));
+            assertEquals(50, service.getTimePercentile(QUIZ_ID, 60));
+            assertEquals(0, service.getTimePercentile(QUIZ_ID, 900));
+        }
+
+        @Test
+        @DisplayName("Time buckets are monotonic and bounded")
+        void testTimeBuckets() {
+            int previous = PercentileService.timeBucket(0);
+            for (long t = 1; t <= PercentileService.MAX_TIME_SECONDS * 2; t += 7) {
+                int bucket = PercentileService.timeBucket(t);
+                assertTrue(bucket >= previous);
+                assertTrue(bucket < PercentileService.TIME_BUCKETS);
+                previous = bucket;
+            }
+            assertEquals(PercentileService.TIME_BUCKETS - 1, PercentileService.timeBucket(Long.MAX_VALUE));
+        }
+    }
+
+    @Nested
+    @DisplayName("Event Tests")
+    class EventTests {
+
+        @Test
+        @DisplayName("Practice attempts are not counted")
+        void testPracticeIgnored() throws SQLException {
+            service.onAttemptCreated(new QuizAttempt(1, QUIZ_ID, 90, 10, 60, true));
+            service.onAttemptCreated(new QuizAttempt(1, QUIZ_ID, 40, 10, 60, false));
+
+            assertEquals(1, service.getAttemptCount(QUIZ_ID));
+            assertEquals(100, service.getScorePercentile(QUIZ_ID, 50));
+        }
+
+        @Test
+        @DisplayName("Initialize builds histograms from the attempt scan")
+        void testInitialize() throws SQLException {
+            attemptDAO.attempts.add(new QuizAttempt(1, QUIZ_ID, 10, 10, 60, false));
+            attemptDAO.attempts.add(new QuizAttempt(2, QUIZ_ID, 90, 10, 60, false));
+            attemptDAO.attempts.add(new QuizAttempt(3, 2, 50, 10, 60, false));
+
+            service.initialize();
+
+            assertEquals(2, service.getAttemptCount(QUIZ_ID));
+            assertEquals(1, service.getAttemptCount(2));
+            assertEquals(50, service.getScorePercentile(QUIZ_ID, 50));
+        }
+
+        @Test
+        @DisplayName("Untargeted changes reload each quiz on its next lookup")
+        void testRebuildAfterChange() throws SQLException {
+            service.recordAttempt(QUIZ_ID, 10, 60);
+            service.recordAttempt(QUIZ_ID, 20, 60);
+            attemptDAO.attempts.add(new QuizAttempt(1, QUIZ_ID, 10, 10, 60, false));
+
+            service.onAttemptsChanged();
+
+            assertEquals(1, service.getAttemptCount(QUIZ_ID));
+            assertEquals(0, service.getAttemptCount(2));
+            assertEquals(List.of(QUIZ_ID, 2), attemptDAO.quizLoads);
+            assertEquals(0, attemptDAO.scans);
+        }
+
+        @Test
+        @DisplayName("Targeted changes reload only the affected quizzes")
+        void testTargetedReload() throws SQLException {
+            service.recordAttempt(QUIZ_ID, 10, 60);
+            service.recordAttempt(2, 10, 60);
+            attemptDAO.attempts.add(new QuizAttempt(1, QUIZ_ID, 50, 10, 60, false));
+            attemptDAO.attempts.add(new QuizAttempt(2, QUIZ_ID, 70, 10, 60, false));
+
+            service.onAttemptsChanged(Set.of(QUIZ_ID), Set.of(1));
+
+            assertEquals(2, service.getAttemptCount(QUIZ_ID));
+            assertEquals(1, service.getAttemptCount(2));
+            assertEquals(List.of(QUIZ_ID), attemptDAO.quizLoads);
+        }
+
+        @Test
+        @DisplayName("A failed reload leaves the quiz stale")
+        void testFailedReloadStaysStale() throws SQLException {
+            service.recordAttempt(QUIZ_ID, 10, 60);
+            attemptDAO.attempts.add(new QuizAttempt(1, QUIZ_ID, 50, 10, 60, false));
+            attemptDAO.attempts.add(new QuizAttempt(2, QUIZ_ID, 70, 10, 60, false));
+            service.onAttemptsChanged(Set.of(QUIZ_ID), Set.of(1));
+
+            attemptDAO.failNext = true;
+            assertThrows(SQLException.class, () -> service.getAttemptCount(QUIZ_ID));
+
+            assertEquals(2, service.getAttemptCount(QUIZ_ID));
+        }
+
+        @Test
+        @DisplayName("Deleted users' attempts reload their quizzes and their own quizzes are dropped")
+        void testUserDeleted() throws SQLException {
+            service.recordAttempt(QUIZ_ID, 10, 60);
+            service.recordAttempt(QUIZ_ID, 90, 60);
+            service.recordAttempt(2, 50, 60);
+            attemptDAO.attempts.add(new QuizAttempt(1, QUIZ_ID, 90, 10, 60, false));
+            UserDAO.DeletedUser deleted = new UserDAO.DeletedUser(7);
+            deleted.getAttemptedQuizIds().add(QUIZ_ID);
+            deleted.getCreatedQuizIds().add(2);
+
+            service.onUserDeleted(deleted);
+
+            assertEquals(1, service.getAttemptCount(QUIZ_ID));
+            assertEquals(0, service.getAttemptCount(2));
+            assertEquals(List.of(QUIZ_ID), attemptDAO.quizLoads);
+        }
+    }
+
+    /**
+     * QuizAttemptDAO stand-in that serves attempts from a list
+     */
+    private static class StubAttemptDAO extends QuizAttemptDAO {
+        final List<QuizAttempt> attempts = new ArrayList<>();
+        final List<Integer> quizLoads = new ArrayList<>();
+        int scans;
+        boolean failNext;
+
+        StubAttemptDAO() {
+            super(null);
+        }
+
+        @Override
+        public int forEachGradedAttempt(Consumer<QuizAttempt> consumer) {
+            scans++;
+            attempts.forEach(consumer);
+            return attempts.size();
+        }
+
+        @Override
+        public List<QuizAttempt> getGradedAttemptsByQuiz(int quizId) throws SQLException {
+            if (failNext) {
+                failNext = false;
+                throw new SQLException("Connection lost");
+            }
+            quizLoads.add(quizId);
+            List<QuizAttempt> found = new ArrayList<>();
+            for (QuizAttempt attempt : attempts) {
+                if (attempt.getQuizId() == quizId && !attempt.isPractice()) {
+                    found.add(attempt);
+                }
+            }
+            return found;
+        }
+    }
+}
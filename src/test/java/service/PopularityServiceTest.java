@@ -0,0 +1,210 @@
+package service;
+
+import dao.UserDAO;
+import model.QuizAttempt;
+import model.QuizPopularity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the in-memory decayed popularity rankings
+ * Uses explicit timestamps so no database or wall clock is involved
+ */
+public class PopularityServiceTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long HOUR = 60L * 60 * 1000;
+    private static final long DAY = 24 * HOUR;
+
+    private PopularityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PopularityService(null, 5, T0);
+    }
+
+    @Nested
+    @DisplayName("Scoring Tests")
+    class ScoringTests {
+
+        @Test
+        @DisplayName("A fresh attempt scores one and halves every half-life")
+        void testHalfLifeDecay() {
+            service.recordAttempt(1, T0);
+
+            assertEquals(1.0, service.getPopularScore(1, T0), 1e-9);
+            assertEquals(0.5, service.getPopularScore(1, T0 + PopularityService.POPULAR_HALF_LIFE_MILLIS), 1e-9);
+            assertEquals(0.25, service.getTrendingScore(1, T0 + 2 * PopularityService.TRENDING_HALF_LIFE_MILLIS), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Unknown quizzes score zero")
+        void testUnknownQuiz() {
+            assertEquals(0.0, service.getPopularScore(42, T0), 0.0);
+            assertEquals(0.0, service.getTrendingScore(42, T0), 0.0);
+        }
+
+        @Test
+        @DisplayName("Scores stay correct across a landmark rebase far in the future")
+        void testRebase() {
+            long later = T0 + 3650 * DAY;
+            service.recordAttempt(1, later);
+            service.recordAttempt(1, later);
+
+            assertEquals(2.0, service.getTrendingScore(1, later), 1e-9);
+            assertEquals(2.0, service.getPopularScore(1, later), 1e-9);
+        }
+    }
+
+    @Nested
+    @DisplayName("Ranking Tests")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Rankings are ordered by attempt count at the same time")
+        void testOrderByCount() {
+            service.recordAttempt(1, T0);
+            service.recordAttempt(2, T0);
+            service.recordAttempt(2, T0);
+            service.recordAttempt(3, T0);
+            service.recordAttempt(3, T0);
+            service.recordAttempt(3, T0);
+
+            assertEquals(Arrays.asList(3, 2, 1), service.getPopularQuizIds(10, T0));
+            assertEquals(Arrays.asList(3, 2), service.getTrendingQuizIds(2, T0));
+        }
+
+        @Test
+        @DisplayName("Recent attempts outrank older ones on the trending list only")
+        void testTrendingFavoursRecent() {
+            for (int i = 0; i < 4; i++) {
+                service.recordAttempt(1, T0);
+            }
+            long now = T0 + 2 * DAY;
+            service.recordAttempt(2, now);
+            service.recordAttempt(2, now);
+
+            assertEquals(Arrays.asList(1, 2), service.getPopularQuizIds(10, now));
+            assertEquals(Arrays.asList(2, 1), service.getTrendingQuizIds(10, now));
+        }
+
+        @Test
+        @DisplayName("Top lists are bounded by the capacity")
+        void testCapacity() {
+            for (int id = 1; id <= 8; id++) {
+                for (int i = 0; i < id; i++) {
+                    service.recordAttempt(id, T0);
+                }
+            }
+
+            assertEquals(Arrays.asList(8, 7, 6, 5, 4), service.getPopularQuizIds(10, T0));
+        }
+
+        @Test
+        @DisplayName("A quiz outside the top list is promoted once it overtakes")
+        void testPromotion() {
+            for (int id = 1; id <= 5; id++) {
+                service.recordAttempt(id, T0);
+                service.recordAttempt(id, T0);
+            }
+            for (int i = 0; i < 3; i++) {
+                service.recordAttempt(9, T0);
+            }
+
+            assertEquals(9, service.getPopularQuizIds(1, T0).get(0));
+            assertEquals(5, service.getPopularQuizIds(10, T0).size());
+        }
+
+        @Test
+        @DisplayName("Long-dead quizzes drop off the trending list")
+        void testStaleQuizzesDropOff() {
+            service.recordAttempt(1, T0);
+
+            assertEquals(List.of(1), service.getTrendingQuizIds(5, T0));
+            assertTrue(service.getTrendingQuizIds(5, T0 + 30 * DAY).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Removed quizzes disappear from both rankings")
+        void testRemoveQuiz() {
+            service.recordAttempt(1, T0);
+            service.recordAttempt(2, T0);
+            service.recordAttempt(2, T0);
+
+            service.onQuizDeleted(2);
+
+            assertEquals(List.of(1), service.getPopularQuizIds(5, T0));
+            assertEquals(List.of(1), service.getTrendingQuizIds(5, T0));
+            assertEquals(0.0, service.getPopularScore(2, T0), 0.0);
+        }
+
+        @Test
+        @DisplayName("Quizzes deleted with their creator's account disappear from both rankings")
+        void testUserDeleted() {
+            service.recordAttempt(1, T0);
+            service.recordAttempt(2, T0);
+            service.recordAttempt(3, T0);
+            UserDAO.DeletedUser deleted = new UserDAO.DeletedUser(7);
+            deleted.getCreatedQuizIds().add(2);
+            deleted.getCreatedQuizIds().add(3);
+
+            service.onUserDeleted(deleted);
+
+            assertEquals(List.of(1), service.getPopularQuizIds(5, T0));
+            assertEquals(List.of(1), service.getTrendingQuizIds(5, T0));
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshot Tests")
+    class SnapshotTests {
+
+        @Test
+        @DisplayName("Snapshot rows round-trip through load")
+        void testSnapshotRoundTrip() {
+            service.recordAttempt(1, T0);
+            service.recordAttempt(2, T0);
+            service.recordAttempt(2, T0);
+            long now = T0 + HOUR;
+            List<QuizPopularity> rows = service.snapshot(now);
+
+            PopularityService restored = new PopularityService(null, 5, now + DAY);
+            restored.load(rows);
+
+            assertEquals(2, rows.size());
+            assertEquals(service.getPopularScore(2, now), restored.getPopularScore(2, now), 1e-9);
+            assertEquals(service.getTrendingScore(1, now + HOUR), restored.getTrendingScore(1, now + HOUR), 1e-9);
+            assertEquals(Arrays.asList(2, 1), restored.getPopularQuizIds(5, now));
+        }
+
+        @Test
+        @DisplayName("Clear drops every score")
+        void testClear() {
+            service.recordAttempt(1, T0);
+            service.clear();
+
+            assertTrue(service.getPopularQuizIds(5, T0).isEmpty());
+            assertTrue(service.snapshot(T0).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Created attempts are counted at their date taken")
+    void testOnAttemptCreated() {
+        QuizAttempt attempt = new QuizAttempt();
+        attempt.setQuizId(4);
+        attempt.setDateTaken(new Date(T0 - PopularityService.TRENDING_HALF_LIFE_MILLIS));
+
+        service.onAttemptCreated(attempt);
+
+        assertEquals(0.5, service.getTrendingScore(4, T0), 1e-9);
+    }
+}
@@ -0,0 +1,275 @@
+package service;
+
+import dao.QuestionDAO;
+import dao.QuizDAO;
+import dao.UserDAO;
+import model.Question;
+import model.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the faceted quiz catalog
+ * DAOs are replaced by in-memory tables so no database is needed
+ */
+public class QuizCatalogTest {
+
+    private StubQuizDAO quizDAO;
+    private StubQuestionDAO questionDAO;
+    private QuizCatalog catalog;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        quizDAO = new StubQuizDAO();
+        questionDAO = new StubQuestionDAO();
+        // id, title, creator, practice, onePage, immediate, created day
+        quizDAO.add(1, "Capitals", 7, true, true, false, 1);
+        quizDAO.add(2, "Rivers", 7, false, false, true, 2);
+        quizDAO.add(3, "Algebra", 8, true, false, true, 3);
+        quizDAO.add(4, "Biology", 9, false, true, false, 4);
+        questionDAO.add(10, 1, Question.TYPE_MULTIPLE_CHOICE);
+        questionDAO.add(11, 1, Question.TYPE_FILL_IN_BLANK);
+        questionDAO.add(12, 2, Question.TYPE_MULTIPLE_CHOICE);
+        for (int i = 0; i < 7; i++) {
+            questionDAO.add(20 + i, 3, Question.TYPE_QUESTION_RESPONSE);
+        }
+        catalog = new QuizCatalog(quizDAO, questionDAO);
+        catalog.initialize();
+    }
+
+    private List<Integer> ids(QuizCatalog.Query query) throws SQLException {
+        return catalog.query(query).getQuizzes().stream().map(Quiz::getQuizId).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("Filter Tests")
+    class FilterTests {
+
+        @Test
+        @DisplayName("No filters lists every quiz, newest first")
+        void testUnfiltered() throws SQLException {
+            assertEquals(List.of(4, 3, 2, 1), ids(new QuizCatalog.Query()));
+            assertEquals(4, catalog.size());
+        }
+
+        @Test
+        @DisplayName("Flag facets filter for yes and no and combine with AND")
+        void testFlags() throws SQLException {
+            assertEquals(List.of(3, 1), ids(new QuizCatalog.Query().practice(true)));
+            assertEquals(List.of(4, 2), ids(new QuizCatalog.Query().practice(false)));
+            assertEquals(List.of(3), ids(new QuizCatalog.Query().practice(true).immediateCorrection(true)));
+            assertEquals(List.of(4, 1), ids(new QuizCatalog.Query().onePage(true)));
+        }
+
+        @Test
+        @DisplayName("Several creators are combined with OR")
+        void testCreators() throws SQLException {
+            assertEquals(List.of(2, 1), ids(new QuizCatalog.Query().creator(7)));
+            assertEquals(List.of(4, 2, 1), ids(new QuizCatalog.Query().creator(7).creator(9)));
+            assertTrue(ids(new QuizCatalog.Query().creator(99)).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Question types match any or all of the selection")
+        void testTypes() throws SQLException {
+            QuizCatalog.Query any = new QuizCatalog.Query()
+                    .type(Question.TYPE_MULTIPLE_CHOICE).type(Question.TYPE_FILL_IN_BLANK);
+            assertEquals(List.of(2, 1), ids(any));
+            assertEquals(List.of(1), ids(any.allTypes(true)));
+        }
+
+        @Test
+        @DisplayName("Question count range includes both ends")
+        void testQuestionRange() throws SQLException {
+            assertEquals(List.of(2, 1), ids(new QuizCatalog.Query().questions(1, 2)));
+            assertEquals(List.of(3), ids(new QuizCatalog.Query().questions(6, null)));
+            assertEquals(List.of(4), ids(new QuizCatalog.Query().questions(null, 0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Paging And Sorting Tests")
+    class PagingTests {
+
+        @Test
+        @DisplayName("Pages are cut from the sorted matches")
+        void testPaging() throws SQLException {
+            QuizCatalog.Page page = catalog.query(new QuizCatalog.Query().sort(QuizCatalog.SORT_TITLE).page(1, 2));
+
+            assertEquals(List.of("Biology", "Capitals"),
+                    page.getQuizzes().stream().map(Quiz::getTitle).collect(Collectors.toList()));
+            assertEquals(4, page.getTotal());
+            assertTrue(page.hasPrevious());
+            assertTrue(page.hasNext());
+            assertFalse(catalog.query(new QuizCatalog.Query().page(2, 2)).hasNext());
+        }
+
+        @Test
+        @DisplayName("Quizzes can be sorted by question count and age")
+        void testSortOrders() throws SQLException {
+            assertEquals(List.of(3, 1, 2, 4), ids(new QuizCatalog.Query().sort(QuizCatalog.SORT_QUESTIONS)));
+            assertEquals(List.of(1, 2, 3, 4), ids(new QuizCatalog.Query().sort(QuizCatalog.SORT_OLDEST)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Facet Count Tests")
+    class FacetCountTests {
+
+        @Test
+        @DisplayName("Each facet is counted under the other filters but not its own")
+        void testDisjunctiveCounts() throws SQLException {
+            Map<String, Map<String, Integer>> facets =
+                    catalog.query(new QuizCatalog.Query().practice(true)).getFacets();
+
+            assertEquals(Map.of("yes", 2, "no", 2), facets.get(QuizCatalog.FACET_PRACTICE));
+            assertEquals(Map.of("yes", 1, "no", 1), facets.get(QuizCatalog.FACET_ONE_PAGE));
+            assertEquals(1, facets.get(QuizCatalog.FACET_TYPE).get(Question.TYPE_MULTIPLE_CHOICE));
+            assertEquals(1, facets.get(QuizCatalog.FACET_TYPE).get(Question.TYPE_QUESTION_RESPONSE));
+            assertEquals(1, facets.get(QuizCatalog.FACET_QUESTIONS).get("1-5"));
+            assertEquals(1, facets.get(QuizCatalog.FACET_QUESTIONS).get("6-10"));
+            assertEquals(0, facets.get(QuizCatalog.FACET_QUESTIONS).get("0"));
+        }
+
+        @Test
+        @DisplayName("Creators are counted busiest first")
+        void testCreatorCounts() throws SQLException {
+            Map<String, Integer> creators =
+                    catalog.query(new QuizCatalog.Query()).getFacets().get(QuizCatalog.FACET_CREATOR);
+
+            assertEquals(List.of("7", "8", "9"), new ArrayList<>(creators.keySet()));
+            assertEquals(2, creators.get("7"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("New quizzes and their questions are catalogued immediately")
+        void testCreated() throws SQLException {
+            catalog.onQuizCreated(quizDAO.add(5, "Chemistry", 8, true, true, true, 5));
+            catalog.onQuestionCreated(questionDAO.add(30, 5, Question.TYPE_PICTURE_RESPONSE));
+
+            assertEquals(List.of(5, 3, 1), ids(new QuizCatalog.Query().practice(true)));
+            assertEquals(List.of(5), ids(new QuizCatalog.Query().type(Question.TYPE_PICTURE_RESPONSE)));
+            assertEquals(1, catalog.getQuestionCount(5));
+        }
+
+        @Test
+        @DisplayName("Quiz setting changes move the quiz between facet values")
+        void testQuizUpdated() throws SQLException {
+            quizDAO.quizzes.get(4).setPracticeMode(true);
+            catalog.onQuizUpdated(4);
+
+            assertEquals(List.of(4, 3, 1), ids(new QuizCatalog.Query().practice(true)));
+        }
+
+        @Test
+        @DisplayName("Question edits and deletes update types and counts")
+        void testQuestionChanges() throws SQLException {
+            questionDAO.questions.get(11).setQuestionType(Question.TYPE_MULTIPLE_CHOICE);
+            catalog.onQuestionUpdated(11);
+            assertTrue(ids(new QuizCatalog.Query().type(Question.TYPE_FILL_IN_BLANK)).isEmpty());
+
+            catalog.onQuestionDeleted(12, 2);
+            assertEquals(List.of(4, 2), ids(new QuizCatalog.Query().questions(0, 0)));
+            assertEquals(List.of(1), ids(new QuizCatalog.Query().type(Question.TYPE_MULTIPLE_CHOICE)));
+        }
+
+        @Test
+        @DisplayName("Deleted quizzes disappear from results and counts")
+        void testQuizDeleted() throws SQLException {
+            catalog.onQuizDeleted(3);
+
+            assertEquals(List.of(1), ids(new QuizCatalog.Query().practice(true)));
+            assertNull(catalog.query(new QuizCatalog.Query()).getFacets()
+                    .get(QuizCatalog.FACET_TYPE).get(Question.TYPE_QUESTION_RESPONSE));
+            assertEquals(3, catalog.query(new QuizCatalog.Query()).getTotal());
+        }
+
+        @Test
+        @DisplayName("Quizzes deleted with their creator's account disappear from results and counts")
+        void testUserDeleted() throws SQLException {
+            UserDAO.DeletedUser deleted = new UserDAO.DeletedUser(7);
+            deleted.getCreatedQuizIds().add(1);
+            deleted.getCreatedQuizIds().add(2);
+
+            catalog.onUserDeleted(deleted);
+
+            assertEquals(List.of(3, 4), ids(new QuizCatalog.Query().sort(QuizCatalog.SORT_OLDEST)));
+            assertTrue(ids(new QuizCatalog.Query().creator(7)).isEmpty());
+            assertNull(catalog.query(new QuizCatalog.Query()).getFacets()
+                    .get(QuizCatalog.FACET_CREATOR).get("7"));
+        }
+    }
+
+    /**
+     * QuizDAO stand-in backed by a map
+     */
+    private static class StubQuizDAO extends QuizDAO {
+        final Map<Integer, Quiz> quizzes = new LinkedHashMap<>();
+
+        StubQuizDAO() {
+            super(null);
+        }
+
+        Quiz add(int id, String title, int creatorId, boolean practice, boolean onePage, boolean immediate, int day) {
+            Quiz quiz = new Quiz(id, title, "", creatorId, false, onePage, immediate, practice,
+                    new Date(day * 86_400_000L));
+            quizzes.put(id, quiz);
+            return quiz;
+        }
+
+        @Override
+        public List<Quiz> getAllQuizzes() {
+            return new ArrayList<>(quizzes.values());
+        }
+
+        @Override
+        public Quiz findById(int quizId) {
+            return quizzes.get(quizId);
+        }
+    }
+
+    /**
+     * QuestionDAO stand-in backed by a map
+     */
+    private static class StubQuestionDAO extends QuestionDAO {
+        final Map<Integer, Question> questions = new LinkedHashMap<>();
+
+        StubQuestionDAO() {
+            super(null);
+        }
+
+        Question add(int id, int quizId, String type) {
+            Question question = new Question(quizId, type, "Question " + id, "answer", 1);
+            question.setQuestionId(id);
+            questions.put(id, question);
+            return question;
+        }
+
+        @Override
+        public List<Question> getAllQuestions() {
+            return new ArrayList<>(questions.values());
+        }
+
+        @Override
+        public Question findById(int questionId) {
+            return questions.get(questionId);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package service;
+
+import model.Question;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the shared quiz grader
+ * Only the pure grading rules; recording attempts needs the database
+ */
+public class QuizGraderTest {
+
+    @Test
+    @DisplayName("Answers match any comma-separated correct answer, ignoring case and outer whitespace")
+    void testIsCorrect() {
+        Question question = new Question(1, "question_response", "Capital of France?", "Paris, paris city", 1);
+
+        assertTrue(QuizGrader.isCorrect(question, "  PARIS "));
+        assertTrue(QuizGrader.isCorrect(question, "Paris City"));
+        assertFalse(QuizGrader.isCorrect(question, "Lyon"));
+        assertFalse(QuizGrader.isCorrect(question, null));
+    }
+
+    @Test
+    @DisplayName("Missing answers count as wrong and the score is a percentage")
+    void testCountCorrect() {
+        List<Question> questions = Arrays.asList(
+                new Question(1, "question_response", "One?", "1", 1),
+                new Question(1, "question_response", "Two?", "2", 2),
+                new Question(1, "question_response", "Three?", "3", 3),
+                new Question(1, "question_response", "Four?", "4", 4));
+
+        int correct = QuizGrader.countCorrect(questions, Arrays.asList("1", "x", null));
+
+        assertEquals(1, correct);
+        assertEquals(25.0, QuizGrader.score(correct, questions.size()), 0.0001);
+        assertEquals(0.0, QuizGrader.score(0, 0), 0.0001);
+    }
+}
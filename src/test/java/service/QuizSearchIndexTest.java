@@ -0,0 +1,280 @@
+package service;
+
+import dao.QuestionDAO;
+import dao.QuizDAO;
+import dao.UserDAO;
+import model.Question;
+import model.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the in-memory quiz search index
+ * DAOs are replaced by in-memory tables so no database is needed
+ */
+public class QuizSearchIndexTest {
+
+    private StubQuizDAO quizDAO;
+    private StubQuestionDAO questionDAO;
+    private QuizSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        quizDAO = new StubQuizDAO();
+        questionDAO = new StubQuestionDAO();
+        quizDAO.add(1, "European Capitals", "Name the capital cities of Europe");
+        quizDAO.add(2, "World Geography", "Rivers, mountains and countries");
+        quizDAO.add(3, "Programming Basics", "Variables, loops and functions");
+        questionDAO.add(10, 2, "Which river flows through the capital of France?");
+        questionDAO.add(11, 3, "What does a compiler do?");
+        index = new QuizSearchIndex(quizDAO, questionDAO);
+        index.rebuild();
+    }
+
+    @Nested
+    @DisplayName("Query Tests")
+    class QueryTests {
+
+        @Test
+        @DisplayName("Title matches rank above question matches")
+        void testFieldWeights() throws SQLException {
+            assertEquals(List.of(1, 2), index.search("capital ", 10));
+        }
+
+        @Test
+        @DisplayName("Inflected forms match through the stemmer")
+        void testStemming() throws SQLException {
+            assertEquals(List.of(2), index.search("rivers ", 10));
+            assertEquals(List.of(1), index.search("capitals city ", 10).subList(0, 1));
+        }
+
+        @Test
+        @DisplayName("The last word matches as a prefix while typing")
+        void testPrefix() throws SQLException {
+            assertEquals(List.of(3), index.search("progr", 10));
+            assertEquals(List.of(3), index.search("compil", 10));
+            assertTrue(index.search("progr ", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Stop words and empty queries match nothing")
+        void testEmptyQueries() throws SQLException {
+            assertTrue(index.search("the of ", 10).isEmpty());
+            assertTrue(index.search("", 10).isEmpty());
+            assertTrue(index.search("capital", 0).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("New quizzes and questions become searchable immediately")
+        void testCreated() throws SQLException {
+            Quiz quiz = quizDAO.add(4, "Astronomy", "Stars and planets");
+            index.onQuizCreated(quiz);
+            Question question = questionDAO.add(12, 4, "Which planet has the most moons?");
+            index.onQuestionCreated(question);
+
+            assertEquals(List.of(4), index.search("moons ", 10));
+            assertEquals(4, index.getDocumentCount());
+        }
+
+        @Test
+        @DisplayName("Edited and deleted quizzes are re-indexed")
+        void testUpdatedAndDeleted() throws SQLException {
+            quizDAO.add(1, "Opera Houses", "Famous stages");
+            index.onQuizUpdated(1);
+            index.onQuizDeleted(3);
+
+            assertEquals(List.of(2), index.search("capital ", 10));
+            assertEquals(List.of(1), index.search("opera ", 10));
+            assertTrue(index.search("loops ", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Quizzes deleted with their creator's account are removed")
+        void testUserDeleted() throws SQLException {
+            UserDAO.DeletedUser deleted = new UserDAO.DeletedUser(1);
+            deleted.getCreatedQuizIds().add(2);
+            deleted.getCreatedQuizIds().add(3);
+
+            index.onUserDeleted(deleted);
+
+            assertEquals(List.of(1), index.search("capital ", 10));
+            assertTrue(index.search("loops ", 10).isEmpty());
+            assertEquals(1, index.getDocumentCount());
+        }
+
+        @Test
+        @DisplayName("Edited and deleted questions are re-indexed")
+        void testQuestionUpdatedAndDeleted() throws SQLException {
+            questionDAO.add(11, 3, "What does an interpreter do?");
+            index.onQuestionUpdated(11);
+            assertTrue(index.search("compiler ", 10).isEmpty());
+            assertEquals(List.of(3), index.search("interpreter ", 10));
+
+            questionDAO.questions.remove(10);
+            index.onQuestionDeleted(10, 2);
+            assertEquals(List.of(1), index.search("capital ", 10));
+        }
+    }
+
+    @Test
+    @DisplayName("A saved segment reloads to the same results without rebuilding")
+    void testSegmentRoundTrip(@TempDir Path dir) throws SQLException {
+        Path segment = dir.resolve("search.seg");
+        assertTrue(index.save(segment));
+        assertFalse(index.save(segment));
+
+        QuizSearchIndex reloaded = new QuizSearchIndex(quizDAO, questionDAO);
+        quizDAO.scans = 0;
+        reloaded.initialize(segment);
+
+        assertEquals(0, quizDAO.scans);
+        for (String query : List.of("capital ", "river", "progr", "compiler ")) {
+            assertEquals(index.search(query, 10), reloaded.search(query, 10));
+        }
+
+        // Questions survive the reload, so later edits still find their quiz
+        questionDAO.add(10, 2, "Which sea borders Italy?");
+        reloaded.onQuestionUpdated(10);
+        assertEquals(List.of(1), reloaded.search("capital ", 10));
+    }
+
+    @Test
+    @DisplayName("An out-of-date segment is ignored and the index is rebuilt")
+    void testStaleSegment(@TempDir Path dir) throws SQLException {
+        Path segment = dir.resolve("search.seg");
+        index.save(segment);
+        quizDAO.add(4, "Capital Markets", "Stocks");
+
+        QuizSearchIndex reloaded = new QuizSearchIndex(quizDAO, questionDAO);
+        reloaded.initialize(segment);
+
+        assertTrue(reloaded.search("capital ", 10).contains(4));
+    }
+
+    @Test
+    @DisplayName("A segment saved before an edit is ignored even when the counts still match")
+    void testEditedSinceSegment(@TempDir Path dir) throws SQLException {
+        Path segment = dir.resolve("search.seg");
+        index.save(segment);
+        quizDAO.add(3, "Capital Cities", "Variables, loops and functions");
+        questionDAO.add(11, 3, "Which capital hosts the Louvre?");
+
+        QuizSearchIndex reloaded = new QuizSearchIndex(quizDAO, questionDAO);
+        quizDAO.scans = 0;
+        reloaded.initialize(segment);
+
+        assertEquals(1, quizDAO.scans);
+        assertTrue(reloaded.search("capital ", 10).contains(3));
+        assertTrue(reloaded.search("louvre ", 10).contains(3));
+    }
+
+    /**
+     * QuizDAO stand-in backed by a map
+     */
+    private static class StubQuizDAO extends QuizDAO {
+        final Map<Integer, Quiz> quizzes = new LinkedHashMap<>();
+        int scans;
+
+        StubQuizDAO() {
+            super(null);
+        }
+
+        Quiz add(int id, String title, String description) {
+            Quiz quiz = new Quiz(title, description, 1);
+            quiz.setQuizId(id);
+            quizzes.put(id, quiz);
+            return quiz;
+        }
+
+        @Override
+        public List<Quiz> getAllQuizzes() {
+            scans++;
+            return new ArrayList<>(quizzes.values());
+        }
+
+        @Override
+        public Quiz findById(int quizId) {
+            return quizzes.get(quizId);
+        }
+
+        @Override
+        public int getTotalQuizCount() {
+            return quizzes.size();
+        }
+
+        @Override
+        public long getContentChecksum() {
+            long checksum = 0;
+            for (Quiz quiz : quizzes.values()) {
+                checksum ^= Objects.hash(quiz.getQuizId(), quiz.getTitle(), quiz.getDescription());
+            }
+            return checksum;
+        }
+    }
+
+    /**
+     * QuestionDAO stand-in backed by a map
+     */
+    private static class StubQuestionDAO extends QuestionDAO {
+        final Map<Integer, Question> questions = new LinkedHashMap<>();
+
+        StubQuestionDAO() {
+            super(null);
+        }
+
+        Question add(int id, int quizId, String text) {
+            Question question = new Question(quizId, "question_response", text, "answer", 1);
+            question.setQuestionId(id);
+            questions.put(id, question);
+            return question;
+        }
+
+        @Override
+        public List<Question> getAllQuestions() {
+            return new ArrayList<>(questions.values());
+        }
+
+        @Override
+        public List<Question> getQuestionsByQuizId(int quizId) {
+            return questions.values().stream().filter(q -> q.getQuizId() == quizId).collect(Collectors.toList());
+        }
+
+        @Override
+        public Question findById(int questionId) {
+            return questions.get(questionId);
+        }
+
+        @Override
+        public int getTotalQuestionCount() {
+            return questions.size();
+        }
+
+        @Override
+        public long getContentChecksum() {
+            long checksum = 0;
+            for (Question question : questions.values()) {
+                checksum ^= Objects.hash(question.getQuestionId(), question.getQuizId(), question.getQuestionText());
+            }
+            return checksum;
+        }
+    }
+}
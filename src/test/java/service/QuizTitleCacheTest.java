@@ -0,0 +1,107 @@
+package service;
+
+import dao.QuizDAO;
+import model.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the shared quiz title cache
+ * The DAO is replaced by an in-memory table so no database is needed
+ */
+public class QuizTitleCacheTest {
+
+    private StubQuizDAO quizDAO;
+    private QuizTitleCache cache;
+
+    @BeforeEach
+    void setUp() {
+        quizDAO = new StubQuizDAO();
+        quizDAO.put(1, "History");
+        quizDAO.put(2, "Science");
+        quizDAO.put(3, "Sports");
+        cache = new QuizTitleCache(quizDAO);
+    }
+
+    @Test
+    @DisplayName("A title is loaded once and then served from memory")
+    void testSingleLookup() throws SQLException {
+        assertEquals("History", cache.getTitle(1));
+        assertEquals("History", cache.getTitle(1));
+        assertNull(cache.getTitle(99));
+
+        assertEquals(2, quizDAO.lookups);
+    }
+
+    @Test
+    @DisplayName("Misses of a batch are loaded with one query")
+    void testBatchLookup() throws SQLException {
+        cache.getTitle(1);
+
+        Map<Integer, String> titles = cache.getTitles(List.of(1, 2, 3, 2, 99));
+
+        assertEquals(3, titles.size());
+        assertEquals("Sports", titles.get(3));
+        assertEquals(List.of(List.of(2, 3, 99)), quizDAO.batches);
+    }
+
+    @Test
+    @DisplayName("Remembered titles need no lookup; updates and deletes drop them")
+    void testRememberAndInvalidate() throws SQLException {
+        cache.remember(1, "Joined title");
+        assertEquals("Joined title", cache.getTitle(1));
+        assertEquals(0, quizDAO.lookups);
+
+        cache.onQuizUpdated(1);
+        assertEquals("History", cache.getTitle(1));
+
+        cache.onQuizDeleted(1);
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * QuizDAO stand-in backed by a map
+     */
+    private static class StubQuizDAO extends QuizDAO {
+        final Map<Integer, Quiz> table = new HashMap<>();
+        final List<List<Integer>> batches = new ArrayList<>();
+        int lookups;
+
+        StubQuizDAO() {
+            super(null);
+        }
+
+        void put(int quizId, String title) {
+            Quiz quiz = new Quiz(title, "", 1);
+            quiz.setQuizId(quizId);
+            table.put(quizId, quiz);
+        }
+
+        @Override
+        public Quiz findById(int quizId) {
+            lookups++;
+            return table.get(quizId);
+        }
+
+        @Override
+        public List<Quiz> getQuizzesByIds(List<Integer> quizIds) {
+            batches.add(new ArrayList<>(quizIds));
+            List<Quiz> quizzes = new ArrayList<>();
+            for (int quizId : quizIds) {
+                if (table.containsKey(quizId)) {
+                    quizzes.add(table.get(quizId));
+                }
+            }
+            return quizzes;
+        }
+    }
+}
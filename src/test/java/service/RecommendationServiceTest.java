@@ -0,0 +1,192 @@
+package service;
+
+import dao.QuizAttemptDAO;
+import dao.QuizRecommendationDAO;
+import model.QuizRecommendation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for co-attempt quiz recommendations
+ * DAOs are replaced by in-memory tables so no database is needed
+ */
+public class RecommendationServiceTest {
+
+    private StubAttemptDAO attemptDAO;
+    private StubRecommendationDAO recommendationDAO;
+    private RecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        attemptDAO = new StubAttemptDAO();
+        recommendationDAO = new StubRecommendationDAO();
+        service = new RecommendationService(recommendationDAO, ForkJoinPool.commonPool());
+        attemptDAO.add(1, 1, 2, 3);
+        attemptDAO.add(2, 1, 2);
+        attemptDAO.add(3, 1, 2);
+        attemptDAO.add(4, 3, 4);
+        attemptDAO.add(5, 5);
+    }
+
+    @Nested
+    @DisplayName("Recompute Tests")
+    class RecomputeTests {
+
+        @Test
+        @DisplayName("Quizzes taken by the same users are ranked by damped cosine")
+        void testRanking() throws SQLException {
+            service.recompute(attemptDAO);
+
+            assertEquals(List.of(2, 3), service.getSimilarQuizIds(1, 10));
+            assertEquals(List.of(4, 1, 2), service.getSimilarQuizIds(3, 10));
+            assertEquals(List.of(2), service.getSimilarQuizIds(1, 1));
+            assertTrue(service.getSimilarQuizIds(5, 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Results are stored and can be reloaded")
+        void testStoredAndReloaded() throws SQLException {
+            int rows = service.recompute(attemptDAO);
+
+            assertEquals(rows, recommendationDAO.stored.size());
+            QuizRecommendation first = recommendationDAO.stored.stream()
+                    .filter(r -> r.getQuizId() == 1 && r.getRank() == 1).findFirst().orElseThrow();
+            assertEquals(2, first.getSimilarQuizId());
+
+            RecommendationService reloaded = new RecommendationService(recommendationDAO);
+            assertTrue(reloaded.initialize());
+            assertEquals(List.of(2, 3), reloaded.getSimilarQuizIds(1, 10));
+        }
+
+        @Test
+        @DisplayName("Initialize reports when the job has never run")
+        void testInitializeEmpty() throws SQLException {
+            assertFalse(service.initialize());
+        }
+
+        @Test
+        @DisplayName("Users with oversized baskets are skipped")
+        void testOversizedBasket() throws SQLException {
+            int[] huge = new int[CoAttemptMatrix.MAX_BASKET + 1];
+            for (int i = 0; i < huge.length; i++) {
+                huge[i] = 100 + i;
+            }
+            huge[0] = 5;
+            attemptDAO.add(6, huge);
+            service.recompute(attemptDAO);
+
+            assertTrue(service.getSimilarQuizIds(5, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Query Tests")
+    class QueryTests {
+
+        @BeforeEach
+        void recompute() throws SQLException {
+            service.recompute(attemptDAO);
+        }
+
+        @Test
+        @DisplayName("Recommendations sum the rows of every taken quiz and skip taken ones")
+        void testRecommendFor() {
+            assertEquals(List.of(2, 3), service.recommendFor(List.of(1), 5));
+            assertEquals(List.of(3), service.recommendFor(List.of(1, 2), 5));
+            assertEquals(List.of(2, 4), service.recommendFor(List.of(1, 3), 5));
+            assertTrue(service.recommendFor(List.of(99), 5).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Deleted quizzes are dropped from every row")
+        void testQuizDeleted() {
+            service.onQuizDeleted(2);
+
+            assertEquals(List.of(3), service.getSimilarQuizIds(1, 10));
+            assertTrue(service.getSimilarQuizIds(2, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Matrix Tests")
+    class MatrixTests {
+
+        @Test
+        @DisplayName("Rows past the entry cap drop their rarest co-attempts")
+        void testRowPruning() {
+            CoAttemptMatrix matrix = new CoAttemptMatrix(ForkJoinPool.commonPool());
+            int next = 1000;
+            for (int user = 0; user < 40; user++) {
+                int[] basket = new int[CoAttemptMatrix.MAX_BASKET];
+                basket[0] = 1;
+                basket[1] = 2;
+                for (int i = 2; i < basket.length; i++) {
+                    basket[i] = next++;
+                }
+                matrix.addBasket(basket);
+            }
+            List<QuizRecommendation> top = matrix.topK(1);
+
+            QuizRecommendation forQuiz1 = top.stream().filter(r -> r.getQuizId() == 1).findFirst().orElseThrow();
+            assertEquals(2, forQuiz1.getSimilarQuizId());
+            assertTrue(matrix.entryCount() < 40L * CoAttemptMatrix.MAX_BASKET * CoAttemptMatrix.MAX_BASKET);
+        }
+    }
+
+    /**
+     * QuizAttemptDAO stand-in that replays fixed baskets
+     */
+    private static class StubAttemptDAO extends QuizAttemptDAO {
+        final Map<Integer, int[]> baskets = new LinkedHashMap<>();
+
+        StubAttemptDAO() {
+            super(null);
+        }
+
+        void add(int userId, int... quizIds) {
+            baskets.put(userId, quizIds);
+        }
+
+        @Override
+        public int forEachUserQuizzes(BiConsumer<Integer, int[]> consumer) {
+            baskets.forEach(consumer);
+            return baskets.size();
+        }
+    }
+
+    /**
+     * QuizRecommendationDAO stand-in backed by a list
+     */
+    private static class StubRecommendationDAO extends QuizRecommendationDAO {
+        final List<QuizRecommendation> stored = new ArrayList<>();
+
+        StubRecommendationDAO() {
+            super(null);
+        }
+
+        @Override
+        public int replaceAllRecommendations(Collection<QuizRecommendation> recommendations) {
+            stored.clear();
+            stored.addAll(recommendations);
+            return stored.size();
+        }
+
+        @Override
+        public List<QuizRecommendation> getAllRecommendations() {
+            return new ArrayList<>(stored);
+        }
+    }
+}
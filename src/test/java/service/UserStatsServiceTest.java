@@ -0,0 +1,220 @@
+package service;
+
+import dao.UserStatsDAO;
+import model.Quiz;
+import model.QuizAttempt;
+import model.UserStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the cached user statistics rollup
+ * The DAO is replaced by an in-memory table so no database is needed
+ */
+public class UserStatsServiceTest {
+
+    private StubStatsDAO statsDAO;
+    private UserStatsService service;
+
+    @BeforeEach
+    void setUp() {
+        statsDAO = new StubStatsDAO();
+        service = new UserStatsService(statsDAO);
+    }
+
+    @Test
+    @DisplayName("Users without activity get empty stats")
+    void testEmptyStats() throws SQLException {
+        UserStats stats = service.getStats(7);
+
+        assertEquals(7, stats.getUserId());
+        assertEquals(0, stats.getAttempts());
+        assertEquals(-1, stats.getAverageScore(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Attempts update the cached counters and write through")
+    void testAttemptWriteThrough() throws SQLException {
+        service.onAttemptCreated(new QuizAttempt(7, 1, 90, 10, 60, false));
+        service.onAttemptCreated(new QuizAttempt(7, 1, 70, 10, 60, false));
+        service.onAttemptCreated(new QuizAttempt(7, 2, 10, 10, 60, true));
+
+        UserStats stats = service.getStats(7);
+        assertEquals(3, stats.getAttempts());
+        assertEquals(2, stats.getGradedAttempts());
+        assertEquals(80.0, stats.getAverageScore(), 0.0001);
+        assertEquals(1, stats.getBestStreak());
+        assertNotNull(stats.getLastActive());
+        assertEquals(3, statsDAO.table.get(7).getAttempts());
+    }
+
+    @Test
+    @DisplayName("Created quizzes are counted for the creator")
+    void testQuizCreated() throws SQLException {
+        service.onQuizCreated(new Quiz("Title", "Description", 7));
+
+        assertEquals(1, service.getStats(7).getQuizzesCreated());
+    }
+
+    @Test
+    @DisplayName("Stored rows are looked up once and then served from the cache")
+    void testCachedLookup() throws SQLException {
+        statsDAO.table.put(7, new UserStats(7, 4, 4, 320, 1, 2, 1, null));
+
+        service.getStats(7);
+        service.getStats(7);
+
+        assertEquals(4, service.getStats(7).getAttempts());
+        assertEquals(1, statsDAO.lookups);
+    }
+
+    @Test
+    @DisplayName("Initialize seeds an empty table from the source tables")
+    void testInitializeSeeds() throws SQLException {
+        statsDAO.computed.add(new UserStats(7, 2, 2, 100, 1, 1, 0, null));
+
+        service.initialize();
+
+        assertEquals(2, statsDAO.table.get(7).getAttempts());
+    }
+
+    @Test
+    @DisplayName("Edited attempts trigger a rebuild on next use")
+    void testRebuildAfterChange() throws SQLException {
+        service.onAttemptCreated(new QuizAttempt(7, 1, 90, 10, 60, false));
+        statsDAO.computed.add(new UserStats(7, 0, 0, 0, 0, 0, 0, null));
+
+        service.onAttemptsChanged();
+
+        assertEquals(0, service.getStats(7).getAttempts());
+    }
+
+    @Test
+    @DisplayName("Targeted changes recompute only the affected users")
+    void testTargetedRecompute() throws SQLException {
+        service.onAttemptCreated(new QuizAttempt(7, 1, 90, 10, 60, false));
+        service.onAttemptCreated(new QuizAttempt(8, 1, 90, 10, 60, false));
+        statsDAO.recomputed.put(7, new UserStats(7, 5, 5, 400, 1, 1, 0, null));
+
+        service.onAttemptsChanged(Set.of(1), Set.of(7));
+
+        assertEquals(5, service.getStats(7).getAttempts());
+        assertEquals(5, statsDAO.table.get(7).getAttempts());
+        assertEquals(1, service.getStats(8).getAttempts());
+        assertEquals(List.of(Set.of(7)), statsDAO.recomputes);
+    }
+
+    @Test
+    @DisplayName("Deleted quizzes recompute their creator and the users who attempted them")
+    void testQuizDeleted() throws SQLException {
+        service.onQuizCreated(new Quiz("Title", "Description", 7));
+        service.onAttemptCreated(new QuizAttempt(8, 1, 90, 10, 60, false));
+
+        service.onQuizDeleted(1, Set.of(7, 8));
+
+        assertEquals(0, service.getStats(7).getQuizzesCreated());
+        assertEquals(0, service.getStats(8).getAttempts());
+        assertEquals(1, statsDAO.recomputes.size());
+    }
+
+    @Test
+    @DisplayName("A failed recompute leaves the users stale")
+    void testFailedRecomputeStaysStale() throws SQLException {
+        service.onAttemptCreated(new QuizAttempt(7, 1, 90, 10, 60, false));
+        service.onAttemptsChanged(Set.of(1), Set.of(7));
+
+        statsDAO.failNext = true;
+        assertThrows(SQLException.class, () -> service.getStats(7));
+
+        assertEquals(0, service.getStats(7).getAttempts());
+        assertEquals(1, statsDAO.recomputes.size());
+    }
+
+    /**
+     * UserStatsDAO stand-in backed by a map
+     */
+    private static class StubStatsDAO extends UserStatsDAO {
+        final Map<Integer, UserStats> table = new HashMap<>();
+        final List<UserStats> computed = new ArrayList<>();
+        final Map<Integer, UserStats> recomputed = new HashMap<>();
+        final List<Set<Integer>> recomputes = new ArrayList<>();
+        int lookups;
+        boolean failNext;
+
+        StubStatsDAO() {
+            super(null);
+        }
+
+        @Override
+        public boolean saveStats(UserStats stats) {
+            table.put(stats.getUserId(), copy(stats));
+            return true;
+        }
+
+        @Override
+        public int saveAllStats(Collection<UserStats> statsList) {
+            statsList.forEach(this::saveStats);
+            return statsList.size();
+        }
+
+        @Override
+        public UserStats findByUserId(int userId) {
+            lookups++;
+            UserStats stats = table.get(userId);
+            return stats == null ? null : copy(stats);
+        }
+
+        @Override
+        public int getStatsCount() {
+            return table.size();
+        }
+
+        @Override
+        public List<UserStats> computeAllStats() {
+            return computed;
+        }
+
+        @Override
+        public List<UserStats> computeStats(Collection<Integer> userIds) throws SQLException {
+            if (failNext) {
+                failNext = false;
+                throw new SQLException("Connection lost");
+            }
+            recomputes.add(new HashSet<>(userIds));
+            List<UserStats> stats = new ArrayList<>();
+            for (int userId : userIds) {
+                stats.add(recomputed.getOrDefault(userId, new UserStats(userId)));
+            }
+            return stats;
+        }
+
+        @Override
+        public int deleteInactiveStats() {
+            return 0;
+        }
+
+        @Override
+        public int deleteAllStats() {
+            int size = table.size();
+            table.clear();
+            return size;
+        }
+
+        private static UserStats copy(UserStats s) {
+            return new UserStats(s.getUserId(), s.getAttempts(), s.getGradedAttempts(), s.getScoreSum(),
+                    s.getCurrentStreak(), s.getBestStreak(), s.getQuizzesCreated(), s.getLastActive());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package service;
+
+import dao.UserDAO;
+import model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the username autocomplete index
+ * The DAO is replaced by an in-memory list so no database is needed
+ */
+public class UsernameIndexTest {
+
+    private StubUserDAO userDAO;
+    private UsernameIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        userDAO = new StubUserDAO();
+        userDAO.add(1, "alice");
+        userDAO.add(2, "Albert");
+        userDAO.add(3, "alfred");
+        userDAO.add(4, "bob");
+        userDAO.add(5, "alex");
+        userDAO.add(6, "Amy");
+        index = new UsernameIndex(userDAO);
+        index.initialize();
+    }
+
+    private static List<String> names(List<UsernameIndex.Match> matches) {
+        return matches.stream().map(UsernameIndex.Match::username).collect(Collectors.toList());
+    }
+
+    @Nested
+    @DisplayName("Prefix Tests")
+    class PrefixTests {
+
+        @Test
+        @DisplayName("Matches are case-insensitive and alphabetical")
+        void testPrefixRange() {
+            assertEquals(List.of("Albert", "alex", "alfred", "alice"), names(index.complete("AL", 10, Set.of(), 0)));
+            assertEquals(List.of("Albert", "alex", "alfred", "alice", "Amy"), names(index.complete("a", 10, Set.of(), 0)));
+            assertEquals(List.of("alice"), names(index.complete("ali", 10, Set.of(), 0)));
+        }
+
+        @Test
+        @DisplayName("Unknown and empty prefixes return nothing")
+        void testNoMatches() {
+            assertTrue(index.complete("zed", 10, Set.of(), 0).isEmpty());
+            assertTrue(index.complete("  ", 10, Set.of(), 0).isEmpty());
+            assertTrue(index.complete(null, 10, Set.of(), 0).isEmpty());
+        }
+
+        @Test
+        @DisplayName("The limit caps the result and the excluded user is skipped")
+        void testLimitAndExclude() {
+            assertEquals(List.of("Albert", "alex"), names(index.complete("al", 2, Set.of(), 0)));
+            assertEquals(List.of("Albert", "alfred", "alice"), names(index.complete("al", 10, Set.of(), 5)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Friend Ranking Tests")
+    class FriendTests {
+
+        @Test
+        @DisplayName("Friends matching the prefix come first and are flagged")
+        void testFriendsFirst() {
+            List<UsernameIndex.Match> matches = index.complete("al", 10, Set.of(3, 4, 1), 0);
+
+            assertEquals(List.of("alfred", "alice", "Albert", "alex"), names(matches));
+            assertTrue(matches.get(0).friend());
+            assertTrue(matches.get(1).friend());
+            assertFalse(matches.get(2).friend());
+        }
+
+        @Test
+        @DisplayName("Friends fill the limit before other users")
+        void testFriendsWithinLimit() {
+            assertEquals(List.of("alice"), names(index.complete("al", 1, Set.of(1), 0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("New accounts are searchable immediately")
+        void testCreated() {
+            User user = new User("alan", "hash", "alan@example.com");
+            user.setUserId(7);
+            index.onUserCreated(user);
+
+            assertEquals(7, index.size());
+            assertEquals(List.of("alan", "Albert"), names(index.complete("al", 2, Set.of(), 0)));
+        }
+
+        @Test
+        @DisplayName("Renamed accounts move to their new position")
+        void testRenamed() {
+            index.onUsernameChanged(4, "alberto");
+
+            assertEquals(List.of("Albert", "alberto"), names(index.complete("alb", 10, Set.of(), 0)));
+            assertTrue(index.complete("bob", 10, Set.of(), 0).isEmpty());
+            assertEquals(6, index.size());
+        }
+
+        @Test
+        @DisplayName("Deleted accounts disappear")
+        void testDeleted() {
+            index.onUserDeleted(1);
+            index.onUserDeleted(99);
+
+            assertEquals(5, index.size());
+            assertTrue(index.complete("alic", 10, Set.of(), 0).isEmpty());
+        }
+    }
+
+    /**
+     * UserDAO stand-in backed by a list
+     */
+    private static class StubUserDAO extends UserDAO {
+        final List<User> users = new ArrayList<>();
+
+        StubUserDAO() {
+            super(null);
+        }
+
+        void add(int id, String username) {
+            User user = new User(username, "hash", username + "@example.com");
+            user.setUserId(id);
+            users.add(user);
+        }
+
+        @Override
+        public List<User> getAllUsers() {
+            return new ArrayList<>(users);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompressedResponseCache class
+ * Tests keying, the byte budget and LRU eviction
+ */
+class CompressedResponseCacheTest {
+
+    private static CompressedResponseCache.Entry entry(int size) {
+        return new CompressedResponseCache.Entry(new byte[size], "text/html;charset=UTF-8", "gzip");
+    }
+
+    @Test
+    @DisplayName("Test entries are found only under the same URI and ETag")
+    void testKeying() {
+        CompressedResponseCache cache = new CompressedResponseCache(1000, 500);
+        cache.put(CompressedResponseCache.key("/quiz?id=1", "W/\"a\"", "gzip"), entry(10));
+
+        assertNotNull(cache.get(CompressedResponseCache.key("/quiz?id=1", "W/\"a\"", "gzip")));
+        assertNull(cache.get(CompressedResponseCache.key("/quiz?id=1", "W/\"b\"", "gzip")));
+        assertNull(cache.get(CompressedResponseCache.key("/quiz?id=2", "W/\"a\"", "gzip")));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Test the least recently used entries are evicted to stay within budget")
+    void testEviction() {
+        CompressedResponseCache cache = new CompressedResponseCache(250, 200);
+        cache.put("a", entry(100));
+        cache.put("b", entry(100));
+        cache.get("a");
+        cache.put("c", entry(100));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(200, cache.getBytes());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("Test oversized entries are refused and replacements keep the byte count")
+    void testLimits() {
+        CompressedResponseCache cache = new CompressedResponseCache(1000, 200);
+        assertFalse(cache.put("big", entry(201)));
+        assertTrue(cache.put("a", entry(50)));
+        assertTrue(cache.put("a", entry(80)));
+
+        assertEquals(80, cache.getBytes());
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,43 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IdBatches class
+ * Tests chunking of ID sets for IN-list queries
+ */
+class IdBatchesTest {
+
+    @Test
+    @DisplayName("Test large ID sets are split into distinct chunks")
+    void testChunk_SplitsDistinctIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < IdBatches.BATCH_SIZE * 2 + 1; i++) {
+            ids.add(i);
+        }
+        ids.add(0);
+
+        List<List<Integer>> chunks = IdBatches.chunk(ids);
+
+        assertEquals(3, chunks.size());
+        assertEquals(IdBatches.BATCH_SIZE, chunks.get(0).size());
+        assertEquals(List.of(IdBatches.BATCH_SIZE * 2), chunks.get(2));
+        assertTrue(IdBatches.chunk(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test nulls are dropped and placeholders match the chunk size")
+    void testChunk_DropsNulls() {
+        List<List<Integer>> chunks = IdBatches.chunk(Arrays.asList(3, null, 1, 3));
+
+        assertEquals(List.of(List.of(3, 1)), chunks);
+        assertEquals("?,?", IdBatches.placeholders(chunks.get(0).size()));
+    }
+}
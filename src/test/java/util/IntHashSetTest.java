@@ -0,0 +1,97 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IntHashSet class
+ * Tests membership, growth, removal and sorted export
+ */
+class IntHashSetTest {
+
+    @Test
+    @DisplayName("Test add, contains and duplicate adds")
+    void testAddAndContains() {
+        IntHashSet set = new IntHashSet();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(-3));
+        assertTrue(set.contains(5));
+        assertTrue(set.contains(-3));
+        assertFalse(set.contains(4));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    @DisplayName("Test the set grows past its initial capacity")
+    void testGrowth() {
+        IntHashSet set = new IntHashSet(2);
+        for (int i = 0; i < 1000; i++) {
+            set.add(i * 7);
+        }
+        assertEquals(1000, set.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(set.contains(i * 7));
+            assertFalse(set.contains(i * 7 + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Test removal keeps the rest of a probe run reachable")
+    void testRemove() {
+        IntHashSet set = new IntHashSet();
+        assertFalse(set.remove(1));
+        set.add(1);
+        set.add(2);
+        set.add(3);
+        assertTrue(set.remove(2));
+        assertFalse(set.remove(2));
+        assertTrue(set.contains(1));
+        assertTrue(set.contains(3));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    @DisplayName("Test random adds and removes against java.util.HashSet")
+    void testAgainstHashSet() {
+        Random random = new Random(42);
+        IntHashSet set = new IntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int value = 0; value < 500; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+
+    @Test
+    @DisplayName("Test sorted export")
+    void testToSortedArray() {
+        IntHashSet set = new IntHashSet();
+        set.add(30);
+        set.add(-1);
+        set.add(7);
+        assertArrayEquals(new int[] {-1, 7, 30}, set.toSortedArray());
+        assertArrayEquals(new int[0], new IntHashSet().toSortedArray());
+    }
+
+    @Test
+    @DisplayName("Test Integer.MIN_VALUE is rejected")
+    void testReservedValue() {
+        assertThrows(IllegalArgumentException.class, () -> new IntHashSet().add(Integer.MIN_VALUE));
+    }
+}
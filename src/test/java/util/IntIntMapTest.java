@@ -0,0 +1,81 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IntIntMap class
+ * Tests lookups, counters, growth and bulk removal
+ */
+class IntIntMapTest {
+
+    @Test
+    @DisplayName("Test missing keys read as zero")
+    void testGet_MissingKey() {
+        IntIntMap map = new IntIntMap();
+        assertEquals(0, map.get(42));
+        assertFalse(map.containsKey(42));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test put overwrites and addTo accumulates")
+    void testPutAndAddTo() {
+        IntIntMap map = new IntIntMap();
+        map.put(7, 3);
+        map.put(7, 5);
+        assertEquals(5, map.get(7));
+        assertEquals(6, map.addTo(7, 1));
+        assertEquals(-2, map.addTo(-1, -2));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    @DisplayName("Test the map grows past its initial capacity")
+    void testGrowth() {
+        IntIntMap map = new IntIntMap(4);
+        for (int i = 0; i < 10_000; i++) {
+            map.addTo(i, i);
+        }
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, map.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Test removeValuesAtMost keeps only larger values")
+    void testRemoveValuesAtMost() {
+        IntIntMap map = new IntIntMap();
+        for (int i = 1; i <= 10; i++) {
+            map.put(i * 100, i);
+        }
+        assertEquals(4, map.removeValuesAtMost(4));
+        assertEquals(6, map.size());
+        assertFalse(map.containsKey(400));
+        assertEquals(5, map.get(500));
+    }
+
+    @Test
+    @DisplayName("Test forEach visits every entry once")
+    void testForEach() {
+        IntIntMap map = new IntIntMap();
+        map.put(1, 10);
+        map.put(2, 20);
+        map.put(3, 30);
+        Map<Integer, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(Map.of(1, 10, 2, 20, 3, 30), seen);
+    }
+
+    @Test
+    @DisplayName("Test the reserved key is rejected")
+    void testReservedKey() {
+        assertThrows(IllegalArgumentException.class, () -> new IntIntMap().put(Integer.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,29 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestParams class
+ * Tests lenient parsing of request parameters
+ */
+class RequestParamsTest {
+
+    @Test
+    @DisplayName("Test integers are parsed, including negatives")
+    void testParseInt_Valid() {
+        assertEquals(42, RequestParams.parseInt("42"));
+        assertEquals(-7, RequestParams.parseInt("-7"));
+    }
+
+    @Test
+    @DisplayName("Test missing and malformed values are null")
+    void testParseInt_Invalid() {
+        assertNull(RequestParams.parseInt(null));
+        assertNull(RequestParams.parseInt(""));
+        assertNull(RequestParams.parseInt("abc"));
+        assertNull(RequestParams.parseInt("99999999999"));
+    }
+}
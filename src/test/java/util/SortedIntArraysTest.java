@@ -0,0 +1,84 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SortedIntArrays class
+ * Tests merge and galloping intersections and the galloping search itself
+ */
+class SortedIntArraysTest {
+
+    @Test
+    @DisplayName("Test intersection of similar-sized arrays")
+    void testMergeIntersection() {
+        int[] a = {1, 3, 5, 7, 9};
+        int[] b = {2, 3, 4, 7, 10};
+        assertArrayEquals(new int[] {3, 7}, SortedIntArrays.intersect(a, b));
+        assertArrayEquals(new int[] {3, 7}, SortedIntArrays.intersect(b, a));
+        assertEquals(2, SortedIntArrays.intersectionSize(a, b));
+    }
+
+    @Test
+    @DisplayName("Test empty and disjoint inputs")
+    void testEmpty() {
+        assertArrayEquals(new int[0], SortedIntArrays.intersect(new int[0], new int[] {1, 2}));
+        assertArrayEquals(new int[0], SortedIntArrays.intersect(new int[] {1, 2}, new int[] {3, 4}));
+        assertEquals(0, SortedIntArrays.intersectionSize(new int[0], new int[0]));
+    }
+
+    @Test
+    @DisplayName("Test skewed sizes use galloping and agree with the merge")
+    void testGallopingIntersection() {
+        int[] longer = new int[1000];
+        for (int i = 0; i < longer.length; i++) {
+            longer[i] = i * 2;
+        }
+        int[] shorter = {-4, 0, 7, 500, 1998, 5000};
+        assertTrue((long) shorter.length * SortedIntArrays.GALLOP_RATIO < longer.length);
+        assertArrayEquals(new int[] {0, 500, 1998}, SortedIntArrays.intersect(shorter, longer));
+        assertArrayEquals(new int[] {0, 500, 1998}, SortedIntArrays.intersect(longer, shorter));
+        assertEquals(3, SortedIntArrays.intersectionSize(longer, shorter));
+    }
+
+    @Test
+    @DisplayName("Test random arrays against TreeSet.retainAll")
+    void testAgainstTreeSet() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            TreeSet<Integer> first = new TreeSet<>();
+            TreeSet<Integer> second = new TreeSet<>();
+            int firstSize = random.nextInt(round % 2 == 0 ? 10 : 300);
+            int secondSize = random.nextInt(300);
+            while (first.size() < firstSize) {
+                first.add(random.nextInt(1000));
+            }
+            while (second.size() < secondSize) {
+                second.add(random.nextInt(1000));
+            }
+            int[] a = first.stream().mapToInt(Integer::intValue).toArray();
+            int[] b = second.stream().mapToInt(Integer::intValue).toArray();
+            first.retainAll(second);
+            int[] expected = first.stream().mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(expected, SortedIntArrays.intersect(a, b));
+            assertEquals(expected.length, SortedIntArrays.intersectionSize(a, b));
+        }
+    }
+
+    @Test
+    @DisplayName("Test gallop finds the first value at least the target")
+    void testGallop() {
+        int[] values = {1, 3, 5, 7, 9, 11, 13};
+        assertEquals(0, SortedIntArrays.gallop(values, 0, 0));
+        assertEquals(2, SortedIntArrays.gallop(values, 0, 5));
+        assertEquals(3, SortedIntArrays.gallop(values, 1, 6));
+        assertEquals(6, SortedIntArrays.gallop(values, 2, 13));
+        assertEquals(7, SortedIntArrays.gallop(values, 0, 14));
+        assertEquals(4, SortedIntArrays.gallop(values, 4, 2));
+    }
+}
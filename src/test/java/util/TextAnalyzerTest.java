@@ -0,0 +1,63 @@
+package util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TextAnalyzer class
+ * Tests tokenization, stop words and the suffix-stripping stemmer
+ */
+class TextAnalyzerTest {
+
+    // ========================= TOKENIZE TESTS =========================
+
+    @Test
+    @DisplayName("Test tokenize splits on punctuation and lowercases")
+    void testTokenize_PunctuationAndCase() {
+        assertEquals(List.of("what", "s", "the", "capital", "of", "france", "1889"),
+                TextAnalyzer.tokenize("What's the CAPITAL of France? (1889)"));
+    }
+
+    @Test
+    @DisplayName("Test tokenize with null and blank text")
+    void testTokenize_NullAndBlank() {
+        assertTrue(TextAnalyzer.tokenize(null).isEmpty());
+        assertTrue(TextAnalyzer.tokenize("  ?! ").isEmpty());
+    }
+
+    // ========================= STEM TESTS =========================
+
+    @Test
+    @DisplayName("Test stem reduces inflected forms to a shared stem")
+    void testStem_InflectedForms() {
+        assertEquals(TextAnalyzer.stem("capital"), TextAnalyzer.stem("capitals"));
+        assertEquals("study", TextAnalyzer.stem("studies"));
+        assertEquals("run", TextAnalyzer.stem("running"));
+        assertEquals("match", TextAnalyzer.stem("matches"));
+        assertEquals("class", TextAnalyzer.stem("classes"));
+        assertEquals("plant", TextAnalyzer.stem("planted"));
+    }
+
+    @Test
+    @DisplayName("Test stem leaves short words and special endings alone")
+    void testStem_Unchanged() {
+        assertEquals("gas", TextAnalyzer.stem("gas"));
+        assertEquals("virus", TextAnalyzer.stem("virus"));
+        assertEquals("analysis", TextAnalyzer.stem("analysis"));
+        assertEquals("glass", TextAnalyzer.stem("glass"));
+        assertEquals("1990s", TextAnalyzer.stem("1990s"));
+    }
+
+    // ========================= ANALYZE TESTS =========================
+
+    @Test
+    @DisplayName("Test analyze drops stop words and stems the rest")
+    void testAnalyze_StopWordsAndStems() {
+        assertEquals(List.of("capital", "european", "country"),
+                TextAnalyzer.analyze("The capitals of European countries"));
+    }
+}